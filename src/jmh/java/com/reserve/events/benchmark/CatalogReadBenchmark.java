@@ -0,0 +1,114 @@
+package com.reserve.events.benchmark;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.reserve.events.application.CatalogCache;
+import com.reserve.events.application.CateringService;
+import com.reserve.events.controllers.domain.entity.Catering;
+import com.reserve.events.controllers.domain.model.MenuCatering;
+import com.reserve.events.controllers.domain.repository.CateringRepository;
+import com.reserve.events.controllers.domain.repository.ReactiveCateringRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+import org.testcontainers.containers.MongoDBContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compara el listado del catálogo de catering leído con el driver bloqueante y con el reactivo,
+ * con el mismo presupuesto de hilos de petición (el equivalente a server.tomcat.threads.max).
+ *
+ * Cada operación atiende una ráfaga de peticiones concurrentes. En el camino bloqueante cada petición
+ * ocupa un hilo del pool hasta que Mongo responde; en el reactivo el hilo solo se suscribe y queda libre,
+ * como hace Spring MVC con un Mono. La caché de catálogos se desactiva para medir siempre la ida a Mongo.
+ *
+ * Se ejecuta con ./gradlew jmh y necesita Docker para levantar Mongo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(time = 5)
+@Measurement(time = 10)
+public class CatalogReadBenchmark {
+
+    @Param({"8", "32"})
+    private int requestThreads;
+
+    @Param({"256"})
+    private int concurrentRequests;
+
+    @Param({"100"})
+    private int cateringDocuments;
+
+    private MongoDBContainer mongo;
+    private MongoClient blockingClient;
+    private com.mongodb.reactivestreams.client.MongoClient reactiveClient;
+    private ExecutorService requestPool;
+    private CateringService cateringService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mongo = new MongoDBContainer("mongo:7.0");
+        mongo.start();
+
+        blockingClient = MongoClients.create(mongo.getReplicaSetUrl());
+        reactiveClient = com.mongodb.reactivestreams.client.MongoClients.create(mongo.getReplicaSetUrl());
+        MongoTemplate mongoTemplate = new MongoTemplate(blockingClient, "benchmark");
+        ReactiveMongoTemplate reactiveMongoTemplate = new ReactiveMongoTemplate(reactiveClient, "benchmark");
+
+        mongoTemplate.insertAll(IntStream.range(0, cateringDocuments)
+                .mapToObj(i -> Catering.builder()
+                        .menuType(MenuCatering.values()[i % MenuCatering.values().length])
+                        .description("Menú de prueba número " + i + " para el benchmark de lectura")
+                        .costDish(50 + i)
+                        .build())
+                .toList());
+
+        cateringService = new CateringService(
+                new MongoRepositoryFactory(mongoTemplate).getRepository(CateringRepository.class),
+                new ReactiveMongoRepositoryFactory(reactiveMongoTemplate).getRepository(ReactiveCateringRepository.class),
+                null,
+                new CatalogCache(new NoOpCacheManager()));
+        requestPool = Executors.newFixedThreadPool(requestThreads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        requestPool.shutdownNow();
+        blockingClient.close();
+        reactiveClient.close();
+        mongo.stop();
+    }
+
+    @Benchmark
+    public void blocking(Blackhole blackhole) {
+        List<CompletableFuture<Void>> responses = new ArrayList<>(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            responses.add(CompletableFuture.runAsync(() -> blackhole.consume(cateringService.getAllCatering()), requestPool));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+    }
+
+    @Benchmark
+    public void reactive(Blackhole blackhole) {
+        List<CompletableFuture<Void>> responses = new ArrayList<>(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            responses.add(CompletableFuture
+                    .supplyAsync(() -> cateringService.getAllCateringReactive().toFuture(), requestPool)
+                    .thenCompose(response -> response)
+                    .thenAccept(blackhole::consume));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+    }
+}
@@ -0,0 +1,124 @@
+package com.reserve.events.benchmark;
+
+import com.reserve.events.application.RevokedSessions;
+import com.reserve.events.application.UserPrincipalCache;
+import com.reserve.events.controllers.domain.entity.User;
+import com.reserve.events.controllers.domain.model.UserType;
+import com.reserve.events.controllers.domain.repository.UserRepository;
+import com.reserve.events.security.jwt.JwtAuthenticationFilter;
+import com.reserve.events.security.jwt.JwtTokenProvider;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Proxy;
+import java.security.Key;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Mide lo que cuesta autenticar una petición en el filtro JWT: parseo y verificación de la firma,
+ * consulta del rol vigente (ya en caché) y armado del usuario en el contexto de seguridad.
+ *
+ * Compara el filtro con la caché de tokens verificados apagada (claimsCacheMaxEntries = 0, solo el parser
+ * reutilizado) y encendida, y como referencia el costo de armar un parser nuevo en cada verificación,
+ * que es lo que se hacía antes. Los tokens se reparten entre varios usuarios y se repiten, como ocurre
+ * con clientes que envían el mismo token en cada petición hasta que expira.
+ *
+ * Se ejecuta con ./gradlew jmh; no necesita Mongo porque el repositorio de usuarios es un stub en memoria.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(time = 5)
+@Measurement(time = 10)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "clave-de-benchmark-de-al-menos-32-caracteres";
+
+    @Param({"1000"})
+    private int activeTokens;
+
+    private String[] tokens;
+    private Key key;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JwtTokenProvider issuer = new JwtTokenProvider(SECRET, TimeUnit.HOURS.toMillis(1), 0);
+        tokens = IntStream.range(0, activeTokens)
+                .mapToObj(i -> issuer.generateToken(new UsernamePasswordAuthenticationToken(
+                        "cliente" + i + "@correo.com", null, AuthorityUtils.createAuthorityList("ROLE_CLIENTE"))))
+                .toArray(String[]::new);
+        key = Keys.hmacShaKeyFor(SECRET.getBytes());
+    }
+
+    /** Filtro armado como en la aplicación; el parámetro enciende o apaga la caché de tokens */
+    @State(Scope.Benchmark)
+    public static class Filter {
+
+        @Param({"0", "10000"})
+        private long claimsCacheMaxEntries;
+
+        private JwtAuthenticationFilter filter;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            JwtTokenProvider tokenProvider = new JwtTokenProvider(SECRET, TimeUnit.HOURS.toMillis(1), claimsCacheMaxEntries);
+            // Sin sesiones revocadas el filtro de Bloom responde sin consultar el repositorio
+            RevokedSessions revokedSessions = new RevokedSessions(null, null, TimeUnit.HOURS.toMillis(1), 100_000, 0.01, 5000);
+            filter = new JwtAuthenticationFilter(tokenProvider, new UserPrincipalCache(clientRepository(), 100_000, 3600), revokedSessions);
+        }
+    }
+
+    /** Índice del siguiente token, propio de cada hilo del benchmark */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+    }
+
+    @Benchmark
+    public void filterChain(Filter state, Cursor cursor, Blackhole blackhole) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/reserve");
+        request.addHeader("Authorization", "Bearer " + nextToken(cursor));
+        state.filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Object parserBuiltPerCall(Cursor cursor) {
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(nextToken(cursor)).getBody();
+    }
+
+    private String nextToken(Cursor cursor) {
+        String token = tokens[cursor.next];
+        cursor.next = (cursor.next + 1) % tokens.length;
+        return token;
+    }
+
+    // Todos los usuarios existen como clientes; el resto de métodos no se usa desde el filtro
+    private static UserRepository clientRepository() {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findRoleByEmail")) {
+                        return Optional.of(User.builder().email((String) args[0]).type(UserType.CLIENTE).build());
+                    }
+                    if (method.getDeclaringClass() == Object.class) {
+                        return method.getName().equals("toString") ? "UserRepository de benchmark"
+                                : method.getName().equals("hashCode") ? System.identityHashCode(proxy)
+                                : proxy == args[0];
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
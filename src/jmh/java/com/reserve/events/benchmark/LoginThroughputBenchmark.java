@@ -0,0 +1,66 @@
+package com.reserve.events.benchmark;
+
+import com.reserve.events.config.PasswordHashingConfig;
+import com.reserve.events.security.password.BoundedPasswordEncoder;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logins por segundo que atiende el proveedor de autenticación con el hashing de contraseñas de la aplicación
+ * (DelegatingPasswordEncoder con prefijo {bcrypt} dentro del pool acotado de BoundedPasswordEncoder).
+ *
+ * Las peticiones llegan desde más hilos que los del pool, como en una ráfaga de logins; el pool limita
+ * los núcleos que consume el hashing. Con hashingThreads = 1 el resultado es directamente logins por segundo
+ * por núcleo; con más hilos, dividir el resultado entre hashingThreads. Comparar costos de BCrypt ayuda a
+ * elegir security.password.strength.
+ *
+ * Se ejecuta con ./gradlew jmh; no necesita Mongo porque los usuarios están en memoria.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(8)
+public class LoginThroughputBenchmark {
+
+    private static final String EMAIL = "cliente@correo.com";
+    private static final String PASSWORD = "Contraseña-de-benchmark-1";
+
+    @Param({"10", "12"})
+    private int bcryptStrength;
+
+    @Param({"1"})
+    private int hashingThreads;
+
+    private BoundedPasswordEncoder passwordEncoder;
+    private DaoAuthenticationProvider authenticationProvider;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        passwordEncoder = new BoundedPasswordEncoder(PasswordHashingConfig.delegatingEncoder(bcryptStrength), hashingThreads, 1024);
+        InMemoryUserDetailsManager users = new InMemoryUserDetailsManager(User.withUsername(EMAIL)
+                .password(passwordEncoder.encode(PASSWORD))
+                .roles("CLIENTE")
+                .build());
+        authenticationProvider = new DaoAuthenticationProvider(users);
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
+        authenticationProvider.setUserDetailsPasswordService(users);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        passwordEncoder.shutdown();
+    }
+
+    @Benchmark
+    public Authentication login() {
+        return authenticationProvider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(EMAIL, PASSWORD));
+    }
+}
@@ -1,15 +1,19 @@
 package com.reserve.events.application;
 
 import com.reserve.events.controllers.domain.entity.Adittional;
+import com.reserve.events.controllers.domain.model.CatalogType;
 import com.reserve.events.controllers.domain.repository.AdittionalRepository;
+import com.reserve.events.controllers.domain.repository.ReactiveAdittionalRepository;
 import com.reserve.events.controllers.dto.AdittionalRequest;
 import com.reserve.events.controllers.exception.ServiceAlreadyExistsException;
 import com.reserve.events.controllers.exception.ServiceNotFoundException;
 import com.reserve.events.controllers.response.AdittionalResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -22,6 +26,9 @@ import java.util.stream.Collectors;
 public class AdittionalService {
 
     private final AdittionalRepository adittionalRepository;
+    private final ReactiveAdittionalRepository reactiveAdittionalRepository;
+    private final CatalogVersionService catalogVersionService;
+    private final CatalogCache catalogCache;
 
     @Transactional
     public AdittionalResponse createAdittional(AdittionalRequest adittionalRequest) {
@@ -41,12 +48,15 @@ public class AdittionalService {
         // Guardar el servicio
         Adittional savedAdittional = adittionalRepository.save(adittional);
         log.info("Servicio adicional creado con ID: {}", savedAdittional.getId());
+        catalogCache.evict(CatalogCache.ADDITIONAL, CatalogCache.ADDITIONAL_LIST, null);
+        catalogVersionService.bump(CatalogType.ADDITIONAL);
 
         // Convertir a DTO y retornar
         return mapToAdittionalResponse(savedAdittional);
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CatalogCache.ADDITIONAL_LIST, key = "'" + CatalogCache.ALL + "'")
     public List<AdittionalResponse> getAllAdittional() {
         return adittionalRepository.findAll().stream()
                 .map(this::mapToAdittionalResponse)
@@ -55,11 +65,31 @@ public class AdittionalService {
 
     @Transactional(readOnly = true)
     public AdittionalResponse getAdittionalById(String id) {
-        return adittionalRepository.findById(id)
+        return catalogCache.get(CatalogCache.ADDITIONAL, id, Adittional.class, adittionalRepository::findById)
                 .map(this::mapToAdittionalResponse)
                 .orElseThrow(() -> new ServiceNotFoundException("Servicio no encontrado con ID: " + id));
     }
 
+    /**
+     * Igual que getAllAdittional, pero sin bloquear: si el listado no está en caché se lee con el driver reactivo
+     * @return listado completo, compartido en caché con getAllAdittional
+     */
+    public Mono<List<AdittionalResponse>> getAllAdittionalReactive() {
+        return catalogCache.find(CatalogCache.ADDITIONAL_LIST, CatalogCache.ALL,
+                key -> reactiveAdittionalRepository.findAll().map(this::mapToAdittionalResponse).collectList());
+    }
+
+    /**
+     * Igual que getAdittionalById, pero sin bloquear mientras Mongo responde
+     * @param id id del servicio
+     * @return servicio, o error ServiceNotFoundException si no existe
+     */
+    public Mono<AdittionalResponse> getAdittionalByIdReactive(String id) {
+        return catalogCache.find(CatalogCache.ADDITIONAL, id, reactiveAdittionalRepository::findById)
+                .map(this::mapToAdittionalResponse)
+                .switchIfEmpty(Mono.error(() -> new ServiceNotFoundException("Servicio no encontrado con ID: " + id)));
+    }
+
     @Transactional
     public AdittionalResponse updateAdittional(String id, AdittionalRequest adittionalRequest) {
         return adittionalRepository.findById(id)
@@ -79,6 +109,8 @@ public class AdittionalService {
                     // Guardar el servicio actualizado
                     Adittional updatedAdittional = adittionalRepository.save(additional);
                     log.info("Servicio actualizado con ID: {}", id);
+                    catalogCache.evict(CatalogCache.ADDITIONAL, CatalogCache.ADDITIONAL_LIST, id);
+                    catalogVersionService.bump(CatalogType.ADDITIONAL, id);
 
                     return mapToAdittionalResponse(updatedAdittional);})
                 .orElseThrow(() -> new ServiceNotFoundException("No se puede actualizar. Servicio adicional no encontrado con ID: " + id));
@@ -0,0 +1,442 @@
+package com.reserve.events.application;
+
+import com.reserve.events.controllers.domain.entity.*;
+import com.reserve.events.controllers.domain.model.*;
+import com.reserve.events.controllers.domain.repository.BookingProjectionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Escrituras en lote de las reservas nuevas y de sus copias desnormalizadas
+ * (resúmenes en usuario, establecimiento, evento y decoración, y el pago PENDIENTE).
+ * En vez de leer y guardar cada documento completo, cada colección recibe una sola
+ * escritura bulk con un $push por reserva.
+ *
+ * Todas las tareas son idempotentes: el $push solo se aplica si el resumen no está en la lista y el pago
+ * solo se crea si la reserva no tiene uno, así que el despachador del outbox puede reintentarlas sin duplicar.
+ *
+ * Una reserva se puede cancelar o editar mientras sus tareas están pendientes, así que las tareas vuelven a leer
+ * la reserva antes de escribir y revisan su estado después: si cambió en medio, el resumen se pasa a la lista
+ * del estado nuevo y el pago de una reserva cancelada se borra. Un cambio posterior a esa revisión ya encuentra
+ * las copias escritas y las mueve quien hizo el cambio.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingFanOutService {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final BookingProjectionRepository bookingProjectionRepository;
+    private final CatalogVersionService catalogVersionService;
+
+    /**
+     * Inserta las reservas en una sola escritura no ordenada: si una falla, las demás se insertan igual
+     * @param reserves reservas a insertar (con id ya asignado)
+     * @return mensaje de error por posición de las reservas que no se insertaron
+     */
+    public Map<Integer, String> insertReserves(List<Reserve> reserves) {
+        if (reserves.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Reserve.class).insert(reserves).execute();
+            return Map.of();
+        } catch (BulkOperationException ex) {
+            Map<Integer, String> failed = new HashMap<>();
+            ex.getErrors().forEach(error -> failed.put(error.getIndex(), error.getMessage()));
+            log.warn("{} de {} reservas no se pudieron insertar", failed.size(), reserves.size());
+            return failed;
+        }
+    }
+
+    /**
+     * Tareas de propagación que necesita una reserva nueva
+     * @param reserve reserva recién construida
+     * @return outbox con las tareas pendientes, listo para guardarse junto con la reserva
+     */
+    public ReserveOutbox newOutbox(Reserve reserve) {
+        List<FanOutTask> tasks = new ArrayList<>(List.of(FanOutTask.USER, FanOutTask.ESTABLISHMENT, FanOutTask.EVENT));
+        if (reserve.getServices() != null && reserve.getServices().getDecoration() != null) {
+            tasks.add(FanOutTask.DECORATION);
+        }
+        tasks.add(FanOutTask.PAYMENT);
+        return ReserveOutbox.builder()
+                .tasks(tasks)
+                .nextAttemptAt(Instant.now())
+                .build();
+    }
+
+    /**
+     * Aplica una tarea de propagación a un lote de reservas
+     * @param task tarea a aplicar
+     * @param reserves reservas que tienen pendiente la tarea; se vuelven a leer para aplicarla sobre su estado actual
+     */
+    public void apply(FanOutTask task, List<Reserve> reserves) {
+        if (reserves.isEmpty()) {
+            return;
+        }
+        List<Reserve> current = reload(reserves);
+        switch (task) {
+            case USER -> pushBookings(User.class, current, reserve -> reserve.getClient().getId(), this::createReserveSummary);
+            case ESTABLISHMENT -> pushBookings(Establishment.class, current, reserve -> reserve.getEstablishment().getId(), this::createReserveSummaryForEstablishment);
+            case EVENT -> pushBookings(Event.class, current, reserve -> reserve.getEvent().getId(), this::createReserveSummaryForEvent);
+            case DECORATION -> {
+                pushBookings(Decoration.class,
+                        current.stream()
+                                .filter(reserve -> reserve.getServices() != null && reserve.getServices().getDecoration() != null)
+                                .toList(),
+                        reserve -> reserve.getServices().getDecoration().getId(), this::createReserveSummaryForDecoration);
+                // El catálogo público de decoraciones incluye sus reservas
+                catalogVersionService.bump(CatalogType.DECORATION);
+            }
+            case PAYMENT -> insertMissingPayments(current);
+            case COMPLETE -> completeBookings(current);
+        }
+    }
+
+    /**
+     * Mueve el resumen de la reserva a la lista de su estado actual en el usuario, el establecimiento,
+     * el evento y la decoración (si aplica), sin leer esos documentos
+     * @param reserve reserva con el estado nuevo
+     * @param previous estado anterior de la reserva
+     */
+    public void moveBookings(Reserve reserve, StatusReserve previous) {
+        moveBookings(List.of(reserve), previous);
+    }
+
+    /**
+     * Mueve los resúmenes de varias reservas a la lista de su estado actual, con una escritura bulk por colección
+     * @param reserves reservas con el estado nuevo (todas con el mismo estado)
+     * @param previous estado anterior de las reservas
+     */
+    public void moveBookings(List<Reserve> reserves, StatusReserve previous) {
+        if (reserves.isEmpty()) {
+            return;
+        }
+        String from = bookingsListFor(previous);
+        String to = bookingsListFor(reserves.get(0).getStatus());
+        bookingProjectionRepository.moveBookings(User.class, from, to, reserves,
+                reserve -> reserve.getClient().getId(), this::createReserveSummary);
+        bookingProjectionRepository.moveBookings(Establishment.class, from, to, reserves,
+                reserve -> reserve.getEstablishment().getId(), this::createReserveSummaryForEstablishment);
+        bookingProjectionRepository.moveBookings(Event.class, from, to, reserves,
+                reserve -> reserve.getEvent().getId(), this::createReserveSummaryForEvent);
+        bookingProjectionRepository.moveBookings(Decoration.class, from, to, reserves,
+                this::decorationIdOf, this::createReserveSummaryForDecoration);
+        catalogVersionService.bump(CatalogType.DECORATION);
+    }
+
+    /**
+     * Propaga el paso a COMPLETADA: mueve los resúmenes desde scheduledBookings y actualiza el estado
+     * de la reserva en su pago. Ambas escrituras se pueden repetir sin duplicar.
+     * @param reserves reservas que ya están COMPLETADAS
+     */
+    public void completeBookings(List<Reserve> reserves) {
+        List<Reserve> completed = reserves.stream()
+                .filter(reserve -> reserve.getStatus() == StatusReserve.COMPLETADA)
+                .toList();
+        if (completed.isEmpty()) {
+            return;
+        }
+        moveBookings(completed, StatusReserve.PROGRAMADA);
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("reserve.id").in(completed.stream().map(Reserve::getId).toList())),
+                new Update().set("reserve.status", StatusReserve.COMPLETADA),
+                Payment.class);
+    }
+
+    /**
+     * Reemplaza el resumen de una reserva editada en el usuario, el establecimiento, el evento y la decoración.
+     * Si la edición cambió el establecimiento o la decoración, el resumen se quita del anterior y se agrega al nuevo.
+     * @param reserve reserva ya editada
+     * @param previousEstablishmentId establecimiento antes de la edición
+     * @param previousDecorationId decoración antes de la edición (puede ser null)
+     */
+    public void refreshBookings(Reserve reserve, String previousEstablishmentId, String previousDecorationId) {
+        String list = bookingsListFor(reserve.getStatus());
+        bookingProjectionRepository.replaceBooking(User.class, reserve.getClient().getId(), list, reserve.getId(), createReserveSummary(reserve));
+        bookingProjectionRepository.replaceBooking(Event.class, reserve.getEvent().getId(), list, reserve.getId(), createReserveSummaryForEvent(reserve));
+        refreshBooking(Establishment.class, previousEstablishmentId, reserve.getEstablishment().getId(), list, reserve.getId(),
+                createReserveSummaryForEstablishment(reserve));
+
+        String decorationId = decorationIdOf(reserve);
+        refreshBooking(Decoration.class, previousDecorationId, decorationId, list, reserve.getId(),
+                decorationId == null ? null : createReserveSummaryForDecoration(reserve));
+        if (decorationId != null || previousDecorationId != null) {
+            catalogVersionService.bump(CatalogType.DECORATION);
+        }
+    }
+
+    private void refreshBooking(Class<?> owner, String previousId, String currentId, String list, String reserveId, Object summary) {
+        if (Objects.equals(previousId, currentId)) {
+            if (currentId != null) {
+                bookingProjectionRepository.replaceBooking(owner, currentId, list, reserveId, summary);
+            }
+            return;
+        }
+        if (previousId != null) {
+            bookingProjectionRepository.pullBooking(owner, previousId, list, reserveId);
+        }
+        if (currentId != null) {
+            bookingProjectionRepository.pushBooking(owner, currentId, list, reserveId, summary);
+        }
+    }
+
+    private String decorationIdOf(Reserve reserve) {
+        return reserve.getServices() != null && reserve.getServices().getDecoration() != null
+                ? reserve.getServices().getDecoration().getId()
+                : null;
+    }
+
+    // Un $push por reserva, todos en una sola escritura bulk por colección.
+    // El filtro por id del resumen hace que reintentar la tarea no duplique el resumen.
+    private <T> void pushBookings(Class<?> collection, List<Reserve> reserves,
+                                  Function<Reserve, String> targetId, Function<Reserve, T> summary) {
+        if (reserves.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+        for (Reserve reserve : reserves) {
+            String list = bookingsListFor(reserve.getStatus());
+            bulk.updateOne(
+                    Query.query(Criteria.where("id").is(targetId.apply(reserve)).and(list + ".id").ne(reserve.getId())),
+                    new Update().push(list, summary.apply(reserve)));
+        }
+        bulk.execute();
+        log.debug("{} reservas propagadas a {}", reserves.size(), collection.getSimpleName());
+
+        // Las reservas que cambiaron de estado durante el $push dejaron el resumen en la lista anterior
+        Map<String, StatusReserve> statuses = currentStatuses(reserves);
+        for (Reserve reserve : reserves) {
+            StatusReserve status = statuses.get(reserve.getId());
+            if (status == null || status == reserve.getStatus()) {
+                continue;
+            }
+            String ownerId = targetId.apply(reserve);
+            bookingProjectionRepository.pullBooking(collection, ownerId, bookingsListFor(reserve.getStatus()), reserve.getId());
+            reserve.setStatus(status);
+            bookingProjectionRepository.pushBooking(collection, ownerId, bookingsListFor(status), reserve.getId(), summary.apply(reserve));
+        }
+    }
+
+    // Las reservas del lote tal como están ahora, sin el outbox
+    private List<Reserve> reload(List<Reserve> reserves) {
+        Query query = Query.query(Criteria.where("id").in(idsOf(reserves)));
+        query.fields().exclude("outbox");
+        return mongoTemplate.find(query, Reserve.class);
+    }
+
+    private Map<String, StatusReserve> currentStatuses(List<Reserve> reserves) {
+        Query query = Query.query(Criteria.where("id").in(idsOf(reserves)));
+        query.fields().include("status");
+        Map<String, StatusReserve> statuses = new HashMap<>();
+        mongoTemplate.find(query, Reserve.class).forEach(reserve -> statuses.put(reserve.getId(), reserve.getStatus()));
+        return statuses;
+    }
+
+    private List<String> idsOf(List<Reserve> reserves) {
+        return reserves.stream().map(Reserve::getId).toList();
+    }
+
+    // Si la reserva cambió de estado antes de propagarse, el resumen va directo a la lista de ese estado
+    private String bookingsListFor(StatusReserve status) {
+        return switch (status) {
+            case PROGRAMADA -> "scheduledBookings";
+            case COMPLETADA -> "completedBookings";
+            case CANCELADA -> "cancelledBookings";
+        };
+    }
+
+    // Crea el pago PENDIENTE de las reservas programadas que todavía no tienen uno
+    private void insertMissingPayments(List<Reserve> reserves) {
+        List<String> ids = idsOf(reserves);
+        Set<String> withPayment = new HashSet<>(mongoTemplate.findDistinct(
+                Query.query(Criteria.where("reserve.id").in(ids)), "reserve.id", Payment.class, String.class));
+
+        List<Payment> payments = reserves.stream()
+                .filter(reserve -> reserve.getStatus() == StatusReserve.PROGRAMADA && !withPayment.contains(reserve.getId()))
+                .map(this::buildPaymentForReserve)
+                .toList();
+        if (payments.isEmpty()) {
+            return;
+        }
+
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Payment.class).insert(payments).execute();
+        } catch (BulkOperationException ex) {
+            // Otro despachador pudo crear el pago entre la consulta y la inserción: el índice único lo evita
+            if (ex.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                throw ex;
+            }
+        }
+        log.info("{} pagos PENDIENTES creados", payments.size());
+
+        // Una cancelación que ocurrió durante la inserción ya borró los pagos que había: se borra el recién creado
+        List<String> cancelled = currentStatuses(reserves).entrySet().stream()
+                .filter(entry -> entry.getValue() == StatusReserve.CANCELADA)
+                .map(Map.Entry::getKey)
+                .filter(id -> payments.stream().anyMatch(payment -> id.equals(payment.getReserve().getId())))
+                .toList();
+        if (!cancelled.isEmpty()) {
+            mongoTemplate.remove(Query.query(Criteria.where("reserve.id").in(cancelled)), Payment.class);
+            log.info("{} pagos de reservas canceladas durante la propagación borrados", cancelled.size());
+        }
+    }
+
+    private ReserveSummary createReserveSummary(Reserve reserve) {
+        return ReserveSummary.builder()
+                .id(reserve.getId())
+                .status(reserve.getStatus())
+                .event(reserve.getEvent())
+                .establishment(reserve.getEstablishment())
+                .dates(reserve.getDates())
+                .services(reserve.getServices())
+                .build();
+    }
+
+    private Establishment.ReserveSummary createReserveSummaryForEstablishment(Reserve reserve) {
+        return Establishment.ReserveSummary.builder()
+                .id(reserve.getId())
+                .status(reserve.getStatus())
+                .user(reserve.getClient())
+                .event(reserve.getEvent())
+                .dates(reserve.getDates())
+                .services(reserve.getServices())
+                .build();
+    }
+
+    private Event.ReserveSummary createReserveSummaryForEvent(Reserve reserve) {
+        return Event.ReserveSummary.builder()
+                .id(reserve.getId())
+                .status(reserve.getStatus())
+                .user(reserve.getClient())
+                .establishment(reserve.getEstablishment())
+                .dates(reserve.getDates())
+                .services(reserve.getServices())
+                .build();
+    }
+
+    private Decoration.ReserveSummary createReserveSummaryForDecoration(Reserve reserve) {
+        return Decoration.ReserveSummary.builder()
+                .id(reserve.getId())
+                .status(reserve.getStatus())
+                .user(reserve.getClient())
+                .event(reserve.getEvent())
+                .establishment(reserve.getEstablishment())
+                .dates(reserve.getDates())
+                .build();
+    }
+
+    /**
+     * Construye el pago en estado PENDIENTE de una reserva recién creada.
+     */
+    private Payment buildPaymentForReserve(Reserve reserve) {
+        // Crear ReserveInfo para el pago
+        Payment.ReserveInfo reserveInfo = Payment.ReserveInfo.builder()
+                .id(reserve.getId())
+                .status(reserve.getStatus())
+                .build();
+
+        // Convertir servicios de reserva a servicios de pago
+        Payment.CoveredServices coveredServices = mapToCoveredServicesPayment(reserve.getServices());
+
+        // Crear descripción del pago
+        String description = "Pago por reserva de " + reserve.getEvent().getType() +
+                             " en " + reserve.getEstablishment().getName();
+
+        return Payment.builder()
+                .description(description)
+                .status(PaymentStatus.PENDIENTE)
+                .totalCost(reserve.getTotalCost())
+                .client(reserve.getClient())
+                .reserve(reserveInfo)
+                .establishment(reserve.getEstablishment())
+                .coveredServices(coveredServices)
+                .build();
+    }
+
+    /**
+     * Convierte CoveredServicesReserve a Payment.CoveredServices
+     */
+    private Payment.CoveredServices mapToCoveredServicesPayment(CoveredServicesReserve services) {
+        if (services == null) {
+            return Payment.CoveredServices.builder().build();
+        }
+
+        // Mapear entretenimiento
+        List<Payment.EntertainmentInfo> entertainmentList = new ArrayList<>();
+        if (services.getEntertainment() != null) {
+            for (EntertainmentSummary ent : services.getEntertainment()) {
+                entertainmentList.add(Payment.EntertainmentInfo.builder()
+                        .id(ent.getId())
+                        .name(ent.getName())
+                        .hourlyRate(ent.getTotalCost() / ent.getHours()) // Calcular hourlyRate desde totalCost/hours
+                        .hours(ent.getHours())
+                        .totalCost(ent.getTotalCost())
+                        .build());
+            }
+        }
+
+        // Mapear decoración
+        Payment.Decoration decoration = null;
+        if (services.getDecoration() != null) {
+            decoration = Payment.Decoration.builder()
+                    .id(services.getDecoration().getId())
+                    .articles(services.getDecoration().getArticles())
+                    .cost(services.getDecoration().getCost())
+                    .build();
+        }
+
+        // Mapear catering
+        List<Payment.CateringInfo> cateringList = new ArrayList<>();
+        if (services.getCatering() != null) {
+            for (CateringSummary cat : services.getCatering()) {
+                cateringList.add(Payment.CateringInfo.builder()
+                        .id(cat.getId())
+                        .description(cat.getDescription())
+                        .numberDish(cat.getNumberDish())
+                        .costDish(cat.getTotalCost() / cat.getNumberDish()) // Calcular costDish desde totalCost/numberDish
+                        .totalCost(cat.getTotalCost())
+                        .build());
+            }
+        }
+
+        // Mapear servicios adicionales
+        List<Payment.additionalInfo> additionalList = new ArrayList<>();
+        if (services.getAdditionalServices() != null) {
+            for (AdittionalSummary add : services.getAdditionalServices()) {
+                additionalList.add(Payment.additionalInfo.builder()
+                        .id(add.getId())
+                        .name(add.getName())
+                        .cost(add.getTotalCost() / add.getQuantity()) // Calcular cost unitario
+                        .build());
+            }
+        }
+
+        return Payment.CoveredServices.builder()
+                .entertainment(entertainmentList)
+                .decoration(decoration)
+                .catering(cateringList)
+                .additionalServices(additionalList)
+                .build();
+    }
+}
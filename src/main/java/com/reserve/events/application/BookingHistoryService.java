@@ -0,0 +1,281 @@
+package com.reserve.events.application;
+
+import com.reserve.events.controllers.domain.entity.*;
+import com.reserve.events.controllers.domain.model.*;
+import com.reserve.events.controllers.exception.BadRequestException;
+import com.reserve.events.controllers.exception.ForbiddenException;
+import com.reserve.events.controllers.response.BookingArchiveResponse;
+import com.reserve.events.controllers.response.PageResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Historial de reservas por mes. Las reservas completadas y canceladas cuya última fecha es anterior
+ * a la ventana activa se mueven de los documentos de usuario, establecimiento, evento y decoración
+ * a la colección HistorialReservas, y desde ahí se consultan paginadas.
+ *
+ * El archivado toma un bloqueo en Mongo para que un solo nodo lo ejecute a la vez: dos ejecuciones
+ * simultáneas podrían agregar al bucket versiones distintas de la misma reserva, que $addToSet no reconoce
+ * como duplicadas.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingHistoryService {
+
+    private static final String COMPLETED = "completedBookings";
+    private static final String CANCELLED = "cancelledBookings";
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String JOB_NAME = "booking-history-archive";
+
+    private final MongoTemplate mongoTemplate;
+    private final CatalogVersionService catalogVersionService;
+    private final JobLockService jobLockService;
+
+    @Value("${booking.history.embedded-days:90}")
+    private int embeddedDays;
+
+    @Value("${booking.history.cursor-batch-size:200}")
+    private int cursorBatchSize;
+
+    @Value("${booking.history.lock-minutes:60}")
+    private long lockMinutes;
+
+    /**
+     * Archiva cada noche las reservas que salieron de la ventana activa
+     */
+    @Scheduled(cron = "${booking.history.archive-cron:0 30 3 * * *}")
+    public void archiveNightly() {
+        try {
+            BookingArchiveResponse result = archiveInactiveBookings();
+            log.info("Historial de reservas: {} reservas archivadas de {} documentos",
+                    result.getBookingsArchived(), result.getDocumentsUpdated());
+        } catch (RuntimeException ex) {
+            log.error("Error al archivar el historial de reservas: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Mueve al historial las reservas completadas y canceladas cuya última fecha es anterior a la ventana activa.
+     * Los documentos se recorren con un cursor, sin cargarlos todos en memoria, y de cada uno solo se leen
+     * las listas de reservas completadas y canceladas. Se puede repetir sin duplicar: las reservas se agregan
+     * al bucket con $addToSet antes de quitarlas del documento.
+     * @return documentos actualizados y reservas archivadas, o ceros si otro nodo está archivando
+     */
+    public BookingArchiveResponse archiveInactiveBookings() {
+        AtomicLong documents = new AtomicLong();
+        AtomicLong bookings = new AtomicLong();
+
+        String token = jobLockService.tryAcquire(JOB_NAME, Duration.ofMinutes(lockMinutes));
+        if (token == null) {
+            log.info("Historial de reservas: otro nodo está archivando");
+            return BookingArchiveResponse.builder().documentsUpdated(0).bookingsArchived(0).build();
+        }
+        try {
+            LocalDate cutoff = LocalDate.now().minusDays(embeddedDays);
+            archiveOwners(BookingOwnerType.USER, User.class, User::getId,
+                    User::getCompletedBookings, User::getCancelledBookings, this::fromUserSummary, cutoff, documents, bookings);
+            archiveOwners(BookingOwnerType.ESTABLISHMENT, Establishment.class, Establishment::getId,
+                    Establishment::getCompletedBookings, Establishment::getCancelledBookings, this::fromEstablishmentSummary, cutoff, documents, bookings);
+            archiveOwners(BookingOwnerType.EVENT, Event.class, Event::getId,
+                    Event::getCompletedBookings, Event::getCancelledBookings, this::fromEventSummary, cutoff, documents, bookings);
+            archiveOwners(BookingOwnerType.DECORATION, Decoration.class, Decoration::getId,
+                    Decoration::getCompletedBookings, Decoration::getCancelledBookings, this::fromDecorationSummary, cutoff, documents, bookings);
+            catalogVersionService.bump(CatalogType.DECORATION);
+        } finally {
+            jobLockService.release(JOB_NAME, token);
+        }
+
+        return BookingArchiveResponse.builder()
+                .documentsUpdated(documents.get())
+                .bookingsArchived(bookings.get())
+                .build();
+    }
+
+    /**
+     * Historial archivado de un usuario, establecimiento, evento o decoración, del mes más reciente al más antiguo.
+     * Un CLIENTE solo puede consultar su propio historial.
+     * @param currentUser usuario autenticado
+     * @param ownerType tipo de dueño
+     * @param ownerId id del dueño
+     * @param status filtra por estado (null para todos)
+     * @param page número de página (desde 0)
+     * @param size tamaño de página (máximo 100)
+     * @return página de reservas archivadas
+     */
+    public PageResponse<BookingHistoryEntry> getHistory(CurrentUser currentUser, BookingOwnerType ownerType, String ownerId,
+                                                        StatusReserve status, int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("La página debe ser mayor o igual a 0 y el tamaño estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+        checkCanRead(currentUser, ownerType, ownerId);
+
+        List<AggregationOperation> pipeline = new ArrayList<>(List.of(
+                Aggregation.match(Criteria.where("ownerType").is(ownerType).and("ownerId").is(ownerId)),
+                Aggregation.sort(Sort.by(Sort.Direction.DESC, "month")),
+                Aggregation.unwind("bookings")));
+        if (status != null) {
+            pipeline.add(Aggregation.match(Criteria.where("bookings.status").is(status)));
+        }
+
+        List<AggregationOperation> countPipeline = new ArrayList<>(pipeline);
+        countPipeline.add(Aggregation.count().as("total"));
+        Document count = mongoTemplate.aggregate(
+                Aggregation.newAggregation(BookingHistoryBucket.class, countPipeline), Document.class).getUniqueMappedResult();
+        long total = count == null ? 0 : ((Number) count.get("total")).longValue();
+
+        List<BookingHistoryEntry> content = Collections.emptyList();
+        if (total > (long) page * size) {
+            pipeline.add(Aggregation.skip((long) page * size));
+            pipeline.add(Aggregation.limit(size));
+            pipeline.add(Aggregation.replaceRoot("bookings"));
+            content = mongoTemplate.aggregate(
+                    Aggregation.newAggregation(BookingHistoryBucket.class, pipeline), BookingHistoryEntry.class).getMappedResults();
+        }
+
+        return PageResponse.<BookingHistoryEntry>builder()
+                .content(content)
+                .page(page)
+                .size(size)
+                .totalElements(total)
+                .totalPages((int) Math.ceil((double) total / size))
+                .build();
+    }
+
+    private void checkCanRead(CurrentUser currentUser, BookingOwnerType ownerType, String ownerId) {
+        if (currentUser.isAdmin()) {
+            return;
+        }
+        if (ownerType != BookingOwnerType.USER || !ownerId.equals(currentUser.getId())) {
+            throw new ForbiddenException("Como CLIENTE solo puedes consultar tu propio historial de reservas.");
+        }
+    }
+
+    // Recorre con un cursor los documentos que tienen alguna reserva inactiva anterior al corte
+    private <T, S> void archiveOwners(BookingOwnerType ownerType, Class<T> ownerClass, Function<T, String> idOf,
+                                      Function<T, List<S>> completed, Function<T, List<S>> cancelled,
+                                      Function<S, BookingHistoryEntry> toEntry, LocalDate cutoff,
+                                      AtomicLong documents, AtomicLong bookings) {
+        Query query = Query.query(new Criteria().orOperator(
+                        Criteria.where(COMPLETED + ".dates").lt(cutoff),
+                        Criteria.where(CANCELLED + ".dates").lt(cutoff)))
+                .cursorBatchSize(cursorBatchSize);
+        query.fields().include(COMPLETED, CANCELLED);
+
+        try (Stream<T> owners = mongoTemplate.stream(query, ownerClass)) {
+            owners.forEach(owner -> {
+                List<BookingHistoryEntry> entries = Stream.concat(
+                                nullSafe(completed.apply(owner)).stream(), nullSafe(cancelled.apply(owner)).stream())
+                        .map(toEntry)
+                        .filter(entry -> isBefore(entry, cutoff))
+                        .toList();
+                if (!entries.isEmpty()) {
+                    archiveEntries(ownerType, ownerClass, idOf.apply(owner), entries);
+                    documents.incrementAndGet();
+                    bookings.addAndGet(entries.size());
+                }
+            });
+        }
+    }
+
+    // Primero agrega al bucket de cada mes y después quita del documento; si se interrumpe entre ambos pasos
+    // la siguiente ejecución vuelve a agregar (sin duplicar) y termina de quitar
+    private void archiveEntries(BookingOwnerType ownerType, Class<?> ownerClass, String ownerId, List<BookingHistoryEntry> entries) {
+        Map<String, List<BookingHistoryEntry>> byMonth = entries.stream()
+                .collect(Collectors.groupingBy(this::monthOf));
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BookingHistoryBucket.class);
+        byMonth.forEach((month, monthEntries) -> bulk.upsert(
+                Query.query(Criteria.where("ownerType").is(ownerType).and("ownerId").is(ownerId).and("month").is(month)),
+                new Update().addToSet("bookings").each(monthEntries.toArray())));
+        bulk.execute();
+
+        Query archived = Query.query(Criteria.where("id").in(entries.stream().map(BookingHistoryEntry::getId).toList()));
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(ownerId)),
+                new Update().pull(COMPLETED, archived).pull(CANCELLED, archived),
+                ownerClass);
+    }
+
+    private boolean isBefore(BookingHistoryEntry entry, LocalDate cutoff) {
+        return entry.getDates() != null && !entry.getDates().isEmpty()
+                && entry.getDates().stream().allMatch(date -> date.isBefore(cutoff));
+    }
+
+    // El mes del bucket es el de la última fecha de la reserva
+    private String monthOf(BookingHistoryEntry entry) {
+        return YearMonth.from(Collections.max(entry.getDates())).toString();
+    }
+
+    private <S> List<S> nullSafe(List<S> list) {
+        return list == null ? List.of() : list;
+    }
+
+    private BookingHistoryEntry fromUserSummary(ReserveSummary summary) {
+        return BookingHistoryEntry.builder()
+                .id(summary.getId())
+                .status(summary.getStatus())
+                .event(summary.getEvent())
+                .establishment(summary.getEstablishment())
+                .dates(summary.getDates())
+                .services(summary.getServices())
+                .build();
+    }
+
+    private BookingHistoryEntry fromEstablishmentSummary(Establishment.ReserveSummary summary) {
+        return BookingHistoryEntry.builder()
+                .id(summary.getId())
+                .status(summary.getStatus())
+                .user(summary.getUser())
+                .event(summary.getEvent())
+                .dates(summary.getDates())
+                .services(summary.getServices())
+                .build();
+    }
+
+    private BookingHistoryEntry fromEventSummary(Event.ReserveSummary summary) {
+        return BookingHistoryEntry.builder()
+                .id(summary.getId())
+                .status(summary.getStatus())
+                .user(summary.getUser())
+                .establishment(summary.getEstablishment())
+                .dates(summary.getDates())
+                .services(summary.getServices())
+                .build();
+    }
+
+    private BookingHistoryEntry fromDecorationSummary(Decoration.ReserveSummary summary) {
+        return BookingHistoryEntry.builder()
+                .id(summary.getId())
+                .status(summary.getStatus())
+                .user(summary.getUser())
+                .event(summary.getEvent())
+                .establishment(summary.getEstablishment())
+                .dates(summary.getDates())
+                .build();
+    }
+}
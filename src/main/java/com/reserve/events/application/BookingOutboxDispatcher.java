@@ -0,0 +1,159 @@
+package com.reserve.events.application;
+
+import com.reserve.events.controllers.domain.entity.Reserve;
+import com.reserve.events.controllers.domain.model.FanOutTask;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Despachador del outbox de reservas: aplica en segundo plano las tareas de propagación
+ * (resúmenes embebidos y pago PENDIENTE) que cada reserva guarda junto a ella al crearse.
+ *
+ * Las reservas se toman por lotes con un token y un tiempo de vencimiento, así que varios nodos o
+ * ejecuciones simultáneas no aplican el mismo lote a la vez, y si un nodo muere sus reservas vuelven
+ * a estar disponibles al vencer la toma. Las tareas fallidas se reintentan con espera exponencial.
+ */
+@Slf4j
+@Component
+public class BookingOutboxDispatcher {
+
+    private final MongoTemplate mongoTemplate;
+    private final BookingFanOutService bookingFanOutService;
+    private final int batchSize;
+    private final long leaseSeconds;
+    private final long maxBackoffSeconds;
+
+    /**
+     * @param batchSize reservas que se toman por pasada; debe ser mayor que cero
+     * @param leaseSeconds tiempo que un nodo retiene un lote antes de que otro pueda tomarlo
+     * @param maxBackoffSeconds espera máxima entre reintentos de una tarea fallida
+     */
+    public BookingOutboxDispatcher(MongoTemplate mongoTemplate,
+                                   BookingFanOutService bookingFanOutService,
+                                   @Value("${booking.outbox.batch-size:100}") int batchSize,
+                                   @Value("${booking.outbox.lease-seconds:60}") long leaseSeconds,
+                                   @Value("${booking.outbox.max-backoff-seconds:300}") long maxBackoffSeconds) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("booking.outbox.batch-size debe ser mayor que cero");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.bookingFanOutService = bookingFanOutService;
+        this.batchSize = batchSize;
+        this.leaseSeconds = leaseSeconds;
+        this.maxBackoffSeconds = maxBackoffSeconds;
+    }
+
+    /**
+     * Despacha las tareas pendientes sin bloquear la petición que acaba de guardar una reserva
+     */
+    @Async
+    public void dispatchAsync() {
+        dispatchPending();
+    }
+
+    /**
+     * Revisa periódicamente el outbox para aplicar las tareas que quedaron pendientes
+     * (reintentos o reservas de un nodo que se cayó antes de despacharlas)
+     */
+    @Scheduled(fixedDelayString = "${booking.outbox.poll-interval-ms:5000}")
+    public void dispatchPending() {
+        try {
+            int claimed;
+            do {
+                String token = UUID.randomUUID().toString();
+                List<Reserve> batch = claimBatch(token);
+                claimed = batch.size();
+                if (claimed > 0) {
+                    process(batch, token);
+                }
+                // Un lote lleno indica que puede haber más; uno vacío o incompleto termina la pasada
+            } while (claimed > 0 && claimed == batchSize);
+        } catch (RuntimeException ex) {
+            log.error("Error al despachar el outbox de reservas: {}", ex.getMessage());
+        }
+    }
+
+    // Toma un lote de reservas con tareas vencidas: busca los ids, los marca con el token y lee las marcadas
+    private List<Reserve> claimBatch(String token) {
+        Instant now = Instant.now();
+        Criteria available = Criteria.where("outbox.nextAttemptAt").lte(now)
+                .orOperator(Criteria.where("outbox.lockedUntil").exists(false),
+                        Criteria.where("outbox.lockedUntil").lt(now));
+
+        Query candidates = Query.query(available)
+                .with(Sort.by("outbox.nextAttemptAt"))
+                .limit(batchSize);
+        candidates.fields().include("id");
+        List<String> ids = mongoTemplate.find(candidates, Reserve.class).stream().map(Reserve::getId).toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // La condición se repite en la actualización para que dos despachadores no tomen la misma reserva
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("id").in(ids).andOperator(available)),
+                new Update().set("outbox.lockToken", token).set("outbox.lockedUntil", now.plusSeconds(leaseSeconds)),
+                Reserve.class);
+        return mongoTemplate.find(Query.query(Criteria.where("outbox.lockToken").is(token)), Reserve.class);
+    }
+
+    // Aplica cada tipo de tarea a todo el lote; lo que falla se reintenta después sin afectar a lo demás
+    private void process(List<Reserve> batch, String token) {
+        for (FanOutTask task : FanOutTask.values()) {
+            List<Reserve> pending = batch.stream()
+                    .filter(reserve -> reserve.getOutbox().getTasks().contains(task))
+                    .toList();
+            if (pending.isEmpty()) continue;
+
+            try {
+                bookingFanOutService.apply(task, pending);
+                mongoTemplate.updateMulti(
+                        Query.query(Criteria.where("id").in(pending.stream().map(Reserve::getId).toList())
+                                .and("outbox.lockToken").is(token)),
+                        new Update().pull("outbox.tasks", task),
+                        Reserve.class);
+            } catch (RuntimeException ex) {
+                log.warn("No se pudo aplicar la tarea {} a {} reservas: {}", task, pending.size(), ex.getMessage());
+                pending.forEach(reserve -> scheduleRetry(reserve, token, task + ": " + ex.getMessage()));
+            }
+        }
+
+        // Las reservas sin tareas pendientes ya no necesitan outbox
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("outbox.lockToken").is(token).and("outbox.tasks").size(0)),
+                new Update().unset("outbox"),
+                Reserve.class);
+
+        // Las que aún tienen tareas (reintentos) se liberan para la siguiente pasada
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("outbox.lockToken").is(token)),
+                new Update().unset("outbox.lockToken").unset("outbox.lockedUntil"),
+                Reserve.class);
+    }
+
+    // Espera exponencial según los intentos previos, con un máximo
+    private void scheduleRetry(Reserve reserve, String token, String error) {
+        int attempts = reserve.getOutbox().getAttempts() + 1;
+        long backoff = Math.min(maxBackoffSeconds, 1L << Math.min(attempts, 20));
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(reserve.getId()).and("outbox.lockToken").is(token)),
+                new Update()
+                        .set("outbox.attempts", attempts)
+                        .set("outbox.nextAttemptAt", Instant.now().plus(Duration.ofSeconds(backoff)))
+                        .set("outbox.lastError", error),
+                Reserve.class);
+    }
+}
@@ -0,0 +1,127 @@
+package com.reserve.events.application;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.reserve.events.controllers.domain.model.CatalogType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Bus de invalidación entre nodos sobre Redis pub/sub. Cada escritura de un catálogo publica un mensaje
+ * compacto "tipo|id|versión|nodo"; los demás nodos lo reciben y publican un {@link CatalogInvalidatedEvent}
+ * para que la caché en memoria, la caché de disponibilidad y las versiones de ETag descarten su copia.
+ *
+ * La versión es un contador por documento en Redis (INCR), así que es global a todos los nodos: un mensaje
+ * con una versión menor o igual a la última recibida para ese documento llegó tarde o repetido y se ignora.
+ * Si Redis no está disponible no se publica nada y cada nodo ve los cambios al vencer el tiempo de vida
+ * de sus copias en memoria.
+ */
+@Slf4j
+@Service
+public class CacheInvalidationBus {
+
+    public static final String CHANNEL = "catalog-invalidation";
+    private static final String VERSION_KEY_PREFIX = "catalog-invalidation:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String node = UUID.randomUUID().toString().substring(0, 8);
+
+    // Última versión recibida de cada documento
+    private final ConcurrentMap<String, Long> lastSeen;
+
+    public CacheInvalidationBus(ObjectProvider<StringRedisTemplate> redisTemplate,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${catalog.cache.redis.enabled:true}") boolean redisEnabled,
+                                @Value("${catalog.invalidation.version-ttl-minutes:60}") long versionTtlMinutes) {
+        this.redisTemplate = redisEnabled ? redisTemplate.getIfAvailable() : null;
+        this.eventPublisher = eventPublisher;
+        this.lastSeen = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMinutes(versionTtlMinutes))
+                .<String, Long>build()
+                .asMap();
+    }
+
+    /**
+     * Avisa a los demás nodos que un documento de catálogo cambió. Se llama después de guardar
+     * la escritura y de descartar las copias locales; corre en segundo plano para no demorar la petición.
+     * @param type catálogo modificado
+     * @param id id del documento, o null si no hay un documento puntual
+     */
+    @Async
+    public void publish(CatalogType type, String id) {
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            Long version = redisTemplate.opsForValue().increment(VERSION_KEY_PREFIX + key(type, id));
+            redisTemplate.convertAndSend(CHANNEL, new Message(type, id, version == null ? 0 : version, node).encode());
+        } catch (RuntimeException ex) {
+            log.warn("No se pudo publicar la invalidación de {} {}; los demás nodos la verán al vencer su caché: {}",
+                    type, id, ex.getMessage());
+        }
+    }
+
+    /**
+     * Procesa un mensaje recibido del canal. Se ignoran los mensajes propios, los mal formados
+     * y los que no son más nuevos que el último recibido para el mismo documento.
+     * @param payload mensaje "tipo|id|versión|nodo"
+     */
+    public void receive(String payload) {
+        Message message = Message.decode(payload);
+        if (message == null) {
+            log.warn("Mensaje de invalidación inválido: {}", payload);
+            return;
+        }
+        if (node.equals(message.node())) {
+            return;
+        }
+
+        boolean[] newer = {false};
+        lastSeen.compute(key(message.type(), message.id()), (key, seen) -> {
+            if (seen == null || message.version() > seen) {
+                newer[0] = true;
+                return message.version();
+            }
+            return seen;
+        });
+        if (!newer[0]) {
+            log.debug("Invalidación ignorada por versión vieja: {}", payload);
+            return;
+        }
+        eventPublisher.publishEvent(new CatalogInvalidatedEvent(message.type(), message.id()));
+    }
+
+    private static String key(CatalogType type, String id) {
+        return type.name() + ":" + (id == null ? "*" : id);
+    }
+
+    record Message(CatalogType type, String id, long version, String node) {
+
+        String encode() {
+            return type.name() + "|" + (id == null ? "" : id) + "|" + version + "|" + node;
+        }
+
+        static Message decode(String payload) {
+            String[] parts = payload == null ? new String[0] : payload.split("\\|", -1);
+            if (parts.length != 4) {
+                return null;
+            }
+            try {
+                return new Message(CatalogType.valueOf(parts[0]), parts[1].isEmpty() ? null : parts[1],
+                        Long.parseLong(parts[2]), parts[3]);
+            } catch (IllegalArgumentException ex) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.reserve.events.application;
+
+import com.reserve.events.config.TwoLevelCache;
+import com.reserve.events.controllers.domain.model.CatalogType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Búsquedas por id de los catálogos (servicios, eventos y establecimientos) a través de la caché de dos niveles.
+ * Los documentos se guardan sin las listas de reservas embebidas, así que las copias que agrega el despachador
+ * del outbox no los invalidan; cada *Service desaloja sus entradas al crear o editar, y los demás nodos
+ * desalojan su copia en memoria al recibir el aviso del {@link CacheInvalidationBus}.
+ * Los faltantes no se guardan: un id inexistente siempre consulta a Mongo.
+ *
+ * Un valor cargado solo se guarda si no hubo desalojos mientras se cargaba: de lo contrario podría ser
+ * anterior a la escritura que provocó el desalojo y terminaría en Redis, visible para los demás nodos.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogCache {
+
+    public static final String ENTERTAINMENT = "catalog-entertainment";
+    public static final String ENTERTAINMENT_LIST = "catalog-entertainment-list";
+    public static final String CATERING = "catalog-catering";
+    public static final String CATERING_LIST = "catalog-catering-list";
+    public static final String DECORATION = "catalog-decoration";
+    public static final String ADDITIONAL = "catalog-additional";
+    public static final String ADDITIONAL_LIST = "catalog-additional-list";
+    public static final String EVENT = "catalog-event";
+    public static final String EVENT_LIST = "catalog-event-list";
+    public static final String ESTABLISHMENT = "catalog-establishment";
+
+    /** Clave de los listados completos en las cachés *_LIST */
+    public static final String ALL = "all";
+
+    public static final List<String> NAMES = List.of(ENTERTAINMENT, ENTERTAINMENT_LIST, CATERING, CATERING_LIST,
+            DECORATION, ADDITIONAL, ADDITIONAL_LIST, EVENT, EVENT_LIST, ESTABLISHMENT);
+
+    private static final Map<CatalogType, String> BY_TYPE = Map.of(
+            CatalogType.ENTERTAINMENT, ENTERTAINMENT,
+            CatalogType.CATERING, CATERING,
+            CatalogType.DECORATION, DECORATION,
+            CatalogType.ADDITIONAL, ADDITIONAL,
+            CatalogType.EVENT, EVENT,
+            CatalogType.ESTABLISHMENT, ESTABLISHMENT);
+
+    private static final Map<CatalogType, String> LIST_BY_TYPE = Map.of(
+            CatalogType.ENTERTAINMENT, ENTERTAINMENT_LIST,
+            CatalogType.CATERING, CATERING_LIST,
+            CatalogType.ADDITIONAL, ADDITIONAL_LIST,
+            CatalogType.EVENT, EVENT_LIST);
+
+    private final CacheManager cacheManager;
+
+    // Cambia con cada desalojo (local o avisado por otro nodo); permite descartar cargas que compitieron con una escritura
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Busca un documento por id en la caché y, si no está, lo carga y lo guarda
+     * @param cacheName caché del catálogo
+     * @param id id del documento
+     * @param type clase del documento
+     * @param loader consulta a Mongo ante un fallo de caché
+     * @return documento, o vacío si no existe
+     */
+    public <T> Optional<T> get(String cacheName, String id, Class<T> type, Function<String, Optional<T>> loader) {
+        Cache cache = cache(cacheName);
+        T cached = cache.get(id, type);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long evictionsBeforeLoad = evictions.get();
+        Optional<T> loaded = loader.apply(id);
+        loaded.ifPresent(value -> store(cache, id, value, evictionsBeforeLoad));
+        return loaded;
+    }
+
+    /**
+     * Versión no bloqueante de {@link #get}: si el valor no está en caché se carga con una consulta reactiva,
+     * sin ocupar el hilo de la petición mientras Mongo responde. El valor cargado se guarda en la caché desde
+     * otro hilo, porque escribir en Redis bloquea y no debe hacerse en los hilos del driver de Mongo.
+     * @param cacheName caché del catálogo
+     * @param key id del documento, o {@link #ALL} en las cachés de listados
+     * @param loader consulta reactiva ante un fallo de caché
+     * @return valor, o vacío si no existe
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> find(String cacheName, String key, Function<String, Mono<T>> loader) {
+        Cache cache = cache(cacheName);
+        Cache.ValueWrapper cached = cache.get(key);
+        if (cached != null && cached.get() != null) {
+            return Mono.just((T) cached.get());
+        }
+        long evictionsBeforeLoad = evictions.get();
+        return loader.apply(key)
+                .doOnNext(value -> Schedulers.boundedElastic().schedule(() -> store(cache, key, value, evictionsBeforeLoad)));
+    }
+
+    /**
+     * Busca varios documentos por id; los que no están en caché se cargan juntos en una sola consulta
+     * @param cacheName caché del catálogo
+     * @param ids ids a buscar (se ignoran los repetidos)
+     * @param type clase de los documentos
+     * @param loader consulta a Mongo con los ids que faltaron en la caché
+     * @param idOf id de cada documento cargado
+     * @return documentos encontrados indexados por id
+     */
+    public <T> Map<String, T> getAll(String cacheName, Collection<String> ids, Class<T> type,
+                                     Function<List<String>, ? extends Iterable<T>> loader, Function<T, String> idOf) {
+        Cache cache = cache(cacheName);
+        Map<String, T> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String id : new LinkedHashSet<>(ids)) {
+            T cached = cache.get(id, type);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long evictionsBeforeLoad = evictions.get();
+            for (T loaded : loader.apply(missing)) {
+                store(cache, idOf.apply(loaded), loaded, evictionsBeforeLoad);
+                found.put(idOf.apply(loaded), loaded);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Desaloja un documento y el listado completo de su catálogo
+     * @param cacheName caché del catálogo
+     * @param listCacheName caché del listado, o null si el catálogo no tiene
+     * @param id id del documento, o null al crear
+     */
+    public void evict(String cacheName, String listCacheName, String id) {
+        evictions.incrementAndGet();
+        if (id != null) {
+            cache(cacheName).evict(id);
+        }
+        if (listCacheName != null) {
+            cache(listCacheName).evict(ALL);
+        }
+    }
+
+    /**
+     * Cambio hecho en otro nodo: Redis ya fue desalojado allí, así que solo se descarta la copia en memoria.
+     * Sin id se descarta el listado completo del catálogo.
+     */
+    @EventListener
+    public void onCatalogInvalidated(CatalogInvalidatedEvent event) {
+        evictions.incrementAndGet();
+        String cacheName = BY_TYPE.get(event.type());
+        if (event.id() != null && cacheName != null) {
+            evictLocal(cache(cacheName), event.id());
+        }
+        String listCacheName = LIST_BY_TYPE.get(event.type());
+        if (listCacheName != null) {
+            evictLocal(cache(listCacheName), ALL);
+        }
+    }
+
+    // Si hubo un desalojo durante la carga, el valor puede estar desactualizado: se usa para responder pero no se guarda
+    private void store(Cache cache, String key, Object value, long evictionsBeforeLoad) {
+        if (evictions.get() == evictionsBeforeLoad) {
+            cache.put(key, value);
+            // Un desalojo que llegó durante el put se repite para no dejar el valor viejo en la caché
+            if (evictions.get() != evictionsBeforeLoad) {
+                cache.evict(key);
+            }
+        }
+    }
+
+    private static void evictLocal(Cache cache, Object key) {
+        if (cache instanceof TwoLevelCache twoLevelCache) {
+            twoLevelCache.evictLocal(key);
+        } else {
+            cache.evict(key);
+        }
+    }
+
+    private Cache cache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            throw new IllegalStateException("No existe la caché " + name);
+        }
+        return cache;
+    }
+}
@@ -0,0 +1,11 @@
+package com.reserve.events.application;
+
+import com.reserve.events.controllers.domain.model.CatalogType;
+
+/**
+ * Un documento de catálogo cambió en otro nodo; los componentes con copias en memoria las descartan al recibirlo
+ * @param type catálogo modificado
+ * @param id id del documento, o null si cambió el catálogo sin un documento puntual (por ejemplo al crear)
+ */
+public record CatalogInvalidatedEvent(CatalogType type, String id) {
+}
@@ -0,0 +1,97 @@
+package com.reserve.events.application;
+
+import com.reserve.events.controllers.domain.entity.CatalogVersion;
+import com.reserve.events.controllers.domain.model.CatalogType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Versión de cada catálogo público, usada como ETag fuerte de sus respuestas.
+ * Los servicios la incrementan después de cada escritura, así que un If-None-Match igual a la versión
+ * actual se puede responder con 304 sin consultar el catálogo ni serializar el cuerpo.
+ *
+ * La versión es un contador compartido en Mongo: todos los nodos emiten el mismo ETag mientras el catálogo
+ * no cambia, sin importar cuál atienda la petición ni cuánto tiempo pase. Cada nodo guarda una copia del
+ * contador que descarta al recibir un aviso del {@link CacheInvalidationBus} y que, si el aviso no llega,
+ * vuelve a leer después de {@code catalog.version.refresh-millis}.
+ */
+@Slf4j
+@Service
+public class CatalogVersionService {
+
+    private final Map<CatalogType, LocalVersion> versions = new ConcurrentHashMap<>();
+    private final MongoTemplate mongoTemplate;
+    private final CacheInvalidationBus invalidationBus;
+    private final long refreshMillis;
+
+    public CatalogVersionService(MongoTemplate mongoTemplate,
+                                 CacheInvalidationBus invalidationBus,
+                                 @Value("${catalog.version.refresh-millis:1000}") long refreshMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.invalidationBus = invalidationBus;
+        this.refreshMillis = refreshMillis;
+    }
+
+    /**
+     * ETag de la versión actual del catálogo. Se pide antes de consultar los datos: si una escritura ocurre
+     * en medio, la versión sube al terminar y la siguiente petición con esta etiqueta recibe 200.
+     * @param catalog catálogo
+     * @return ETag fuerte, con comillas
+     */
+    public String etag(CatalogType catalog) {
+        long now = System.currentTimeMillis();
+        LocalVersion version = versions.compute(catalog, (key, current) ->
+                current == null || now - current.readAt() >= refreshMillis ? new LocalVersion(read(key), now) : current);
+        return "\"" + catalog.name().toLowerCase() + "-" + version.number() + "\"";
+    }
+
+    /**
+     * Incrementa la versión del catálogo y avisa a los demás nodos; se llama después de guardar la escritura
+     * @param catalog catálogo modificado
+     */
+    public void bump(CatalogType catalog) {
+        bump(catalog, null);
+    }
+
+    /**
+     * Incrementa la versión del catálogo y avisa a los demás nodos qué documento cambió,
+     * para que descarten sus copias en memoria
+     * @param catalog catálogo modificado
+     * @param id id del documento modificado
+     */
+    public void bump(CatalogType catalog, String id) {
+        CatalogVersion version = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(catalog.name())),
+                new Update().inc("version", 1),
+                FindAndModifyOptions.options().returnNew(true).upsert(true),
+                CatalogVersion.class);
+        long number = version == null ? read(catalog) : version.getVersion();
+        versions.put(catalog, new LocalVersion(number, System.currentTimeMillis()));
+        log.debug("Catálogo {} modificado (versión {})", catalog, number);
+        invalidationBus.publish(catalog, id);
+    }
+
+    // Un cambio hecho en otro nodo: descarta la copia local para leer el contador en la siguiente petición
+    @EventListener
+    public void onCatalogInvalidated(CatalogInvalidatedEvent event) {
+        versions.remove(event.type());
+    }
+
+    private long read(CatalogType catalog) {
+        CatalogVersion version = mongoTemplate.findById(catalog.name(), CatalogVersion.class);
+        return version == null ? 0 : version.getVersion();
+    }
+
+    private record LocalVersion(long number, long readAt) {
+    }
+}
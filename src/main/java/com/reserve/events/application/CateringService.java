@@ -1,14 +1,18 @@
 package com.reserve.events.application;
 
 import com.reserve.events.controllers.domain.entity.Catering;
+import com.reserve.events.controllers.domain.model.CatalogType;
 import com.reserve.events.controllers.domain.repository.CateringRepository;
+import com.reserve.events.controllers.domain.repository.ReactiveCateringRepository;
 import com.reserve.events.controllers.dto.CateringRequest;
 import com.reserve.events.controllers.exception.ServiceNotFoundException;
 import com.reserve.events.controllers.response.CateringResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -21,6 +25,9 @@ import java.util.stream.Collectors;
 public class CateringService {
 
     private final CateringRepository cateringRepository;
+    private final ReactiveCateringRepository reactiveCateringRepository;
+    private final CatalogVersionService catalogVersionService;
+    private final CatalogCache catalogCache;
 
     @Transactional
     public CateringResponse createCatering(CateringRequest request){
@@ -35,12 +42,15 @@ public class CateringService {
         // Guardar el servicio
         Catering savedCatering = cateringRepository.save(catering);
         log.info("Servicio de catering creado con ID: {}", savedCatering.getId());
+        catalogCache.evict(CatalogCache.CATERING, CatalogCache.CATERING_LIST, null);
+        catalogVersionService.bump(CatalogType.CATERING);
 
         // Convertir a DTO y retornar
         return mapToCateringResponse(savedCatering);
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CatalogCache.CATERING_LIST, key = "'" + CatalogCache.ALL + "'")
     public List<CateringResponse> getAllCatering() {
         return cateringRepository.findAll().stream()
                 .map(this::mapToCateringResponse)
@@ -49,11 +59,31 @@ public class CateringService {
 
     @Transactional(readOnly = true)
     public CateringResponse getCateringById(String id) {
-        return cateringRepository.findById(id)
+        return catalogCache.get(CatalogCache.CATERING, id, Catering.class, cateringRepository::findById)
                 .map(this::mapToCateringResponse)
                 .orElseThrow(() -> new ServiceNotFoundException("Servicio no encontrado con ID: " + id));
     }
 
+    /**
+     * Igual que getAllCatering, pero sin bloquear: si el listado no está en caché se lee con el driver reactivo
+     * @return listado completo, compartido en caché con getAllCatering
+     */
+    public Mono<List<CateringResponse>> getAllCateringReactive() {
+        return catalogCache.find(CatalogCache.CATERING_LIST, CatalogCache.ALL,
+                key -> reactiveCateringRepository.findAll().map(this::mapToCateringResponse).collectList());
+    }
+
+    /**
+     * Igual que getCateringById, pero sin bloquear mientras Mongo responde
+     * @param id id del servicio
+     * @return servicio, o error ServiceNotFoundException si no existe
+     */
+    public Mono<CateringResponse> getCateringByIdReactive(String id) {
+        return catalogCache.find(CatalogCache.CATERING, id, reactiveCateringRepository::findById)
+                .map(this::mapToCateringResponse)
+                .switchIfEmpty(Mono.error(() -> new ServiceNotFoundException("Servicio no encontrado con ID: " + id)));
+    }
+
     @Transactional
     public CateringResponse updateCatering(String id, CateringRequest cateringRequest) {
         return cateringRepository.findById(id)
@@ -66,6 +96,8 @@ public class CateringService {
                     // Guardar el libro actualizado
                     Catering updatedCatering = cateringRepository.save(catering);
                     log.info("Servicio actualizado con ID: {}", id);
+                    catalogCache.evict(CatalogCache.CATERING, CatalogCache.CATERING_LIST, id);
+                    catalogVersionService.bump(CatalogType.CATERING, id);
 
                     return mapToCateringResponse(updatedCatering);
                 })
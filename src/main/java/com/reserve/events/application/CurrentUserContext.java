@@ -0,0 +1,58 @@
+package com.reserve.events.application;
+
+import com.reserve.events.controllers.domain.entity.User;
+import com.reserve.events.controllers.domain.model.CurrentUser;
+import com.reserve.events.controllers.domain.repository.UserRepository;
+import com.reserve.events.controllers.exception.UserNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * Usuario autenticado de la petición actual.
+ * El filtro JWT solo deja en el contexto de seguridad el email y los roles; la primera vez que un
+ * controlador o servicio necesita el id, el nombre o el teléfono se leen de Mongo (sin reservas ni pagos)
+ * y el resultado se reutiliza durante el resto de la petición.
+ */
+@Component
+@RequestScope
+@RequiredArgsConstructor
+public class CurrentUserContext {
+
+    private final UserRepository userRepository;
+
+    private CurrentUser currentUser;
+
+    /**
+     * @return usuario autenticado de la petición
+     * @throws AuthenticationCredentialsNotFoundException si la petición no está autenticada
+     * @throws UserNotFoundException si el usuario del token ya no existe
+     */
+    public CurrentUser get() {
+        if (currentUser == null) {
+            currentUser = load();
+        }
+        return currentUser;
+    }
+
+    private CurrentUser load() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new AuthenticationCredentialsNotFoundException("La petición no tiene un usuario autenticado.");
+        }
+
+        String email = authentication.getName();
+        User user = userRepository.findPrincipalByEmail(email)
+                .orElseThrow(() -> new UserNotFoundException("Usuario no encontrado con email: " + email));
+        return CurrentUser.builder()
+                .id(user.getId())
+                .fullName(user.getFullName())
+                .email(user.getEmail())
+                .phone(user.getPhone())
+                .type(user.getType())
+                .build();
+    }
+}
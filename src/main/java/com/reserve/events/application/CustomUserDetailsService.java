@@ -1,8 +1,15 @@
 package com.reserve.events.application;
 
 import com.reserve.events.controllers.domain.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -12,13 +19,16 @@ import java.util.Collections;
 import java.util.List;
 
 
+@Slf4j
 @Service
-public class CustomUserDetailsService implements UserDetailsService{
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final MongoTemplate mongoTemplate;
 
-    public CustomUserDetailsService(UserRepository userRepository){
+    public CustomUserDetailsService(UserRepository userRepository, MongoTemplate mongoTemplate){
         this.userRepository = userRepository;
+        this.mongoTemplate = mongoTemplate;
     }
 
     @Override
@@ -42,6 +52,16 @@ public class CustomUserDetailsService implements UserDetailsService{
         );
     }
 
-
-
+    /**
+     * Guarda el hash rehecho tras un login exitoso cuando el anterior usaba un costo o algoritmo viejo.
+     * Solo se escribe la contraseña, sin leer ni reescribir el resto del usuario.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("email").is(user.getUsername())),
+                new Update().set("Password", newPassword),
+                com.reserve.events.controllers.domain.entity.User.class);
+        log.info("Hash de contraseña actualizado al costo vigente para {}", user.getUsername());
+        return User.withUserDetails(user).password(newPassword).build();
+    }
 }
@@ -1,7 +1,9 @@
 package com.reserve.events.application;
 
 import com.reserve.events.controllers.domain.entity.Decoration;
+import com.reserve.events.controllers.domain.model.CatalogType;
 import com.reserve.events.controllers.domain.repository.DecorationRepository;
+import com.reserve.events.controllers.domain.repository.ReactiveDecorationRepository;
 import com.reserve.events.controllers.dto.DecorationRequest;
 import com.reserve.events.controllers.exception.ForbiddenException;
 import com.reserve.events.controllers.exception.ServiceNotFoundException;
@@ -10,6 +12,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -23,6 +26,9 @@ import java.util.stream.Collectors;
 public class DecorationService {
 
     private final DecorationRepository decorationRepository;
+    private final ReactiveDecorationRepository reactiveDecorationRepository;
+    private final CatalogVersionService catalogVersionService;
+    private final CatalogCache catalogCache;
 
     @Transactional
     public DecorationResponse createDecoration(DecorationRequest decorationRequest) {
@@ -36,6 +42,7 @@ public class DecorationService {
 
         Decoration savedDecoration = decorationRepository.save(decoration);
         log.info("Servicio de decoración creado con ID: {}", savedDecoration.getId());
+        catalogVersionService.bump(CatalogType.DECORATION);
 
         // Convertir a DTO y retornar
         return mapToDecorationResponse(savedDecoration);
@@ -55,6 +62,28 @@ public class DecorationService {
                 .orElseThrow(() -> new ServiceNotFoundException("Servicio no encontrado con ID: " + id));
     }
 
+    /**
+     * Igual que getAllDecoration, pero sin bloquear mientras Mongo responde.
+     * Las decoraciones incluyen sus reservas, que cambian con cada reserva, así que no pasan por la caché
+     * @return decoraciones con sus listas de reservas
+     */
+    public Mono<List<DecorationResponse>> getAllDecorationReactive() {
+        return reactiveDecorationRepository.findAll()
+                .map(this::mapToDecorationResponse)
+                .collectList();
+    }
+
+    /**
+     * Igual que getDecorationById, pero sin bloquear mientras Mongo responde
+     * @param id id de la decoración
+     * @return decoración, o error ServiceNotFoundException si no existe
+     */
+    public Mono<DecorationResponse> getDecorationByIdReactive(String id) {
+        return reactiveDecorationRepository.findById(id)
+                .map(this::mapToDecorationResponse)
+                .switchIfEmpty(Mono.error(() -> new ServiceNotFoundException("Servicio no encontrado con ID: " + id)));
+    }
+
     @Transactional
     public DecorationResponse updateDecoration(String id, DecorationRequest decorationRequest){
         return decorationRepository.findById(id)
@@ -72,6 +101,8 @@ public class DecorationService {
                     // Guardar el libro actualizado
                     Decoration updatedDecoration = decorationRepository.save(decoration);
                     log.info("Servicio de decoración actualizado con ID: {}", id);
+                    catalogCache.evict(CatalogCache.DECORATION, null, id);
+                    catalogVersionService.bump(CatalogType.DECORATION, id);
 
                     return mapToDecorationResponse(updatedDecoration);
                 })
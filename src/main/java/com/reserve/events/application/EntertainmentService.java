@@ -1,15 +1,19 @@
 package com.reserve.events.application;
 
 import com.reserve.events.controllers.domain.entity.Entertainment;
+import com.reserve.events.controllers.domain.model.CatalogType;
 import com.reserve.events.controllers.domain.repository.EntertainmentRepository;
+import com.reserve.events.controllers.domain.repository.ReactiveEntertainmentRepository;
 import com.reserve.events.controllers.dto.EntertainmentRequest;
 import com.reserve.events.controllers.exception.ServiceAlreadyExistsException;
 import com.reserve.events.controllers.exception.ServiceNotFoundException;
 import com.reserve.events.controllers.response.EntertainmentResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -22,6 +26,9 @@ import java.util.stream.Collectors;
 public class EntertainmentService {
 
     private final EntertainmentRepository entertainmentRepository;
+    private final ReactiveEntertainmentRepository reactiveEntertainmentRepository;
+    private final CatalogVersionService catalogVersionService;
+    private final CatalogCache catalogCache;
 
     @Transactional
     public EntertainmentResponse createEntertainment(EntertainmentRequest request){
@@ -42,12 +49,15 @@ public class EntertainmentService {
         // Guardar el servicio
         Entertainment savedEntertainment = entertainmentRepository.save(entertainment);
         log.info("Servicio de entretenimiento creado con ID: {}", savedEntertainment.getId());
+        catalogCache.evict(CatalogCache.ENTERTAINMENT, CatalogCache.ENTERTAINMENT_LIST, null);
+        catalogVersionService.bump(CatalogType.ENTERTAINMENT);
 
         // Convertir a DTO y retornar
         return mapToEntertainmentResponse(savedEntertainment);
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CatalogCache.ENTERTAINMENT_LIST, key = "'" + CatalogCache.ALL + "'")
     public List<EntertainmentResponse> getAllEntertainment() {
         return entertainmentRepository.findAll().stream()
                 .map(this::mapToEntertainmentResponse)
@@ -56,11 +66,31 @@ public class EntertainmentService {
 
     @Transactional(readOnly = true)
     public EntertainmentResponse getEntertainmentById(String id) {
-        return entertainmentRepository.findById(id)
+        return catalogCache.get(CatalogCache.ENTERTAINMENT, id, Entertainment.class, entertainmentRepository::findById)
                 .map(this::mapToEntertainmentResponse)
                 .orElseThrow(() -> new ServiceNotFoundException("Servicio no encontrado con ID: " + id));
     }
 
+    /**
+     * Igual que getAllEntertainment, pero sin bloquear: si el listado no está en caché se lee con el driver reactivo
+     * @return listado completo, compartido en caché con getAllEntertainment
+     */
+    public Mono<List<EntertainmentResponse>> getAllEntertainmentReactive() {
+        return catalogCache.find(CatalogCache.ENTERTAINMENT_LIST, CatalogCache.ALL,
+                key -> reactiveEntertainmentRepository.findAll().map(this::mapToEntertainmentResponse).collectList());
+    }
+
+    /**
+     * Igual que getEntertainmentById, pero sin bloquear mientras Mongo responde
+     * @param id id del servicio
+     * @return servicio, o error ServiceNotFoundException si no existe
+     */
+    public Mono<EntertainmentResponse> getEntertainmentByIdReactive(String id) {
+        return catalogCache.find(CatalogCache.ENTERTAINMENT, id, reactiveEntertainmentRepository::findById)
+                .map(this::mapToEntertainmentResponse)
+                .switchIfEmpty(Mono.error(() -> new ServiceNotFoundException("Servicio no encontrado con ID: " + id)));
+    }
+
     @Transactional
     public EntertainmentResponse updateEntertainment(String id, EntertainmentRequest entertainmentRequest) {
         return entertainmentRepository.findById(id)
@@ -81,6 +111,8 @@ public class EntertainmentService {
                     // Guardar el libro actualizado
                     Entertainment updatedEntertainment = entertainmentRepository.save(entertainment);
                     log.info("Servicio actualizado con ID: {}", id);
+                    catalogCache.evict(CatalogCache.ENTERTAINMENT, CatalogCache.ENTERTAINMENT_LIST, id);
+                    catalogVersionService.bump(CatalogType.ENTERTAINMENT, id);
 
                     return mapToEntertainmentResponse(updatedEntertainment);
                 })
@@ -0,0 +1,258 @@
+package com.reserve.events.application;
+
+import com.reserve.events.controllers.domain.entity.EstablishmentOccupancy;
+import com.reserve.events.controllers.domain.model.CatalogType;
+import com.reserve.events.controllers.domain.repository.EstablishmentOccupancyRepository;
+import com.reserve.events.controllers.domain.repository.EstablishmentRepository;
+import com.reserve.events.controllers.domain.repository.ReactiveEstablishmentOccupancyRepository;
+import com.reserve.events.controllers.domain.repository.ReactiveEstablishmentRepository;
+import com.reserve.events.controllers.exception.EstablishmentNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché en memoria de la ocupación futura de cada establecimiento activo.
+ * Cada establecimiento se guarda como un bitset indexado por día (epoch day), de modo que
+ * consultar la disponibilidad es una operación de bits y no una lectura a Mongo.
+ *
+ * Cada reserva o liberación de días se avisa a los demás nodos por el {@link CacheInvalidationBus}, que
+ * descartan su entrada del establecimiento; si el aviso no llega, la entrada se recarga al vencer su tiempo
+ * de vida. Por eso la caché solo es orientativa: un día libre en caché lo decide el reclamo atómico de fechas,
+ * y un día ocupado en caché se confirma recargando la entrada desde el índice de ocupación antes de rechazar,
+ * para que una fecha liberada en otro nodo no se rechace aquí hasta que venza la entrada.
+ */
+@Slf4j
+@Component
+public class EstablishmentAvailabilityCache {
+
+    private final EstablishmentRepository establishmentRepository;
+    private final EstablishmentOccupancyRepository occupancyRepository;
+    private final ReactiveEstablishmentRepository reactiveEstablishmentRepository;
+    private final ReactiveEstablishmentOccupancyRepository reactiveOccupancyRepository;
+    private final CacheInvalidationBus invalidationBus;
+    private final long ttlMillis;
+    private final Map<String, Availability> entries;
+
+    // Cambia con cada modificación incremental; permite descartar cargas que compitieron con una reserva
+    private final AtomicLong modifications = new AtomicLong();
+
+    public EstablishmentAvailabilityCache(EstablishmentRepository establishmentRepository,
+                                          EstablishmentOccupancyRepository occupancyRepository,
+                                          ReactiveEstablishmentRepository reactiveEstablishmentRepository,
+                                          ReactiveEstablishmentOccupancyRepository reactiveOccupancyRepository,
+                                          CacheInvalidationBus invalidationBus,
+                                          @Value("${availability.cache.max-establishments:1000}") int maxEstablishments,
+                                          @Value("${availability.cache.ttl-minutes:10}") long ttlMinutes) {
+        this.establishmentRepository = establishmentRepository;
+        this.occupancyRepository = occupancyRepository;
+        this.reactiveEstablishmentRepository = reactiveEstablishmentRepository;
+        this.reactiveOccupancyRepository = reactiveOccupancyRepository;
+        this.invalidationBus = invalidationBus;
+        this.ttlMillis = ttlMinutes * 60_000;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Availability> eldest) {
+                return size() > maxEstablishments;
+            }
+        });
+    }
+
+    /**
+     * Fechas ocupadas del establecimiento desde una fecha (inclusive), ordenadas
+     * @throws EstablishmentNotFoundException si el establecimiento no existe o está inactivo
+     */
+    public List<LocalDate> getOccupiedDates(String establishmentId, LocalDate from) {
+        return getOrLoad(establishmentId).occupiedFrom(from);
+    }
+
+    /**
+     * Igual que getOccupiedDates, pero si el establecimiento no está en caché se carga con el driver reactivo,
+     * sin ocupar el hilo de la petición mientras Mongo responde
+     * @return fechas ocupadas, o error EstablishmentNotFoundException si el establecimiento no existe o está inactivo
+     */
+    public Mono<List<LocalDate>> findOccupiedDates(String establishmentId, LocalDate from) {
+        Availability cached = fresh(establishmentId);
+        if (cached != null) {
+            return Mono.just(cached.occupiedFrom(from));
+        }
+
+        long modificationsBeforeLoad = modifications.get();
+        LocalDate today = LocalDate.now();
+        return reactiveEstablishmentRepository.existsByIdAndActiveTrue(establishmentId)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.fromRunnable(() -> entries.remove(establishmentId))
+                        .then(Mono.error(() -> new EstablishmentNotFoundException("Establecimiento no encontrado o inactivo"))))
+                .flatMap(active -> reactiveOccupancyRepository.findOccupiedDatesFrom(establishmentId, today)
+                        .map(EstablishmentOccupancy::getDate)
+                        .collectList())
+                .map(dates -> store(establishmentId, load(today, dates), modificationsBeforeLoad).occupiedFrom(from));
+    }
+
+    /**
+     * Verifica que ninguna de las fechas esté ocupada intersectando bitsets.
+     * Si la entrada en caché marca alguna fecha como ocupada se recarga desde Mongo antes de responder,
+     * porque pudo liberarse en otro nodo; una respuesta positiva la confirma después el reclamo de fechas
+     * @throws EstablishmentNotFoundException si el establecimiento no existe o está inactivo
+     */
+    public boolean areAvailable(String establishmentId, Collection<LocalDate> dates) {
+        Availability cached = fresh(establishmentId);
+        if (cached != null) {
+            if (!cached.anyOccupied(dates)) {
+                return true;
+            }
+            invalidate(establishmentId);
+        }
+        return !getOrLoad(establishmentId).anyOccupied(dates);
+    }
+
+    /** Marca días como ocupados si el establecimiento está en caché y avisa a los demás nodos */
+    public void markOccupied(String establishmentId, Collection<LocalDate> dates) {
+        modifications.incrementAndGet();
+        Availability availability = entries.get(establishmentId);
+        if (availability != null) {
+            availability.set(dates, true);
+        }
+        invalidationBus.publish(CatalogType.AVAILABILITY, establishmentId);
+    }
+
+    /** Marca días como libres si el establecimiento está en caché y avisa a los demás nodos */
+    public void markFree(String establishmentId, Collection<LocalDate> dates) {
+        modifications.incrementAndGet();
+        Availability availability = entries.get(establishmentId);
+        if (availability != null) {
+            availability.set(dates, false);
+        }
+        invalidationBus.publish(CatalogType.AVAILABILITY, establishmentId);
+    }
+
+    /** Fuerza la reconstrucción de un establecimiento desde Mongo */
+    public void rebuild(String establishmentId) {
+        invalidate(establishmentId);
+        getOrLoad(establishmentId);
+        log.info("Caché de disponibilidad reconstruida para el establecimiento {}", establishmentId);
+    }
+
+    /** Descarta un establecimiento; se recargará en la siguiente consulta */
+    public void invalidate(String establishmentId) {
+        modifications.incrementAndGet();
+        entries.remove(establishmentId);
+    }
+
+    /** Un establecimiento editado, eliminado o con días reservados o liberados en otro nodo se recarga en la siguiente consulta */
+    @EventListener
+    public void onCatalogInvalidated(CatalogInvalidatedEvent event) {
+        if ((event.type() == CatalogType.ESTABLISHMENT || event.type() == CatalogType.AVAILABILITY) && event.id() != null) {
+            invalidate(event.id());
+        }
+    }
+
+    /** Descarta toda la caché */
+    public void invalidateAll() {
+        modifications.incrementAndGet();
+        entries.clear();
+    }
+
+    private Availability getOrLoad(String establishmentId) {
+        Availability cached = fresh(establishmentId);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Un establecimiento inactivo no puede tener fechas futuras ocupadas
+        if (!establishmentRepository.existsByIdAndActiveTrue(establishmentId)) {
+            entries.remove(establishmentId);
+            throw new EstablishmentNotFoundException("Establecimiento no encontrado o inactivo");
+        }
+
+        long modificationsBeforeLoad = modifications.get();
+        LocalDate today = LocalDate.now();
+        List<LocalDate> dates = occupancyRepository.findOccupiedDatesFrom(establishmentId, today).stream()
+                .map(EstablishmentOccupancy::getDate)
+                .toList();
+        return store(establishmentId, load(today, dates), modificationsBeforeLoad);
+    }
+
+    private Availability fresh(String establishmentId) {
+        Availability cached = entries.get(establishmentId);
+        return cached != null && !cached.isExpired(ttlMillis) ? cached : null;
+    }
+
+    private static Availability load(LocalDate today, List<LocalDate> occupiedDates) {
+        Availability loaded = new Availability(today.toEpochDay());
+        loaded.set(occupiedDates, true);
+        return loaded;
+    }
+
+    // Si hubo reservas o cancelaciones durante la carga, la instantánea puede estar desactualizada:
+    // se usa para responder esta consulta pero no se guarda
+    private Availability store(String establishmentId, Availability loaded, long modificationsBeforeLoad) {
+        if (modifications.get() == modificationsBeforeLoad) {
+            entries.put(establishmentId, loaded);
+        }
+        return loaded;
+    }
+
+    /** Ocupación de un establecimiento: el bit i representa el día baseEpochDay + i */
+    private static final class Availability {
+
+        private final long baseEpochDay;
+        private final long loadedAt = System.currentTimeMillis();
+        private final BitSet occupied = new BitSet();
+
+        private Availability(long baseEpochDay) {
+            this.baseEpochDay = baseEpochDay;
+        }
+
+        private boolean isExpired(long ttlMillis) {
+            return System.currentTimeMillis() - loadedAt > ttlMillis;
+        }
+
+        private synchronized void set(Collection<LocalDate> dates, boolean value) {
+            for (LocalDate date : dates) {
+                int offset = offsetOf(date);
+                if (offset >= 0) {
+                    occupied.set(offset, value);
+                }
+            }
+        }
+
+        private synchronized boolean anyOccupied(Collection<LocalDate> dates) {
+            BitSet requested = new BitSet();
+            for (LocalDate date : dates) {
+                int offset = offsetOf(date);
+                if (offset >= 0) {
+                    requested.set(offset);
+                }
+            }
+            return requested.intersects(occupied);
+        }
+
+        private synchronized List<LocalDate> occupiedFrom(LocalDate from) {
+            List<LocalDate> dates = new ArrayList<>();
+            int start = Math.max(0, offsetOf(from));
+            for (int i = occupied.nextSetBit(start); i >= 0; i = occupied.nextSetBit(i + 1)) {
+                dates.add(LocalDate.ofEpochDay(baseEpochDay + i));
+            }
+            return dates;
+        }
+
+        // Días anteriores a la base (pasados al momento de cargar) no se guardan
+        private int offsetOf(LocalDate date) {
+            long offset = date.toEpochDay() - baseEpochDay;
+            return offset < 0 || offset > Integer.MAX_VALUE - 1 ? -1 : (int) offset;
+        }
+    }
+}
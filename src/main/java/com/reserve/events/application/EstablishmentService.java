@@ -2,25 +2,51 @@ package com.reserve.events.application;
 
 import java.util.Map;
 import com.reserve.events.controllers.domain.entity.Establishment;
+import com.reserve.events.controllers.domain.entity.EstablishmentOccupancy;
+import com.reserve.events.controllers.domain.model.CatalogType;
 import com.reserve.events.controllers.domain.model.EstablishmentType;
+import com.reserve.events.controllers.domain.model.StatusReserve;
+import com.reserve.events.controllers.domain.repository.EstablishmentOccupancyRepository;
 import com.reserve.events.controllers.domain.repository.EstablishmentRepository;
+import com.reserve.events.controllers.domain.repository.ReactiveEstablishmentRepository;
+import com.reserve.events.controllers.dto.EstablishmentListRequest;
 import com.reserve.events.controllers.dto.EstablishmentRequest;
+import com.reserve.events.controllers.dto.EstablishmentSearchRequest;
 import com.reserve.events.controllers.exception.*;
 import com.reserve.events.controllers.response.EstablishmentResponse;
+import com.reserve.events.controllers.response.PageResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class EstablishmentService {
 
     private final EstablishmentRepository establishmentRepository;
+    private final ReactiveEstablishmentRepository reactiveEstablishmentRepository;
+    private final EstablishmentOccupancyRepository occupancyRepository;
+    private final EstablishmentAvailabilityCache availabilityCache;
+    private final MongoTemplate mongoTemplate;
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final CatalogVersionService catalogVersionService;
+    private final CatalogCache catalogCache;
 
 
     // Crear un nuevo establecimiento
@@ -37,27 +63,136 @@ public class EstablishmentService {
         Establishment establishment = mapRequestToEntity(request);
         establishment.setActive(true); // siempre activo al crear
         Establishment saved = establishmentRepository.save(establishment);
+        catalogVersionService.bump(CatalogType.ESTABLISHMENT);
 
         // Devolvemos un objeto que la API pueda usar en la respuesta
         return mapToResponse(saved);
     }
 
 
-    // Listar todos los establecimientos activos
-    public List<EstablishmentResponse> getAllActiveEstablishments() {
-        // Buscamos solo los activos y los convertimos en responses para la API
-        return establishmentRepository.findByActiveTrue()
-                .stream()
+    /** Lista los establecimientos activos filtrados por ciudad, tipo, capacidad y costo, ordenados y paginados.
+     *  La consulta siempre incluye active: true, así que la resuelven los índices parciales de activos
+     *  ({ciudad?, campo de orden, _id}) sin recorrer los inactivos ni ordenar en memoria.
+     *  El conteo y la página se piden a Mongo a la vez con el driver reactivo, sin bloquear.
+     * @param request filtros, orden y paginación
+     * @return página de establecimientos activos
+     * @throws BadRequestException si algún rango es inválido
+     */
+    public Mono<PageResponse<EstablishmentResponse>> listActiveEstablishmentsReactive(EstablishmentListRequest request) {
+        Criteria criteria = listCriteria(request);
+        Query page = activePageQuery(criteria, request.getSort(), request.getDirection(), request.getPage(), request.getSize());
+        return Mono.zip(
+                        reactiveMongoTemplate.count(Query.query(criteria), Establishment.class),
+                        reactiveMongoTemplate.find(page, Establishment.class).map(this::mapToResponse).collectList())
+                .map(result -> toPage(result.getT2(), result.getT1(), request.getPage(), request.getSize()));
+    }
+
+    private Criteria listCriteria(EstablishmentListRequest request) {
+        validateRange(request.getMinCost(), request.getMaxCost(), "El costo mínimo no puede ser mayor al costo máximo");
+        validateRange(request.getMinCapacity(), request.getMaxCapacity(), "La capacidad mínima no puede ser mayor a la capacidad máxima");
+
+        Criteria criteria = activeCriteria(request.getCity(), request.getType());
+        addRange(criteria, "capacity", request.getMinCapacity(), request.getMaxCapacity());
+        addRange(criteria, "cost", request.getMinCost(), request.getMaxCost());
+        return criteria;
+    }
+
+    /** Busca los establecimientos activos con capacidad suficiente que están libres en todas las fechas pedidas.
+     *  Primero obtiene con un distinct sobre el índice (date, establishmentId) los establecimientos ocupados
+     *  en alguna de las fechas, y luego los excluye en una sola consulta paginada sobre Establecimientos,
+     *  sin cargar las listas de reservas embebidas.
+     * @param request filtros, orden y paginación de la búsqueda
+     * @return página de establecimientos disponibles
+     * @throws InvalidReservationDatesException si alguna fecha no es futura
+     * @throws BadRequestException si el rango de costos es inválido
+     */
+    public PageResponse<EstablishmentResponse> searchAvailableEstablishments(EstablishmentSearchRequest request) {
+        ReservationDates.requireFuture(request.getDates());
+        validateRange(request.getMinCost(), request.getMaxCost(), "El costo mínimo no puede ser mayor al costo máximo");
+
+        List<String> occupiedIds = mongoTemplate.findDistinct(
+                Query.query(Criteria.where("date").in(request.getDates())),
+                "establishmentId", EstablishmentOccupancy.class, String.class);
+
+        // Igualdades primero y rangos al final, en el orden del índice (active, city, type, capacity)
+        Criteria criteria = activeCriteria(request.getCity(), request.getType());
+        criteria.and("capacity").gte(request.getGuests());
+        addRange(criteria, "cost", request.getMinCost(), request.getMaxCost());
+        if (!occupiedIds.isEmpty()) {
+            criteria.and("id").nin(occupiedIds);
+        }
+
+        return findActivePage(criteria, request.getSort(), request.getDirection(), request.getPage(), request.getSize());
+    }
+
+    private Criteria activeCriteria(String city, EstablishmentType type) {
+        Criteria criteria = Criteria.where("active").is(true);
+        if (city != null && !city.isBlank()) {
+            criteria.and("city").is(city);
+        }
+        if (type != null) {
+            criteria.and("type").is(type);
+        }
+        return criteria;
+    }
+
+    private void addRange(Criteria criteria, String field, Number min, Number max) {
+        if (min != null || max != null) {
+            Criteria range = criteria.and(field);
+            if (min != null) range.gte(min);
+            if (max != null) range.lte(max);
+        }
+    }
+
+    private <T extends Number & Comparable<T>> void validateRange(T min, T max, String message) {
+        if (min != null && max != null && min.compareTo(max) > 0) {
+            throw new BadRequestException(message);
+        }
+    }
+
+    // Cuenta y trae una página sin las listas de reservas embebidas
+    private PageResponse<EstablishmentResponse> findActivePage(Criteria criteria, String sortField, String direction, int page, int size) {
+        long total = mongoTemplate.count(Query.query(criteria), Establishment.class);
+
+        List<EstablishmentResponse> content = mongoTemplate.find(activePageQuery(criteria, sortField, direction, page, size), Establishment.class).stream()
                 .map(this::mapToResponse)
-                .collect(Collectors.toList());
+                .toList();
+
+        return toPage(content, total, page, size);
+    }
+
+    private Query activePageQuery(Criteria criteria, String sortField, String direction, int page, int size) {
+        Query query = Query.query(criteria);
+
+        // El id como desempate mantiene estable el orden entre páginas; va en la misma dirección
+        // para que el índice {campo, _id} sirva también al recorrerlo al revés
+        Sort sort = Sort.by(Sort.Direction.fromString(direction), sortField, "id");
+        query.with(PageRequest.of(page, size, sort));
+        query.fields().exclude("scheduledBookings", "completedBookings", "cancelledBookings");
+        return query;
     }
 
-    // Obtener un establecimiento por su id
-    public EstablishmentResponse getEstablishmentById(String id) {
-        // Buscamos por id solo si está activo
-        Establishment establishment = establishmentRepository.findByIdAndActiveTrue(id)
-                .orElseThrow(() -> new EstablishmentNotFoundException("Establecimiento no encontrado o inactivo"));
-        return mapToResponse(establishment);
+    private PageResponse<EstablishmentResponse> toPage(List<EstablishmentResponse> content, long total, int page, int size) {
+        return PageResponse.<EstablishmentResponse>builder()
+                .content(content)
+                .page(page)
+                .size(size)
+                .totalElements(total)
+                .totalPages((int) ((total + size - 1) / size))
+                .build();
+    }
+
+    /**
+     * Obtiene un establecimiento activo por su id (caché de catálogos, sin las reservas embebidas),
+     * sin bloquear mientras Mongo responde
+     * @param id id del establecimiento
+     * @return establecimiento activo, o error EstablishmentNotFoundException si no existe o está inactivo
+     */
+    public Mono<EstablishmentResponse> getEstablishmentByIdReactive(String id) {
+        return catalogCache.find(CatalogCache.ESTABLISHMENT, id, reactiveEstablishmentRepository::findWithoutBookingsById)
+                .filter(found -> Boolean.TRUE.equals(found.getActive()))
+                .map(this::mapToResponse)
+                .switchIfEmpty(Mono.error(() -> new EstablishmentNotFoundException("Establecimiento no encontrado o inactivo")));
     }
 
 
@@ -88,6 +223,8 @@ public class EstablishmentService {
 
         // Guardar cambios
         Establishment saved = establishmentRepository.save(existing);
+        catalogCache.evict(CatalogCache.ESTABLISHMENT, null, id);
+        catalogVersionService.bump(CatalogType.ESTABLISHMENT, id);
         return mapToResponse(saved);
     }
 
@@ -141,6 +278,8 @@ public class EstablishmentService {
 
         // Guardar los cambios y devolver la respuesta
         Establishment saved = establishmentRepository.save(existing);
+        catalogCache.evict(CatalogCache.ESTABLISHMENT, null, id);
+        catalogVersionService.bump(CatalogType.ESTABLISHMENT, id);
         return mapToResponse(saved);
     }
 
@@ -161,27 +300,19 @@ public class EstablishmentService {
         // Si no hay reservas programadas eliminamos
         establishment.setActive(false); // borrado lógico
         establishmentRepository.save(establishment);
+        availabilityCache.invalidate(id);
+        catalogCache.evict(CatalogCache.ESTABLISHMENT, null, id);
+        catalogVersionService.bump(CatalogType.ESTABLISHMENT, id);
     }
 
-    /** Obtiene las fechas ocupadas de un establecimiento por su ID
-     * Solo considera las reservas programadas (scheduledBookings) que son futuras o presentes
-     *
+    /** Obtiene las fechas ocupadas de un establecimiento por su ID.
+     * Responde desde la caché de disponibilidad en memoria; si el establecimiento no está en caché
+     * se carga desde el índice de ocupación sin bloquear el hilo de la petición
      * @param id ID del establecimiento
-     * @return List de fechas ocupadas (futuras y presentes) sin duplicados y ordenadas
-     * @throws EstablishmentNotFoundException si el establecimiento no existe o está inactivo
+     * @return fechas ocupadas (futuras y presentes) ordenadas, o error EstablishmentNotFoundException
      */
-    public List<LocalDate> getOccupiedDatesByEstablishmentId(String id){
-        // Un establecimiento inactivo no puede tener fechas futuras ocupadas
-        Establishment establishment = establishmentRepository.findByIdAndActiveTrue(id)
-                .orElseThrow(() -> new EstablishmentNotFoundException("Establecimiento no encontrado o inactivo"));
-
-        // Solo scheduledBookings tienen fechas ocupadas
-        return establishment.getScheduledBookings().stream()
-                .flatMap(reserveSummary -> reserveSummary.getDates().stream())
-                .filter(date -> !date.isBefore(LocalDate.now()))
-                .distinct()
-                .sorted()
-                .toList();
+    public Mono<List<LocalDate>> getOccupiedDatesByEstablishmentIdReactive(String id) {
+        return availabilityCache.findOccupiedDates(id, LocalDate.now());
     }
 
     /** Verifica si las fechas solicitadas están disponibles para un establecimiento
@@ -192,16 +323,141 @@ public class EstablishmentService {
      * @throws InvalidReservationDatesException si alguna fecha no es futura
      */
     public boolean areDatesAvailableForEstablishment(List<LocalDate> requestedDates, String establishmentId) {
+        ReservationDates.requireFuture(requestedDates);
+        return availabilityCache.areAvailable(establishmentId, requestedDates);
+    }
 
+    /** Igual que {@link #areDatesAvailableForEstablishment(List, String)} pero ignora los días
+     *  que ya ocupa la reserva indicada, para poder editarla sin que choque consigo misma.
+     *  La caché no sabe qué reserva ocupa cada día, por eso esta variante consulta el índice de ocupación
+     * @param requestedDates Lista de fechas solicitadas
+     * @param establishmentId ID del establecimiento
+     * @param reserveId ID de la reserva que se está editando
+     * @return true si ninguna otra reserva ocupa las fechas
+     */
+    public boolean areDatesAvailableForEstablishment(List<LocalDate> requestedDates, String establishmentId, String reserveId) {
+        ReservationDates.requireFuture(requestedDates);
+        ensureActiveEstablishment(establishmentId);
+        return occupancyRepository.countOccupiedByOthers(establishmentId, requestedDates, reserveId) == 0;
+    }
+
+    /** Reclama de forma atómica los días de una reserva en el índice de ocupación.
+     *  Cada día se inserta contra el índice único (establishmentId, date), así que entre dos reservas
+     *  concurrentes por el mismo día solo una inserción gana, sin depender de transacciones ni de locks.
+     *  Si algún día ya está ocupado por otra reserva se liberan los días reclamados en este intento.
+     *  Los días que ya pertenecen a la misma reserva (edición) se conservan sin reclamarlos de nuevo.
+     * @param establishmentId ID del establecimiento
+     * @param reserveId ID de la reserva
+     * @param dates días a reclamar
+     * @return los días reclamados en este intento (para liberarlos si el resto de la operación falla)
+     * @throws AvailableEstablishmentNotFoundException si algún día ya lo ocupa otra reserva
+     */
+    public List<EstablishmentOccupancy> claimDates(String establishmentId, String reserveId, List<LocalDate> dates) {
+        List<EstablishmentOccupancy> claimed = new ArrayList<>();
+        for (LocalDate date : dates.stream().distinct().sorted().toList()) {
+            try {
+                claimed.add(occupancyRepository.insert(EstablishmentOccupancy.builder()
+                        .establishmentId(establishmentId)
+                        .date(date)
+                        .reserveId(reserveId)
+                        .build()));
+            } catch (DuplicateKeyException ex) {
+                if (occupancyRepository.existsByEstablishmentIdAndDateAndReserveId(establishmentId, date, reserveId)) {
+                    continue;
+                }
+                releaseClaims(claimed);
+                throw new AvailableEstablishmentNotFoundException("El establecimiento escogido para la reserva no tiene disponibilidad en la fecha: " + date);
+            }
+        }
+        availabilityCache.markOccupied(establishmentId, dates);
+        return claimed;
+    }
+
+    /** Deshace los días reclamados por un intento de reserva que no se completó
+     * @param claims días devueltos por {@link #claimDates(String, String, List)}
+     */
+    public void releaseClaims(List<EstablishmentOccupancy> claims) {
+        if (!claims.isEmpty()) {
+            occupancyRepository.deleteAll(claims);
+            markReleased(claims);
+        }
+    }
+
+    /** Libera los días que una reserva editada ya no usa (cambio de fechas o de establecimiento)
+     * @param reserveId ID de la reserva
+     * @param establishmentId establecimiento actual de la reserva
+     * @param dates fechas actuales de la reserva
+     */
+    public void releaseDatesExcept(String reserveId, String establishmentId, List<LocalDate> dates) {
+        markReleased(occupancyRepository.deleteByReserveIdExcept(reserveId, establishmentId, dates));
+    }
 
+    /** Libera del índice de ocupación todos los días de una reserva (cancelación o cambio de fechas)
+     * @param reserveId ID de la reserva
+     */
+    public void releaseDates(String reserveId) {
+        markReleased(occupancyRepository.deleteByReserveId(reserveId));
+    }
+
+    /** Reconstruye el índice de ocupación a partir de las reservas programadas embebidas en los establecimientos.
+     *  Se usa para poblar el índice con los datos que existían antes de crearlo; se puede repetir sin duplicar.
+     * @return cantidad de días registrados en esta ejecución
+     */
+    public int rebuildOccupancyIndex() {
         LocalDate today = LocalDate.now();
-        boolean allAfterToday = requestedDates != null && requestedDates.stream().allMatch(date -> date != null && date.isAfter(today));
+        int registered = 0;
+        for (Establishment establishment : establishmentRepository.findByActiveTrue()) {
+            for (Establishment.ReserveSummary booking : establishment.getScheduledBookings()) {
+                if (booking.getStatus() != StatusReserve.PROGRAMADA || booking.getDates() == null) continue;
+                for (LocalDate date : booking.getDates()) {
+                    if (date.isBefore(today)) continue;
+                    try {
+                        occupancyRepository.insert(EstablishmentOccupancy.builder()
+                                .establishmentId(establishment.getId())
+                                .date(date)
+                                .reserveId(booking.getId())
+                                .build());
+                        registered++;
+                    } catch (DuplicateKeyException ex) {
+                        // Al repetir una reconstrucción interrumpida, los días de la misma reserva ya están
+                        if (!occupancyRepository.existsByEstablishmentIdAndDateAndReserveId(establishment.getId(), date, booking.getId())) {
+                            log.warn("El día {} del establecimiento {} ya estaba ocupado, se ignora la reserva {}", date, establishment.getId(), booking.getId());
+                        }
+                    }
+                }
+            }
+        }
+        availabilityCache.invalidateAll();
+        log.info("Índice de ocupación reconstruido con {} días ocupados", registered);
+        return registered;
+    }
 
-        if (!allAfterToday) {
-            throw new InvalidReservationDatesException("Todas las fechas solicitadas deben ser futuras a la fecha actual");
+    /** Fuerza la reconstrucción de la caché de disponibilidad de un establecimiento desde el índice de ocupación
+     * @param id ID del establecimiento
+     * @throws EstablishmentNotFoundException si el establecimiento no existe o está inactivo
+     */
+    public void rebuildAvailabilityCache(String id) {
+        availabilityCache.rebuild(id);
+    }
+
+    /** Descarta toda la caché de disponibilidad; cada establecimiento se recarga en su siguiente consulta */
+    public void rebuildAvailabilityCache() {
+        availabilityCache.invalidateAll();
+    }
+
+    // Verifica que el establecimiento exista y esté activo sin cargar el documento
+    private void ensureActiveEstablishment(String id) {
+        if (!establishmentRepository.existsByIdAndActiveTrue(id)) {
+            throw new EstablishmentNotFoundException("Establecimiento no encontrado o inactivo");
         }
-        List<LocalDate> occupiedDates = getOccupiedDatesByEstablishmentId(establishmentId);
-        return requestedDates.stream().noneMatch(occupiedDates::contains);
+    }
+
+    // Refleja en la caché de disponibilidad los días liberados del índice de ocupación
+    private void markReleased(List<EstablishmentOccupancy> released) {
+        released.stream()
+                .collect(Collectors.groupingBy(EstablishmentOccupancy::getEstablishmentId,
+                        Collectors.mapping(EstablishmentOccupancy::getDate, Collectors.toList())))
+                .forEach(availabilityCache::markFree);
     }
 
 
@@ -2,22 +2,29 @@ package com.reserve.events.application;
 
 
 import com.reserve.events.controllers.domain.entity.Event;
+import com.reserve.events.controllers.domain.model.CatalogType;
 import com.reserve.events.controllers.domain.model.StatusReserve;
 import com.reserve.events.controllers.domain.repository.EventRepository;
+import com.reserve.events.controllers.domain.repository.ReactiveEventRepository;
 import com.reserve.events.controllers.domain.repository.ReserveRepository;
+import com.reserve.events.controllers.dto.EventQueryRequest;
 import com.reserve.events.controllers.dto.EventRequest;
 import com.reserve.events.controllers.response.EventResponse;
 import com.reserve.events.controllers.exception.EventAlreadyExistsException;
 import com.reserve.events.controllers.exception.EventWithReservationsException;
 import com.reserve.events.controllers.exception.EventNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import java.util.Map;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 
 @Service
@@ -25,7 +32,17 @@ import java.util.stream.Collectors;
 public class EventService {
 
     private final EventRepository eventRepository;
+    private final ReactiveEventRepository reactiveEventRepository;
     private final ReserveRepository reserveRepository;
+    private final MongoTemplate mongoTemplate;
+    private final CatalogVersionService catalogVersionService;
+    private final CatalogCache catalogCache;
+
+    private static final Map<StatusReserve, String> BOOKING_LISTS = Map.of(
+            StatusReserve.PROGRAMADA, "scheduledBookings",
+            StatusReserve.COMPLETADA, "completedBookings",
+            StatusReserve.CANCELADA, "cancelledBookings"
+    );
 
     // Imágenes predefinidas por tipo
     private final Map<String, String> predefinedEventImages = Map.of(
@@ -61,12 +78,14 @@ public class EventService {
                 .build();
 
         Event savedEvent = eventRepository.save(event);
+        catalogCache.evict(CatalogCache.EVENT, CatalogCache.EVENT_LIST, null);
+        catalogVersionService.bump(CatalogType.EVENT);
         return mapToEventResponse(savedEvent);
     }
 
     // ACTUALIZAR EVENTO
     public EventResponse updateEvent(String id, EventRequest request) {
-        Event event = eventRepository.findById(id)
+        Event event = eventRepository.findSummaryById(id)
                 .orElseThrow(() -> new EventNotFoundException("Evento no encontrado con id: " + id));
 
         // Verificar duplicados al actualizar
@@ -83,8 +102,13 @@ public class EventService {
         event.setType(request.getType());
         event.setImageUrl(imageUrl);
 
-        Event updatedEvent = eventRepository.save(event);
-        return mapToEventResponse(updatedEvent);
+        // Solo se escriben tipo e imagen; guardar el documento completo reescribiría las listas de reservas
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(id)),
+                new Update().set("type", event.getType()).set("imageUrl", event.getImageUrl()),
+                Event.class);
+        catalogCache.evict(CatalogCache.EVENT, CatalogCache.EVENT_LIST, id);
+        catalogVersionService.bump(CatalogType.EVENT, id);
+        return mapToEventResponse(event);
     }
 
     // Asignar imagen automáticamente (metodo)
@@ -92,16 +116,29 @@ public class EventService {
         return predefinedEventImages.getOrDefault(eventType, DEFAULT_IMAGE);
     }
 
+    // Resumen del evento, sin listas de reservas
     private EventResponse mapToEventResponse(Event event) {
         return EventResponse.builder()
                 .id(event.getId())
                 .type(event.getType())
                 .imageUrl(event.getImageUrl())
-                .scheduledBookings(event.getScheduledBookings())
-                .completedBookings(event.getCompletedBookings())
-                .cancelledBookings(event.getCancelledBookings())
                 .build();
     }
+
+    // Incluye solo las listas pedidas; las demás quedan en null y no se serializan
+    private EventResponse mapToEventResponse(Event event, Map<StatusReserve, String> lists) {
+        EventResponse response = mapToEventResponse(event);
+        if (lists.containsKey(StatusReserve.PROGRAMADA)) {
+            response.setScheduledBookings(event.getScheduledBookings());
+        }
+        if (lists.containsKey(StatusReserve.COMPLETADA)) {
+            response.setCompletedBookings(event.getCompletedBookings());
+        }
+        if (lists.containsKey(StatusReserve.CANCELADA)) {
+            response.setCancelledBookings(event.getCancelledBookings());
+        }
+        return response;
+    }
     public String deleteEvent(String id) {
         Event event = eventRepository.findById(id)
                 .orElseThrow(() -> new EventNotFoundException("Evento no encontrado con ID: " + id));
@@ -112,21 +149,63 @@ public class EventService {
         }
 
         eventRepository.deleteById(id);
+        catalogCache.evict(CatalogCache.EVENT, CatalogCache.EVENT_LIST, id);
+        catalogVersionService.bump(CatalogType.EVENT, id);
         return id;
     }
 
-    public List<EventResponse> listAllEvents() {
-        return eventRepository.findAll().stream()
+    /**
+     * Catálogo de eventos. Solo se leen id, tipo e imagen; las reservas embebidas no salen de Mongo.
+     * El listado queda en la caché de catálogos hasta que se crea, edita o elimina un evento;
+     * si no está en caché se lee con el driver reactivo, sin bloquear
+     * @return catálogo de eventos
+     */
+    public Mono<List<EventResponse>> listAllEventsReactive() {
+        return catalogCache.find(CatalogCache.EVENT_LIST, CatalogCache.ALL,
+                key -> reactiveEventRepository.findAllSummaries().map(this::mapToEventResponse).collectList());
+    }
+
+    /**
+     * Resumen de un evento (id, tipo e imagen) sin bloquear mientras Mongo responde.
+     * La expansión con reservas (include=bookings) sigue por getEventById
+     * @param id id del evento
+     * @return evento, o error EventNotFoundException si no existe
+     */
+    public Mono<EventResponse> getEventSummaryReactive(String id) {
+        return catalogCache.find(CatalogCache.EVENT, id, reactiveEventRepository::findSummaryById)
                 .map(this::mapToEventResponse)
-                .collect(Collectors.toList());
+                .switchIfEmpty(Mono.error(() -> new EventNotFoundException("Evento no encontrado")));
     }
 
-    // Obtener un evento por su id
-    public EventResponse getEventById(String id) {
-        // Buscamos por id
-        Event event = eventRepository.findById(id)
-                .orElseThrow(() -> new EventNotFoundException("Evento no encontrado"));
-        return mapToEventResponse(event);
+    /**
+     * Obtiene un evento por su id. Por defecto devuelve solo id, tipo e imagen, desde la caché de catálogos;
+     * con include=bookings agrega una página de cada lista de reservas (o solo de la lista del estado pedido),
+     * recortada en Mongo con $slice.
+     * @param id id del evento
+     * @param request expansión y paginación de las reservas
+     * @return evento
+     */
+    public EventResponse getEventById(String id, EventQueryRequest request) {
+        if (!request.includesBookings()) {
+            Event event = catalogCache.get(CatalogCache.EVENT, id, Event.class, eventRepository::findSummaryById)
+                    .orElseThrow(() -> new EventNotFoundException("Evento no encontrado"));
+            return mapToEventResponse(event);
+        }
+
+        Map<StatusReserve, String> lists = request.getBookingsStatus() == null
+                ? BOOKING_LISTS
+                : Map.of(request.getBookingsStatus(), BOOKING_LISTS.get(request.getBookingsStatus()));
+        int skip = request.getBookingsPage() * request.getBookingsSize();
+
+        Query query = Query.query(Criteria.where("id").is(id));
+        query.fields().include("type", "imageUrl");
+        lists.values().forEach(list -> query.fields().slice(list, skip, request.getBookingsSize()));
+
+        Event event = mongoTemplate.findOne(query, Event.class);
+        if (event == null) {
+            throw new EventNotFoundException("Evento no encontrado");
+        }
+        return mapToEventResponse(event, lists);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.reserve.events.application;
+
+import com.reserve.events.controllers.domain.entity.JobLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Bloqueos con vencimiento para las tareas programadas que no deben correr en varios nodos a la vez.
+ * Si el nodo que tiene el bloqueo muere, otro lo puede tomar cuando vence.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JobLockService {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Intenta tomar el bloqueo de una tarea
+     * @param job nombre de la tarea
+     * @param lease tiempo máximo que se mantiene el bloqueo si no se libera
+     * @return token del bloqueo, o null si otro nodo lo tiene
+     */
+    public String tryAcquire(String job, Duration lease) {
+        Instant now = Instant.now();
+        String token = UUID.randomUUID().toString();
+        Query free = Query.query(Criteria.where("id").is(job)
+                .orOperator(Criteria.where("lockedUntil").exists(false), Criteria.where("lockedUntil").lt(now)));
+        try {
+            // Si el bloqueo está tomado el filtro no coincide y el upsert choca con el _id existente
+            mongoTemplate.upsert(free, new Update().set("owner", token).set("lockedUntil", now.plus(lease)), JobLock.class);
+            return token;
+        } catch (DuplicateKeyException ex) {
+            log.debug("La tarea {} ya se está ejecutando en otro nodo", job);
+            return null;
+        }
+    }
+
+    /**
+     * Libera el bloqueo si todavía pertenece a quien lo tomó
+     * @param job nombre de la tarea
+     * @param token token devuelto por {@link #tryAcquire(String, Duration)}
+     */
+    public void release(String job, String token) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(job).and("owner").is(token)),
+                new Update().unset("owner").unset("lockedUntil"),
+                JobLock.class);
+    }
+}
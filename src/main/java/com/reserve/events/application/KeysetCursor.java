@@ -0,0 +1,46 @@
+package com.reserve.events.application;
+
+import com.reserve.events.controllers.exception.BadRequestException;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco de la paginación por keyset: codifica el _id (ObjectId) del último elemento de la página.
+ * Los listados se ordenan por _id descendente y la siguiente página pide los _id menores que el del cursor,
+ * así que cada página cuesta lo mismo sin importar cuántas páginas haya antes.
+ */
+public final class KeysetCursor {
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * @param id _id del último elemento de la página
+     * @return cursor para pedir la página siguiente
+     */
+    public static String encode(String id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor cursor recibido del cliente (puede ser null o vacío para la primera página)
+     * @return el _id codificado, o null si es la primera página
+     * @throws BadRequestException si el cursor no fue generado por la API
+     */
+    public static ObjectId decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String id = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (ObjectId.isValid(id)) {
+                return new ObjectId(id);
+            }
+        } catch (IllegalArgumentException ignored) {
+            // se reporta abajo como cursor inválido
+        }
+        throw new BadRequestException("El cursor de paginación no es válido.");
+    }
+}
@@ -2,33 +2,47 @@ package com.reserve.events.application;
 
 import com.reserve.events.controllers.domain.entity.Payment;
 import com.reserve.events.controllers.domain.entity.User;
+import com.reserve.events.controllers.domain.repository.BookingProjectionRepository;
 import com.reserve.events.controllers.domain.repository.PaymentRepository;
-import com.reserve.events.controllers.domain.repository.UserRepository;
+import com.reserve.events.controllers.dto.PaymentListRequest;
 import com.reserve.events.controllers.dto.PaymentRequest;
 import com.reserve.events.controllers.dto.PaymentUpdateRequest;
+import com.reserve.events.controllers.response.CursorPageResponse;
 import com.reserve.events.controllers.response.PaymentResponse;
 import com.reserve.events.controllers.exception.PaymentNotFoundException;
 import com.reserve.events.controllers.exception.ServiceAlreadyExistsException;
 import com.reserve.events.controllers.domain.model.PaymentStatus;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PaymentService {
 
+    private static final int STREAM_BATCH_SIZE = 500;
+
     private final PaymentRepository paymentRepository;
-    private final UserRepository userRepository;
+    private final BookingProjectionRepository bookingProjectionRepository;
     private final EmailService emailService;
     private final PaymentPdfService paymentPdfService;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
 
     /**
      * Crea un nuevo pago en estado PENDIENTE.
@@ -58,14 +72,62 @@ public class PaymentService {
     }
 
     /**
-     * Obtiene la lista de todos los pagos.
+     * Lista los pagos por páginas, del más reciente al más antiguo.
+     * Usa paginación por keyset sobre _id, así que cada página cuesta lo mismo sin importar cuántas haya antes.
+     * @param request cursor, tamaño de página y filtros
+     * @return página de pagos y cursor de la siguiente
      */
-    @Transactional(readOnly = true)
-    public List<PaymentResponse> getAllPayments() {
-        return paymentRepository.findAll()
-                .stream()
-                .map(this::mapToPaymentResponse)
-                .collect(Collectors.toList());
+    public CursorPageResponse<PaymentResponse> listPayments(PaymentListRequest request) {
+        // Se pide un elemento de más para saber si hay otra página sin contar
+        int size = request.getSize();
+        Query query = paymentsQuery(request).limit(size + 1);
+        List<Payment> payments = mongoTemplate.find(query, Payment.class);
+
+        boolean hasMore = payments.size() > size;
+        List<Payment> page = hasMore ? payments.subList(0, size) : payments;
+        return CursorPageResponse.<PaymentResponse>builder()
+                .content(page.stream().map(this::mapToPaymentResponse).toList())
+                .size(size)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? KeysetCursor.encode(page.get(page.size() - 1).getId()) : null)
+                .build();
+    }
+
+    /**
+     * Escribe como NDJSON (un pago JSON por línea) todos los pagos que cumplen los filtros.
+     * Los pagos se leen de un cursor de Mongo y se escriben uno a uno, así que la memoria usada
+     * no depende de cuántos pagos haya.
+     * @param request filtros (y cursor opcional para continuar desde un pago)
+     * @param output cuerpo de la respuesta
+     */
+    public void streamPayments(PaymentListRequest request, OutputStream output) throws IOException {
+        Query query = paymentsQuery(request).cursorBatchSize(STREAM_BATCH_SIZE);
+        try (Stream<Payment> payments = mongoTemplate.stream(query, Payment.class)) {
+            Iterator<Payment> cursor = payments.iterator();
+            while (cursor.hasNext()) {
+                output.write(objectMapper.writeValueAsBytes(mapToPaymentResponse(cursor.next())));
+                output.write('\n');
+            }
+        }
+        output.flush();
+    }
+
+    private Query paymentsQuery(PaymentListRequest request) {
+        Criteria criteria = new Criteria();
+        ObjectId after = KeysetCursor.decode(request.getCursor());
+        if (after != null) {
+            criteria.and("id").lt(after);
+        }
+        if (request.getStatus() != null) {
+            criteria.and("status").is(request.getStatus());
+        }
+        if (request.getClientId() != null) {
+            criteria.and("client.id").is(request.getClientId());
+        }
+        if (request.getEstablishmentId() != null) {
+            criteria.and("establishment.id").is(request.getEstablishmentId());
+        }
+        return Query.query(criteria).with(Sort.by(Sort.Direction.DESC, "id"));
     }
 
     /**
@@ -122,39 +184,14 @@ public class PaymentService {
             return;
         }
 
-        userRepository.findById(payment.getClient().getId()).ifPresent(user -> {
-            if (user.getPayments() == null) {
-                user.setPayments(new ArrayList<>());
-            }
-
-            // Buscar y actualizar el pago existente o agregarlo si no existe
-            boolean paymentFound = false;
-            for (int i = 0; i < user.getPayments().size(); i++) {
-                if (user.getPayments().get(i).getId().equals(payment.getId())) {
-                    user.getPayments().set(i, User.PaymentInfo.builder()
-                            .id(payment.getId())
-                            .status(payment.getStatus())
-                            .description(payment.getDescription())
-                            .totalCost(payment.getTotalCost())
-                            .build());
-                    paymentFound = true;
-                    break;
-                }
-            }
-
-            // Si no se encontró, agregar el pago
-            if (!paymentFound) {
-                user.getPayments().add(User.PaymentInfo.builder()
-                        .id(payment.getId())
-                        .status(payment.getStatus())
-                        .description(payment.getDescription())
-                        .totalCost(payment.getTotalCost())
-                        .build());
-            }
-
-            userRepository.save(user);
-            log.info("Pago {} actualizado en usuario {}", payment.getId(), user.getId());
-        });
+        // Un solo update posicional sobre el pago embebido, sin leer ni reescribir el usuario
+        bookingProjectionRepository.upsertPayment(payment.getClient().getId(), User.PaymentInfo.builder()
+                .id(payment.getId())
+                .status(payment.getStatus())
+                .description(payment.getDescription())
+                .totalCost(payment.getTotalCost())
+                .build());
+        log.info("Pago {} actualizado en usuario {}", payment.getId(), payment.getClient().getId());
     }
 
     /**
@@ -0,0 +1,144 @@
+package com.reserve.events.application;
+
+import com.reserve.events.controllers.domain.entity.RefreshToken;
+import com.reserve.events.controllers.domain.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Sesiones de usuario basadas en refresh tokens guardados en Mongo.
+ * El access token (JWT) dura poco y lleva el id de la sesión en el claim sid; el refresh token es opaco,
+ * dura jwt.refresh-token-days y se cambia por uno nuevo cada vez que se usa (rotación).
+ * Presentar un refresh token ya rotado indica que fue robado o duplicado, y se cierra toda la sesión.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final MongoTemplate mongoTemplate;
+    private final RevokedSessions revokedSessions;
+
+    @Value("${jwt.refresh-token-days:14}")
+    private long refreshTokenDays;
+
+    /**
+     * Sesión emitida o rotada
+     * @param email dueño de la sesión
+     * @param sessionId id de la sesión (claim sid del access token)
+     * @param refreshToken refresh token en claro, que solo conoce el cliente
+     */
+    public record Session(String email, String sessionId, String refreshToken) {
+    }
+
+    /**
+     * Abre una sesión nueva tras un login exitoso
+     * @param email correo del usuario autenticado
+     * @return sesión con su primer refresh token
+     */
+    public Session startSession(String email) {
+        return issue(email, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Cambia un refresh token vigente por uno nuevo de la misma sesión. El token presentado deja de servir.
+     * @param refreshToken refresh token presentado por el cliente
+     * @return sesión con el nuevo refresh token
+     * @throws BadCredentialsException si el token no existe, venció, fue revocado o ya se había usado
+     */
+    public Session rotate(String refreshToken) {
+        String tokenHash = digest(refreshToken);
+        Instant now = Instant.now();
+
+        // Se marca como rotado de forma atómica: de dos rotaciones simultáneas con el mismo token solo una gana
+        RefreshToken current = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("tokenHash").is(tokenHash)
+                        .and("rotatedAt").is(null)
+                        .and("revokedAt").is(null)
+                        .and("expiresAt").gt(now)),
+                new Update().set("rotatedAt", now),
+                FindAndModifyOptions.options().returnNew(true),
+                RefreshToken.class);
+
+        if (current == null) {
+            refreshTokenRepository.findByTokenHash(tokenHash)
+                    .filter(used -> used.getRotatedAt() != null && used.getRevokedAt() == null)
+                    .ifPresent(used -> {
+                        log.warn("Refresh token reutilizado en la sesión {} de {}; se cierra la sesión",
+                                used.getFamilyId(), used.getEmail());
+                        revokeSession(used.getFamilyId());
+                    });
+            throw new BadCredentialsException("Refresh token inválido o vencido; inicie sesión de nuevo.");
+        }
+
+        return issue(current.getEmail(), current.getFamilyId());
+    }
+
+    /**
+     * Cierra la sesión del refresh token (logout). Un token desconocido se ignora.
+     * @param refreshToken refresh token presentado por el cliente
+     */
+    public void revoke(String refreshToken) {
+        refreshTokenRepository.findByTokenHash(digest(refreshToken))
+                .ifPresent(token -> revokeSession(token.getFamilyId()));
+    }
+
+    /**
+     * Revoca todos los refresh tokens de una sesión; sus access tokens se rechazan desde ya en este nodo
+     * y en los demás al actualizar su filtro de sesiones revocadas
+     * @param sessionId id de la sesión
+     */
+    public void revokeSession(String sessionId) {
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("familyId").is(sessionId).and("revokedAt").is(null)),
+                new Update().set("revokedAt", Instant.now()),
+                RefreshToken.class);
+        revokedSessions.revoke(sessionId);
+    }
+
+    private Session issue(String email, String sessionId) {
+        byte[] random = new byte[32];
+        RANDOM.nextBytes(random);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+
+        Instant now = Instant.now();
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(digest(refreshToken))
+                .familyId(sessionId)
+                .email(email)
+                .createdAt(now)
+                .expiresAt(now.plus(Duration.ofDays(refreshTokenDays)))
+                .build());
+        return new Session(email, sessionId, refreshToken);
+    }
+
+    // Solo se guarda el SHA-256: una copia de la base de datos no permite usar los tokens
+    private static String digest(String refreshToken) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(refreshToken.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 no disponible", ex);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.reserve.events.application;
+
+import com.reserve.events.controllers.exception.InvalidReservationDatesException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Regla común de las fechas de una reserva: todas deben ser posteriores a hoy.
+ * La usan la reserva individual, la creación en lote, la edición y la búsqueda de disponibilidad,
+ * para que ningún camino acepte una fecha que otro rechaza.
+ */
+public final class ReservationDates {
+
+    private ReservationDates() {
+    }
+
+    /**
+     * @param dates fechas solicitadas
+     * @throws InvalidReservationDatesException si alguna fecha no es posterior a hoy
+     */
+    public static void requireFuture(List<LocalDate> dates) {
+        LocalDate today = LocalDate.now();
+        boolean allAfterToday = dates != null && dates.stream().allMatch(date -> date != null && date.isAfter(today));
+        if (!allAfterToday) {
+            throw new InvalidReservationDatesException("Todas las fechas solicitadas deben ser futuras a la fecha actual");
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.reserve.events.application;
+
+import com.reserve.events.controllers.domain.entity.Reserve;
+import com.reserve.events.controllers.domain.model.FanOutTask;
+import com.reserve.events.controllers.domain.model.StatusReserve;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Ciclo de vida de las reservas: pasa a COMPLETADA las reservas PROGRAMADAS cuya última fecha ya pasó
+ * y mueve sus resúmenes a completedBookings de usuario, establecimiento, evento y decoración.
+ *
+ * Las reservas vencidas se recorren con un cursor sobre el índice {status, endDate} y se procesan por lotes.
+ * Un bloqueo en Mongo evita que dos nodos corran la tarea a la vez y, aun si ocurriera, el cambio de estado
+ * es condicional y los movimientos de resúmenes no duplican.
+ *
+ * El cambio de estado guarda en la misma escritura la tarea COMPLETE en el outbox de la reserva. La tarea se
+ * aplica enseguida y se retira; si el nodo cae antes, o la propagación falla, el despachador del outbox la
+ * aplica cuando vence la espera, así que ninguna reserva queda COMPLETADA con sus resúmenes en scheduledBookings.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReserveLifecycleService {
+
+    private static final String JOB_NAME = "reserve-lifecycle";
+
+    private final MongoTemplate mongoTemplate;
+    private final BookingFanOutService bookingFanOutService;
+    private final JobLockService jobLockService;
+
+    @Value("${reserve.lifecycle.batch-size:200}")
+    private int batchSize;
+
+    @Value("${reserve.lifecycle.lock-minutes:30}")
+    private long lockMinutes;
+
+    @Value("${reserve.lifecycle.recovery-delay-seconds:120}")
+    private long recoveryDelaySeconds;
+
+    @Scheduled(cron = "${reserve.lifecycle.cron:0 5 * * * *}")
+    public void completeDueReservesScheduled() {
+        try {
+            completeDueReserves();
+        } catch (RuntimeException ex) {
+            log.error("Error al completar las reservas vencidas: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Completa las reservas programadas cuya última fecha es anterior a hoy
+     * @return reservas completadas, o 0 si otro nodo está ejecutando la tarea
+     */
+    public int completeDueReserves() {
+        String token = jobLockService.tryAcquire(JOB_NAME, Duration.ofMinutes(lockMinutes));
+        if (token == null) {
+            return 0;
+        }
+        try {
+            backfillEndDates();
+
+            Query due = Query.query(Criteria.where("status").is(StatusReserve.PROGRAMADA).and("endDate").lt(LocalDate.now()))
+                    .with(Sort.by("endDate"))
+                    .cursorBatchSize(batchSize);
+            due.fields().exclude("outbox", "comments");
+
+            int completed = 0;
+            List<Reserve> batch = new ArrayList<>(batchSize);
+            try (Stream<Reserve> reserves = mongoTemplate.stream(due, Reserve.class)) {
+                Iterator<Reserve> cursor = reserves.iterator();
+                while (cursor.hasNext()) {
+                    batch.add(cursor.next());
+                    if (batch.size() == batchSize || !cursor.hasNext()) {
+                        completed += completeBatch(batch);
+                        batch.clear();
+                    }
+                }
+            }
+
+            if (completed > 0) {
+                log.info("{} reservas pasaron a COMPLETADA", completed);
+            }
+            return completed;
+        } finally {
+            jobLockService.release(JOB_NAME, token);
+        }
+    }
+
+    private int completeBatch(List<Reserve> batch) {
+        List<String> ids = batch.stream().map(Reserve::getId).toList();
+
+        // Solo cambian las que siguen PROGRAMADAS (una cancelación concurrente gana). La tarea COMPLETE queda
+        // en el outbox en la misma escritura; el despachador solo la toma si no se retira antes de la espera
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("id").in(ids).and("status").is(StatusReserve.PROGRAMADA)),
+                new Update()
+                        .set("status", StatusReserve.COMPLETADA)
+                        .addToSet("outbox.tasks", FanOutTask.COMPLETE)
+                        .min("outbox.nextAttemptAt", Instant.now().plusSeconds(recoveryDelaySeconds)),
+                Reserve.class);
+        Set<String> completedIds = new HashSet<>(mongoTemplate.findDistinct(
+                Query.query(Criteria.where("id").in(ids)
+                        .and("status").is(StatusReserve.COMPLETADA)
+                        .and("outbox.tasks").is(FanOutTask.COMPLETE)),
+                "_id", Reserve.class, String.class));
+        List<Reserve> completed = batch.stream()
+                .filter(reserve -> completedIds.contains(reserve.getId()))
+                .toList();
+        if (completed.isEmpty()) {
+            return 0;
+        }
+        completed.forEach(reserve -> reserve.setStatus(StatusReserve.COMPLETADA));
+
+        try {
+            bookingFanOutService.apply(FanOutTask.COMPLETE, completed);
+        } catch (RuntimeException ex) {
+            log.warn("No se pudieron mover los resúmenes de {} reservas completadas, las reintentará el outbox: {}",
+                    completed.size(), ex.getMessage());
+            return completed.size();
+        }
+
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("id").in(completedIds)),
+                new Update().pull("outbox.tasks", FanOutTask.COMPLETE),
+                Reserve.class);
+        // Sin otras tareas pendientes ni un despachador que las tenga tomadas, el outbox ya no hace falta
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("id").in(completedIds)
+                        .and("outbox.tasks").size(0)
+                        .and("outbox.lockToken").exists(false)),
+                new Update().unset("outbox"),
+                Reserve.class);
+        return completed.size();
+    }
+
+    // Las reservas creadas antes de existir endDate no lo tienen; se calcula una vez a partir de sus fechas
+    private void backfillEndDates() {
+        Query missing = Query.query(Criteria.where("status").is(StatusReserve.PROGRAMADA).and("endDate").exists(false))
+                .cursorBatchSize(batchSize);
+        missing.fields().include("dates");
+
+        List<Reserve> batch = new ArrayList<>(batchSize);
+        try (Stream<Reserve> reserves = mongoTemplate.stream(missing, Reserve.class)) {
+            Iterator<Reserve> cursor = reserves.iterator();
+            while (cursor.hasNext()) {
+                Reserve reserve = cursor.next();
+                if (reserve.getDates() != null && !reserve.getDates().isEmpty()) {
+                    batch.add(reserve);
+                }
+                if (!batch.isEmpty() && (batch.size() == batchSize || !cursor.hasNext())) {
+                    BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Reserve.class);
+                    batch.forEach(pending -> bulk.updateOne(Query.query(Criteria.where("id").is(pending.getId())),
+                            new Update().set("endDate", Collections.max(pending.getDates()))));
+                    bulk.execute();
+                    batch.clear();
+                }
+            }
+        }
+    }
+}
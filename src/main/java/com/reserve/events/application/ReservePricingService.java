@@ -0,0 +1,207 @@
+package com.reserve.events.application;
+
+import com.reserve.events.controllers.domain.entity.Adittional;
+import com.reserve.events.controllers.domain.entity.Catering;
+import com.reserve.events.controllers.domain.entity.Decoration;
+import com.reserve.events.controllers.domain.entity.Entertainment;
+import com.reserve.events.controllers.domain.model.*;
+import com.reserve.events.controllers.domain.repository.AdittionalRepository;
+import com.reserve.events.controllers.domain.repository.CateringRepository;
+import com.reserve.events.controllers.domain.repository.DecorationRepository;
+import com.reserve.events.controllers.domain.repository.EntertainmentRepository;
+import com.reserve.events.controllers.dto.ReserveRequest;
+import com.reserve.events.controllers.exception.ServiceNotFoundException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Calcula los servicios cubiertos de una reserva y su costo.
+ * Los servicios se leen de la caché de catálogos y los que falten se cargan con una sola consulta por tipo,
+ * sin importar cuántos ítems traiga la reserva, así que el número de lecturas a Mongo está acotado.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReservePricingService {
+
+    private final EntertainmentRepository entertainmentRepository;
+    private final DecorationRepository decorationRepository;
+    private final CateringRepository cateringRepository;
+    private final AdittionalRepository adittionalRepository;
+    private final CatalogCache catalogCache;
+
+    /**
+     * Construye los servicios cubiertos de la reserva y suma su costo
+     * @param services servicios solicitados (puede ser null)
+     * @return servicios cubiertos y su costo total (sin el establecimiento)
+     * @throws ServiceNotFoundException con todos los ids que no existen, agrupados por tipo de servicio
+     */
+    public PricedServices priceServices(ReserveRequest.CoveredServicesRequest services) {
+        return priceServices(services, loadCatalog(services == null ? List.of() : List.of(services)));
+    }
+
+    /**
+     * Carga en una sola consulta por tipo de servicio todos los servicios pedidos por un conjunto de reservas,
+     * para poder calcular el costo de cada una sin volver a consultar Mongo
+     * @param requests servicios solicitados por cada reserva
+     * @return catálogo con los servicios encontrados
+     */
+    public Catalog loadCatalog(Collection<ReserveRequest.CoveredServicesRequest> requests) {
+        List<ReserveRequest.CoveredServicesRequest> services = requests.stream().filter(Objects::nonNull).toList();
+        return new Catalog(
+                findAllById(CatalogCache.ENTERTAINMENT, Entertainment.class, services.stream()
+                        .flatMap(s -> s.getEntertainment().stream().map(ReserveRequest.EntertainmentRequest::getId)).toList(),
+                        entertainmentRepository::findAllById, Entertainment::getId),
+                findAllById(CatalogCache.DECORATION, Decoration.class, services.stream()
+                        .filter(s -> s.getDecoration() != null).map(s -> s.getDecoration().getId()).toList(),
+                        decorationRepository::findWithoutBookingsByIdIn, Decoration::getId),
+                findAllById(CatalogCache.CATERING, Catering.class, services.stream()
+                        .flatMap(s -> s.getCatering().stream().map(ReserveRequest.CateringRequest::getId)).toList(),
+                        cateringRepository::findAllById, Catering::getId),
+                findAllById(CatalogCache.ADDITIONAL, Adittional.class, services.stream()
+                        .flatMap(s -> s.getAdditionalServices().stream().map(ReserveRequest.AdditionalRequest::getId)).toList(),
+                        adittionalRepository::findAllById, Adittional::getId));
+    }
+
+    /**
+     * Construye los servicios cubiertos de la reserva a partir de un catálogo ya cargado
+     * @param services servicios solicitados (puede ser null)
+     * @param catalog catálogo devuelto por {@link #loadCatalog(Collection)}
+     * @return servicios cubiertos y su costo total (sin el establecimiento)
+     * @throws ServiceNotFoundException con todos los ids que no existen, agrupados por tipo de servicio
+     */
+    public PricedServices priceServices(ReserveRequest.CoveredServicesRequest services, Catalog catalog) {
+        CoveredServicesReserve covered = new CoveredServicesReserve();
+        if (services == null || noServices(services)) {
+            return new PricedServices(covered, 0);
+        }
+
+        // Se reportan todos los servicios faltantes a la vez
+        List<String> missing = new ArrayList<>();
+        services.getEntertainment().stream().map(ReserveRequest.EntertainmentRequest::getId).distinct()
+                .filter(id -> !catalog.getEntertainment().containsKey(id))
+                .forEach(id -> missing.add("entretenimiento " + id));
+        if (services.getDecoration() != null && !catalog.getDecoration().containsKey(services.getDecoration().getId())) {
+            missing.add("decoración " + services.getDecoration().getId());
+        }
+        services.getCatering().stream().map(ReserveRequest.CateringRequest::getId).distinct()
+                .filter(id -> !catalog.getCatering().containsKey(id))
+                .forEach(id -> missing.add("catering " + id));
+        services.getAdditionalServices().stream().map(ReserveRequest.AdditionalRequest::getId).distinct()
+                .filter(id -> !catalog.getAdditional().containsKey(id))
+                .forEach(id -> missing.add("adicional " + id));
+        if (!missing.isEmpty()) {
+            throw new ServiceNotFoundException("No existen los servicios: " + String.join(", ", missing));
+        }
+
+        double cost = 0;
+        for (ReserveRequest.EntertainmentRequest entReq : services.getEntertainment()) {
+            EntertainmentSummary summaryEntertainment = createEntertainmentSummary(catalog.getEntertainment().get(entReq.getId()), entReq.getHours());
+            covered.getEntertainment().add(summaryEntertainment);
+            cost += summaryEntertainment.getTotalCost();
+        }
+
+        if (services.getDecoration() != null) {
+            DecorationSummary decorationSummary = createDecorationSummary(catalog.getDecoration().get(services.getDecoration().getId()));
+            covered.setDecoration(decorationSummary);
+            cost += decorationSummary.getCost();
+        }
+
+        for (ReserveRequest.CateringRequest catReq : services.getCatering()) {
+            CateringSummary summaryCatering = createCateringSummary(catalog.getCatering().get(catReq.getId()), catReq.getNumberDish());
+            covered.getCatering().add(summaryCatering);
+            cost += summaryCatering.getTotalCost();
+        }
+
+        for (ReserveRequest.AdditionalRequest addReq : services.getAdditionalServices()) {
+            AdittionalSummary summaryAdittional = createAdittionalSummary(catalog.getAdditional().get(addReq.getId()), addReq.getQuantity());
+            covered.getAdditionalServices().add(summaryAdittional);
+            cost += summaryAdittional.getTotalCost();
+        }
+
+        return new PricedServices(covered, cost);
+    }
+
+    // Busca los ids de un tipo en la caché de catálogos y los faltantes en una sola consulta
+    private <T> Map<String, T> findAllById(String cacheName, Class<T> type, List<String> ids,
+                                           Function<List<String>, ? extends Iterable<T>> loader, Function<T, String> idOf) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return catalogCache.getAll(cacheName, ids, type, loader, idOf);
+    }
+
+    private boolean noServices(ReserveRequest.CoveredServicesRequest services) {
+        return services.getEntertainment().isEmpty() &&
+                services.getCatering().isEmpty() &&
+                services.getDecoration() == null &&
+                services.getAdditionalServices().isEmpty();
+    }
+
+    private EntertainmentSummary createEntertainmentSummary(Entertainment entertainment, int hours) {
+        double totalCost = entertainment.getHourlyRate() * hours;
+        return EntertainmentSummary.builder()
+                .id(entertainment.getId())
+                .name(entertainment.getName())
+                .type(entertainment.getType())
+                .hours(hours)
+                .totalCost(totalCost)
+                .build();
+    }
+
+    private DecorationSummary createDecorationSummary(Decoration decoration) {
+        return DecorationSummary.builder()
+                .id(decoration.getId())
+                .articles(decoration.getArticles())
+                .cost(decoration.getCost())
+                .build();
+    }
+
+    private CateringSummary createCateringSummary(Catering catering, int numberDish) {
+        double totalCost = catering.getCostDish() * numberDish;
+        return CateringSummary.builder()
+                .id(catering.getId())
+                .menuType(catering.getMenuType())
+                .description(catering.getDescription())
+                .numberDish(numberDish)
+                .totalCost(totalCost)
+                .build();
+    }
+
+    private AdittionalSummary createAdittionalSummary(Adittional adittional, int quantity) {
+        double totalCost = adittional.getCost() * quantity;
+        return AdittionalSummary.builder()
+                .id(adittional.getId())
+                .name(adittional.getName())
+                .description(adittional.getDescription())
+                .quantity(quantity)
+                .totalCost(totalCost)
+                .build();
+    }
+
+    /** Servicios del catálogo indexados por id */
+    @Data
+    @AllArgsConstructor
+    public static class Catalog {
+        private Map<String, Entertainment> entertainment;
+        private Map<String, Decoration> decoration;
+        private Map<String, Catering> catering;
+        private Map<String, Adittional> additional;
+    }
+
+    /** Servicios cubiertos de una reserva y la suma de sus costos */
+    @Data
+    @AllArgsConstructor
+    public static class PricedServices {
+        private CoveredServicesReserve covered;
+        private double totalCost;
+    }
+}
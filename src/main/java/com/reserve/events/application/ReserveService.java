@@ -3,18 +3,31 @@ package com.reserve.events.application;
 import com.reserve.events.controllers.domain.entity.*;
 import com.reserve.events.controllers.domain.model.*;
 import com.reserve.events.controllers.domain.repository.*;
+import com.reserve.events.controllers.dto.ReserveListRequest;
 import com.reserve.events.controllers.dto.ReserveRequest;
 import com.reserve.events.controllers.exception.*;
+import com.reserve.events.controllers.response.BulkReserveResponse;
+import com.reserve.events.controllers.response.CursorPageResponse;
 import com.reserve.events.controllers.response.ReserveResponse;
-import com.reserve.events.controllers.exception.UserNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -24,14 +37,15 @@ public class ReserveService {
 
     private final ReserveRepository reserveRepository;
     private final EventRepository eventRepository;
-    private final UserRepository userRepository;
     private final PaymentRepository paymentRepository;
     private final EstablishmentRepository establishmentRepository;
     private final EstablishmentService establishmentService;
-    private final EntertainmentRepository entertainmentRepository;
-    private final DecorationRepository decorationRepository;
-    private final CateringRepository cateringRepository;
-    private final AdittionalRepository adittionalRepository;
+    private final ReservePricingService reservePricingService;
+    private final CatalogCache catalogCache;
+    private final BookingFanOutService bookingFanOutService;
+    private final BookingOutboxDispatcher bookingOutboxDispatcher;
+    private final Validator validator;
+    private final MongoTemplate mongoTemplate;
 
     // DONE: Verificar que los invitados no excedan el cupo max del establecimiento
     // TO DO: Agregar los errores que no están al global exception
@@ -39,33 +53,19 @@ public class ReserveService {
     // DONE: Revisar que las fechas dadas en la lista de Dates sean del presente o del futuro, que no se puedan fechas pasadas
 
     @Transactional
-    public ReserveResponse createReserve(ReserveRequest request, String email){
-
-        // Validar que el cliente exista
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UserNotFoundException("No existe un usuario con el correo: " + email));
+    public ReserveResponse createReserve(ReserveRequest request, CurrentUser currentUser){
 
         // Validar que el evento exista
-        Event event = eventRepository.findById(request.getEventId())
+        Event event = catalogCache.get(CatalogCache.EVENT, request.getEventId(), Event.class, eventRepository::findSummaryById)
                 .orElseThrow(() -> new EventNotFoundException("No existe un evento con el id: " + request.getEventId()));
 
         // Validar que el establecimiento exista
-        Establishment establishment = establishmentRepository.findById(request.getEstablishmentId())
+        Establishment establishment = catalogCache.get(CatalogCache.ESTABLISHMENT, request.getEstablishmentId(), Establishment.class,
+                        establishmentRepository::findWithoutBookingsById)
                 .orElseThrow(() -> new EstablishmentNotFoundException("No existe un establecimiento con el id: " + request.getEstablishmentId()));
 
-        // Validar que el cupo no exceda el máximo del establecimiento
-        boolean guestCapacity = establishment.getCapacity() < request.getGuestNumber();
-        if (guestCapacity){
-            throw new BadRequestException("El número de invitados excede la capacidad del local. Su capacidad es de " + establishment.getCapacity());
-        }
-
-        // Validar que todas las fechas sean futuras
-        java.time.LocalDate today = java.time.LocalDate.now();
-        for (java.time.LocalDate date : request.getDates()) {
-            if (date.isBefore(today)) {
-                throw new BadRequestException("No se pueden reservar fechas pasadas. La fecha " + date + " es anterior a hoy.");
-            }
-        }
+        // Validar cupo del establecimiento y que las fechas no sean pasadas
+        validateGuestsAndDates(request, establishment);
 
         // Validar que las fechas en las que se quiere reservar si estan disponibles
         boolean datesAvailable = establishmentService.areDatesAvailableForEstablishment(request.getDates(), request.getEstablishmentId());
@@ -73,147 +73,174 @@ public class ReserveService {
             throw new AvailableEstablishmentNotFoundException("El establecimiento escogido para la reserva no tiene disponibilidad en las fechas: " + request.getDates());
         }
 
-        // Iniciar el costo total de la reserva, en ambos casos, el costo del establecimiento es el costo base.
-        double costReserveTotal = establishment.getCost();
-
-        // Verificar si no se escogio ningun servicio
-        boolean isWithoutServices = noServices(request.getServices());
-
-        // objeto de servicios vacio
-        CoveredServicesReserve covered = new CoveredServicesReserve();
-
-        // Calcular el costo total si se adquirieron servicios, además crear el obj de servicios
-        if(!isWithoutServices){
-
-            if (!request.getServices().getEntertainment().isEmpty()) {
-                for (ReserveRequest.EntertainmentRequest entReq: request.getServices().getEntertainment()) {
-                    //Buscar el servicio
-                    Entertainment ent = entertainmentRepository.findById(entReq.getId())
-                            .orElseThrow(()-> new ServiceNotFoundException("No existe el servicio de entretenimiento con id:" + entReq.getId()));
+        // Calcular el costo de los servicios (una consulta por tipo de servicio) y mapear a la entidad Reserve
+        ReservePricingService.PricedServices pricedServices = reservePricingService.priceServices(request.getServices());
+        Reserve reserve = buildNewReserve(request, createUserSummary(currentUser), event, establishment, pricedServices);
+
+        // Reclamar atómicamente los días en el índice de ocupación: si otra reserva concurrente
+        // ganó alguno de los días se lanza AvailableEstablishmentNotFoundException
+        List<EstablishmentOccupancy> claims = establishmentService.claimDates(request.getEstablishmentId(), reserve.getId(), request.getDates());
+
+        // Guardar la reserva junto con su outbox, liberando los días si no se pudo guardar
+        Reserve savedReserve;
+        try {
+            savedReserve = reserveRepository.insert(reserve);
+        } catch (RuntimeException ex) {
+            establishmentService.releaseClaims(claims);
+            throw ex;
+        }
+        log.info("Reserva creada con ID: {}", savedReserve.getId());
 
-                    //Crear el summary
-                    EntertainmentSummary summaryEntertainment = createEntertainmentSummary(ent, entReq.getHours());
+        // Las copias en usuario, establecimiento, evento y decoración y el pago PENDIENTE
+        // se aplican en segundo plano desde el outbox de la reserva
+        bookingOutboxDispatcher.dispatchAsync();
 
-                    // 3. Agregar al objeto de servicios cubiertos
-                    covered.getEntertainment().add(summaryEntertainment);
+        //Covertir a response y retornar
+        return mapToReserveResponse(savedReserve);
+    }
 
-                    // 4. Sumar el costo total
-                    costReserveTotal += summaryEntertainment.getTotalCost();
+    /**
+     * Crea varias reservas de un mismo cliente en una sola operación.
+     * El usuario llega resuelto desde la petición; los eventos, los establecimientos y el catálogo de servicios se leen
+     * de la caché de catálogos y los que falten se consultan una sola vez para todo el lote. Las reservas se
+     * insertan en una sola escritura bulk; los pagos y las copias desnormalizadas los aplica después el
+     * despachador del outbox.
+     * Cada reserva se valida y reclama sus días por separado, así que una reserva inválida o sin
+     * disponibilidad se reporta en su resultado sin impedir que se creen las demás.
+     * No es transaccional a propósito: una transacción haría que un fallo anulara todo el lote.
+     * @param requests reservas a crear
+     * @param currentUser cliente autenticado
+     * @return resultado de cada reserva en el orden de la solicitud
+     */
+    public BulkReserveResponse createReserves(List<ReserveRequest> requests, CurrentUser currentUser) {
+        UserSummary userSummary = createUserSummary(currentUser);
+
+        // Búsquedas compartidas por todo el lote
+        Map<String, Event> events = catalogCache.getAll(CatalogCache.EVENT, requests.stream()
+                        .map(ReserveRequest::getEventId).filter(Objects::nonNull).toList(),
+                Event.class, eventRepository::findWithoutBookingsByIdIn, Event::getId);
+        Map<String, Establishment> establishments = catalogCache.getAll(CatalogCache.ESTABLISHMENT, requests.stream()
+                        .map(ReserveRequest::getEstablishmentId).filter(Objects::nonNull).toList(),
+                Establishment.class, establishmentRepository::findWithoutBookingsByIdIn, Establishment::getId);
+        ReservePricingService.Catalog catalog = reservePricingService.loadCatalog(requests.stream()
+                .map(ReserveRequest::getServices).toList());
+
+        BulkReserveResponse.ItemResult[] results = new BulkReserveResponse.ItemResult[requests.size()];
+        List<Reserve> pending = new ArrayList<>();
+        List<Integer> pendingIndexes = new ArrayList<>();
+        List<List<EstablishmentOccupancy>> pendingClaims = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            ReserveRequest request = requests.get(i);
+            try {
+                validateBean(request);
+
+                Event event = events.get(request.getEventId());
+                if (event == null) {
+                    throw new EventNotFoundException("No existe un evento con el id: " + request.getEventId());
                 }
-            }
-
-            if (!(request.getServices().getDecoration() == null)){
-                String idDecoracion = request.getServices().getDecoration().getId();
-                Decoration decoration = decorationRepository.findById(idDecoracion)
-                        .orElseThrow(() -> new ServiceNotFoundException("No existe el servicio de decoración con id: " + idDecoracion));
-
-                DecorationSummary decorationSummary = createDecorationSummary(decoration);
-                covered.setDecoration(decorationSummary);
-
-                costReserveTotal += decorationSummary.getCost();
-            }
-
-            if (!request.getServices().getCatering().isEmpty()) {
-                for (ReserveRequest.CateringRequest catReq: request.getServices().getCatering()) {
-                    //Buscar el servicio
-                    Catering cat = cateringRepository.findById(catReq.getId())
-                            .orElseThrow(()-> new ServiceNotFoundException("No existe el servicio de catering con id:" + catReq.getId()));
-
-                    //Crear el summary
-                    CateringSummary summaryCatering = createCateringSummary(cat, catReq.getNumberDish());
-
-                    // 3. Agregar al objeto de servicios cubiertos
-                    covered.getCatering().add(summaryCatering);
-
-                    // 4. Sumar el costo total
-                    costReserveTotal += summaryCatering.getTotalCost();
+                Establishment establishment = establishments.get(request.getEstablishmentId());
+                if (establishment == null || !Boolean.TRUE.equals(establishment.getActive())) {
+                    throw new EstablishmentNotFoundException("No existe un establecimiento con el id: " + request.getEstablishmentId());
                 }
+                validateGuestsAndDates(request, establishment);
+
+                Reserve reserve = buildNewReserve(request, userSummary, event, establishment,
+                        reservePricingService.priceServices(request.getServices(), catalog));
+
+                // Los días se reclaman uno a uno contra el índice único; dos reservas del mismo lote
+                // que pidan el mismo día chocan igual que dos peticiones concurrentes
+                pendingClaims.add(establishmentService.claimDates(request.getEstablishmentId(), reserve.getId(), request.getDates()));
+                pending.add(reserve);
+                pendingIndexes.add(i);
+            } catch (RuntimeException ex) {
+                results[i] = failedItem(i, ex);
             }
+        }
 
-            if (!(request.getServices().getAdditionalServices().isEmpty())){
-                for (ReserveRequest.AdditionalRequest addReq: request.getServices().getAdditionalServices()) {
-                    //Buscar el servicio
-                    Adittional add = adittionalRepository.findById(addReq.getId())
-                            .orElseThrow(()-> new ServiceNotFoundException("No existe el servicio adicional con id:" + addReq.getId()));
-
-                    //Crear el summary
-                    AdittionalSummary summaryAdittional = createAdittionalSummary(add, addReq.getQuantity());
-
-                    // 3. Agregar al objeto de servicios cubiertos
-                    covered.getAdditionalServices().add(summaryAdittional);
-
-                    // 4. Sumar el costo total
-                    costReserveTotal += summaryAdittional.getTotalCost();
-                }
+        // Insertar todas las reservas válidas en una sola escritura, liberando los días de las que fallen
+        Map<Integer, String> insertErrors = bookingFanOutService.insertReserves(pending);
+        List<Reserve> created = new ArrayList<>();
+        for (int j = 0; j < pending.size(); j++) {
+            int index = pendingIndexes.get(j);
+            if (insertErrors.containsKey(j)) {
+                establishmentService.releaseClaims(pendingClaims.get(j));
+                results[index] = BulkReserveResponse.ItemResult.builder().index(index).success(false).error(insertErrors.get(j)).build();
+            } else {
+                created.add(pending.get(j));
+                results[index] = BulkReserveResponse.ItemResult.builder().index(index).success(true)
+                        .reserve(mapToReserveResponse(pending.get(j))).build();
             }
         }
 
-        // Crear los summary
-        UserSummary userSummary = createUserSummary(user);
-        EventSummary eventSummary = createEventSummary(event);
-        EstablishmentSummary establishmentSummary = createEstablishmentSummary(establishment, request.getDates().size());
-
-        // Establecer estado en PROGRAMADO
-        StatusReserve status = StatusReserve.PROGRAMADA;
-
-        // Mapear el ReserveRequest a la entidad Reserve
-        Reserve reserve = Reserve.builder()
-                .status(status)
-                .guestNumber(request.getGuestNumber())
-                .dates(request.getDates())
-                .totalCost(costReserveTotal)
-                .comments(request.getComments())
-                .client(userSummary)
-                .event(eventSummary)
-                .establishment(establishmentSummary)
-                .services(covered)
-                .build();
-
-        // Guardar la reserva
-        Reserve savedReserve = reserveRepository.save(reserve);
-        log.info("Reserva creada con ID: {}", savedReserve.getId());
-
-        // Guardar la reserva en usuario, establecimiento, evento y decoración (si aplica)
-        updatedUserWithNewReserve(savedReserve, user.getId());
-        updatedEstablishmentWithNewReserve(savedReserve, request.getEstablishmentId(), userSummary);
-        updatedEventWithNewReserve(savedReserve, request.getEventId(), userSummary, establishmentSummary);
-
-        // Si tiene decoración, agregar la reserva a la decoración
-        if (request.getServices().getDecoration() != null) {
-            updatedDecorationWithNewReserve(savedReserve, request.getServices().getDecoration().getId(), userSummary, eventSummary, establishmentSummary);
+        // Copias desnormalizadas y pagos PENDIENTES de las reservas creadas, desde el outbox
+        if (!created.isEmpty()) {
+            bookingOutboxDispatcher.dispatchAsync();
         }
+        log.info("Creación en lote: {} de {} reservas creadas para {}", created.size(), requests.size(), currentUser.getEmail());
 
-        // Crear el pago de la reserva en estado PENDIENTE
-        createPaymentForReserve(savedReserve, userSummary, establishmentSummary);
-
-        //Covertir a response y retornar
-        return mapToReserveResponse(savedReserve);
+        return BulkReserveResponse.builder()
+                .total(requests.size())
+                .created(created.size())
+                .failed(requests.size() - created.size())
+                .results(List.of(results))
+                .build();
     }
 
     /**
-     * Lista las reservas del usuario autenticado identificado por su email
+     * Lista por páginas las reservas del usuario autenticado, de la más reciente a la más antigua
+     * @param currentUser usuario autenticado
+     * @param request cursor, tamaño de página y filtros
+     * @return página de reservas y cursor de la siguiente
      */
-    public List<ReserveResponse> listReservesByUserEmail(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UserNotFoundException("No existe un usuario con el correo: " + email));
-
-        java.util.List<Reserve> reserves = reserveRepository.findByClientId(user.getId());
+    public CursorPageResponse<ReserveResponse> listReservesByUser(CurrentUser currentUser, ReserveListRequest request) {
+        // Keyset sobre el índice {client.id, _id}: la página siguiente empieza después del último _id devuelto
+        Criteria criteria = Criteria.where("client.id").is(currentUser.getId());
+        ObjectId after = KeysetCursor.decode(request.getCursor());
+        if (after != null) {
+            criteria.and("id").lt(after);
+        }
+        if (request.getStatus() != null) {
+            criteria.and("status").is(request.getStatus());
+        }
+        if (request.getFrom() != null || request.getTo() != null) {
+            Criteria dateRange = new Criteria();
+            if (request.getFrom() != null) {
+                dateRange.gte(request.getFrom());
+            }
+            if (request.getTo() != null) {
+                dateRange.lte(request.getTo());
+            }
+            criteria.and("dates").elemMatch(dateRange);
+        }
 
-        return reserves.stream().map(this::mapToReserveResponse).collect(Collectors.toList());
+        // Se pide un elemento de más para saber si hay otra página sin contar
+        int size = request.getSize();
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "id"))
+                .limit(size + 1);
+        query.fields().exclude("outbox");
+        List<Reserve> reserves = mongoTemplate.find(query, Reserve.class);
+
+        boolean hasMore = reserves.size() > size;
+        List<Reserve> page = hasMore ? reserves.subList(0, size) : reserves;
+        return CursorPageResponse.<ReserveResponse>builder()
+                .content(page.stream().map(this::mapToReserveResponse).toList())
+                .size(size)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? KeysetCursor.encode(page.get(page.size() - 1).getId()) : null)
+                .build();
     }
 
     /**
      * Obtiene el detalle de una reserva por id para el usuario autenticado (o ADMIN)
      */
-    public ReserveResponse getReserveById(UserDetails userDetails, String id) {
+    public ReserveResponse getReserveById(CurrentUser currentUser, String id) {
         Reserve reserve = reserveRepository.findById(id)
             .orElseThrow(() -> new ReserveNotFoundException("Reserva no encontrada con ID: " + id));
 
         // Si el usuario no es ADMIN, validar que sea el dueño
-        User currentUser = userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new UserNotFoundException("Usuario no encontrado con email: " + userDetails.getUsername()));
-
-        if(!currentUser.getType().equals(UserType.ADMIN) && !reserve.getClient().getId().equals(currentUser.getId())){
+        if(!currentUser.isAdmin() && !reserve.getClient().getId().equals(currentUser.getId())){
             throw new ForbiddenException("No tienes permisos para ver esta reserva");
         }
 
@@ -224,14 +251,11 @@ public class ReserveService {
      * Actualiza una reserva (solo si está en estado PROGRAMADA)
      */
     @Transactional
-    public ReserveResponse updateReserve(UserDetails userDetails, String id, ReserveRequest request){
+    public ReserveResponse updateReserve(CurrentUser currentUser, String id, ReserveRequest request){
         Reserve reserva = reserveRepository.findById(id)
             .orElseThrow(() -> new ReserveNotFoundException("Reserva no encontrada con ID: " + id));
 
-        User user = userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new UserNotFoundException("Usuario no encontrado con email: " + userDetails.getUsername()));
-
-        if(!reserva.getClient().getId().equals(user.getId())){
+        if(!reserva.getClient().getId().equals(currentUser.getId())){
             throw new ForbiddenException("Como CLIENTE no puedes modificar una reserva que no es tuya.");
         }
 
@@ -239,168 +263,84 @@ public class ReserveService {
             throw new BadRequestException("Solo se pueden editar reservas en estado PROGRAMADA.");
         }
 
-        // Validar que todas las fechas sean futuras
-        java.time.LocalDate today = java.time.LocalDate.now();
-        for (java.time.LocalDate date : request.getDates()) {
-            if (date.isBefore(today)) {
-                throw new BadRequestException("No se pueden reservar fechas pasadas. La fecha " + date + " es anterior a hoy.");
-            }
-        }
+        // Validar que todas las fechas sean futuras (la misma regla que al crear)
+        ReservationDates.requireFuture(request.getDates());
 
         // Validar establecimiento si cambia
-        Establishment establishment = establishmentRepository.findById(request.getEstablishmentId())
+        Establishment establishment = catalogCache.get(CatalogCache.ESTABLISHMENT, request.getEstablishmentId(), Establishment.class,
+                        establishmentRepository::findWithoutBookingsById)
                 .orElseThrow(() -> new EstablishmentNotFoundException("No existe un establecimiento con el id: " + request.getEstablishmentId()));
 
-        // Validar disponibilidad de fechas
-        boolean datesAvailable = establishmentService.areDatesAvailableForEstablishment(request.getDates(), request.getEstablishmentId());
+        // Validar disponibilidad de fechas (sin contar los días que ya ocupa esta misma reserva)
+        boolean datesAvailable = establishmentService.areDatesAvailableForEstablishment(request.getDates(), request.getEstablishmentId(), reserva.getId());
         if (!datesAvailable) {
             throw new AvailableEstablishmentNotFoundException("El establecimiento escogido para la reserva no tiene disponibilidad en las fechas: " + request.getDates());
         }
 
+        // Establecimiento y decoración antes de la edición, para mover el resumen si cambian
+        String previousEstablishmentId = reserva.getEstablishment().getId();
+        String previousDecorationId = reserva.getServices() != null && reserva.getServices().getDecoration() != null
+                ? reserva.getServices().getDecoration().getId()
+                : null;
+
         // Actualizar campos básicos
         reserva.setGuestNumber(request.getGuestNumber());
         reserva.setDates(request.getDates());
+        reserva.setEndDate(Collections.max(request.getDates()));
         reserva.setComments(request.getComments());
         reserva.setEstablishment(createEstablishmentSummary(establishment, request.getDates().size()));
 
         // Recalcular costo total de la reserva (similar a createReserve)
         double costReserveTotal = establishment.getCost() * request.getDates().size();
-        CoveredServicesReserve covered = new CoveredServicesReserve();
-
-        if(!noServices(request.getServices())){
-            if (!request.getServices().getEntertainment().isEmpty()) {
-                for (ReserveRequest.EntertainmentRequest entReq: request.getServices().getEntertainment()) {
-                    Entertainment ent = entertainmentRepository.findById(entReq.getId())
-                            .orElseThrow(()-> new ServiceNotFoundException("No existe el servicio de entretenimiento con id:" + entReq.getId()));
-                    EntertainmentSummary summaryEntertainment = createEntertainmentSummary(ent, entReq.getHours());
-                    covered.getEntertainment().add(summaryEntertainment);
-                    costReserveTotal += summaryEntertainment.getTotalCost();
-                }
-            }
-
-            if (!(request.getServices().getDecoration() == null)){
-                String idDecoracion = request.getServices().getDecoration().getId();
-                Decoration decoration = decorationRepository.findById(idDecoracion)
-                        .orElseThrow(() -> new ServiceNotFoundException("No existe el servicio de decoración con id: " + idDecoracion));
-
-                DecorationSummary decorationSummary = createDecorationSummary(decoration);
-                covered.setDecoration(decorationSummary);
-
-                costReserveTotal += decorationSummary.getCost();
-            }
-
-            if (!request.getServices().getCatering().isEmpty()) {
-                for (ReserveRequest.CateringRequest catReq: request.getServices().getCatering()) {
-                    Catering cat = cateringRepository.findById(catReq.getId())
-                            .orElseThrow(()-> new ServiceNotFoundException("No existe el servicio de catering con id:" + catReq.getId()));
-                    CateringSummary summaryCatering = createCateringSummary(cat, catReq.getNumberDish());
-                    covered.getCatering().add(summaryCatering);
-                    costReserveTotal += summaryCatering.getTotalCost();
-                }
-            }
-
-            if (!(request.getServices().getAdditionalServices().isEmpty())){
-                for (ReserveRequest.AdditionalRequest addReq: request.getServices().getAdditionalServices()) {
-                    Adittional add = adittionalRepository.findById(addReq.getId())
-                            .orElseThrow(()-> new ServiceNotFoundException("No existe el servicio adicional con id:" + addReq.getId()));
-                    AdittionalSummary summaryAdittional = createAdittionalSummary(add, addReq.getQuantity());
-                    covered.getAdditionalServices().add(summaryAdittional);
-                    costReserveTotal += summaryAdittional.getTotalCost();
-                }
-            }
-        }
+        ReservePricingService.PricedServices pricedServices = reservePricingService.priceServices(request.getServices());
+        CoveredServicesReserve covered = pricedServices.getCovered();
+        costReserveTotal += pricedServices.getTotalCost();
 
         reserva.setServices(covered);
         reserva.setTotalCost(costReserveTotal);
 
-        Reserve saved = reserveRepository.save(reserva);
-
-        // actualizar reserva en scheduledBookings del usuario
-        user.getScheduledBookings().stream()
-                .filter(b -> b.getId().equals(saved.getId()))
-                .findFirst()
-                .ifPresent(b -> {
-                    b.setStatus(saved.getStatus());
-                    b.setDates(saved.getDates());
-                    b.setServices(saved.getServices());
-                });
-        userRepository.save(user);
-
-        // actualizar reserva en scheduledBookings del establecimiento
-        updateReserveInEstablishment(saved);
-
-        // actualizar reserva en scheduledBookings del evento
-        updateReserveInEvent(saved);
-
-        // Si tiene decoración, actualizar la reserva en la decoración
-        if (saved.getServices() != null && saved.getServices().getDecoration() != null) {
-            updateReserveInDecoration(saved);
+        // Reclamar atómicamente los días nuevos (los que ya tiene la reserva se conservan)
+        List<EstablishmentOccupancy> claims = establishmentService.claimDates(request.getEstablishmentId(), reserva.getId(), request.getDates());
+
+        // Solo se escriben los campos editados y solo si la reserva sigue PROGRAMADA: guardar el documento
+        // completo pisaría el outbox que el despachador puede estar aplicando
+        boolean updated;
+        try {
+            updated = mongoTemplate.updateFirst(whileScheduled(reserva.getId()), new Update()
+                            .set("guestNumber", reserva.getGuestNumber())
+                            .set("dates", reserva.getDates())
+                            .set("endDate", reserva.getEndDate())
+                            .set("comments", reserva.getComments())
+                            .set("establishment", reserva.getEstablishment())
+                            .set("services", reserva.getServices())
+                            .set("totalCost", reserva.getTotalCost()),
+                    Reserve.class).getMatchedCount() > 0;
+        } catch (RuntimeException ex) {
+            establishmentService.releaseClaims(claims);
+            throw ex;
+        }
+        if (!updated) {
+            // Se canceló o completó mientras se editaba
+            establishmentService.releaseClaims(claims);
+            throw new BadRequestException("Solo se pueden editar reservas en estado PROGRAMADA.");
         }
 
-        return mapToReserveResponse(saved);
-    }
-
-    private void updatedUserWithNewReserve(Reserve reserve, String userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(()-> new UserNotFoundException("No existe el usuario con id:" + userId));
-
-        ReserveSummary summaryReserve = createReserveSummary(reserve);
-
-        // Nueva reserva siempre va a scheduledBookings
-        user.getScheduledBookings().add(summaryReserve);
-        userRepository.save(user);
-        log.info("Usuario '{}' actualizado con la reserva '{}'", user.getFullName(), summaryReserve.getId());
-    }
-
-    private void updatedEstablishmentWithNewReserve(Reserve reserve, String establishmentId, UserSummary user) {
-        Establishment establishment = establishmentRepository.findById(establishmentId)
-                .orElseThrow(() -> new EstablishmentNotFoundException("No existe el establishment con id:" + establishmentId));
-
-        Establishment.ReserveSummary summaryReserve = createReserveSummaryForEstablishment(reserve, user);
-
-        // Nueva reserva siempre va a scheduledBookings
-        establishment.getScheduledBookings().add(summaryReserve);
-        establishmentRepository.save(establishment);
-        log.info("Establecimiento '{}' actualizado con la reserva '{}'", establishment.getName(), summaryReserve.getId());
-    }
-
-    private void updatedEventWithNewReserve(Reserve reserve, String eventId, UserSummary user, EstablishmentSummary establishmentSummary) {
-        Event event = eventRepository.findById(eventId)
-                .orElseThrow(() -> new EventNotFoundException("No existe el evento con id:" + eventId));
-
-        Event.ReserveSummary summaryReserve = createReserveSummaryForEvent(reserve, user, establishmentSummary);
-
-        // Nueva reserva siempre va a scheduledBookings
-        event.getScheduledBookings().add(summaryReserve);
-        eventRepository.save(event);
-        log.info("Evento '{}' actualizado con la reserva '{}'", event.getType(), summaryReserve.getId());
-    }
-
-    private void updatedDecorationWithNewReserve(Reserve reserve, String decorationId, UserSummary user, EventSummary eventSummary, EstablishmentSummary establishmentSummary) {
-        Decoration decoration = decorationRepository.findById(decorationId)
-                .orElseThrow(() -> new ServiceNotFoundException("No existe la decoración con id:" + decorationId));
-
-        Decoration.ReserveSummary summaryReserve = createReserveSummaryForDecoration(reserve, user, eventSummary, establishmentSummary);
+        // Liberar los días que la reserva ya no usa
+        establishmentService.releaseDatesExcept(reserva.getId(), request.getEstablishmentId(), reserva.getDates());
 
-        // Nueva reserva siempre va a scheduledBookings
-        decoration.getScheduledBookings().add(summaryReserve);
-        decorationRepository.save(decoration);
-        log.info("Decoración '{}' actualizada con la reserva '{}'", decoration.getTheme(), summaryReserve.getId());
-    }
+        // Actualizar el resumen de la reserva en usuario, establecimiento, evento y decoración
+        // con updates posicionales, sin leer ni reescribir esos documentos
+        bookingFanOutService.refreshBookings(reserva, previousEstablishmentId, previousDecorationId);
 
-    private boolean noServices(ReserveRequest.CoveredServicesRequest services){
-        return services.getEntertainment().isEmpty() &&
-                services.getCatering().isEmpty() &&
-                services.getDecoration() == null &&
-                services.getAdditionalServices().isEmpty();
+        return mapToReserveResponse(reserva);
     }
 
-    private UserSummary createUserSummary(User user) {
+    private UserSummary createUserSummary(CurrentUser currentUser) {
         return UserSummary.builder()
-                .id(user.getId())
-                .name(user.getFullName())
-                .email(user.getEmail())
-                .phone(user.getPhone())
+                .id(currentUser.getId())
+                .name(currentUser.getFullName())
+                .email(currentUser.getEmail())
+                .phone(currentUser.getPhone())
                 .build();
     }
 
@@ -422,102 +362,65 @@ public class ReserveService {
                 .build();
     }
 
-    private EntertainmentSummary createEntertainmentSummary(Entertainment entertainment, int hours) {
-        double totalCost = entertainment.getHourlyRate() * hours;
-        return EntertainmentSummary.builder()
-                .id(entertainment.getId())
-                .name(entertainment.getName())
-                .type(entertainment.getType())
-                .hours(hours)
-                .totalCost(totalCost)
-                .build();
-    }
-
-    private DecorationSummary createDecorationSummary(Decoration decoration) {
-        return DecorationSummary.builder()
-                .id(decoration.getId())
-                .articles(decoration.getArticles())
-                .cost(decoration.getCost())
-                .build();
-    }
+    // Valida que el cupo no exceda el máximo del establecimiento y que todas las fechas sean posteriores a hoy
+    private void validateGuestsAndDates(ReserveRequest request, Establishment establishment) {
+        boolean guestCapacity = establishment.getCapacity() < request.getGuestNumber();
+        if (guestCapacity){
+            throw new BadRequestException("El número de invitados excede la capacidad del local. Su capacidad es de " + establishment.getCapacity());
+        }
 
-    private CateringSummary createCateringSummary(Catering catering, int numberDish) {
-        double totalCost = catering.getCostDish() * numberDish;
-        return CateringSummary.builder()
-                .id(catering.getId())
-                .menuType(catering.getMenuType())
-                .description(catering.getDescription())
-                .numberDish(numberDish)
-                .totalCost(totalCost)
-                .build();
+        ReservationDates.requireFuture(request.getDates());
     }
 
-    private AdittionalSummary createAdittionalSummary(Adittional adittional, int quantity) {
-        double totalCost = adittional.getCost() * quantity;
-        return AdittionalSummary.builder()
-                .id(adittional.getId())
-                .name(adittional.getName())
-                .description(adittional.getDescription())
-                .quantity(quantity)
-                .totalCost(totalCost)
-                .build();
-    }
+    // Mapea el ReserveRequest a una reserva PROGRAMADA nueva.
+    // El id se genera antes de guardar para poder reclamar los días a nombre de la reserva
+    private Reserve buildNewReserve(ReserveRequest request, UserSummary userSummary, Event event, Establishment establishment,
+                                    ReservePricingService.PricedServices pricedServices) {
+        // El costo del establecimiento es el costo base
+        double costReserveTotal = establishment.getCost() + pricedServices.getTotalCost();
 
-    private ReserveSummary createReserveSummary(Reserve reserve) {
-        return ReserveSummary.builder()
-                .id(reserve.getId())
-                .status(reserve.getStatus())
-                .event(reserve.getEvent())
-                .establishment(reserve.getEstablishment())
-                .dates(reserve.getDates())
-                .services(reserve.getServices())
+        Reserve reserve = Reserve.builder()
+                .id(new ObjectId().toHexString())
+                .status(StatusReserve.PROGRAMADA)
+                .guestNumber(request.getGuestNumber())
+                .dates(request.getDates())
+                .endDate(Collections.max(request.getDates()))
+                .totalCost(costReserveTotal)
+                .comments(request.getComments())
+                .client(userSummary)
+                .event(createEventSummary(event))
+                .establishment(createEstablishmentSummary(establishment, request.getDates().size()))
+                .services(pricedServices.getCovered())
                 .build();
-    }
 
-    private Establishment.ReserveSummary createReserveSummaryForEstablishment(Reserve reserve, UserSummary user) {
-        return Establishment.ReserveSummary.builder()
-                .id(reserve.getId())
-                .status(reserve.getStatus())
-                .user(user)
-                .event(reserve.getEvent())
-                .dates(reserve.getDates())
-                .services(reserve.getServices())
-                .build();
+        // Las tareas de propagación se guardan con la reserva en la misma escritura
+        reserve.setOutbox(bookingFanOutService.newOutbox(reserve));
+        return reserve;
     }
 
-    private Event.ReserveSummary createReserveSummaryForEvent(Reserve reserve, UserSummary user, EstablishmentSummary establishment) {
-        return Event.ReserveSummary.builder()
-                .id(reserve.getId())
-                .status(reserve.getStatus())
-                .user(user)
-                .establishment(establishment)
-                .dates(reserve.getDates())
-                .services(reserve.getServices())
-                .build();
+    // En el lote las reservas no pasan por @Valid del controlador, así que se validan una a una
+    private void validateBean(ReserveRequest request) {
+        Set<ConstraintViolation<ReserveRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new BadRequestException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
     }
 
-    private Decoration.ReserveSummary createReserveSummaryForDecoration(Reserve reserve, UserSummary user, EventSummary event, EstablishmentSummary establishment) {
-        return Decoration.ReserveSummary.builder()
-                .id(reserve.getId())
-                .status(reserve.getStatus())
-                .user(user)
-                .event(event)
-                .establishment(establishment)
-                .dates(reserve.getDates())
-                .build();
+    private BulkReserveResponse.ItemResult failedItem(int index, RuntimeException ex) {
+        log.debug("Reserva {} del lote rechazada: {}", index, ex.getMessage());
+        return BulkReserveResponse.ItemResult.builder().index(index).success(false).error(ex.getMessage()).build();
     }
 
     @Transactional
-    public Reserve cancelarReserva(UserDetails userDetails, String id) {
+    public Reserve cancelarReserva(CurrentUser currentUser, String id) {
         Reserve reserva = reserveRepository.findById(id)
                 .orElseThrow(() -> new ReserveNotFoundException("Reserva no encontrada con ID: " + id));
 
-        // traer al usuario logueado
-        User user = userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new UserNotFoundException("Usuario no encontrado con email: " + userDetails.getUsername()));
-
         // verifica que si el usuario es cliente, sea el dueño de la reserva a cancelar
-        if(!user.getType().equals(UserType.CLIENTE) || !reserva.getClient().getId().equals(user.getId())) {
+        if(currentUser.getType() != UserType.CLIENTE || !reserva.getClient().getId().equals(currentUser.getId())) {
             throw new ForbiddenException("Como CLIENTE no puedes cancelar una reserva que no es tuya.");
         }
 
@@ -529,135 +432,33 @@ public class ReserveService {
             throw new ReservationCompletedCannotCancelException("No se puede cancelar una reserva completada.");
         }
 
-        // Actualizar estado a CANCELADA
+        // Pasar a CANCELADA solo si sigue PROGRAMADA, sin tocar el resto del documento (incluido el outbox)
+        boolean cancelled = mongoTemplate.updateFirst(whileScheduled(reserva.getId()),
+                new Update().set("status", StatusReserve.CANCELADA), Reserve.class).getMatchedCount() > 0;
+        if (!cancelled) {
+            // Otra petición o la tarea de ciclo de vida cambió el estado después de leer la reserva
+            StatusReserve current = reserveRepository.findById(id).map(Reserve::getStatus).orElse(StatusReserve.CANCELADA);
+            if (current == StatusReserve.COMPLETADA) {
+                throw new ReservationCompletedCannotCancelException("No se puede cancelar una reserva completada.");
+            }
+            throw new ReservationAlreadyCancelledException("La reserva ya está cancelada.");
+        }
         reserva.setStatus(StatusReserve.CANCELADA);
         // eliminar Pago asociado a la reserva
         paymentRepository.deletePaymentByReserve_Id(reserva.getId());
 
-        // Actualizar el estado de la reserva en las reservas del usuario
-        updateReserveToCanceledInUser(reserva.getId(), user);
+        // Liberar los días ocupados en el índice de ocupación
+        establishmentService.releaseDates(reserva.getId());
 
-        // Buscar el establecimiento y actualizar su reserva
-        updateReserveToCanceledInEstablishment(reserva.getEstablishment().getId(), reserva.getId());
+        // Mover la reserva a cancelledBookings del usuario, establecimiento, evento y decoración (si aplica)
+        bookingFanOutService.moveBookings(reserva, StatusReserve.PROGRAMADA);
 
-        // Buscar el evento y actualizar su reserva
-        updateReserveToCanceledInEvent(reserva.getEvent().getId(), reserva.getId());
-
-        // Si tiene decoración, actualizar la reserva en la decoración
-        if (reserva.getServices() != null && reserva.getServices().getDecoration() != null) {
-            updateReserveToCanceledInDecoration(reserva.getServices().getDecoration().getId(), reserva.getId());
-        }
-
-        return reserveRepository.save(reserva);
-    }
-
-    private void updateReserveToCanceledInUser(String reservaId, User user) {
-        // Buscar la reserva en scheduledBookings, actualizar status y mover a cancelledBookings
-        user.getScheduledBookings().stream()
-                .filter(booking -> booking.getId().equals(reservaId))
-                .findFirst()
-                .ifPresent(booking -> {
-                    booking.setStatus(StatusReserve.CANCELADA);
-                    user.getScheduledBookings().remove(booking);
-                    user.getCancelledBookings().add(booking);
-                });
-
-        // Guardar los cambios en el usuario
-        userRepository.save(user);
-    }
-
-    private void updateReserveToCanceledInEstablishment(String establishmentId, String reservaId){
-        establishmentRepository.findById(establishmentId)
-                .ifPresent(establishment -> {
-                    // Buscar la reserva en scheduledBookings, actualizar status y mover a cancelledBookings
-                    establishment.getScheduledBookings().stream()
-                            .filter(booking -> booking.getId().equals(reservaId))
-                            .findFirst()
-                            .ifPresent(booking -> {
-                                booking.setStatus(StatusReserve.CANCELADA);
-                                establishment.getScheduledBookings().remove(booking);
-                                establishment.getCancelledBookings().add(booking);
-                            });
-                    // Guardar los cambios en el establecimiento
-                    establishmentRepository.save(establishment);
-                });
-    }
-
-    private void updateReserveToCanceledInEvent(String eventId, String reservaId){
-        eventRepository.findById(eventId)
-                .ifPresent(event -> {
-                    // Buscar la reserva en scheduledBookings, actualizar status y mover a cancelledBookings
-                    event.getScheduledBookings().stream()
-                            .filter(booking -> booking.getId().equals(reservaId))
-                            .findFirst()
-                            .ifPresent(booking -> {
-                                booking.setStatus(StatusReserve.CANCELADA);
-                                event.getScheduledBookings().remove(booking);
-                                event.getCancelledBookings().add(booking);
-                            });
-                    // Guardar los cambios en el evento
-                    eventRepository.save(event);
-                });
-    }
-
-    private void updateReserveToCanceledInDecoration(String decorationId, String reservaId){
-        decorationRepository.findById(decorationId)
-                .ifPresent(decoration -> {
-                    // Buscar la reserva en scheduledBookings, actualizar status y mover a cancelledBookings
-                    decoration.getScheduledBookings().stream()
-                            .filter(booking -> booking.getId().equals(reservaId))
-                            .findFirst()
-                            .ifPresent(booking -> {
-                                booking.setStatus(StatusReserve.CANCELADA);
-                                decoration.getScheduledBookings().remove(booking);
-                                decoration.getCancelledBookings().add(booking);
-                            });
-                    // Guardar los cambios en la decoración
-                    decorationRepository.save(decoration);
-                });
-    }
-
-    private void updateReserveInEstablishment(Reserve reserve) {
-        establishmentRepository.findById(reserve.getEstablishment().getId())
-                .ifPresent(establishment -> {
-                    establishment.getScheduledBookings().stream()
-                            .filter(booking -> booking.getId().equals(reserve.getId()))
-                            .findFirst()
-                            .ifPresent(booking -> {
-                                booking.setDates(reserve.getDates());
-                                booking.setServices(reserve.getServices());
-                            });
-                    establishmentRepository.save(establishment);
-                });
-    }
-
-    private void updateReserveInEvent(Reserve reserve) {
-        eventRepository.findById(reserve.getEvent().getId())
-                .ifPresent(event -> {
-                    event.getScheduledBookings().stream()
-                            .filter(booking -> booking.getId().equals(reserve.getId()))
-                            .findFirst()
-                            .ifPresent(booking -> {
-                                booking.setDates(reserve.getDates());
-                                booking.setServices(reserve.getServices());
-                            });
-                    eventRepository.save(event);
-                });
+        return reserva;
     }
 
-    private void updateReserveInDecoration(Reserve reserve) {
-        if (reserve.getServices() != null && reserve.getServices().getDecoration() != null) {
-            decorationRepository.findById(reserve.getServices().getDecoration().getId())
-                    .ifPresent(decoration -> {
-                        decoration.getScheduledBookings().stream()
-                                .filter(booking -> booking.getId().equals(reserve.getId()))
-                                .findFirst()
-                                .ifPresent(booking -> {
-                                    booking.setDates(reserve.getDates());
-                                });
-                        decorationRepository.save(decoration);
-                    });
-        }
+    // Filtro de las escrituras que solo aplican a una reserva todavía PROGRAMADA
+    private Query whileScheduled(String id) {
+        return Query.query(Criteria.where("id").is(id).and("status").is(StatusReserve.PROGRAMADA));
     }
 
     public ReserveResponse mapToReserveResponse(Reserve reserve) {
@@ -674,102 +475,4 @@ public class ReserveService {
                 .comments(reserve.getComments())
                 .build();
     }
-
-    /**
-     * Crea un pago en estado PENDIENTE para la reserva recién creada.
-     */
-    private void createPaymentForReserve(Reserve reserve, UserSummary client, EstablishmentSummary establishment) {
-        // Crear ReserveInfo para el pago
-        Payment.ReserveInfo reserveInfo = Payment.ReserveInfo.builder()
-                .id(reserve.getId())
-                .status(reserve.getStatus())
-                .build();
-
-        // Convertir servicios de reserva a servicios de pago
-        Payment.CoveredServices coveredServices = mapToCoveredServicesPayment(reserve.getServices());
-
-        // Crear descripción del pago
-        String description = "Pago por reserva de " + reserve.getEvent().getType() +
-                             " en " + establishment.getName();
-
-        // Crear el pago
-        Payment payment = Payment.builder()
-                .description(description)
-                .status(PaymentStatus.PENDIENTE)
-                .totalCost(reserve.getTotalCost())
-                .client(client)
-                .reserve(reserveInfo)
-                .establishment(establishment)
-                .coveredServices(coveredServices)
-                .build();
-
-        Payment savedPayment = paymentRepository.save(payment);
-        log.info("Pago creado con ID: {} para la reserva: {}", savedPayment.getId(), reserve.getId());
-    }
-
-    /**
-     * Convierte CoveredServicesReserve a Payment.CoveredServices
-     */
-    private Payment.CoveredServices mapToCoveredServicesPayment(CoveredServicesReserve services) {
-        if (services == null) {
-            return Payment.CoveredServices.builder().build();
-        }
-
-        // Mapear entretenimiento
-        List<Payment.EntertainmentInfo> entertainmentList = new ArrayList<>();
-        if (services.getEntertainment() != null) {
-            for (EntertainmentSummary ent : services.getEntertainment()) {
-                entertainmentList.add(Payment.EntertainmentInfo.builder()
-                        .id(ent.getId())
-                        .name(ent.getName())
-                        .hourlyRate(ent.getTotalCost() / ent.getHours()) // Calcular hourlyRate desde totalCost/hours
-                        .hours(ent.getHours())
-                        .totalCost(ent.getTotalCost())
-                        .build());
-            }
-        }
-
-        // Mapear decoración
-        Payment.Decoration decoration = null;
-        if (services.getDecoration() != null) {
-            decoration = Payment.Decoration.builder()
-                    .id(services.getDecoration().getId())
-                    .articles(services.getDecoration().getArticles())
-                    .cost(services.getDecoration().getCost())
-                    .build();
-        }
-
-        // Mapear catering
-        List<Payment.CateringInfo> cateringList = new ArrayList<>();
-        if (services.getCatering() != null) {
-            for (CateringSummary cat : services.getCatering()) {
-                cateringList.add(Payment.CateringInfo.builder()
-                        .id(cat.getId())
-                        .description(cat.getDescription())
-                        .numberDish(cat.getNumberDish())
-                        .costDish(cat.getTotalCost() / cat.getNumberDish()) // Calcular costDish desde totalCost/numberDish
-                        .totalCost(cat.getTotalCost())
-                        .build());
-            }
-        }
-
-        // Mapear servicios adicionales
-        List<Payment.additionalInfo> additionalList = new ArrayList<>();
-        if (services.getAdditionalServices() != null) {
-            for (AdittionalSummary add : services.getAdditionalServices()) {
-                additionalList.add(Payment.additionalInfo.builder()
-                        .id(add.getId())
-                        .name(add.getName())
-                        .cost(add.getTotalCost() / add.getQuantity()) // Calcular cost unitario
-                        .build());
-            }
-        }
-
-        return Payment.CoveredServices.builder()
-                .entertainment(entertainmentList)
-                .decoration(decoration)
-                .catering(cateringList)
-                .additionalServices(additionalList)
-                .build();
-    }
 }
@@ -0,0 +1,174 @@
+package com.reserve.events.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.reserve.events.controllers.domain.entity.RefreshToken;
+import com.reserve.events.controllers.domain.repository.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sesiones cerradas cuyos access tokens todavía no vencen, para que el filtro JWT las rechace sin ir a Mongo.
+ *
+ * Las sesiones revocadas se guardan en un filtro de Bloom en memoria: un id que no está en el filtro
+ * seguro no fue revocado (el caso de casi todas las peticiones). Si el filtro dice que puede estar,
+ * se confirma en Mongo, porque el filtro admite falsos positivos (jwt.revocation.false-positive-rate).
+ *
+ * El filtro se actualiza cada jwt.revocation.refresh-ms con las revocaciones nuevas de cualquier nodo y se
+ * reconstruye desde cero cuando pasa la vida de un access token, para descartar las sesiones cuyos tokens ya vencieron.
+ */
+@Slf4j
+@Component
+public class RevokedSessions {
+
+    // Margen para revocaciones escritas por otros nodos con el reloj un poco atrasado
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(2);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final MongoTemplate mongoTemplate;
+    private final Duration accessTokenLifetime;
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+
+    // Resultado de confirmar en Mongo un posible positivo del filtro
+    private final Cache<String, Boolean> confirmed;
+
+    private volatile Bloom revoked;
+    private volatile Instant rebuiltAt = Instant.EPOCH;
+    private volatile Instant loadedUntil = Instant.EPOCH;
+
+    public RevokedSessions(RefreshTokenRepository refreshTokenRepository,
+                           MongoTemplate mongoTemplate,
+                           @Value("${jwt.expiration-ms}") long accessTokenMs,
+                           @Value("${jwt.revocation.expected:100000}") long expectedRevocations,
+                           @Value("${jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+                           @Value("${jwt.revocation.refresh-ms:5000}") long refreshMs) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.accessTokenLifetime = Duration.ofMillis(accessTokenMs);
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.revoked = new Bloom(expectedRevocations, falsePositiveRate);
+        this.confirmed = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMillis(refreshMs))
+                .build();
+    }
+
+    /**
+     * @param sessionId claim sid del access token (null en tokens emitidos antes de las sesiones)
+     * @return true si la sesión fue cerrada
+     */
+    public boolean isRevoked(String sessionId) {
+        if (sessionId == null || !revoked.mightContain(sessionId)) {
+            return false;
+        }
+        return confirmed.get(sessionId, refreshTokenRepository::existsByFamilyIdAndRevokedAtIsNotNull);
+    }
+
+    /** Marca una sesión cerrada en este nodo; los demás nodos la ven en su siguiente actualización */
+    public void revoke(String sessionId) {
+        revoked.put(sessionId);
+        confirmed.invalidate(sessionId);
+    }
+
+    /**
+     * Agrega las revocaciones nuevas de todos los nodos, o reconstruye el filtro si ya pasó la vida de un access token
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-ms:5000}")
+    public void refresh() {
+        Instant now = Instant.now();
+        try {
+            if (Duration.between(rebuiltAt, now).compareTo(accessTokenLifetime) >= 0) {
+                Bloom rebuilt = new Bloom(expectedRevocations, falsePositiveRate);
+                int loaded = load(now.minus(accessTokenLifetime).minus(CLOCK_SKEW), rebuilt);
+                revoked = rebuilt;
+                rebuiltAt = now;
+                confirmed.invalidateAll();
+                log.debug("Filtro de sesiones revocadas reconstruido con {} revocaciones", loaded);
+            } else {
+                load(loadedUntil.minus(CLOCK_SKEW), revoked);
+            }
+            loadedUntil = now;
+        } catch (RuntimeException ex) {
+            log.warn("No se pudieron cargar las sesiones revocadas; se mantiene el filtro anterior: {}", ex.getMessage());
+        }
+    }
+
+    private int load(Instant since, Bloom target) {
+        Query query = Query.query(Criteria.where("revokedAt").gte(since));
+        query.fields().include("familyId");
+        List<RefreshToken> tokens = mongoTemplate.find(query, RefreshToken.class);
+        tokens.forEach(token -> target.put(token.getFamilyId()));
+        return tokens.size();
+    }
+
+    /** Filtro de Bloom de tamaño fijo, seguro entre hilos (los bits solo se encienden) */
+    private static final class Bloom {
+
+        private final AtomicLongArray words;
+        private final int bits;
+        private final int hashes;
+
+        private Bloom(long expectedInsertions, double falsePositiveRate) {
+            long n = Math.max(1, expectedInsertions);
+            long optimalBits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bits = (int) Math.min(Integer.MAX_VALUE - 64, Math.max(64, optimalBits));
+            this.hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+            this.words = new AtomicLongArray((bits + 63) / 64);
+        }
+
+        private void put(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashes; i++) {
+                int bit = index(h1 + i * h2);
+                long mask = 1L << bit;
+                words.getAndUpdate(bit >>> 6, word -> word | mask);
+            }
+        }
+
+        private boolean mightContain(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashes; i++) {
+                int bit = index(h1 + i * h2);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int index(int combined) {
+            return (combined & Integer.MAX_VALUE) % bits;
+        }
+
+        // FNV-1a de 64 bits con la mezcla final de MurmurHash3 para repartir bien los bits altos
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb93fe94d1a53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.reserve.events.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.reserve.events.controllers.domain.entity.User;
+import com.reserve.events.controllers.domain.model.UserType;
+import com.reserve.events.controllers.domain.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Tipo actual de cada usuario autenticado, para comparar con el rol firmado en el token JWT.
+ * El filtro JWT arma el usuario desde las claims y solo consulta aquí si sigue existiendo y con el mismo rol;
+ * Mongo se consulta una vez por usuario cada tiempo de vida, no en cada petición.
+ *
+ * Un usuario eliminado o con otro rol deja de poder usar sus tokens a más tardar al vencer su entrada.
+ */
+@Slf4j
+@Service
+public class UserPrincipalCache {
+
+    private final UserRepository userRepository;
+
+    // Un usuario que no existe se guarda vacío, para no ir a Mongo en cada petición con un token de un usuario eliminado
+    private final Cache<String, Optional<UserType>> types;
+
+    public UserPrincipalCache(UserRepository userRepository,
+                              @Value("${security.principal-cache.max-entries:10000}") long maxEntries,
+                              @Value("${security.principal-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.types = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Tipo actual del usuario
+     * @param email email del usuario (subject del token)
+     * @return tipo del usuario, o vacío si ya no existe
+     */
+    public Optional<UserType> currentType(String email) {
+        return types.get(email, key -> {
+            log.debug("Cargando el tipo del usuario {} para validar su token", key);
+            return userRepository.findRoleByEmail(key).map(User::getType);
+        });
+    }
+
+    /** Descarta un usuario; su siguiente petición vuelve a leer el tipo desde Mongo */
+    public void evict(String email) {
+        types.invalidate(email);
+    }
+}
@@ -6,18 +6,37 @@ import com.reserve.events.controllers.domain.entity.Reserve;
 import com.reserve.events.controllers.domain.entity.User;
 import com.reserve.events.controllers.domain.model.EventSummary;
 import com.reserve.events.controllers.domain.model.ReserveSummary;
+import com.reserve.events.controllers.domain.model.StatusReserve;
+import com.reserve.events.controllers.domain.model.UserType;
 import com.reserve.events.controllers.domain.repository.UserRepository;
 import com.reserve.events.controllers.dto.LoginRequest;
+import com.reserve.events.controllers.dto.RefreshTokenRequest;
+import com.reserve.events.controllers.dto.UserListRequest;
 import com.reserve.events.controllers.dto.UserRequest;
+import com.reserve.events.controllers.exception.BadRequestException;
 import com.reserve.events.controllers.exception.UserAlreadyExistsException;
 import com.reserve.events.controllers.exception.UserNotFoundException;
+import com.reserve.events.controllers.response.CursorPageResponse;
+import com.reserve.events.controllers.response.PageResponse;
+import com.reserve.events.controllers.response.TokenRefreshResponse;
 import com.reserve.events.controllers.response.UserCreatedResponse;
 import com.reserve.events.controllers.response.UserLoginResponse;
 import com.reserve.events.controllers.response.UserResponse;
+import com.reserve.events.controllers.response.UserSummaryResponse;
 import com.reserve.events.security.jwt.JwtTokenProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -27,6 +46,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -40,6 +60,17 @@ public class UserService {
 
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
+    private final UserPrincipalCache userPrincipalCache;
+    private final RefreshTokenService refreshTokenService;
+    private final MongoTemplate mongoTemplate;
+
+    private static final int MAX_BOOKINGS_PAGE_SIZE = 100;
+
+    private static final Map<StatusReserve, String> BOOKING_LISTS = Map.of(
+            StatusReserve.PROGRAMADA, "scheduledBookings",
+            StatusReserve.COMPLETADA, "completedBookings",
+            StatusReserve.CANCELADA, "cancelledBookings"
+    );
 
     @Transactional
     public UserCreatedResponse createUser(UserRequest request){
@@ -48,7 +79,7 @@ public class UserService {
             throw new UserAlreadyExistsException("Esta dirección de correo electrónico ya está registrada");
         }
 
-        // TODO: Hashear la contraseña antes de guardarla
+        // Hashear la contraseña ({bcrypt} con el costo calibrado) en el pool acotado de hashing
         String hashedPassword = passwordEncoder.encode(request.getPassword());
         // Mapea UserRequest a la entidad User
         User user = User.builder()
@@ -61,6 +92,8 @@ public class UserService {
                 .build();
         // Guarda el usuario en la base de datos
         User savedUser = userRepository.save(user);
+        // Un token viejo con el mismo email no debe seguir viendo al usuario como eliminado
+        userPrincipalCache.evict(savedUser.getEmail());
 
         // Mapea la entidad User a UserCreatedResponse
         return UserCreatedResponse.builder()
@@ -85,18 +118,18 @@ public class UserService {
 
         // 2 Si la autenticación es exitosa, establecerla en el contexto de seguridad
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        // 3 Generar el token JWT
-        String token = jwtTokenProvider.generateToken(authentication);
-
-        // 4. Obtener el email del usuario autenticado
+        // 3 Abrir la sesión (refresh token) y generar el access token JWT ligado a ella
         String authenticatedEmail = authentication.getName();
+        RefreshTokenService.Session session = refreshTokenService.startSession(authenticatedEmail);
+        String token = jwtTokenProvider.generateToken(authentication, session.sessionId());
 
-        // 5 Buscar el usuario en la base de datos
+        // 4 Buscar el usuario en la base de datos
         User user = userRepository.findByEmail(authenticatedEmail)
                 .orElseThrow(() -> new UserNotFoundException("Usuario no encontrado después de la autenticación"));
 
         return UserLoginResponse.builder()
                 .token(token)
+                .refreshToken(session.refreshToken())
                 .user(
                         UserLoginResponse.UserInfo.builder()
                                 .id(user.getId())
@@ -109,61 +142,152 @@ public class UserService {
 
     }
 
-    @Transactional(readOnly = true)
-    public List<UserResponse> getAllUsers(){
-        return userRepository.findAll().stream()
-                .map(this::mapToUserResponse)
-                .collect(Collectors.toList());
+    /**
+     * Cambia un refresh token por un access token nuevo y el siguiente refresh token de la misma sesión.
+     * El rol del nuevo access token es el actual del usuario, no el del login.
+     * @param request refresh token vigente
+     * @return access token y refresh token nuevos
+     * @throws BadCredentialsException si el refresh token no es válido o el usuario ya no existe
+     */
+    public TokenRefreshResponse refreshSession(RefreshTokenRequest request) {
+        RefreshTokenService.Session session = refreshTokenService.rotate(request.getRefreshToken());
+
+        UserType type = userPrincipalCache.currentType(session.email()).orElse(null);
+        if (type == null) {
+            refreshTokenService.revokeSession(session.sessionId());
+            throw new BadCredentialsException("El usuario de la sesión ya no existe.");
+        }
+
+        String token = jwtTokenProvider.generateToken(session.email(), "ROLE_" + type.name(), session.sessionId());
+        return TokenRefreshResponse.builder()
+                .token(token)
+                .refreshToken(session.refreshToken())
+                .build();
     }
 
-    @Transactional(readOnly = true)
-    public UserResponse getUserById(String id){
-        return userRepository.findById(id)
-                .map(this::mapToUserResponse)
-                .orElseThrow(() -> new UserNotFoundException("Usuario no encontrado con ID: " + id));
+    /**
+     * Cierra la sesión del refresh token: deja de poder renovarse y sus access tokens se rechazan
+     * @param request refresh token de la sesión
+     */
+    public void logoutUser(RefreshTokenRequest request) {
+        refreshTokenService.revoke(request.getRefreshToken());
     }
 
-    @Transactional(readOnly = true)
-    public List<UserResponse> getAllUsersByType(String type){
-        return userRepository.findByType(type)
-                .stream()
-                .map(this::mapToUserResponse)
-                .collect(Collectors.toList());
+    /**
+     * Directorio de usuarios paginado por cursor, del más reciente al más antiguo.
+     * Solo se leen los datos de identidad y los tamaños de las listas, calculados en Mongo.
+     * @param request cursor y tamaño de página
+     * @return página de resúmenes de usuario
+     */
+    public CursorPageResponse<UserSummaryResponse> getAllUsers(UserListRequest request){
+        return listUsers(new Criteria(), request);
     }
 
-    public UserResponse mapToUserResponse(User user){
-        return UserResponse.builder()
-                .id(user.getId())
-                .fullName(user.getFullName())
-                .email(user.getEmail())
-                .phone(user.getPhone())
-                .city(user.getCity())
-                .type(user.getType())
-                .payments(user.getPayments() != null ? user.getPayments() : Collections.emptyList())
-                .scheduledBookings(
-                        user.getScheduledBookings() != null ?
-                                user.getScheduledBookings().stream()
-                                        .map(this::mapToReserveSummaryResponse)
-                                        .collect(Collectors.toList())
-                                : Collections.emptyList()
-                )
-                .completedBookings(
-                        user.getCompletedBookings() != null ?
-                                user.getCompletedBookings().stream()
-                                        .map(this::mapToReserveSummaryResponse)
-                                        .collect(Collectors.toList())
-                                : Collections.emptyList()
-                )
-                .cancelledBookings(
-                        user.getCancelledBookings() != null ?
-                                user.getCancelledBookings().stream()
-                                        .map(this::mapToReserveSummaryResponse)
-                                        .collect(Collectors.toList())
-                                : Collections.emptyList()
-                )
+    /**
+     * Directorio de usuarios de un tipo, paginado por cursor (usa el índice {type, _id})
+     * @param type tipo de usuario (CLIENTE o ADMIN)
+     * @param request cursor y tamaño de página
+     * @return página de resúmenes de usuario
+     */
+    public CursorPageResponse<UserSummaryResponse> getAllUsersByType(String type, UserListRequest request){
+        UserType userType;
+        try {
+            userType = UserType.valueOf(type.toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Tipo de usuario no válido: " + type);
+        }
+        return listUsers(Criteria.where("type").is(userType), request);
+    }
+
+    public UserSummaryResponse getUserById(String id){
+        List<UserSummaryResponse> users = findSummaries(Criteria.where("id").is(id), 1);
+        if (users.isEmpty()) {
+            throw new UserNotFoundException("Usuario no encontrado con ID: " + id);
+        }
+        return users.get(0);
+    }
+
+    /**
+     * Reservas de un usuario en un estado, paginadas. Mongo devuelve solo la porción pedida de la lista ($slice).
+     * @param id id del usuario
+     * @param status estado de las reservas (lista programadas, completadas o canceladas)
+     * @param page número de página (desde 0)
+     * @param size tamaño de página (máximo 100)
+     * @return página de reservas del usuario
+     */
+    public PageResponse<UserResponse.ReserveSummaryResponse> getUserBookings(String id, StatusReserve status, int page, int size){
+        if (page < 0 || size < 1 || size > MAX_BOOKINGS_PAGE_SIZE) {
+            throw new BadRequestException("La página debe ser mayor o igual a 0 y el tamaño estar entre 1 y " + MAX_BOOKINGS_PAGE_SIZE);
+        }
+        UserSummaryResponse summary = getUserById(id);
+        long total = switch (status) {
+            case PROGRAMADA -> summary.getScheduledBookingsCount();
+            case COMPLETADA -> summary.getCompletedBookingsCount();
+            case CANCELADA -> summary.getCancelledBookingsCount();
+        };
+
+        List<UserResponse.ReserveSummaryResponse> content = Collections.emptyList();
+        if (total > (long) page * size) {
+            String list = BOOKING_LISTS.get(status);
+            Query query = Query.query(Criteria.where("id").is(id));
+            query.fields().include("id").slice(list, page * size, size);
+            User user = mongoTemplate.findOne(query, User.class);
+            List<ReserveSummary> bookings = user == null ? null : switch (status) {
+                case PROGRAMADA -> user.getScheduledBookings();
+                case COMPLETADA -> user.getCompletedBookings();
+                case CANCELADA -> user.getCancelledBookings();
+            };
+            if (bookings != null) {
+                content = bookings.stream().map(this::mapToReserveSummaryResponse).collect(Collectors.toList());
+            }
+        }
+
+        return PageResponse.<UserResponse.ReserveSummaryResponse>builder()
+                .content(content)
+                .page(page)
+                .size(size)
+                .totalElements(total)
+                .totalPages((int) Math.ceil((double) total / size))
                 .build();
     }
 
+    private CursorPageResponse<UserSummaryResponse> listUsers(Criteria criteria, UserListRequest request){
+        ObjectId after = KeysetCursor.decode(request.getCursor());
+        if (after != null) {
+            criteria.and("id").lt(after);
+        }
+        // Se pide un elemento de más para saber si hay otra página sin contar
+        int size = request.getSize();
+        List<UserSummaryResponse> users = findSummaries(criteria, size + 1);
+
+        boolean hasMore = users.size() > size;
+        List<UserSummaryResponse> page = hasMore ? users.subList(0, size) : users;
+        return CursorPageResponse.<UserSummaryResponse>builder()
+                .content(page)
+                .size(size)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? KeysetCursor.encode(page.get(page.size() - 1).getId()) : null)
+                .build();
+    }
+
+    // Proyecta identidad y tamaños de las listas; las reservas y pagos embebidos no salen de Mongo
+    private List<UserSummaryResponse> findSummaries(Criteria criteria, int limit){
+        Aggregation aggregation = Aggregation.newAggregation(User.class,
+                Aggregation.match(criteria),
+                Aggregation.sort(Sort.by(Sort.Direction.DESC, "id")),
+                Aggregation.limit(limit),
+                Aggregation.project("fullName", "email", "phone", "city", "type")
+                        .and(sizeOf("scheduledBookings")).as("scheduledBookingsCount")
+                        .and(sizeOf("completedBookings")).as("completedBookingsCount")
+                        .and(sizeOf("cancelledBookings")).as("cancelledBookingsCount")
+                        .and(sizeOf("payments")).as("paymentsCount"));
+        return mongoTemplate.aggregate(aggregation, UserSummaryResponse.class).getMappedResults();
+    }
+
+    private AggregationExpression sizeOf(String list){
+        return ArrayOperators.Size.lengthOfArray(ConditionalOperators.ifNull(list).then(Collections.emptyList()));
+    }
+
     public UserResponse.ReserveSummaryResponse mapToReserveSummaryResponse(ReserveSummary reserve){
         return UserResponse.ReserveSummaryResponse.builder()
                 .id(reserve.getId())
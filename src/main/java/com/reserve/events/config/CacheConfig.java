@@ -0,0 +1,91 @@
+package com.reserve.events.config;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.reserve.events.application.CacheInvalidationBus;
+import com.reserve.events.application.CatalogCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Caché de los catálogos: memoria (Caffeine) como nivel 1 y Redis como nivel 2.
+ * Con catalog.cache.redis.enabled=false, o sin conexión a Redis configurada, se usa solo memoria.
+ * El mismo Redis lleva los avisos de invalidación entre nodos ({@link CacheInvalidationBus}).
+ */
+@Slf4j
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(ObjectProvider<RedisConnectionFactory> redisConnectionFactory,
+                                             @Value("${catalog.cache.redis.enabled:true}") boolean redisEnabled,
+                                             @Value("${catalog.cache.redis.ttl-minutes:30}") long redisTtlMinutes,
+                                             @Value("${catalog.cache.redis.retry-seconds:30}") long redisRetrySeconds,
+                                             @Value("${catalog.cache.local.max-entries:2000}") long localMaxEntries,
+                                             @Value("${catalog.cache.local.ttl-seconds:60}") long localTtlSeconds) {
+        RedisCacheManager remote = null;
+        RedisConnectionFactory connectionFactory = redisConnectionFactory.getIfAvailable();
+        if (redisEnabled && connectionFactory != null) {
+            RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig()
+                    .entryTtl(Duration.ofMinutes(redisTtlMinutes))
+                    .disableCachingNullValues()
+                    .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                            new GenericJackson2JsonRedisSerializer(redisObjectMapper())));
+            remote = RedisCacheManager.builder(connectionFactory).cacheDefaults(configuration).build();
+            remote.afterPropertiesSet();
+        } else {
+            log.info("Caché de catálogos solo en memoria (Redis deshabilitado o sin configurar)");
+        }
+        return new TwoLevelCacheManager(CatalogCache.NAMES, remote, localMaxEntries,
+                Duration.ofSeconds(localTtlSeconds), Duration.ofSeconds(redisRetrySeconds));
+    }
+
+    // Suscripción al canal de invalidación; si Redis se cae, el contenedor reintenta la suscripción
+    // y mientras tanto cada nodo ve los cambios de los demás al vencer sus cachés en memoria
+    @Bean
+    @ConditionalOnProperty(name = "catalog.cache.redis.enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer cacheInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                   CacheInvalidationBus invalidationBus,
+                                                                   @Value("${catalog.cache.redis.retry-seconds:30}") long retrySeconds) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setRecoveryInterval(Duration.ofSeconds(retrySeconds).toMillis());
+        container.addMessageListener((message, pattern) ->
+                        invalidationBus.receive(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(CacheInvalidationBus.CHANNEL));
+        return container;
+    }
+
+    // JSON con el tipo de cada valor para poder leerlo de vuelta; solo se aceptan clases del proyecto y colecciones
+    private static ObjectMapper redisObjectMapper() {
+        ObjectMapper mapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        mapper.activateDefaultTyping(BasicPolymorphicTypeValidator.builder()
+                        .allowIfSubType("com.reserve.events.")
+                        .allowIfSubType("java.util.")
+                        .build(),
+                ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+        return mapper;
+    }
+}
@@ -0,0 +1,34 @@
+package com.reserve.events.config;
+
+import com.reserve.events.application.CurrentUserContext;
+import com.reserve.events.controllers.domain.model.CurrentUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Inyecta en los controladores el usuario autenticado de la petición (parámetros de tipo CurrentUser),
+ * resuelto una sola vez por petición desde CurrentUserContext.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    // Proxy con alcance de petición: cada petición ve su propio contexto
+    private final CurrentUserContext currentUserContext;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return CurrentUser.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        return currentUserContext.get();
+    }
+}
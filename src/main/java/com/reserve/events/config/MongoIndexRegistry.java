@@ -0,0 +1,290 @@
+package com.reserve.events.config;
+
+import com.mongodb.MongoException;
+import com.reserve.events.controllers.domain.entity.*;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Registro central de los índices que necesitan las consultas de la API. Al crearse el bean, antes de que
+ * el servidor web acepte peticiones, crea los que falten y verifica que todos existan; los @Indexed y @CompoundIndex de las entidades
+ * documentan los mismos índices, pero la creación automática de Spring Data está deshabilitada por defecto.
+ *
+ * Cada índice se crea por separado: si uno falla (por ejemplo un índice único sobre datos duplicados)
+ * se registra el error y los demás se crean igual. Un índice que ya existe con otra definición (por ejemplo
+ * antes de volverse parcial) se elimina y se vuelve a crear. Si al final falta algún índice único la
+ * aplicación no arranca, porque las reservas y los pagos dependen de ellos para no duplicarse; la falta
+ * de un índice no único solo se registra, ya que afecta el rendimiento pero no la consistencia.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MongoIndexRegistry {
+
+    private static final int INDEX_OPTIONS_CONFLICT = 85;
+    private static final int INDEX_KEY_SPECS_CONFLICT = 86;
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Índice requerido sobre la colección de una entidad
+     * @param entity entidad mapeada a la colección
+     * @param index definición del índice (siempre con nombre)
+     */
+    public record RequiredIndex(Class<?> entity, Index index) {
+
+        public String name() {
+            return (String) index.getIndexOptions().get("name");
+        }
+
+        public boolean unique() {
+            return Boolean.TRUE.equals(index.getIndexOptions().get("unique"));
+        }
+    }
+
+    /**
+     * Índices que usan las consultas de los repositorios y servicios
+     */
+    public List<RequiredIndex> requiredIndexes() {
+        List<RequiredIndex> indexes = new ArrayList<>();
+
+        // Ocupación de establecimientos: reclamo atómico de fechas, liberación por reserva y búsqueda de disponibilidad
+        indexes.add(new RequiredIndex(EstablishmentOccupancy.class, new Index()
+                .on("establishmentId", Sort.Direction.ASC)
+                .on("date", Sort.Direction.ASC)
+                .unique()
+                .named("establishment_date_unique")));
+        indexes.add(new RequiredIndex(EstablishmentOccupancy.class, new Index()
+                .on("reserveId", Sort.Direction.ASC)
+                .named("reserveId")));
+        indexes.add(new RequiredIndex(EstablishmentOccupancy.class, new Index()
+                .on("date", Sort.Direction.ASC)
+                .on("establishmentId", Sort.Direction.ASC)
+                .named("date_establishment")));
+
+        // Establecimientos: nombre único entre los activos (el borrado lógico libera el nombre),
+        // activos por ciudad/tipo/capacidad y listado por cada campo de orden
+        indexes.add(new RequiredIndex(Establishment.class, new Index()
+                .on("name", Sort.Direction.ASC)
+                .unique()
+                .partial(PartialIndexFilter.of(Criteria.where("active").is(true)))
+                .named("name")));
+        indexes.add(new RequiredIndex(Establishment.class, new Index()
+                .on("active", Sort.Direction.ASC)
+                .on("city", Sort.Direction.ASC)
+                .on("type", Sort.Direction.ASC)
+                .on("capacity", Sort.Direction.ASC)
+                .named("active_city_type_capacity")));
+        for (String sortField : List.of("cost", "capacity", "name")) {
+            indexes.add(new RequiredIndex(Establishment.class, new Index()
+                    .on(sortField, Sort.Direction.ASC)
+                    .on("_id", Sort.Direction.ASC)
+                    .partial(PartialIndexFilter.of(Criteria.where("active").is(true)))
+                    .named("active_" + sortField)));
+            indexes.add(new RequiredIndex(Establishment.class, new Index()
+                    .on("city", Sort.Direction.ASC)
+                    .on(sortField, Sort.Direction.ASC)
+                    .on("_id", Sort.Direction.ASC)
+                    .partial(PartialIndexFilter.of(Criteria.where("active").is(true)))
+                    .named("active_city_" + sortField)));
+        }
+
+        // Reservas: ciclo de vida, listado del cliente, outbox, conteo por evento y reportes por fechas
+        indexes.add(new RequiredIndex(Reserve.class, new Index()
+                .on("status", Sort.Direction.ASC)
+                .on("endDate", Sort.Direction.ASC)
+                .named("status_endDate")));
+        indexes.add(new RequiredIndex(Reserve.class, new Index()
+                .on("client.id", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.DESC)
+                .named("client_id_desc")));
+        indexes.add(new RequiredIndex(Reserve.class, new Index()
+                .on("client.id", Sort.Direction.ASC)
+                .on("status", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.DESC)
+                .named("client_status_id_desc")));
+        indexes.add(new RequiredIndex(Reserve.class, new Index()
+                .on("outbox.nextAttemptAt", Sort.Direction.ASC)
+                .sparse()
+                .named("outbox_pending")));
+        indexes.add(new RequiredIndex(Reserve.class, new Index()
+                .on("event.id", Sort.Direction.ASC)
+                .on("status", Sort.Direction.ASC)
+                .named("event_status")));
+        indexes.add(new RequiredIndex(Reserve.class, new Index()
+                .on("dates", Sort.Direction.ASC)
+                .named("dates")));
+
+        // Pagos: listado por keyset con cada filtro y un solo pago por reserva (los pagos sin reserva no cuentan)
+        for (String filter : List.of("status", "client.id", "establishment.id")) {
+            indexes.add(new RequiredIndex(Payment.class, new Index()
+                    .on(filter, Sort.Direction.ASC)
+                    .on("_id", Sort.Direction.DESC)
+                    .named(filter.replace(".id", "") + "_id_desc")));
+        }
+        indexes.add(new RequiredIndex(Payment.class, new Index()
+                .on("reserve.id", Sort.Direction.ASC)
+                .unique()
+                .partial(PartialIndexFilter.of(Criteria.where("reserve.id").exists(true)))
+                .named("reserve_id_unique")));
+
+        // Usuarios: login por email, directorio por tipo y búsqueda por nombre (con y sin tipo)
+        indexes.add(new RequiredIndex(User.class, new Index()
+                .on("email", Sort.Direction.ASC)
+                .unique()
+                .named("email")));
+        indexes.add(new RequiredIndex(User.class, new Index()
+                .on("type", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.DESC)
+                .named("type_id_desc")));
+        indexes.add(new RequiredIndex(User.class, new Index()
+                .on("fullName", Sort.Direction.ASC)
+                .on("type", Sort.Direction.ASC)
+                .named("fullName_type")));
+
+        // Refresh tokens: rotación por hash, revocación por sesión, carga incremental de revocaciones y
+        // borrado automático (TTL) al vencer
+        indexes.add(new RequiredIndex(RefreshToken.class, new Index()
+                .on("tokenHash", Sort.Direction.ASC)
+                .unique()
+                .named("tokenHash_unique")));
+        indexes.add(new RequiredIndex(RefreshToken.class, new Index()
+                .on("familyId", Sort.Direction.ASC)
+                .named("familyId")));
+        indexes.add(new RequiredIndex(RefreshToken.class, new Index()
+                .on("revokedAt", Sort.Direction.ASC)
+                .sparse()
+                .named("revokedAt")));
+        indexes.add(new RequiredIndex(RefreshToken.class, new Index()
+                .on("expiresAt", Sort.Direction.ASC)
+                .expire(Duration.ZERO)
+                .named("expiresAt_ttl")));
+
+        // Reportes por tipo y por fecha de creación
+        indexes.add(new RequiredIndex(Report.class, new Index()
+                .on("type", Sort.Direction.ASC)
+                .named("type")));
+        indexes.add(new RequiredIndex(Report.class, new Index()
+                .on("createdAt", Sort.Direction.ASC)
+                .named("createdAt")));
+
+        // Catálogos con nombre o tipo único
+        indexes.add(new RequiredIndex(Event.class, new Index()
+                .on("type", Sort.Direction.ASC)
+                .unique()
+                .named("type")));
+        indexes.add(new RequiredIndex(Adittional.class, new Index()
+                .on("name", Sort.Direction.ASC)
+                .unique()
+                .named("name")));
+        indexes.add(new RequiredIndex(Entertainment.class, new Index()
+                .on("name", Sort.Direction.ASC)
+                .unique()
+                .named("name")));
+
+        // Un bucket por dueño y mes en el historial de reservas
+        indexes.add(new RequiredIndex(BookingHistoryBucket.class, new Index()
+                .on("ownerType", Sort.Direction.ASC)
+                .on("ownerId", Sort.Direction.ASC)
+                .on("month", Sort.Direction.DESC)
+                .unique()
+                .named("owner_month_unique")));
+
+        return indexes;
+    }
+
+    /**
+     * Crea los índices que falten y verifica que todos existan. Corre al crearse el bean, antes de que
+     * se abra el servidor web y antes de los inicializadores que dependen de los índices únicos
+     * (por ejemplo la reconstrucción de la ocupación): ninguna reserva
+     * se atiende sin el índice único {establishmentId, date}.
+     * @throws IllegalStateException si falta algún índice único; al correr al iniciar, la aplicación no arranca
+     */
+    @PostConstruct
+    public void ensureIndexes() {
+        for (RequiredIndex required : requiredIndexes()) {
+            try {
+                ensureIndex(required);
+            } catch (Exception ex) {
+                log.error("No se pudo crear el índice {} de {}: {}",
+                        required.name(), required.entity().getSimpleName(), ex.getMessage());
+            }
+        }
+
+        List<String> missing = missingIndexes();
+        if (missing.isEmpty()) {
+            log.info("Índices de Mongo verificados");
+            return;
+        }
+        log.error("Faltan índices en Mongo; las consultas que los usan recorrerán la colección completa: {}", missing);
+
+        List<String> missingUnique = requiredIndexes().stream()
+                .filter(RequiredIndex::unique)
+                .map(required -> required.entity().getSimpleName() + "." + required.name())
+                .filter(missing::contains)
+                .toList();
+        if (!missingUnique.isEmpty()) {
+            throw new IllegalStateException("No se pudieron crear los índices únicos " + missingUnique
+                    + "; revise si hay documentos duplicados en esas colecciones");
+        }
+    }
+
+    // Crea el índice; si ya existe uno con el mismo nombre y otra definición, lo reemplaza
+    private void ensureIndex(RequiredIndex required) {
+        IndexOperations indexOps = mongoTemplate.indexOps(required.entity());
+        try {
+            indexOps.ensureIndex(required.index());
+        } catch (RuntimeException ex) {
+            if (!isDefinitionConflict(ex)) {
+                throw ex;
+            }
+            log.warn("El índice {} de {} cambió de definición; se vuelve a crear",
+                    required.name(), required.entity().getSimpleName());
+            indexOps.dropIndex(required.name());
+            indexOps.ensureIndex(required.index());
+        }
+    }
+
+    private static boolean isDefinitionConflict(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoException
+                    && (mongoException.getCode() == INDEX_OPTIONS_CONFLICT || mongoException.getCode() == INDEX_KEY_SPECS_CONFLICT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return índices requeridos que no existen, como "Entidad.nombre"
+     */
+    public List<String> missingIndexes() {
+        List<String> missing = new ArrayList<>();
+        requiredIndexes().stream()
+                .collect(Collectors.groupingBy(RequiredIndex::entity))
+                .forEach((entity, indexes) -> {
+                    Set<String> existing = mongoTemplate.indexOps(entity).getIndexInfo().stream()
+                            .map(IndexInfo::getName)
+                            .collect(Collectors.toSet());
+                    indexes.stream()
+                            .filter(required -> !existing.contains(required.name()))
+                            .forEach(required -> missing.add(entity.getSimpleName() + "." + required.name()));
+                });
+        return missing;
+    }
+}
@@ -0,0 +1,57 @@
+package com.reserve.events.config;
+
+import com.reserve.events.application.EstablishmentService;
+import com.reserve.events.controllers.domain.entity.DataMigration;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Puebla una sola vez la colección de ocupación con las reservas programadas que existían antes de crearla.
+ *
+ * Corre cuando ya están creados todos los beans (y por lo tanto los índices de {@link MongoIndexRegistry}),
+ * pero antes de que el servidor web acepte peticiones, así que no compite con reservas nuevas de este nodo.
+ * Al terminar bien guarda una marca en Migraciones; si la reconstrucción falla la aplicación no arranca y
+ * la migración se repite en el siguiente arranque. La reconstrucción es idempotente: los días que ya
+ * estaban reclamados se conservan.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OccupancyIndexInitializer implements SmartInitializingSingleton {
+
+    static final String MIGRATION = "occupancy-backfill";
+
+    private final MongoTemplate mongoTemplate;
+    private final EstablishmentService establishmentService;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        initializeOccupancyIndex();
+    }
+
+    /**
+     * Reconstruye el índice de ocupación si la migración todavía no terminó
+     * @throws IllegalStateException si la reconstrucción falla
+     */
+    public void initializeOccupancyIndex() {
+        if (mongoTemplate.exists(Query.query(Criteria.where("id").is(MIGRATION)), DataMigration.class)) {
+            return;
+        }
+
+        int registered;
+        try {
+            registered = establishmentService.rebuildOccupancyIndex();
+        } catch (RuntimeException ex) {
+            throw new IllegalStateException("No se pudo poblar el índice de ocupación; se reintentará en el siguiente arranque", ex);
+        }
+        mongoTemplate.save(DataMigration.builder().id(MIGRATION).completedAt(Instant.now()).build());
+        log.info("Migración {} completada con {} días ocupados", MIGRATION, registered);
+    }
+}
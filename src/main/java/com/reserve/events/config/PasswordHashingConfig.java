@@ -0,0 +1,63 @@
+package com.reserve.events.config;
+
+import com.reserve.events.security.password.BcryptStrengthCalibrator;
+import com.reserve.events.security.password.BoundedPasswordEncoder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+
+import java.util.Map;
+
+/**
+ * Hash de contraseñas.
+ * Cada hash guarda su algoritmo como prefijo ({bcrypt}) y BCrypt guarda su costo dentro del hash, así que
+ * se puede subir el costo o cambiar de algoritmo sin invalidar las contraseñas existentes: los hashes
+ * viejos (con un costo menor o sin prefijo) se siguen verificando y se rehacen al iniciar sesión.
+ *
+ * El costo de BCrypt es el configurado en security.password.strength, igual en todos los nodos, así que un login
+ * nunca rehace un hash con otro costo según el nodo que lo atienda. Al arrancar se mide el costo que correspondería
+ * al tiempo objetivo en este servidor y solo se registra como sugerencia.
+ */
+@Slf4j
+@Configuration
+public class PasswordHashingConfig {
+
+    public static final String BCRYPT = "bcrypt";
+
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(@Value("${security.password.strength:12}") int strength,
+                                                  @Value("${security.password.target-hash-ms:250}") long targetHashMillis,
+                                                  @Value("${security.password.min-strength:10}") int minStrength,
+                                                  @Value("${security.password.max-strength:14}") int maxStrength,
+                                                  @Value("${security.password.calibration-runs:5}") int calibrationRuns,
+                                                  @Value("${security.password.hashing-threads:0}") int hashingThreads,
+                                                  @Value("${security.password.queue-capacity:200}") int queueCapacity) {
+        // Por defecto la mitad de los núcleos: el hashing nunca acapara toda la CPU
+        int threads = hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        log.info("Hash de contraseñas: BCrypt con costo {}, {} hilos y cola de {}", strength, threads, queueCapacity);
+
+        if (calibrationRuns > 0) {
+            int suggested = BcryptStrengthCalibrator.calibrate(targetHashMillis, minStrength, maxStrength, calibrationRuns);
+            if (suggested != strength) {
+                log.info("En este servidor el costo {} se acerca más al objetivo de {} ms; ajustar security.password.strength en todos los nodos para usarlo",
+                        suggested, targetHashMillis);
+            }
+        }
+        return new BoundedPasswordEncoder(delegatingEncoder(strength), threads, queueCapacity);
+    }
+
+    /**
+     * Codificador con prefijo de algoritmo; los hashes nuevos usan BCrypt con el costo dado
+     * @param bcryptStrength costo de BCrypt para los hashes nuevos
+     */
+    public static DelegatingPasswordEncoder delegatingEncoder(int bcryptStrength) {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT,
+                Map.of(BCRYPT, new BCryptPasswordEncoder(bcryptStrength)));
+        // Hashes guardados antes de usar prefijos: BCrypt, con el costo que trae el propio hash
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return encoder;
+    }
+}
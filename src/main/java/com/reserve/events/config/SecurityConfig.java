@@ -2,6 +2,7 @@ package com.reserve.events.config;
 
 import com.reserve.events.application.CustomUserDetailsService;
 import com.reserve.events.security.jwt.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 // IMPORTANTE: Importamos HttpMethod para reglas más específicas
 import org.springframework.http.HttpMethod;
 import org.springframework.context.annotation.Bean;
@@ -15,7 +16,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 // clase contra la que registramos filtros
@@ -39,22 +39,21 @@ public class SecurityConfig {
         this.customUserDetailsService = customUserDetailsService;
     }
 
-    // Bean 1 Hasheador de contraseñas utilizando BCrypt
-    @Bean
-    public PasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
-    }
+    // El hasheador de contraseñas (BCrypt calibrado, con prefijo de algoritmo) está en PasswordHashingConfig
 
     // --- BEAN 2: El Proveedor de Autenticación ---
     /**
      * Define el "proveedor" que Spring usará para autenticar.
      * Le decimos que use nuestro CustomUserDetailsService (para buscar en BBDD)
-     * y BCrypt (para comparar contraseñas).
+     * y el PasswordEncoder de PasswordHashingConfig (para comparar contraseñas).
+     * Si el hash guardado usa un costo o algoritmo anterior, tras un login exitoso
+     * se rehace con el actual y se guarda mediante CustomUserDetailsService.updatePassword.
      */
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(customUserDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setUserDetailsPasswordService(customUserDetailsService);
         return authProvider;
     }
 
@@ -84,6 +83,8 @@ public class SecurityConfig {
         ));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        // Los clientes web leen el ETag de los catálogos para enviarlo en If-None-Match
+        configuration.setExposedHeaders(Arrays.asList("ETag"));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -92,7 +93,7 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationProvider authenticationProvider) throws Exception {
         http
                 /*
                  * 1. Deshabilitar CSRF (Cross-Site Request Forgery).
@@ -107,12 +108,18 @@ public class SecurityConfig {
                  */
                 .authorizeHttpRequests(authz -> authz
 
+                        // Despacho asíncrono de las lecturas reactivas (Mono) y del streaming: la petición ya se
+                        // autorizó al entrar, y el filtro JWT no vuelve a correr en este despacho
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // ==================== RUTAS PÚBLICAS ====================
                         // No requieren autenticación (sin token JWT)
                         // Agregar aquí: login, registro, documentación, recursos públicos
                         .requestMatchers(
                                 "/User/login",
                                 "/User/register",
+                                "/User/refresh",
+                                "/User/logout",
                                 "/swagger-ui/**",
                                 "/v3/api-docs/**",
                                 "/*.jpg",
@@ -149,7 +156,11 @@ public class SecurityConfig {
                                 "/admin-example-get",
                                 "/User",
                                 "/User/type/{type}",
-                                "/User/{id}"
+                                "/User/{id}",
+                                "/User/{id}/bookings",
+                                "/payments",
+                                "/cache/stats",
+                                "/cache/tokens"
                         ).hasRole("ADMIN")
 
                         // POST solo ADMIN: Agregar rutas donde solo el admin puede crear recursos
@@ -159,7 +170,10 @@ public class SecurityConfig {
                                 "/decoration",
                                 "/additional",
                                 "/establishments",
-                                "/events"
+                                "/establishments/availability-cache/rebuild",
+                                "/establishments/{id}/availability-cache/rebuild",
+                                "/events",
+                                "/booking-history/archive"
                         ).hasRole("ADMIN")
 
                         // PUT solo ADMIN: Agregar rutas donde solo el admin puede actualizar
@@ -192,7 +206,8 @@ public class SecurityConfig {
 
                         // POST solo CLIENTE: Agregar rutas donde solo el cliente puede crear
                         .requestMatchers(HttpMethod.POST,
-                                "/reserve"
+                                "/reserve",
+                                "/reserve/bulk"
                         ).hasRole("CLIENTE")
 
                         // PUT solo CLIENTE: Agregar rutas donde solo el cliente puede actualizar
@@ -215,6 +230,8 @@ public class SecurityConfig {
                         // GET para ambos: Agregar rutas que ambos roles pueden consultar
                         .requestMatchers(HttpMethod.GET,
                                 "/establishments/{id}/occupied-dates",
+                                "/establishments/search",
+                                "/booking-history/{ownerType}/{ownerId}",
                                 "/reserve",
                                 "/reserve/{id}"
                         ).hasAnyRole("ADMIN", "CLIENTE")
@@ -258,7 +275,7 @@ public class SecurityConfig {
                  * 4. Le decimos a Spring Security que use el proveedor de
                  * autenticación que configuramos en el BEAN 2.
                  */
-                .authenticationProvider(authenticationProvider())
+                .authenticationProvider(authenticationProvider)
 
                 // (Aquí es donde se añadiría un filtro JWT si lo estuvieras usando)
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
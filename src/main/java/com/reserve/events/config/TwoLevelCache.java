@@ -0,0 +1,205 @@
+package com.reserve.events.config;
+
+import com.reserve.events.controllers.response.CacheStatsResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché de dos niveles: un mapa en memoria acotado (Caffeine) delante de una caché compartida (Redis).
+ * Las lecturas van primero a memoria, luego a Redis y, si ninguna tiene el valor, al cargador.
+ *
+ * Redis es opcional: si una operación falla se deja de leer y escribir en Redis durante un tiempo
+ * (compartido por todas las cachés del manager) y la caché sigue funcionando solo en memoria.
+ * Los desalojos se intentan siempre, para no dejar valores viejos en Redis cuando vuelva.
+ */
+@Slf4j
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> local;
+    private final Cache remote;
+    private final AtomicLong remoteSuspendedUntil;
+    private final long remoteRetryMillis;
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param name nombre de la caché
+     * @param local nivel 1 en memoria
+     * @param remote nivel 2 compartido, o null para usar solo memoria
+     * @param remoteSuspendedUntil instante (epoch millis) hasta el que no se usa el nivel 2
+     * @param remoteRetryMillis tiempo sin usar el nivel 2 después de un fallo
+     */
+    public TwoLevelCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> local, Cache remote,
+                         AtomicLong remoteSuspendedUntil, long remoteRetryMillis) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.remoteSuspendedUntil = remoteSuspendedUntil;
+        this.remoteRetryMillis = remoteRetryMillis;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object value = local.getIfPresent(key);
+        if (value != null) {
+            localHits.increment();
+            return new SimpleValueWrapper(value);
+        }
+        value = getRemote(key);
+        if (value != null) {
+            remoteHits.increment();
+            local.put(key, value);
+            return new SimpleValueWrapper(value);
+        }
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("El valor en caché no es de tipo " + type.getName() + ": " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        // Un solo cargador por clave en este nodo
+        return (T) local.get(key, k -> {
+            Object value = load(k, valueLoader);
+            if (value != null) {
+                puts.increment();
+                putRemote(k, value);
+            }
+            return value;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        local.put(key, value);
+        putRemote(key, value);
+        puts.increment();
+    }
+
+    @Override
+    public void evict(Object key) {
+        local.invalidate(key);
+        if (remote != null) {
+            try {
+                remote.evict(key);
+            } catch (RuntimeException ex) {
+                suspendRemote(ex);
+            }
+        }
+        evictions.increment();
+    }
+
+    @Override
+    public void clear() {
+        local.invalidateAll();
+        if (remote != null) {
+            try {
+                remote.clear();
+            } catch (RuntimeException ex) {
+                suspendRemote(ex);
+            }
+        }
+    }
+
+    /** Descarta solo la copia en memoria de este nodo */
+    public void evictLocal(Object key) {
+        local.invalidate(key);
+    }
+
+    public CacheStatsResponse stats() {
+        long hits = localHits.sum() + remoteHits.sum();
+        long reads = hits + misses.sum();
+        return CacheStatsResponse.builder()
+                .name(name)
+                .localHits(localHits.sum())
+                .remoteHits(remoteHits.sum())
+                .misses(misses.sum())
+                .hitRatio(reads == 0 ? 0 : (double) hits / reads)
+                .puts(puts.sum())
+                .evictions(evictions.sum())
+                .localSize(local.estimatedSize())
+                .build();
+    }
+
+    private Object getRemote(Object key) {
+        if (!remoteAvailable()) {
+            return null;
+        }
+        try {
+            ValueWrapper wrapper = remote.get(key);
+            return wrapper == null ? null : wrapper.get();
+        } catch (RuntimeException ex) {
+            suspendRemote(ex);
+            return null;
+        }
+    }
+
+    private void putRemote(Object key, Object value) {
+        if (!remoteAvailable()) {
+            return;
+        }
+        try {
+            remote.put(key, value);
+        } catch (RuntimeException ex) {
+            suspendRemote(ex);
+        }
+    }
+
+    private boolean remoteAvailable() {
+        return remote != null && System.currentTimeMillis() >= remoteSuspendedUntil.get();
+    }
+
+    private void suspendRemote(RuntimeException ex) {
+        long until = System.currentTimeMillis() + remoteRetryMillis;
+        if (remoteSuspendedUntil.getAndSet(until) < System.currentTimeMillis()) {
+            log.warn("Redis no disponible para la caché {}; se usa solo memoria por {} ms: {}", name, remoteRetryMillis, ex.getMessage());
+        }
+    }
+
+    private static Object load(Object key, Callable<?> valueLoader) {
+        try {
+            return valueLoader.call();
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.reserve.events.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.reserve.events.controllers.response.CacheStatsResponse;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Crea una {@link TwoLevelCache} por nombre: memoria acotada por número de entradas y tiempo de vida
+ * delante de la caché del mismo nombre en el manager remoto (Redis en producción, un mapa en memoria en pruebas).
+ *
+ * El tiempo de vida en memoria acota cuánto tarda un nodo en ver una edición hecha en otro nodo,
+ * porque el desalojo de la edición solo llega a la memoria del nodo que la hizo y a Redis.
+ */
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private final CacheManager remote;
+    private final long localMaxEntries;
+    private final Duration localTtl;
+    private final long remoteRetryMillis;
+    private final AtomicLong remoteSuspendedUntil = new AtomicLong();
+
+    /**
+     * @param cacheNames cachés que se crean al iniciar (las demás se crean al pedirlas)
+     * @param remote manager del nivel 2, o null para usar solo memoria
+     * @param localMaxEntries entradas máximas en memoria por caché
+     * @param localTtl tiempo de vida de cada entrada en memoria
+     * @param remoteRetry tiempo sin usar el nivel 2 después de un fallo
+     */
+    public TwoLevelCacheManager(Collection<String> cacheNames, CacheManager remote,
+                                long localMaxEntries, Duration localTtl, Duration remoteRetry) {
+        this.remote = remote;
+        this.localMaxEntries = localMaxEntries;
+        this.localTtl = localTtl;
+        this.remoteRetryMillis = remoteRetry.toMillis();
+        cacheNames.forEach(this::getCache);
+    }
+
+    @Override
+    public TwoLevelCache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    /** Aciertos y fallos de cada caché, ordenados por nombre */
+    public List<CacheStatsResponse> stats() {
+        return caches.values().stream()
+                .map(TwoLevelCache::stats)
+                .sorted(Comparator.comparing(CacheStatsResponse::getName))
+                .toList();
+    }
+
+    private TwoLevelCache createCache(String name) {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> local = Caffeine.newBuilder()
+                .maximumSize(localMaxEntries)
+                .expireAfterWrite(localTtl)
+                .build();
+        Cache remoteCache = remote == null ? null : remote.getCache(name);
+        return new TwoLevelCache(name, local, remoteCache, remoteSuspendedUntil, remoteRetryMillis);
+    }
+}
@@ -1,6 +1,8 @@
 package com.reserve.events.controllers;
 
+import com.reserve.events.application.CatalogVersionService;
 import com.reserve.events.application.AdittionalService;
+import com.reserve.events.controllers.domain.model.CatalogType;
 import com.reserve.events.controllers.dto.AdittionalRequest;
 import com.reserve.events.controllers.response.AdittionalResponse;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,10 +11,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
@@ -24,6 +28,7 @@ import java.util.List;
 public class AdittionalController {
 
     private final AdittionalService adittionalService;
+    private final CatalogVersionService catalogVersionService;
 
     @PostMapping
     @Operation(summary = "Crear un nuevo servicio adicional")
@@ -39,19 +44,25 @@ public class AdittionalController {
 
     @GetMapping
     @Operation(summary = "Obtener todos los servicios adicionales")
-    @ApiResponse(responseCode = "200", description = "Lista de servicios obtenida exitosamente")
-    public ResponseEntity<List<AdittionalResponse>> getAllAdittional() {
-        return ResponseEntity.ok(adittionalService.getAllAdittional());
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de servicios obtenida exitosamente"),
+            @ApiResponse(responseCode = "304", description = "El cliente ya tiene la versión actual (If-None-Match)")
+    })
+    public Mono<ResponseEntity<List<AdittionalResponse>>> getAllAdittional(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalGet.async(catalogVersionService.etag(CatalogType.ADDITIONAL), ifNoneMatch, adittionalService::getAllAdittionalReactive);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Obtener un servicio adicional por su ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Servicio encontrado"),
+            @ApiResponse(responseCode = "304", description = "El cliente ya tiene la versión actual (If-None-Match)"),
             @ApiResponse(responseCode = "404", description = "Servicio no encontrado")
     })
-    public ResponseEntity<AdittionalResponse> getAdittionalById(@PathVariable String id) {
-        return ResponseEntity.ok(adittionalService.getAdittionalById(id));
+    public Mono<ResponseEntity<AdittionalResponse>> getAdittionalById(@PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalGet.async(catalogVersionService.etag(CatalogType.ADDITIONAL), ifNoneMatch, () -> adittionalService.getAdittionalByIdReactive(id));
     }
 
     @PutMapping("/{id}")
@@ -0,0 +1,53 @@
+package com.reserve.events.controllers;
+
+import com.reserve.events.application.BookingHistoryService;
+import com.reserve.events.controllers.domain.model.BookingHistoryEntry;
+import com.reserve.events.controllers.domain.model.BookingOwnerType;
+import com.reserve.events.controllers.domain.model.CurrentUser;
+import com.reserve.events.controllers.domain.model.StatusReserve;
+import com.reserve.events.controllers.response.BookingArchiveResponse;
+import com.reserve.events.controllers.response.PageResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/booking-history")
+@RequiredArgsConstructor
+@Tag(name = "Historial de reservas", description = "Consulta y archivo de las reservas completadas y canceladas")
+public class BookingHistoryController {
+
+    private final BookingHistoryService bookingHistoryService;
+
+    // Consultar el historial archivado de un usuario, establecimiento, evento o decoración (GET)
+    @GetMapping("/{ownerType}/{ownerId}")
+    @Operation(summary = "Consultar historial de reservas", description = "Devuelve paginadas, del mes más reciente al más antiguo, las reservas completadas y canceladas que ya salieron de la ventana activa. Un CLIENTE solo puede consultar su propio historial (ownerType USER).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Historial obtenido exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Parámetros de paginación inválidos"),
+            @ApiResponse(responseCode = "403", description = "No tiene permisos para ver este historial")
+    })
+    public ResponseEntity<PageResponse<BookingHistoryEntry>> getHistory(
+            @PathVariable BookingOwnerType ownerType,
+            @PathVariable String ownerId,
+            @RequestParam(required = false) StatusReserve status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            CurrentUser currentUser) {
+        return ResponseEntity.ok(bookingHistoryService.getHistory(currentUser, ownerType, ownerId, status, page, size));
+    }
+
+    // Archivar ahora las reservas inactivas en vez de esperar la ejecución nocturna (POST)
+    @PostMapping("/archive")
+    @Operation(summary = "Archivar reservas inactivas", description = "Mueve al historial las reservas completadas y canceladas anteriores a la ventana activa. Se puede ejecutar varias veces sin duplicar.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservas archivadas exitosamente")
+    })
+    public ResponseEntity<BookingArchiveResponse> archive() {
+        return ResponseEntity.ok(bookingHistoryService.archiveInactiveBookings());
+    }
+}
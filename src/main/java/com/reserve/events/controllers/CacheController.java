@@ -0,0 +1,47 @@
+package com.reserve.events.controllers;
+
+import com.reserve.events.config.TwoLevelCacheManager;
+import com.reserve.events.controllers.response.CacheStatsResponse;
+import com.reserve.events.controllers.response.TokenCacheStatsResponse;
+import com.reserve.events.security.jwt.JwtTokenProvider;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/cache")
+@RequiredArgsConstructor
+@Tag(name = "Caché", description = "Estado de la caché de catálogos y de tokens")
+public class CacheController {
+
+    private final TwoLevelCacheManager cacheManager;
+    private final JwtTokenProvider tokenProvider;
+
+    // Aciertos y fallos de cada caché de catálogo en este nodo (GET)
+    @GetMapping("/stats")
+    @Operation(summary = "Estadísticas de la caché", description = "Devuelve, por cada caché de catálogo, las lecturas resueltas en memoria, en Redis y en Mongo desde que inició este nodo.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estadísticas obtenidas exitosamente")
+    })
+    public ResponseEntity<List<CacheStatsResponse>> getStats() {
+        return ResponseEntity.ok(cacheManager.stats());
+    }
+
+    // Aciertos de la caché de tokens verificados y latencia de verificación en este nodo (GET)
+    @GetMapping("/tokens")
+    @Operation(summary = "Estadísticas de la caché de tokens", description = "Devuelve los tokens JWT resueltos sin volver a verificar la firma y la latencia de las verificaciones desde que inició este nodo.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estadísticas obtenidas exitosamente")
+    })
+    public ResponseEntity<TokenCacheStatsResponse> getTokenStats() {
+        return ResponseEntity.ok(tokenProvider.stats());
+    }
+}
@@ -1,6 +1,8 @@
 package com.reserve.events.controllers;
 
+import com.reserve.events.application.CatalogVersionService;
 import com.reserve.events.application.CateringService;
+import com.reserve.events.controllers.domain.model.CatalogType;
 import com.reserve.events.controllers.dto.CateringRequest;
 import com.reserve.events.controllers.response.CateringResponse;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,10 +11,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
@@ -24,6 +28,7 @@ import java.util.List;
 public class CateringController {
 
     private final CateringService cateringService;
+    private final CatalogVersionService catalogVersionService;
 
     @PostMapping
     @Operation(summary = "Crear un nuevo servicio de caterin")
@@ -38,18 +43,24 @@ public class CateringController {
 
     @GetMapping
     @Operation(summary = "Obtener todos los servicios de catering")
-    @ApiResponse(responseCode = "200", description = "Lista de servicios obtenida exitosamente")
-    public ResponseEntity<List<CateringResponse>> getAllCatering() {
-        return ResponseEntity.ok(cateringService.getAllCatering());
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de servicios obtenida exitosamente"),
+            @ApiResponse(responseCode = "304", description = "El cliente ya tiene la versión actual (If-None-Match)")
+    })
+    public Mono<ResponseEntity<List<CateringResponse>>> getAllCatering(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalGet.async(catalogVersionService.etag(CatalogType.CATERING), ifNoneMatch, cateringService::getAllCateringReactive);
     }
     @GetMapping("/{id}")
     @Operation(summary = "Obtener un servicio adicional por su ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Servicio encontrado"),
+            @ApiResponse(responseCode = "304", description = "El cliente ya tiene la versión actual (If-None-Match)"),
             @ApiResponse(responseCode = "404", description = "Servicio no encontrado")
     })
-    public ResponseEntity<CateringResponse> getCateringById(@PathVariable String id) {
-        return ResponseEntity.ok(cateringService.getCateringById(id));
+    public Mono<ResponseEntity<CateringResponse>> getCateringById(@PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalGet.async(catalogVersionService.etag(CatalogType.CATERING), ifNoneMatch, () -> cateringService.getCateringByIdReactive(id));
     }
 
     @PutMapping("/{id}")
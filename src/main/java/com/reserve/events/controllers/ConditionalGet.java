@@ -0,0 +1,62 @@
+package com.reserve.events.controllers;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Respuestas condicionales (If-None-Match) de los catálogos públicos
+ */
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Responde 304 sin construir el cuerpo si el cliente ya tiene la versión, o 200 con el cuerpo y el ETag
+     * @param etag ETag de la versión actual
+     * @param ifNoneMatch cabecera If-None-Match del cliente (puede ser null)
+     * @param body consulta que arma el cuerpo; solo se ejecuta si hace falta
+     */
+    static <T> ResponseEntity<T> of(String etag, String ifNoneMatch, Supplier<T> body) {
+        // no-cache: el cliente puede guardar la respuesta pero debe revalidarla en cada uso
+        if (matches(etag, ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(body.get());
+    }
+
+    /**
+     * Igual que {@link #of}, con un cuerpo que se lee sin bloquear: Spring MVC libera el hilo de la petición
+     * hasta que el Mono emite y escribe la respuesta en un despacho asíncrono
+     * @param etag ETag de la versión actual
+     * @param ifNoneMatch cabecera If-None-Match del cliente (puede ser null)
+     * @param body consulta reactiva que arma el cuerpo; solo se suscribe si hace falta
+     */
+    static <T> Mono<ResponseEntity<T>> async(String etag, String ifNoneMatch, Supplier<Mono<T>> body) {
+        if (matches(etag, ifNoneMatch)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build());
+        }
+        return body.get().map(value -> ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(value));
+    }
+
+    // If-None-Match usa comparación débil: se ignora el prefijo W/ y puede traer varias etiquetas o *
+    private static boolean matches(String etag, String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
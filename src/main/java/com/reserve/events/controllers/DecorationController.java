@@ -1,6 +1,8 @@
 package com.reserve.events.controllers;
 
+import com.reserve.events.application.CatalogVersionService;
 import com.reserve.events.application.DecorationService;
+import com.reserve.events.controllers.domain.model.CatalogType;
 import com.reserve.events.controllers.dto.DecorationRequest;
 import com.reserve.events.controllers.response.DecorationResponse;
 import com.reserve.events.controllers.response.EntertainmentResponse;
@@ -10,10 +12,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
@@ -25,6 +29,7 @@ import java.util.List;
 public class DecorationController {
 
     private final DecorationService decorationService;
+    private final CatalogVersionService catalogVersionService;
 
     @PostMapping
     @Operation(summary = "Crear un nuevo servicio de decoración")
@@ -39,19 +44,25 @@ public class DecorationController {
 
     @GetMapping
     @Operation(summary = "Obtener todos los servicios de decoración")
-    @ApiResponse(responseCode = "200", description = "Lista de decoraciones obtenida exitosamente")
-    public ResponseEntity<List<DecorationResponse>> getAllDecoration() {
-        return ResponseEntity.ok(decorationService.getAllDecoration());
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de decoraciones obtenida exitosamente"),
+            @ApiResponse(responseCode = "304", description = "El cliente ya tiene la versión actual (If-None-Match)")
+    })
+    public Mono<ResponseEntity<List<DecorationResponse>>> getAllDecoration(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalGet.async(catalogVersionService.etag(CatalogType.DECORATION), ifNoneMatch, decorationService::getAllDecorationReactive);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Obtener un servicio de decoración por su ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Servicio encontrado"),
+            @ApiResponse(responseCode = "304", description = "El cliente ya tiene la versión actual (If-None-Match)"),
             @ApiResponse(responseCode = "404", description = "Servicio no encontrado")
     })
-    public ResponseEntity<DecorationResponse> getDecorationById(@PathVariable String id) {
-        return ResponseEntity.ok(decorationService.getDecorationById(id));
+    public Mono<ResponseEntity<DecorationResponse>> getDecorationById(@PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalGet.async(catalogVersionService.etag(CatalogType.DECORATION), ifNoneMatch, () -> decorationService.getDecorationByIdReactive(id));
     }
 
     @PutMapping("/{id}")
@@ -1,6 +1,8 @@
 package com.reserve.events.controllers;
 
+import com.reserve.events.application.CatalogVersionService;
 import com.reserve.events.application.EntertainmentService;
+import com.reserve.events.controllers.domain.model.CatalogType;
 import com.reserve.events.controllers.dto.EntertainmentRequest;
 import com.reserve.events.controllers.response.EntertainmentResponse;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,10 +11,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
@@ -24,6 +28,7 @@ import java.util.List;
 public class EntertainmentController {
 
     private final EntertainmentService entertainmentService;
+    private final CatalogVersionService catalogVersionService;
 
     @PostMapping
     @Operation(summary = "Crear un nuevo servicio de entretenimiento")
@@ -39,19 +44,25 @@ public class EntertainmentController {
 
     @GetMapping
     @Operation(summary = "Obtener todos los servicios de entretenimiento")
-    @ApiResponse(responseCode = "200", description = "Lista de entretenimientos obtenida exitosamente")
-    public ResponseEntity<List<EntertainmentResponse>> getAllEntertainment() {
-        return ResponseEntity.ok(entertainmentService.getAllEntertainment());
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de entretenimientos obtenida exitosamente"),
+            @ApiResponse(responseCode = "304", description = "El cliente ya tiene la versión actual (If-None-Match)")
+    })
+    public Mono<ResponseEntity<List<EntertainmentResponse>>> getAllEntertainment(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalGet.async(catalogVersionService.etag(CatalogType.ENTERTAINMENT), ifNoneMatch, entertainmentService::getAllEntertainmentReactive);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Obtener un servicio de entretenimiento por su ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Servicio encontrado"),
+            @ApiResponse(responseCode = "304", description = "El cliente ya tiene la versión actual (If-None-Match)"),
             @ApiResponse(responseCode = "404", description = "Servicio no encontrado")
     })
-    public ResponseEntity<EntertainmentResponse> getEntertainmentById(@PathVariable String id) {
-        return ResponseEntity.ok(entertainmentService.getEntertainmentById(id));
+    public Mono<ResponseEntity<EntertainmentResponse>> getEntertainmentById(@PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalGet.async(catalogVersionService.etag(CatalogType.ENTERTAINMENT), ifNoneMatch, () -> entertainmentService.getEntertainmentByIdReactive(id));
     }
 
     @PutMapping("/{id}")
@@ -1,18 +1,25 @@
 package com.reserve.events.controllers;
 
+import com.reserve.events.application.CatalogVersionService;
 import com.reserve.events.application.EstablishmentService;
+import com.reserve.events.controllers.domain.model.CatalogType;
+import com.reserve.events.controllers.dto.EstablishmentListRequest;
 import com.reserve.events.controllers.dto.EstablishmentRequest;
+import com.reserve.events.controllers.dto.EstablishmentSearchRequest;
 import com.reserve.events.controllers.response.EstablishmentResponse;
+import com.reserve.events.controllers.response.PageResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
-import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +31,7 @@ import java.util.Map;
 public class EstablishmentController {
 
     private final EstablishmentService establishmentService;
+    private final CatalogVersionService catalogVersionService;
 
     // Crear un nuevo establecimiento (POST)
     @PostMapping
@@ -39,14 +47,31 @@ public class EstablishmentController {
         return ResponseEntity.ok(response);
     }
 
-    // Obtener todos los establecimientos activos (GET)
+    // Listar los establecimientos activos con filtros (GET)
     @GetMapping
-    @Operation(summary = "Listar todos los establecimientos activos", description = "Devuelve una lista de establecimientos actualmente activos en el sistema.")
+    @Operation(summary = "Listar los establecimientos activos", description = "Devuelve, ordenados y paginados, los establecimientos activos filtrados por ciudad, tipo, rango de capacidad y rango de costo.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Listado obtenido exitosamente")
+            @ApiResponse(responseCode = "200", description = "Listado obtenido exitosamente"),
+            @ApiResponse(responseCode = "304", description = "El cliente ya tiene la versión actual (If-None-Match)"),
+            @ApiResponse(responseCode = "400", description = "Filtros inválidos")
     })
-    public ResponseEntity<List<EstablishmentResponse>> getAllActiveEstablishments() {
-        List<EstablishmentResponse> response = establishmentService.getAllActiveEstablishments();
+    public Mono<ResponseEntity<PageResponse<EstablishmentResponse>>> listActiveEstablishments(
+            @Valid @ParameterObject EstablishmentListRequest request,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalGet.async(catalogVersionService.etag(CatalogType.ESTABLISHMENT), ifNoneMatch,
+                () -> establishmentService.listActiveEstablishmentsReactive(request));
+    }
+
+    // Buscar establecimientos libres en unas fechas (GET)
+    @GetMapping("/search")
+    @Operation(summary = "Buscar establecimientos disponibles", description = "Devuelve, ordenados y paginados, los establecimientos activos con capacidad suficiente que están libres en todas las fechas indicadas.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Búsqueda realizada exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Filtros inválidos o fechas no futuras")
+    })
+    public ResponseEntity<PageResponse<EstablishmentResponse>> searchAvailableEstablishments(
+            @Valid @ParameterObject EstablishmentSearchRequest request) {
+        PageResponse<EstablishmentResponse> response = establishmentService.searchAvailableEstablishments(request);
         return ResponseEntity.ok(response);
     }
 
@@ -55,11 +80,13 @@ public class EstablishmentController {
     @Operation(summary = "Obtener un establecimiento por ID", description = "Busca un establecimiento activo mediante su identificador único.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Establecimiento encontrado"),
+            @ApiResponse(responseCode = "304", description = "El cliente ya tiene la versión actual (If-None-Match)"),
             @ApiResponse(responseCode = "404", description = "Establecimiento no encontrado")
     })
-    public ResponseEntity<EstablishmentResponse> getEstablishmentById(@PathVariable String id) {
-        EstablishmentResponse response = establishmentService.getEstablishmentById(id);
-        return ResponseEntity.ok(response);
+    public Mono<ResponseEntity<EstablishmentResponse>> getEstablishmentById(@PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalGet.async(catalogVersionService.etag(CatalogType.ESTABLISHMENT), ifNoneMatch,
+                () -> establishmentService.getEstablishmentByIdReactive(id));
     }
 
     // Actualización completa (PUT)
@@ -110,14 +137,35 @@ public class EstablishmentController {
             @ApiResponse(responseCode = "200", description = "Fechas obtenidas exitosamente"),
             @ApiResponse(responseCode = "404", description = "Establecimiento no encontrado")
     })
-    public ResponseEntity<List<String>> getOccupiedDatesByEstablishmentId(@PathVariable String id) {
-        List<LocalDate> datesOccupies = establishmentService.getOccupiedDatesByEstablishmentId(id);
+    public Mono<ResponseEntity<List<String>>> getOccupiedDatesByEstablishmentId(@PathVariable String id) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
-        return ResponseEntity.ok(
-                datesOccupies.stream()
-                        .map(date -> date.atStartOfDay().format(formatter)).toList()
-        );
+        return establishmentService.getOccupiedDatesByEstablishmentIdReactive(id)
+                .map(datesOccupies -> ResponseEntity.ok(
+                        datesOccupies.stream()
+                                .map(date -> date.atStartOfDay().format(formatter)).toList()
+                ));
+    }
+
+    @PostMapping("/{id}/availability-cache/rebuild")
+    @Operation(summary = "Reconstruir la caché de disponibilidad de un establecimiento", description = "Recarga desde la base de datos las fechas ocupadas del establecimiento en la caché en memoria del nodo.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Caché reconstruida correctamente"),
+            @ApiResponse(responseCode = "404", description = "Establecimiento no encontrado")
+    })
+    public ResponseEntity<Void> rebuildAvailabilityCache(@PathVariable String id) {
+        establishmentService.rebuildAvailabilityCache(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/availability-cache/rebuild")
+    @Operation(summary = "Reconstruir la caché de disponibilidad de todos los establecimientos", description = "Descarta la caché en memoria del nodo; cada establecimiento se recarga en su siguiente consulta.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Caché descartada correctamente")
+    })
+    public ResponseEntity<Void> rebuildAllAvailabilityCache() {
+        establishmentService.rebuildAvailabilityCache();
+        return ResponseEntity.noContent().build();
     }
 
 
@@ -1,12 +1,17 @@
 package com.reserve.events.controllers;
 
+import com.reserve.events.controllers.dto.EventQueryRequest;
 import com.reserve.events.controllers.dto.EventRequest;
 import com.reserve.events.controllers.response.EventResponse;
+import com.reserve.events.application.CatalogVersionService;
 import com.reserve.events.application.EventService;
+import com.reserve.events.controllers.domain.model.CatalogType;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -14,6 +19,7 @@ import org.springframework.web.bind.annotation.*;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
@@ -26,6 +32,7 @@ public class EventController {
 
 
     private final EventService eventService;
+    private final CatalogVersionService catalogVersionService;
 
     @PostMapping
     @Operation(summary = "Crear un nuevo evento")
@@ -64,23 +71,32 @@ public class EventController {
     }
 
     @GetMapping
-    @Operation(summary = "Listar todos los eventos")
+    @Operation(summary = "Listar todos los eventos (solo id, tipo e imagen)")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista de eventos devuelta exitosamente")
+            @ApiResponse(responseCode = "200", description = "Lista de eventos devuelta exitosamente"),
+            @ApiResponse(responseCode = "304", description = "El cliente ya tiene la versión actual (If-None-Match)")
     })
-    public ResponseEntity<List<EventResponse>> listEvents() {
-        List<EventResponse> events = eventService.listAllEvents();
-        return ResponseEntity.ok(events);
+    public Mono<ResponseEntity<List<EventResponse>>> listEvents(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalGet.async(catalogVersionService.etag(CatalogType.EVENT), ifNoneMatch, eventService::listAllEventsReactive);
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Obtener un evento por su ID")
+    @Operation(summary = "Obtener un evento por su ID",
+            description = "Devuelve id, tipo e imagen; con include=bookings agrega una página de cada lista de reservas")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Evento encontrado"),
+            @ApiResponse(responseCode = "304", description = "El cliente ya tiene la versión actual (If-None-Match); no aplica con include=bookings"),
+            @ApiResponse(responseCode = "400", description = "Parámetros de expansión inválidos"),
             @ApiResponse(responseCode = "404", description = "Evento no encontrado")
     })
-    public ResponseEntity<EventResponse> getEventById(@PathVariable String id) {
-        EventResponse response = eventService.getEventById(id);
-        return ResponseEntity.ok(response);
+    public Mono<ResponseEntity<EventResponse>> getEventById(@PathVariable String id,
+                                                            @Valid @ParameterObject EventQueryRequest request,
+                                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Las reservas cambian sin que cambie el catálogo, así que la expansión no lleva ETag
+        if (request.includesBookings()) {
+            return Mono.just(ResponseEntity.ok(eventService.getEventById(id, request)));
+        }
+        return ConditionalGet.async(catalogVersionService.etag(CatalogType.EVENT), ifNoneMatch, () -> eventService.getEventSummaryReactive(id));
     }
 }
\ No newline at end of file
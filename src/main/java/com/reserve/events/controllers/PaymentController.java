@@ -1,8 +1,11 @@
 package com.reserve.events.controllers;
 
+import com.reserve.events.application.KeysetCursor;
 import com.reserve.events.application.PaymentService;
+import com.reserve.events.controllers.dto.PaymentListRequest;
 import com.reserve.events.controllers.dto.PaymentRequest;
 import com.reserve.events.controllers.dto.PaymentUpdateRequest;
+import com.reserve.events.controllers.response.CursorPageResponse;
 import com.reserve.events.controllers.response.PaymentResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,12 +13,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Validated
 @RestController
@@ -56,15 +60,38 @@ public class PaymentController {
         return ResponseEntity.ok(response);
     }
 
-    // Obtener lista de todos los pagos
-    @GetMapping
-    @Operation(summary = "Obtener lista de todos los pagos")
-    @ApiResponse(responseCode = "200", description = "Lista de pagos obtenida exitosamente")
-    public ResponseEntity<List<PaymentResponse>> getAllPayments() {
-        List<PaymentResponse> payments = paymentService.getAllPayments();
+    // Obtener los pagos por páginas
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Listar pagos por páginas",
+               description = "Devuelve los pagos del más reciente al más antiguo, filtrados por estado, cliente y establecimiento. " +
+                             "Para la página siguiente se envía el nextCursor de la respuesta anterior.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de pagos obtenida exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Cursor o filtros inválidos")
+    })
+    public ResponseEntity<CursorPageResponse<PaymentResponse>> listPayments(@Valid @ParameterObject PaymentListRequest listRequest) {
+        CursorPageResponse<PaymentResponse> payments = paymentService.listPayments(listRequest);
         return ResponseEntity.ok(payments);
     }
 
+    // Obtener todos los pagos en streaming (Accept: application/x-ndjson)
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar pagos en streaming NDJSON",
+               description = "Con Accept: application/x-ndjson escribe un pago JSON por línea directamente desde un cursor de Mongo, " +
+                             "sin cargar todos los pagos en memoria. Acepta los mismos filtros que el listado por páginas.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Pagos escritos exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Cursor o filtros inválidos")
+    })
+    public ResponseEntity<StreamingResponseBody> streamPayments(@ParameterObject PaymentListRequest listRequest) {
+        // El cursor se valida antes de empezar a escribir para poder responder 400
+        KeysetCursor.decode(listRequest.getCursor());
+        StreamingResponseBody body = output -> paymentService.streamPayments(listRequest, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     // Obtener un pago por su ID
     @GetMapping("/{id}")
     @Operation(summary = "Obtener un pago por su ID")
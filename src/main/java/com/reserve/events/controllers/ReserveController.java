@@ -2,7 +2,12 @@ package com.reserve.events.controllers;
 
 import com.reserve.events.application.ReserveService;
 import com.reserve.events.controllers.domain.entity.Reserve;
+import com.reserve.events.controllers.domain.model.CurrentUser;
+import com.reserve.events.controllers.dto.BulkReserveRequest;
+import com.reserve.events.controllers.dto.ReserveListRequest;
 import com.reserve.events.controllers.dto.ReserveRequest;
+import com.reserve.events.controllers.response.BulkReserveResponse;
+import com.reserve.events.controllers.response.CursorPageResponse;
 import com.reserve.events.controllers.response.ReserveResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,10 +15,9 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -32,37 +36,53 @@ public class ReserveController {
             @ApiResponse(responseCode = "201", description = "Reserva creada exitosamente"),
             @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos")
     })
-    public ResponseEntity<ReserveResponse> createReserve(@Valid @RequestBody ReserveRequest reserveRequest, @AuthenticationPrincipal UserDetails userDetails) {
-        String email = userDetails.getUsername();
-        ReserveResponse response = reserveService.createReserve(reserveRequest, email);
+    public ResponseEntity<ReserveResponse> createReserve(@Valid @RequestBody ReserveRequest reserveRequest, CurrentUser currentUser) {
+        ReserveResponse response = reserveService.createReserve(reserveRequest, currentUser);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @PostMapping("/bulk")
+    @Operation(summary = "Crear varias reservas a la vez", description = "Pensado para agencias y clientes corporativos. Cada reserva se valida por separado y la respuesta indica el resultado de cada una; una reserva inválida no impide crear las demás.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote procesado; revisar el resultado de cada reserva"),
+            @ApiResponse(responseCode = "400", description = "El lote está vacío o supera el máximo permitido"),
+            @ApiResponse(responseCode = "404", description = "Usuario no encontrado")
+    })
+    public ResponseEntity<BulkReserveResponse> createReserves(@Valid @RequestBody BulkReserveRequest bulkRequest, CurrentUser currentUser) {
+        BulkReserveResponse response = reserveService.createReserves(bulkRequest.getReservations(), currentUser);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping
-    @Operation(summary = "Listar reservas del usuario autenticado")
-    public ResponseEntity<java.util.List<ReserveResponse>> listUserReserves(@AuthenticationPrincipal UserDetails userDetails) {
-        java.util.List<ReserveResponse> reserves = reserveService.listReservesByUserEmail(userDetails.getUsername());
+    @Operation(summary = "Listar reservas del usuario autenticado", description = "Devuelve las reservas de la más reciente a la más antigua, por páginas. Para la página siguiente se envía el nextCursor de la respuesta anterior.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de reservas obtenida exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Cursor o filtros inválidos")
+    })
+    public ResponseEntity<CursorPageResponse<ReserveResponse>> listUserReserves(CurrentUser currentUser,
+                                                                                @Valid @ParameterObject ReserveListRequest listRequest) {
+        CursorPageResponse<ReserveResponse> reserves = reserveService.listReservesByUser(currentUser, listRequest);
         return ResponseEntity.ok(reserves);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Obtener detalle de una reserva por id")
-    public ResponseEntity<ReserveResponse> getReserve(@AuthenticationPrincipal UserDetails userDetails, @PathVariable String id) {
-        ReserveResponse response = reserveService.getReserveById(userDetails, id);
+    public ResponseEntity<ReserveResponse> getReserve(CurrentUser currentUser, @PathVariable String id) {
+        ReserveResponse response = reserveService.getReserveById(currentUser, id);
         return ResponseEntity.ok(response);
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Actualizar una reserva (solo si está PENDIENTE/PROGRAMADA)")
-    public ResponseEntity<ReserveResponse> updateReserve(@AuthenticationPrincipal UserDetails userDetails, @PathVariable String id, @Valid @RequestBody ReserveRequest reserveRequest) {
-        ReserveResponse response = reserveService.updateReserve(userDetails, id, reserveRequest);
+    public ResponseEntity<ReserveResponse> updateReserve(CurrentUser currentUser, @PathVariable String id, @Valid @RequestBody ReserveRequest reserveRequest) {
+        ReserveResponse response = reserveService.updateReserve(currentUser, id, reserveRequest);
         return ResponseEntity.ok(response);
     }
 
     @PatchMapping("/{id}/cancelar")
     @Operation(summary = "Cancelar una reserva")
-    public ResponseEntity<ReserveResponse> cancelReservation(@AuthenticationPrincipal UserDetails userDetails, @PathVariable String id) {
-        Reserve reservaCancelada = reserveService.cancelarReserva(userDetails, id);
+    public ResponseEntity<ReserveResponse> cancelReservation(CurrentUser currentUser, @PathVariable String id) {
+        Reserve reservaCancelada = reserveService.cancelarReserva(currentUser, id);
         ReserveResponse response = reserveService.mapToReserveResponse(reservaCancelada);
         return ResponseEntity.ok(response);
     }
@@ -1,24 +1,30 @@
 package com.reserve.events.controllers;
 
 import com.reserve.events.application.UserService;
+import com.reserve.events.controllers.domain.model.StatusReserve;
 import com.reserve.events.controllers.dto.LoginRequest;
+import com.reserve.events.controllers.dto.RefreshTokenRequest;
+import com.reserve.events.controllers.dto.UserListRequest;
 import com.reserve.events.controllers.dto.UserRequest;
+import com.reserve.events.controllers.response.CursorPageResponse;
+import com.reserve.events.controllers.response.PageResponse;
+import com.reserve.events.controllers.response.TokenRefreshResponse;
 import com.reserve.events.controllers.response.UserCreatedResponse;
 import com.reserve.events.controllers.response.UserLoginResponse;
 import com.reserve.events.controllers.response.UserResponse;
+import com.reserve.events.controllers.response.UserSummaryResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @Validated
 @RestController
 @RequestMapping("/User")
@@ -54,11 +60,36 @@ public class UserController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    @PostMapping("/refresh")
+    @Operation(summary = "Renovar el access token", description = "Cambia el refresh token por un access token nuevo y un refresh token nuevo. El refresh token usado deja de servir; si se vuelve a presentar, se cierra toda la sesión.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tokens renovados exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos"),
+            @ApiResponse(responseCode = "401", description = "Refresh token inválido, vencido o revocado")
+    })
+    public ResponseEntity<TokenRefreshResponse> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshRequest) {
+        return ResponseEntity.ok(userService.refreshSession(refreshRequest));
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Cerrar sesión", description = "Revoca la sesión del refresh token: no se puede renovar y sus access tokens dejan de aceptarse.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Sesión cerrada"),
+            @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos")
+    })
+    public ResponseEntity<Void> logoutUser(@Valid @RequestBody RefreshTokenRequest refreshRequest) {
+        userService.logoutUser(refreshRequest);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping
-    @Operation(summary = "Obtener lista de todos los usuarios")
-    @ApiResponse(responseCode = "200", description = "Lista de usuarios obtenida exitosamente")
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    @Operation(summary = "Obtener lista de todos los usuarios", description = "Devuelve por páginas (cursor) los datos de identidad y la cantidad de reservas y pagos de cada usuario")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de usuarios obtenida exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Cursor o tamaño de página inválidos")
+    })
+    public ResponseEntity<CursorPageResponse<UserSummaryResponse>> getAllUsers(@Valid @ParameterObject UserListRequest listRequest) {
+        return ResponseEntity.ok(userService.getAllUsers(listRequest));
     }
 
     @GetMapping("/{id}")
@@ -67,18 +98,34 @@ public class UserController {
             @ApiResponse(responseCode = "200", description = "Usuario encontrado"),
             @ApiResponse(responseCode = "404", description = "Usuario no encontrado")
     })
-    public ResponseEntity<UserResponse> getUserById(@PathVariable String id) {
+    public ResponseEntity<UserSummaryResponse> getUserById(@PathVariable String id) {
         return ResponseEntity.ok(userService.getUserById(id));
     }
 
+    @GetMapping("/{id}/bookings")
+    @Operation(summary = "Obtener las reservas de un usuario", description = "Devuelve paginadas las reservas del usuario en el estado indicado")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservas obtenidas exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Parámetros de paginación inválidos"),
+            @ApiResponse(responseCode = "404", description = "Usuario no encontrado")
+    })
+    public ResponseEntity<PageResponse<UserResponse.ReserveSummaryResponse>> getUserBookings(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "PROGRAMADA") StatusReserve status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(userService.getUserBookings(id, status, page, size));
+    }
+
     @GetMapping("/type/{type}")
-    @Operation(summary = "Obtener lista de todos los usuarios por tipo")
+    @Operation(summary = "Obtener lista de todos los usuarios por tipo", description = "Devuelve por páginas (cursor) el resumen de los usuarios del tipo indicado")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Usuarios encontrados"),
-            @ApiResponse(responseCode = "404", description = "Usuarios no encontrados")
+            @ApiResponse(responseCode = "400", description = "Tipo de usuario, cursor o tamaño de página inválidos")
     })
-    public ResponseEntity<List<UserResponse>> getUserByType(@PathVariable String type) {
-        return ResponseEntity.ok(userService.getAllUsersByType(type));
+    public ResponseEntity<CursorPageResponse<UserSummaryResponse>> getUserByType(@PathVariable String type,
+                                                                                @Valid @ParameterObject UserListRequest listRequest) {
+        return ResponseEntity.ok(userService.getAllUsersByType(type, listRequest));
     }
 
 }
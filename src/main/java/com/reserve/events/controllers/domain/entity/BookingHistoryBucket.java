@@ -0,0 +1,46 @@
+package com.reserve.events.controllers.domain.entity;
+
+import com.reserve.events.controllers.domain.model.BookingHistoryEntry;
+import com.reserve.events.controllers.domain.model.BookingOwnerType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Historial de reservas completadas y canceladas: un documento por dueño y por mes.
+ * Saca de usuarios, establecimientos, eventos y decoraciones las reservas que ya no están activas,
+ * así esos documentos no crecen sin límite y cada bucket queda acotado a las reservas de un mes.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "HistorialReservas")
+@CompoundIndex(name = "owner_month_unique", def = "{'ownerType': 1, 'ownerId': 1, 'month': -1}", unique = true)
+@Schema(description = "Reservas archivadas de un dueño en un mes")
+public class BookingHistoryBucket {
+
+    @Id
+    private String id;
+
+    @Schema(description = "Tipo de dueño del historial", example = "ESTABLISHMENT")
+    private BookingOwnerType ownerType;
+
+    @Schema(description = "Id del usuario, establecimiento, evento o decoración", example = "est_123")
+    private String ownerId;
+
+    @Schema(description = "Mes de la última fecha de las reservas (yyyy-MM)", example = "2025-03")
+    private String month;
+
+    @Builder.Default
+    @Schema(description = "Reservas archivadas del mes")
+    private List<BookingHistoryEntry> bookings = new ArrayList<>();
+}
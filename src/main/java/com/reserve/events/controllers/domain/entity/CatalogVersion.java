@@ -0,0 +1,29 @@
+package com.reserve.events.controllers.domain.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Versión compartida de un catálogo público. Todos los nodos la leen y la incrementan en cada escritura,
+ * así que el ETag que emite un nodo es válido en cualquier otro.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "VersionesCatalogo")
+@Schema(description = "Versión compartida de un catálogo")
+public class CatalogVersion {
+
+    @Id
+    @Schema(description = "Nombre del catálogo", example = "CATERING")
+    private String id;
+
+    @Schema(description = "Número de versión; sube en cada escritura del catálogo", example = "42")
+    private long version;
+}
@@ -0,0 +1,31 @@
+package com.reserve.events.controllers.domain.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Marca de una migración de datos terminada. Solo se escribe después de que la migración
+ * termina bien, así que una migración fallida o interrumpida se vuelve a correr en el siguiente arranque.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "Migraciones")
+@Schema(description = "Migración de datos ya aplicada")
+public class DataMigration {
+
+    @Id
+    @Schema(description = "Nombre de la migración", example = "occupancy-backfill")
+    private String id;
+
+    @Schema(description = "Momento en que terminó la migración")
+    private Instant completedAt;
+}
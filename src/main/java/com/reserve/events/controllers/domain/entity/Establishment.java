@@ -8,7 +8,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
@@ -20,13 +20,20 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "Establecimientos")
+@CompoundIndex(name = "name", def = "{'name': 1}", unique = true, partialFilter = "{'active': true}")
+@CompoundIndex(name = "active_city_type_capacity", def = "{'active': 1, 'city': 1, 'type': 1, 'capacity': 1}")
+@CompoundIndex(name = "active_cost", def = "{'cost': 1, '_id': 1}", partialFilter = "{'active': true}")
+@CompoundIndex(name = "active_city_cost", def = "{'city': 1, 'cost': 1, '_id': 1}", partialFilter = "{'active': true}")
+@CompoundIndex(name = "active_capacity", def = "{'capacity': 1, '_id': 1}", partialFilter = "{'active': true}")
+@CompoundIndex(name = "active_city_capacity", def = "{'city': 1, 'capacity': 1, '_id': 1}", partialFilter = "{'active': true}")
+@CompoundIndex(name = "active_name", def = "{'name': 1, '_id': 1}", partialFilter = "{'active': true}")
+@CompoundIndex(name = "active_city_name", def = "{'city': 1, 'name': 1, '_id': 1}", partialFilter = "{'active': true}")
 @Schema(description = "Entidad que representa un establecimiento")
 public class Establishment {
 
     @Id
     private String id;
 
-    @Indexed(unique = true)
     @NotBlank(message = "El nombre del establecimiento es obligatorio")
     @Size(max = 100, message = "El nombre no puede superar los 100 caracteres")
     @Schema(description = "Nombre del establecimiento", example = "Salón de eventos Primavera")
@@ -0,0 +1,46 @@
+package com.reserve.events.controllers.domain.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+
+/**
+ * Índice de ocupación de los establecimientos: un documento por cada día reservado.
+ * Evita recorrer las scheduledBookings del establecimiento para saber si un día está ocupado.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "OcupacionEstablecimientos")
+@CompoundIndex(name = "establishment_date_unique", def = "{'establishmentId': 1, 'date': 1}", unique = true)
+@CompoundIndex(name = "date_establishment", def = "{'date': 1, 'establishmentId': 1}")
+@Schema(description = "Día ocupado de un establecimiento por una reserva")
+public class EstablishmentOccupancy {
+
+    @Id
+    private String id;
+
+    @NotBlank(message = "El id del establecimiento es obligatorio")
+    @Schema(description = "Id del establecimiento", example = "est_123")
+    private String establishmentId;
+
+    @NotNull(message = "La fecha es obligatoria")
+    @Schema(description = "Día ocupado", example = "2025-03-03")
+    private LocalDate date;
+
+    @Indexed
+    @NotBlank(message = "El id de la reserva es obligatorio")
+    @Schema(description = "Id de la reserva que ocupa el día", example = "res_1")
+    private String reserveId;
+}
@@ -0,0 +1,34 @@
+package com.reserve.events.controllers.domain.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Bloqueo de una tarea programada: evita que varios nodos ejecuten la misma tarea a la vez.
+ * El id es el nombre de la tarea, así que el índice de _id garantiza un solo dueño.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "BloqueosTareas")
+@Schema(description = "Bloqueo de una tarea programada")
+public class JobLock {
+
+    @Id
+    @Schema(description = "Nombre de la tarea", example = "reserve-lifecycle")
+    private String id;
+
+    @Schema(description = "Token del nodo que tiene el bloqueo")
+    private String owner;
+
+    @Schema(description = "Momento en que vence el bloqueo si el nodo no lo libera")
+    private Instant lockedUntil;
+}
@@ -13,6 +13,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.validator.constraints.UniqueElements;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.annotation.Id;
 
@@ -24,6 +25,10 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "Pagos")
+@CompoundIndex(name = "reserve_id_unique", def = "{'reserve.id': 1}", unique = true, partialFilter = "{'reserve.id': {'$exists': true}}")
+@CompoundIndex(name = "status_id_desc", def = "{'status': 1, '_id': -1}")
+@CompoundIndex(name = "client_id_desc", def = "{'client.id': 1, '_id': -1}")
+@CompoundIndex(name = "establishment_id_desc", def = "{'establishment.id': 1, '_id': -1}")
 @Schema(description = "Entidad que representa un pago realizado o por realizar de un usuario sobre una reserva")
 public class Payment {
 
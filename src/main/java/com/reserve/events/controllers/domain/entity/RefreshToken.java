@@ -0,0 +1,49 @@
+package com.reserve.events.controllers.domain.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Refresh token de una sesión. Solo se guarda el SHA-256 del token, nunca el token en claro.
+ * Cada rotación crea un documento nuevo con el mismo familyId (la sesión); el anterior queda marcado
+ * como rotado y volver a presentarlo revoca toda la sesión.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "RefreshTokens")
+@Schema(description = "Refresh token de una sesión de usuario")
+public class RefreshToken {
+
+    @Id
+    private String id;
+
+    @Schema(description = "SHA-256 del token, en Base64 URL")
+    private String tokenHash;
+
+    @Schema(description = "Id de la sesión; lo comparten todos los tokens rotados de la misma sesión y va en el claim sid de los access tokens")
+    private String familyId;
+
+    @Schema(description = "Correo del usuario dueño de la sesión", example = "monica.cifuentes@correo.com")
+    private String email;
+
+    @Schema(description = "Momento de emisión")
+    private Instant createdAt;
+
+    @Schema(description = "Vencimiento; Mongo elimina el documento al pasar esta fecha")
+    private Instant expiresAt;
+
+    @Schema(description = "Momento en que se usó para emitir el siguiente token (null si sigue vigente)")
+    private Instant rotatedAt;
+
+    @Schema(description = "Momento en que se cerró la sesión (null si sigue abierta)")
+    private Instant revokedAt;
+}
@@ -8,6 +8,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
@@ -25,6 +26,7 @@ public class Report {
     @Id
     private String id;
 
+    @Indexed
     @NotBlank(message = "El tipo de reporte es obligatorio")
     @Schema(description = "Tipo de reporte", example = "reservationReport", allowableValues = {"reservationReport", "incomeReport", "serviceReport", "establishmentUsageReport"})
     private String type;
@@ -33,6 +35,7 @@ public class Report {
     @Schema(description = "Período del reporte (rango de fechas)")
     private Period period;
 
+    @Indexed
     @NotNull(message = "La fecha de creación es obligatoria")
     @Schema(description = "Fecha y hora en que se generó el reporte", example = "2025-12-08T10:00:00Z")
     private LocalDateTime createdAt;
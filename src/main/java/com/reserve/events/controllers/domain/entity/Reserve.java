@@ -8,6 +8,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
@@ -18,6 +19,12 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "Reserva")
+@CompoundIndex(name = "outbox_pending", def = "{'outbox.nextAttemptAt': 1}", sparse = true)
+@CompoundIndex(name = "status_endDate", def = "{'status': 1, 'endDate': 1}")
+@CompoundIndex(name = "client_id_desc", def = "{'client.id': 1, '_id': -1}")
+@CompoundIndex(name = "client_status_id_desc", def = "{'client.id': 1, 'status': 1, '_id': -1}")
+@CompoundIndex(name = "event_status", def = "{'event.id': 1, 'status': 1}")
+@CompoundIndex(name = "dates", def = "{'dates': 1}")
 @Schema(description = "Entidad que representa una reserva de un cliente.")
 public class Reserve {
 
@@ -36,6 +43,9 @@ public class Reserve {
     @Schema(description = "Fecha(s) de reserva", example = "[2025-03-03, 2025-03-04]")
     private List<LocalDate> dates;
 
+    @Schema(description = "Última fecha de la reserva; permite encontrar con un índice las reservas ya vencidas", example = "2025-03-04")
+    private LocalDate endDate;
+
     @NotNull(message = "El costo total es obligatorio")
     @Schema(description = "Costo total de la reserva", example = "900000")
     private double totalCost;
@@ -57,4 +67,7 @@ public class Reserve {
 
     @Schema(description = "Información de los servicios cubiertos de la reserva")
     private CoveredServicesReserve services;
+
+    @Schema(description = "Tareas de propagación pendientes; no existe cuando ya se aplicaron todas")
+    private ReserveOutbox outbox;
 }
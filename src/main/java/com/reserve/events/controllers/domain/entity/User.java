@@ -12,6 +12,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -23,6 +24,8 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection="Usuarios")
+@CompoundIndex(name = "type_id_desc", def = "{'type': 1, '_id': -1}")
+@CompoundIndex(name = "fullName_type", def = "{'fullName': 1, 'type': 1}")
 @Schema(description = "Entidad que representa a un usuario, sus pagos y reservas hechas")
 public class User {
 
@@ -0,0 +1,44 @@
+package com.reserve.events.controllers.domain.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Resumen de una reserva completada o cancelada guardado en el historial.
+ * Reúne los campos de los resúmenes de usuario, establecimiento, evento y decoración;
+ * los que no aplican al dueño del historial quedan en null.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Reserva archivada en el historial")
+public class BookingHistoryEntry {
+
+    @Schema(description = "Id de la reserva", example = "res_1")
+    private String id;
+
+    @Schema(description = "Estado de la reserva", example = "COMPLETADA", allowableValues = {"COMPLETADA", "CANCELADA"})
+    private StatusReserve status;
+
+    @Schema(description = "Información mínima del usuario que hizo la reserva")
+    private UserSummary user;
+
+    @Schema(description = "Información mínima del evento de la reserva")
+    private EventSummary event;
+
+    @Schema(description = "Información mínima del establecimiento de la reserva")
+    private EstablishmentSummary establishment;
+
+    @Schema(description = "Fecha(s) de reserva", example = "[2025-03-03, 2025-03-04]")
+    private List<LocalDate> dates;
+
+    @Schema(description = "Información de los servicios cubiertos de la reserva")
+    private CoveredServicesReserve services;
+}
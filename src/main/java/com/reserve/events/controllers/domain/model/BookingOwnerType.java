@@ -0,0 +1,19 @@
+package com.reserve.events.controllers.domain.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Tipo de documento dueño de un historial de reservas")
+public enum BookingOwnerType {
+
+    @Schema(description = "Historial de un usuario")
+    USER,
+
+    @Schema(description = "Historial de un establecimiento")
+    ESTABLISHMENT,
+
+    @Schema(description = "Historial de un evento")
+    EVENT,
+
+    @Schema(description = "Historial de una decoración")
+    DECORATION
+}
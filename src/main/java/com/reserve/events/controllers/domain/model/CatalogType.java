@@ -0,0 +1,28 @@
+package com.reserve.events.controllers.domain.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Catálogo público con versión propia para las peticiones condicionales")
+public enum CatalogType {
+
+    @Schema(description = "Servicios de entretenimiento")
+    ENTERTAINMENT,
+
+    @Schema(description = "Servicios de catering")
+    CATERING,
+
+    @Schema(description = "Decoraciones")
+    DECORATION,
+
+    @Schema(description = "Servicios adicionales")
+    ADDITIONAL,
+
+    @Schema(description = "Eventos")
+    EVENT,
+
+    @Schema(description = "Establecimientos")
+    ESTABLISHMENT,
+
+    @Schema(description = "Fechas ocupadas de un establecimiento")
+    AVAILABILITY
+}
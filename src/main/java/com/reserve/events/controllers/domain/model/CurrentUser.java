@@ -0,0 +1,31 @@
+package com.reserve.events.controllers.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Usuario autenticado de la petición, con solo los datos que usan los servicios
+ * (sin reservas ni pagos). Se resuelve una vez por petición en CurrentUserContext.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CurrentUser {
+
+    private String id;
+
+    private String fullName;
+
+    private String email;
+
+    private String phone;
+
+    private UserType type;
+
+    public boolean isAdmin() {
+        return type == UserType.ADMIN;
+    }
+}
@@ -0,0 +1,25 @@
+package com.reserve.events.controllers.domain.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Tarea pendiente de propagar una reserva a otras colecciones")
+public enum FanOutTask {
+
+    @Schema(description = "Agregar el resumen de la reserva al usuario")
+    USER,
+
+    @Schema(description = "Agregar el resumen de la reserva al establecimiento")
+    ESTABLISHMENT,
+
+    @Schema(description = "Agregar el resumen de la reserva al evento")
+    EVENT,
+
+    @Schema(description = "Agregar el resumen de la reserva a la decoración")
+    DECORATION,
+
+    @Schema(description = "Crear el pago PENDIENTE de la reserva")
+    PAYMENT,
+
+    @Schema(description = "Mover los resúmenes de la reserva completada a completedBookings y actualizar su pago")
+    COMPLETE
+}
@@ -0,0 +1,43 @@
+package com.reserve.events.controllers.domain.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outbox embebido en la reserva: las tareas de propagación se guardan en la misma escritura
+ * que la reserva (atómica por documento) y un despachador en segundo plano las aplica.
+ * Cuando no quedan tareas el campo se elimina del documento.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Tareas de propagación pendientes de una reserva")
+public class ReserveOutbox {
+
+    @Builder.Default
+    @Schema(description = "Tareas que faltan por aplicar")
+    private List<FanOutTask> tasks = new ArrayList<>();
+
+    @Schema(description = "Intentos fallidos de aplicar las tareas", example = "0")
+    private int attempts;
+
+    @Schema(description = "Momento a partir del cual se puede intentar de nuevo")
+    private Instant nextAttemptAt;
+
+    @Schema(description = "Token del despachador que tiene tomadas las tareas")
+    private String lockToken;
+
+    @Schema(description = "Momento en que vence la toma del despachador")
+    private Instant lockedUntil;
+
+    @Schema(description = "Último error al aplicar las tareas")
+    private String lastError;
+}
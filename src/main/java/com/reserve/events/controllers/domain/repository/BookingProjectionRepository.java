@@ -0,0 +1,130 @@
+package com.reserve.events.controllers.domain.repository;
+
+import com.reserve.events.controllers.domain.entity.Reserve;
+import com.reserve.events.controllers.domain.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Escrituras puntuales sobre las copias de reservas y pagos embebidas en usuarios, establecimientos,
+ * eventos y decoraciones. Cada operación es un único update atómico ($push, $pull o $set posicional)
+ * que no lee el documento padre, así que su costo no crece con el historial de reservas y dos
+ * escritores concurrentes no se pisan la lista completa.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingProjectionRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Mueve el resumen de una reserva de una lista a otra (por ejemplo de scheduledBookings a cancelledBookings).
+     * Si el resumen ya está en la lista destino no se hace nada, así que repetir la operación no duplica.
+     * @param owner clase del documento que contiene las listas
+     * @param ownerId id del documento
+     * @param reserveId id de la reserva
+     * @param from lista de origen
+     * @param to lista de destino
+     * @param summary resumen actualizado que se agrega a la lista destino
+     * @return true si el documento se modificó
+     */
+    public boolean moveBooking(Class<?> owner, String ownerId, String reserveId, String from, String to, Object summary) {
+        return mongoTemplate.updateFirst(moveQuery(ownerId, reserveId, to), moveUpdate(reserveId, from, to, summary), owner)
+                .getModifiedCount() > 0;
+    }
+
+    /**
+     * Mueve los resúmenes de varias reservas entre dos listas en una sola escritura bulk no ordenada
+     * @param owner clase de los documentos que contienen las listas
+     * @param from lista de origen
+     * @param to lista de destino
+     * @param reserves reservas a mover
+     * @param ownerIdOf id del documento de cada reserva (las que devuelven null se omiten)
+     * @param summaryOf resumen actualizado de cada reserva
+     */
+    public void moveBookings(Class<?> owner, String from, String to, List<Reserve> reserves,
+                             Function<Reserve, String> ownerIdOf, Function<Reserve, ?> summaryOf) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, owner);
+        int operations = 0;
+        for (Reserve reserve : reserves) {
+            String ownerId = ownerIdOf.apply(reserve);
+            if (ownerId != null) {
+                bulk.updateOne(moveQuery(ownerId, reserve.getId(), to), moveUpdate(reserve.getId(), from, to, summaryOf.apply(reserve)));
+                operations++;
+            }
+        }
+        if (operations > 0) {
+            bulk.execute();
+        }
+    }
+
+    private Query moveQuery(String ownerId, String reserveId, String to) {
+        return Query.query(Criteria.where("id").is(ownerId).and(to + ".id").ne(reserveId));
+    }
+
+    private Update moveUpdate(String reserveId, String from, String to, Object summary) {
+        return new Update()
+                .pull(from, Query.query(Criteria.where("id").is(reserveId)))
+                .push(to, summary);
+    }
+
+    /**
+     * Reemplaza el resumen de una reserva dentro de una lista con el operador posicional
+     * @param owner clase del documento que contiene la lista
+     * @param ownerId id del documento
+     * @param list lista que contiene el resumen
+     * @param reserveId id de la reserva
+     * @param summary resumen actualizado
+     * @return true si el resumen estaba en la lista
+     */
+    public boolean replaceBooking(Class<?> owner, String ownerId, String list, String reserveId, Object summary) {
+        Query query = Query.query(Criteria.where("id").is(ownerId).and(list + ".id").is(reserveId));
+        return mongoTemplate.updateFirst(query, new Update().set(list + ".$", summary), owner).getMatchedCount() > 0;
+    }
+
+    /**
+     * Agrega el resumen de una reserva a una lista si todavía no está
+     * @return true si se agregó
+     */
+    public boolean pushBooking(Class<?> owner, String ownerId, String list, String reserveId, Object summary) {
+        Query query = Query.query(Criteria.where("id").is(ownerId).and(list + ".id").ne(reserveId));
+        return mongoTemplate.updateFirst(query, new Update().push(list, summary), owner).getModifiedCount() > 0;
+    }
+
+    /**
+     * Quita el resumen de una reserva de una lista
+     * @return true si el documento se modificó
+     */
+    public boolean pullBooking(Class<?> owner, String ownerId, String list, String reserveId) {
+        Query query = Query.query(Criteria.where("id").is(ownerId));
+        Update update = new Update().pull(list, Query.query(Criteria.where("id").is(reserveId)));
+        return mongoTemplate.updateFirst(query, update, owner).getModifiedCount() > 0;
+    }
+
+    /**
+     * Actualiza el pago embebido en el usuario o lo agrega si aún no está
+     * @param userId id del usuario
+     * @param payment información actualizada del pago
+     */
+    public void upsertPayment(String userId, User.PaymentInfo payment) {
+        boolean replaced = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(userId).and("payments.id").is(payment.getId())),
+                new Update().set("payments.$", payment),
+                User.class).getMatchedCount() > 0;
+        if (!replaced) {
+            // El filtro evita agregarlo dos veces si otro escritor lo agregó entre ambas operaciones
+            mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("id").is(userId).and("payments.id").ne(payment.getId())),
+                    new Update().push("payments", payment),
+                    User.class);
+        }
+    }
+}
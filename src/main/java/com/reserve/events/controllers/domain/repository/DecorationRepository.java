@@ -2,6 +2,14 @@ package com.reserve.events.controllers.domain.repository;
 
 import com.reserve.events.controllers.domain.entity.Decoration;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface DecorationRepository extends MongoRepository<Decoration, String> {
+
+    //Buscar varias decoraciones por id sin cargar las listas de reservas embebidas
+    @Query(value = "{'_id': {'$in': ?0}}", fields = "{'scheduledBookings': 0, 'completedBookings': 0, 'cancelledBookings': 0}")
+    List<Decoration> findWithoutBookingsByIdIn(Collection<String> ids);
 }
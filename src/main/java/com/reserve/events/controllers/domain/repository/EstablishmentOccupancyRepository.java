@@ -0,0 +1,60 @@
+package com.reserve.events.controllers.domain.repository;
+
+import com.reserve.events.controllers.domain.entity.EstablishmentOccupancy;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface EstablishmentOccupancyRepository extends MongoRepository<EstablishmentOccupancy, String> {
+
+    /**
+     * Días ocupados de un establecimiento desde una fecha (inclusive), ordenados.
+     * La proyección solo incluye campos del índice (establishmentId, date), por lo que es una consulta cubierta.
+     * @param establishmentId id del establecimiento
+     * @param from fecha desde la que se buscan días ocupados
+     * @return ocupaciones con solo el campo date cargado
+     */
+    @Query(value = "{'establishmentId': ?0, 'date': {'$gte': ?1}}", fields = "{'_id': 0, 'date': 1}", sort = "{'date': 1}")
+    List<EstablishmentOccupancy> findOccupiedDatesFrom(String establishmentId, LocalDate from);
+
+    /**
+     * Cuenta las fechas ocupadas por reservas distintas a la indicada (para editar una reserva sin chocar consigo misma).
+     * No es una consulta cubierta: reserveId no está en el índice (establishmentId, date), así que se leen los
+     * documentos de las fechas pedidas (a lo sumo uno por fecha) para descartar los de la propia reserva.
+     * @param establishmentId id del establecimiento
+     * @param dates fechas a revisar
+     * @param reserveId id de la reserva que se ignora
+     * @return cantidad de fechas ocupadas por otras reservas
+     */
+    @Query(value = "{'establishmentId': ?0, 'date': {'$in': ?1}, 'reserveId': {'$ne': ?2}}", count = true)
+    long countOccupiedByOthers(String establishmentId, Collection<LocalDate> dates, String reserveId);
+
+    /**
+     * Verifica si un día del establecimiento ya lo ocupa la reserva indicada
+     * @param establishmentId id del establecimiento
+     * @param date día a revisar
+     * @param reserveId id de la reserva
+     * @return true si el día pertenece a la reserva
+     */
+    boolean existsByEstablishmentIdAndDateAndReserveId(String establishmentId, LocalDate date, String reserveId);
+
+    /**
+     * Libera los días de una reserva que ya no forman parte de ella (otro establecimiento u otras fechas)
+     * @param reserveId id de la reserva
+     * @param establishmentId establecimiento actual de la reserva
+     * @param dates fechas actuales de la reserva
+     * @return días liberados
+     */
+    @Query(value = "{'reserveId': ?0, '$or': [{'establishmentId': {'$ne': ?1}}, {'date': {'$nin': ?2}}]}", delete = true)
+    List<EstablishmentOccupancy> deleteByReserveIdExcept(String reserveId, String establishmentId, Collection<LocalDate> dates);
+
+    /**
+     * Libera todos los días ocupados por una reserva
+     * @param reserveId id de la reserva
+     * @return días liberados
+     */
+    List<EstablishmentOccupancy> deleteByReserveId(String reserveId);
+}
@@ -2,6 +2,9 @@ package com.reserve.events.controllers.domain.repository;
 
 import com.reserve.events.controllers.domain.entity.Establishment;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +18,15 @@ public interface EstablishmentRepository extends MongoRepository<Establishment,
 
     //Buscar un establecimiento activo por Id (optional es porque podria no tener un valor)
     Optional<Establishment> findByIdAndActiveTrue(String id);
+
+    //Verificar si un establecimiento está activo sin cargar el documento completo
+    boolean existsByIdAndActiveTrue(String id);
+
+    //Buscar varios establecimientos por id sin cargar las listas de reservas embebidas
+    @Query(value = "{'_id': {'$in': ?0}}", fields = "{'scheduledBookings': 0, 'completedBookings': 0, 'cancelledBookings': 0}")
+    List<Establishment> findWithoutBookingsByIdIn(Collection<String> ids);
+
+    //Buscar un establecimiento por id sin cargar las listas de reservas embebidas
+    @Query(value = "{'_id': ?0}", fields = "{'scheduledBookings': 0, 'completedBookings': 0, 'cancelledBookings': 0}")
+    Optional<Establishment> findWithoutBookingsById(String id);
 }
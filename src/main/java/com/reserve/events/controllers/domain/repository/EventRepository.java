@@ -2,10 +2,22 @@ package com.reserve.events.controllers.domain.repository;
 
 import com.reserve.events.controllers.domain.entity.Event;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface EventRepository extends MongoRepository<Event, String> {
     boolean existsById(String id);
     void deleteById(String id);
     boolean existsByType(String type);
 
+    // Buscar varios eventos por id sin cargar las listas de reservas embebidas
+    @Query(value = "{'_id': {'$in': ?0}}", fields = "{'scheduledBookings': 0, 'completedBookings': 0, 'cancelledBookings': 0}")
+    List<Event> findWithoutBookingsByIdIn(Collection<String> ids);
+
+    // Un evento con solo id, tipo e imagen
+    @Query(value = "{'_id': ?0}", fields = "{'type': 1, 'imageUrl': 1}")
+    Optional<Event> findSummaryById(String id);
 }
@@ -0,0 +1,8 @@
+package com.reserve.events.controllers.domain.repository;
+
+import com.reserve.events.controllers.domain.entity.Catering;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+// Lecturas no bloqueantes del catálogo; las escrituras siguen por CateringRepository
+public interface ReactiveCateringRepository extends ReactiveMongoRepository<Catering, String> {
+}
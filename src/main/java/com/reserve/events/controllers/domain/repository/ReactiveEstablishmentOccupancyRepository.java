@@ -0,0 +1,21 @@
+package com.reserve.events.controllers.domain.repository;
+
+import com.reserve.events.controllers.domain.entity.EstablishmentOccupancy;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+// Lecturas no bloqueantes del índice de ocupación; los reclamos de fechas siguen por EstablishmentOccupancyRepository
+public interface ReactiveEstablishmentOccupancyRepository extends ReactiveMongoRepository<EstablishmentOccupancy, String> {
+
+    /**
+     * Días ocupados de un establecimiento desde una fecha (inclusive), ordenados (consulta cubierta por el índice)
+     * @param establishmentId id del establecimiento
+     * @param from fecha desde la que se buscan días ocupados
+     * @return ocupaciones con solo el campo date cargado
+     */
+    @Query(value = "{'establishmentId': ?0, 'date': {'$gte': ?1}}", fields = "{'_id': 0, 'date': 1}", sort = "{'date': 1}")
+    Flux<EstablishmentOccupancy> findOccupiedDatesFrom(String establishmentId, LocalDate from);
+}
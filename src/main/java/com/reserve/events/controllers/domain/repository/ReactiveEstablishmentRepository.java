@@ -0,0 +1,17 @@
+package com.reserve.events.controllers.domain.repository;
+
+import com.reserve.events.controllers.domain.entity.Establishment;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Mono;
+
+// Lecturas no bloqueantes de establecimientos; las escrituras siguen por EstablishmentRepository
+public interface ReactiveEstablishmentRepository extends ReactiveMongoRepository<Establishment, String> {
+
+    //Verificar si un establecimiento está activo sin cargar el documento completo
+    Mono<Boolean> existsByIdAndActiveTrue(String id);
+
+    //Buscar un establecimiento por id sin cargar las listas de reservas embebidas
+    @Query(value = "{'_id': ?0}", fields = "{'scheduledBookings': 0, 'completedBookings': 0, 'cancelledBookings': 0}")
+    Mono<Establishment> findWithoutBookingsById(String id);
+}
@@ -0,0 +1,19 @@
+package com.reserve.events.controllers.domain.repository;
+
+import com.reserve.events.controllers.domain.entity.Event;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Lecturas no bloqueantes del catálogo de eventos; las escrituras siguen por EventRepository
+public interface ReactiveEventRepository extends ReactiveMongoRepository<Event, String> {
+
+    // Listado del catálogo: solo id, tipo e imagen
+    @Query(value = "{}", fields = "{'type': 1, 'imageUrl': 1}")
+    Flux<Event> findAllSummaries();
+
+    // Un evento con solo id, tipo e imagen
+    @Query(value = "{'_id': ?0}", fields = "{'type': 1, 'imageUrl': 1}")
+    Mono<Event> findSummaryById(String id);
+}
@@ -0,0 +1,23 @@
+package com.reserve.events.controllers.domain.repository;
+
+import com.reserve.events.controllers.domain.entity.RefreshToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends MongoRepository<RefreshToken, String> {
+
+    /**
+     * Busca un refresh token por el hash del token presentado
+     * @param tokenHash SHA-256 del token
+     * @return Optional con el token si existe
+     */
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Verifica si una sesión fue revocada
+     * @param familyId id de la sesión
+     * @return true si algún token de la sesión está revocado
+     */
+    boolean existsByFamilyIdAndRevokedAtIsNotNull(String familyId);
+}
@@ -27,14 +27,6 @@ public interface ReserveRepository extends MongoRepository<Reserve, String> {
     @Query(value = "{'event.id': ?0, 'status': ?1}", count = true)
     Long countByEventIdAndStatus(String eventId, StatusReserve status);
 
-    /**
-     * Encuentra todas las reservas de un cliente por su id
-     * @param clientId id del cliente
-     * @return lista de reservas
-     */
-    @Query("{'client.id': ?0}")
-    java.util.List<Reserve> findByClientId(String clientId);
-
     /**
      * Encuentra una reserva por su id y el id del cliente (para validaciones de dueño)
      */
@@ -2,6 +2,7 @@ package com.reserve.events.controllers.domain.repository;
 
 import com.reserve.events.controllers.domain.entity.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
@@ -22,6 +23,22 @@ public interface UserRepository extends MongoRepository<User, String> {
      */
     Optional<User> findByEmail(String email);
 
+    /**
+     * Busca solo el email y el tipo de un usuario, sin reservas ni pagos (para validar los tokens)
+     * @param email Correo del usuario
+     * @return Optional con el usuario (solo id, email y tipo) si existe
+     */
+    @Query(value = "{'email': ?0}", fields = "{'email': 1, 'type': 1}")
+    Optional<User> findRoleByEmail(String email);
+
+    /**
+     * Busca los datos del usuario autenticado que usan los servicios, sin reservas ni pagos
+     * @param email Correo del usuario
+     * @return Optional con el usuario (solo id, nombre, email, teléfono y tipo) si existe
+     */
+    @Query(value = "{'email': ?0}", fields = "{'fullName': 1, 'email': 1, 'phone': 1, 'type': 1}")
+    Optional<User> findPrincipalByEmail(String email);
+
     /**
      * Busca usuarios por su tipo
      * @param type Tipo de los usuarios a buscar
@@ -0,0 +1,29 @@
+package com.reserve.events.controllers.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para crear varias reservas en una sola petición.
+ * Cada reserva se valida por separado: una reserva inválida no impide crear las demás.
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Solicitud para crear varias reservas a la vez")
+public class BulkReserveRequest {
+
+    @NotEmpty(message = "Debe enviar al menos una reserva")
+    @Size(max = 100, message = "No se pueden crear más de 100 reservas por petición")
+    @Schema(description = "Reservas a crear", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<ReserveRequest> reservations;
+}
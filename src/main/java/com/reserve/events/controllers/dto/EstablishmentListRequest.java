@@ -0,0 +1,66 @@
+package com.reserve.events.controllers.dto;
+
+import com.reserve.events.controllers.domain.model.EstablishmentType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filtros, orden y paginación del listado de establecimientos activos (parámetros de la query)
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Filtros para listar los establecimientos activos")
+public class EstablishmentListRequest {
+
+    @Schema(description = "Ciudad del establecimiento", example = "Cali")
+    private String city;
+
+    @Schema(description = "Tipo de establecimiento", example = "MEDIUM")
+    private EstablishmentType type;
+
+    @Positive(message = "La capacidad mínima debe ser mayor a 0")
+    @Schema(description = "Capacidad mínima", example = "50")
+    private Integer minCapacity;
+
+    @Positive(message = "La capacidad máxima debe ser mayor a 0")
+    @Schema(description = "Capacidad máxima", example = "200")
+    private Integer maxCapacity;
+
+    @PositiveOrZero(message = "El costo mínimo no puede ser negativo")
+    @Schema(description = "Costo mínimo del alquiler", example = "500.0")
+    private Double minCost;
+
+    @PositiveOrZero(message = "El costo máximo no puede ser negativo")
+    @Schema(description = "Costo máximo del alquiler", example = "3000.0")
+    private Double maxCost;
+
+    @Builder.Default
+    @Pattern(regexp = "cost|capacity|name", message = "Solo se puede ordenar por cost, capacity o name")
+    @Schema(description = "Campo de ordenamiento", example = "cost", allowableValues = {"cost", "capacity", "name"})
+    private String sort = "cost";
+
+    @Builder.Default
+    @Pattern(regexp = "(?i)asc|desc", message = "La dirección debe ser asc o desc")
+    @Schema(description = "Dirección del ordenamiento", example = "asc", allowableValues = {"asc", "desc"})
+    private String direction = "asc";
+
+    @Builder.Default
+    @NotNull(message = "La página es obligatoria")
+    @Min(value = 0, message = "La página no puede ser negativa")
+    @Schema(description = "Número de página (desde 0)", example = "0")
+    private Integer page = 0;
+
+    @Builder.Default
+    @NotNull(message = "El tamaño de página es obligatorio")
+    @Min(value = 1, message = "El tamaño de página debe ser al menos 1")
+    @Max(value = 100, message = "El tamaño de página no puede superar 100")
+    @Schema(description = "Tamaño de página", example = "20")
+    private Integer size = 20;
+}
@@ -0,0 +1,51 @@
+package com.reserve.events.controllers.dto;
+
+import com.reserve.events.controllers.domain.model.StatusReserve;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Expansión opcional de las reservas al consultar un evento (parámetros de la query)
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Parámetros para incluir las reservas del evento, paginadas")
+public class EventQueryRequest {
+
+    public static final String INCLUDE_BOOKINGS = "bookings";
+
+    @Pattern(regexp = INCLUDE_BOOKINGS, message = "El único valor permitido para include es 'bookings'")
+    @Schema(description = "Usar 'bookings' para incluir las listas de reservas; vacío devuelve solo id, tipo e imagen", example = "bookings")
+    private String include;
+
+    @Schema(description = "Solo la lista de reservas con este estado; vacío incluye las tres", example = "PROGRAMADA")
+    private StatusReserve bookingsStatus;
+
+    @Builder.Default
+    @NotNull(message = "La página de reservas es obligatoria")
+    @Min(value = 0, message = "La página de reservas debe ser mayor o igual a 0")
+    @Max(value = 10000, message = "La página de reservas no puede superar 10000")
+    @Schema(description = "Página de reservas (desde 0), aplicada a cada lista", example = "0")
+    private Integer bookingsPage = 0;
+
+    @Builder.Default
+    @NotNull(message = "El tamaño de página de reservas es obligatorio")
+    @Min(value = 1, message = "El tamaño de página de reservas debe ser al menos 1")
+    @Max(value = 100, message = "El tamaño de página de reservas no puede superar 100")
+    @Schema(description = "Reservas por página en cada lista", example = "20")
+    private Integer bookingsSize = 20;
+
+    public boolean includesBookings() {
+        return INCLUDE_BOOKINGS.equals(include);
+    }
+}
@@ -0,0 +1,42 @@
+package com.reserve.events.controllers.dto;
+
+import com.reserve.events.controllers.domain.model.PaymentStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filtros y cursor del listado de pagos (parámetros de la query)
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Filtros para listar los pagos por páginas o en streaming")
+public class PaymentListRequest {
+
+    @Schema(description = "Cursor devuelto en nextCursor por la página anterior; vacío para empezar desde el pago más reciente", example = "NjczZjFjMmE5YjFlOGEzZDRjNWU2Zjdh")
+    private String cursor;
+
+    @Builder.Default
+    @NotNull(message = "El tamaño de página es obligatorio")
+    @Min(value = 1, message = "El tamaño de página debe ser al menos 1")
+    @Max(value = 200, message = "El tamaño de página no puede superar 200")
+    @Schema(description = "Tamaño de página (no aplica al streaming NDJSON)", example = "50")
+    private Integer size = 50;
+
+    @Schema(description = "Estado del pago", example = "PENDIENTE")
+    private PaymentStatus status;
+
+    @Schema(description = "Id del cliente", example = "u_123")
+    private String clientId;
+
+    @Schema(description = "Id del establecimiento", example = "est_123")
+    private String establishmentId;
+}
@@ -0,0 +1,20 @@
+package com.reserve.events.controllers.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Refresh token de una sesión, para renovar el access token o cerrar la sesión")
+public class RefreshTokenRequest {
+
+    @NotBlank(message = "El refresh token es obligatorio")
+    @Schema(description = "Refresh token recibido en el login o en la última renovación", example = "q3V0Zk5xR2x3b1dQ...")
+    private String refreshToken;
+}
@@ -0,0 +1,47 @@
+package com.reserve.events.controllers.dto;
+
+import com.reserve.events.controllers.domain.model.StatusReserve;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Filtros y cursor del listado de reservas del cliente (parámetros de la query)
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Filtros para listar por páginas las reservas del usuario autenticado")
+public class ReserveListRequest {
+
+    @Schema(description = "Cursor devuelto en nextCursor por la página anterior; vacío para la primera página", example = "NjczZjFjMmE5YjFlOGEzZDRjNWU2Zjdh")
+    private String cursor;
+
+    @Builder.Default
+    @NotNull(message = "El tamaño de página es obligatorio")
+    @Min(value = 1, message = "El tamaño de página debe ser al menos 1")
+    @Max(value = 100, message = "El tamaño de página no puede superar 100")
+    @Schema(description = "Tamaño de página", example = "20")
+    private Integer size = 20;
+
+    @Schema(description = "Estado de la reserva", example = "PROGRAMADA")
+    private StatusReserve status;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    @Schema(description = "Solo reservas con alguna fecha desde este día", example = "2025-01-01")
+    private LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    @Schema(description = "Solo reservas con alguna fecha hasta este día", example = "2025-12-31")
+    private LocalDate to;
+}
@@ -0,0 +1,32 @@
+package com.reserve.events.controllers.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cursor y tamaño de página del directorio de usuarios (parámetros de la query)
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Parámetros para listar los usuarios por páginas")
+public class UserListRequest {
+
+    @Schema(description = "Cursor devuelto en nextCursor por la página anterior; vacío para empezar desde el usuario más reciente", example = "NjczZjFjMmE5YjFlOGEzZDRjNWU2Zjdh")
+    private String cursor;
+
+    @Builder.Default
+    @NotNull(message = "El tamaño de página es obligatorio")
+    @Min(value = 1, message = "El tamaño de página debe ser al menos 1")
+    @Max(value = 200, message = "El tamaño de página no puede superar 200")
+    @Schema(description = "Tamaño de página", example = "50")
+    private Integer size = 50;
+}
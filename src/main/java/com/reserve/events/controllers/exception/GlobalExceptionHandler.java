@@ -222,6 +222,22 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return buildConflictResponse(request, ex.getMessage());
     }
 
+    // ==================== 503 SERVICE UNAVAILABLE ====================
+    // El pool de hashing de contraseñas está lleno: el cliente puede reintentar en unos segundos
+
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<Object> handlePasswordHashingBusy(PasswordHashingBusyException ex, WebRequest request) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        body.put("error", "Service Unavailable");
+        body.put("message", ex.getMessage());
+        body.put("path", request.getDescription(false).replace("uri=", ""));
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(body);
+    }
+
     // ==================== 500 INTERNAL SERVER ERROR ====================
     // Capturar cualquier excepción no manejada
 
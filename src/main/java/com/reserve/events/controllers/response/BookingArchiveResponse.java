@@ -0,0 +1,21 @@
+package com.reserve.events.controllers.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado de archivar las reservas completadas y canceladas")
+public class BookingArchiveResponse {
+
+    @Schema(description = "Documentos (usuarios, establecimientos, eventos y decoraciones) con reservas archivadas", example = "12")
+    private long documentsUpdated;
+
+    @Schema(description = "Reservas movidas al historial", example = "340")
+    private long bookingsArchived;
+}
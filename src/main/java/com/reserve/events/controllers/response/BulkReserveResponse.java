@@ -0,0 +1,50 @@
+package com.reserve.events.controllers.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado de la creación de varias reservas")
+public class BulkReserveResponse {
+
+    @Schema(description = "Cantidad de reservas recibidas", example = "12")
+    private int total;
+
+    @Schema(description = "Cantidad de reservas creadas", example = "11")
+    private int created;
+
+    @Schema(description = "Cantidad de reservas que fallaron", example = "1")
+    private int failed;
+
+    @Schema(description = "Resultado de cada reserva, en el mismo orden de la solicitud")
+    private List<ItemResult> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ItemResult {
+
+        @Schema(description = "Posición de la reserva en la solicitud", example = "0")
+        private int index;
+
+        @Schema(description = "Indica si la reserva se creó", example = "true")
+        private boolean success;
+
+        @Schema(description = "Reserva creada (solo si success es true)")
+        private ReserveResponse reserve;
+
+        @Schema(description = "Motivo del fallo (solo si success es false)", example = "No existe un evento con el id: evt_1")
+        private String error;
+    }
+}
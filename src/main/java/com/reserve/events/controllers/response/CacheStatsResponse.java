@@ -0,0 +1,39 @@
+package com.reserve.events.controllers.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Aciertos y fallos de una caché de dos niveles desde que inició el nodo")
+public class CacheStatsResponse {
+
+    @Schema(description = "Nombre de la caché", example = "catalog-catering")
+    private String name;
+
+    @Schema(description = "Lecturas resueltas en memoria (nivel 1)", example = "1520")
+    private long localHits;
+
+    @Schema(description = "Lecturas resueltas en Redis (nivel 2)", example = "48")
+    private long remoteHits;
+
+    @Schema(description = "Lecturas que tuvieron que ir a Mongo", example = "12")
+    private long misses;
+
+    @Schema(description = "Proporción de lecturas resueltas por la caché", example = "0.99")
+    private double hitRatio;
+
+    @Schema(description = "Valores guardados", example = "60")
+    private long puts;
+
+    @Schema(description = "Valores desalojados por escrituras del catálogo", example = "5")
+    private long evictions;
+
+    @Schema(description = "Entradas en memoria en este nodo", example = "42")
+    private long localSize;
+}
@@ -0,0 +1,29 @@
+package com.reserve.events.controllers.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Página de resultados paginada por cursor")
+public class CursorPageResponse<T> {
+
+    @Schema(description = "Elementos de la página")
+    private List<T> content;
+
+    @Schema(description = "Tamaño de página solicitado", example = "20")
+    private int size;
+
+    @Schema(description = "Cursor para pedir la siguiente página; null si no hay más", example = "NjczZjFjMmE5YjFlOGEzZDRjNWU2Zjdh")
+    private String nextCursor;
+
+    @Schema(description = "Indica si hay más resultados después de esta página", example = "true")
+    private boolean hasMore;
+}
@@ -1,5 +1,6 @@
 package com.reserve.events.controllers.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.reserve.events.controllers.domain.entity.Event;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
@@ -7,13 +8,13 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class EventResponse {
 
     @Schema(description = "ID del evento", example = "507f1f77bcf86cd799439011")
@@ -25,15 +26,12 @@ public class EventResponse {
     @Schema(description = "URL de la imagen del evento", example = "https://example.com/event-image.jpg")
     private String imageUrl;
 
-    @Builder.Default
-    @Schema(description = "Lista de reservas programadas del evento")
-    private List<Event.ReserveSummary> scheduledBookings = new ArrayList<>();
+    @Schema(description = "Página de reservas programadas del evento; solo con include=bookings")
+    private List<Event.ReserveSummary> scheduledBookings;
 
-    @Builder.Default
-    @Schema(description = "Lista de reservas completadas del evento")
-    private List<Event.ReserveSummary> completedBookings = new ArrayList<>();
+    @Schema(description = "Página de reservas completadas del evento; solo con include=bookings")
+    private List<Event.ReserveSummary> completedBookings;
 
-    @Builder.Default
-    @Schema(description = "Lista de reservas canceladas del evento")
-    private List<Event.ReserveSummary> cancelledBookings = new ArrayList<>();
+    @Schema(description = "Página de reservas canceladas del evento; solo con include=bookings")
+    private List<Event.ReserveSummary> cancelledBookings;
 }
\ No newline at end of file
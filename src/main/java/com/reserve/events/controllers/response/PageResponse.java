@@ -0,0 +1,32 @@
+package com.reserve.events.controllers.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Página de resultados de la API")
+public class PageResponse<T> {
+
+    @Schema(description = "Elementos de la página")
+    private List<T> content;
+
+    @Schema(description = "Número de página (desde 0)", example = "0")
+    private int page;
+
+    @Schema(description = "Tamaño de página", example = "20")
+    private int size;
+
+    @Schema(description = "Total de elementos que cumplen los filtros", example = "57")
+    private long totalElements;
+
+    @Schema(description = "Total de páginas", example = "3")
+    private int totalPages;
+}
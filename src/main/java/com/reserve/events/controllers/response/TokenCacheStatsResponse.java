@@ -0,0 +1,36 @@
+package com.reserve.events.controllers.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Aciertos de la caché de tokens JWT verificados y costo de la verificación desde que inició el nodo")
+public class TokenCacheStatsResponse {
+
+    @Schema(description = "Tokens resueltos sin volver a verificar la firma", example = "9870")
+    private long hits;
+
+    @Schema(description = "Tokens que tuvieron que verificarse", example = "130")
+    private long misses;
+
+    @Schema(description = "Proporción de tokens resueltos por la caché", example = "0.98")
+    private double hitRatio;
+
+    @Schema(description = "Tokens verificados en memoria en este nodo", example = "120")
+    private long size;
+
+    @Schema(description = "Verificaciones de firma realizadas, válidas o no", example = "135")
+    private long verifications;
+
+    @Schema(description = "Duración promedio de una verificación, en microsegundos", example = "18.4")
+    private double averageVerificationMicros;
+
+    @Schema(description = "Duración máxima de una verificación, en microsegundos", example = "950.0")
+    private double maxVerificationMicros;
+}
@@ -0,0 +1,21 @@
+package com.reserve.events.controllers.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Access token nuevo y el refresh token que reemplaza al usado")
+public class TokenRefreshResponse {
+
+    @Schema(description = "Access token (JWT) de vida corta")
+    private String token;
+
+    @Schema(description = "Refresh token para la siguiente renovación; el anterior deja de servir")
+    private String refreshToken;
+}
@@ -13,6 +13,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class UserLoginResponse {
     private String token;
+    private String refreshToken;
     private UserInfo user;
 
     @Data
@@ -0,0 +1,46 @@
+package com.reserve.events.controllers.response;
+
+import com.reserve.events.controllers.domain.model.UserType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resumen de un usuario: datos de identidad y cantidad de reservas y pagos")
+public class UserSummaryResponse {
+
+    @Schema(description = "ID del usuario", example = "507f1f77bcf86cd799439011")
+    private String id;
+
+    @Schema(description = "Nombre completo del usuario", example = "Mónica Andrea Cifuentes Salcedo")
+    private String fullName;
+
+    @Schema(description = "Correo electrónico del usuario", example = "monica.cifuentes@correo.com")
+    private String email;
+
+    @Schema(description = "Número de teléfono del usuario", example = "3243685898")
+    private String phone;
+
+    @Schema(description = "Ciudad donde vive", example = "Medellín")
+    private String city;
+
+    @Schema(description = "Tipo de usuario", example = "CLIENTE")
+    private UserType type;
+
+    @Schema(description = "Cantidad de reservas programadas", example = "2")
+    private int scheduledBookingsCount;
+
+    @Schema(description = "Cantidad de reservas completadas", example = "5")
+    private int completedBookingsCount;
+
+    @Schema(description = "Cantidad de reservas canceladas", example = "1")
+    private int cancelledBookingsCount;
+
+    @Schema(description = "Cantidad de pagos", example = "7")
+    private int paymentsCount;
+}
@@ -44,6 +44,8 @@ public class JwtAuthenticationEntryPoint implements AuthenticationEntryPoint {
                 message = "El token JWT no es soportado.";
             } else if (exception instanceof IllegalArgumentException) {
                 message = "Las claims del token JWT están vacías.";
+            } else if (exception instanceof AuthenticationException) {
+                message = exception.getMessage();
             } else {
                 message = "Token JWT inválido.";
             }
@@ -1,6 +1,9 @@
 package com.reserve.events.security.jwt;
 
-import com.reserve.events.application.CustomUserDetailsService;
+import com.reserve.events.application.RevokedSessions;
+import com.reserve.events.application.UserPrincipalCache;
+import com.reserve.events.controllers.domain.model.UserType;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureException;
@@ -11,8 +14,11 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
@@ -23,12 +29,15 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
-    private final CustomUserDetailsService customUserDetailsService;
+    private final UserPrincipalCache userPrincipalCache;
+    private final RevokedSessions revokedSessions;
 
     // Inyectamos las dependencias necesarias
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, CustomUserDetailsService customUserDetailsService) {
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, UserPrincipalCache userPrincipalCache,
+                                   RevokedSessions revokedSessions) {
         this.tokenProvider = tokenProvider;
-        this.customUserDetailsService = customUserDetailsService;
+        this.userPrincipalCache = userPrincipalCache;
+        this.revokedSessions = revokedSessions;
     }
 
     @Override
@@ -41,11 +50,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // 2. Validar el token
         if (StringUtils.hasText(jwt)) {
 
-            try{// 3. Obtener el email del token
-                String email = tokenProvider.getEmailFromJWT(jwt);
+            try{// 3. Obtener el email y los roles de las claims firmadas del token
+                Claims claims = tokenProvider.getClaims(jwt);
+                String email = claims.getSubject();
+                String roles = claims.get("roles", String.class);
 
-                // 4. Cargar el usuario (UserDetails) desde la BBDD
-                UserDetails userDetails = customUserDetailsService.loadUserByUsername(email);
+                // Rechazar tokens de sesiones cerradas (filtro en memoria, sin ir a Mongo en el caso normal)
+                if (revokedSessions.isRevoked(claims.get(JwtTokenProvider.SESSION_CLAIM, String.class))) {
+                    throw new BadCredentialsException("La sesión del token fue cerrada; inicie sesión de nuevo.");
+                }
+
+                // 4. Verificar que el usuario siga existiendo con el mismo rol (caché, sin leer Mongo en cada petición)
+                UserType type = userPrincipalCache.currentType(email)
+                        .orElseThrow(() -> new BadCredentialsException("El usuario del token ya no existe."));
+                if (!("ROLE_" + type.name()).equals(roles)) {
+                    throw new BadCredentialsException("El rol del usuario cambió; inicie sesión de nuevo.");
+                }
+
+                // El usuario se arma desde las claims; la contraseña no viaja en el token
+                UserDetails userDetails = User.withUsername(email)
+                        .password("")
+                        .authorities(AuthorityUtils.commaSeparatedStringToAuthorityList(roles))
+                        .build();
 
                 // 5. Crear el token de autenticación
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
@@ -70,6 +96,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             } catch (IllegalArgumentException ex) {
                 logger.error("Las claims del JWT están vacías: " + ex.getMessage());
                 request.setAttribute("jwt_exception", ex);
+            } catch (BadCredentialsException ex) {
+                logger.warn("Token JWT rechazado: " + ex.getMessage());
+                request.setAttribute("jwt_exception", ex);
             } catch (Exception ex) {
                 logger.error("Error al establecer la autenticación: " + ex.getMessage());
                 request.setAttribute("jwt_exception", ex);
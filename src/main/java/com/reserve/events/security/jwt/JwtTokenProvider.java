@@ -1,8 +1,13 @@
 package com.reserve.events.security.jwt;
 
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.reserve.events.controllers.response.TokenCacheStatsResponse;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -11,30 +16,56 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 @Component
 public class JwtTokenProvider {
-    // Se recomienda usar una clave secreta fuerte de al menos 256 bits (32 caracteres)
-    // Se lee desde application.properties (ej. jwt.secret=TU_CLAVE_SECRETA_DE_32_CHARS)
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+
+    /** Claim con el id de la sesión (refresh token) a la que pertenece el access token */
+    public static final String SESSION_CLAIM = "sid";
 
     // Tiempo de expiración del token en milisegundos (ej. 24 horas)
-    @Value("${jwt.expiration-ms}")
-    private long jwtExpirationInMs;
+    private final long jwtExpirationInMs;
 
-    private Key key;
+    private final Key key;
 
-    // Inicializa la clave de forma segura al inicio
-    private Key getSigningKey() {
-        if (this.key == null) {
-            // Decodifica la clave secreta y la convierte a una clave segura
-            this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        }
-        return this.key;
+    // El parser de jjwt es inmutable y seguro entre hilos: se arma una sola vez con la clave
+    private final JwtParser parser;
+
+    // Claims ya verificadas, por digest del token; null si la caché está deshabilitada (max-entries <= 0)
+    private final Cache<String, Claims> verifiedClaims;
+
+    // Métricas de las verificaciones que sí calculan la firma (fallos de caché)
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder verificationNanos = new LongAdder();
+    private final LongAccumulator maxVerificationNanos = new LongAccumulator(Long::max, 0);
+
+    /**
+     * @param jwtSecret clave secreta de al menos 256 bits (32 caracteres), desde application.properties (jwt.secret)
+     * @param jwtExpirationInMs vida de los tokens emitidos
+     * @param claimsCacheMaxEntries tokens verificados que se recuerdan; 0 deshabilita la caché
+     */
+    public JwtTokenProvider(@Value("${jwt.secret}") String jwtSecret,
+                            @Value("${jwt.expiration-ms}") long jwtExpirationInMs,
+                            @Value("${jwt.claims-cache.max-entries:10000}") long claimsCacheMaxEntries) {
+        this.jwtExpirationInMs = jwtExpirationInMs;
+        // Decodifica la clave secreta y la convierte a una clave segura
+        this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verifiedClaims = claimsCacheMaxEntries <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxEntries)
+                .expireAfter(new UntilTokenExpires())
+                .recordStats()
+                .build();
     }
 
     /**
@@ -43,43 +74,130 @@ public class JwtTokenProvider {
      * @return Token JWT como String.
      */
     public String generateToken(Authentication authentication) {
+        return generateToken(authentication, null);
+    }
 
-        // Obtiene el email (username) del usuario autenticado
-        String email = authentication.getName();
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
-
+    /**
+     * Genera un token JWT ligado a una sesión, que se puede revocar cerrando la sesión.
+     * @param authentication Objeto de autenticación de Spring Security.
+     * @param sessionId id de la sesión del refresh token (claim sid)
+     * @return Token JWT como String.
+     */
+    public String generateToken(Authentication authentication, String sessionId) {
         // Extrae los roles (authorities) y los convierte en una cadena separada por comas
         String roles = authentication.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.joining(","));
 
+        // El email (username) del usuario autenticado es el subject
+        return generateToken(authentication.getName(), roles, sessionId);
+    }
+
+    /**
+     * Genera un token JWT a partir de los datos del usuario (por ejemplo al rotar un refresh token).
+     * @param email correo del usuario (subject)
+     * @param roles roles separados por comas, con prefijo ROLE_
+     * @param sessionId id de la sesión (claim sid), o null para un token sin sesión
+     * @return Token JWT como String.
+     */
+    public String generateToken(String email, String roles, String sessionId) {
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
+
         return Jwts.builder()
                 .setSubject(email) // El identificador principal (Payload 'sub')
                 .claim("roles", roles) // Agrega los roles como un claim custom
-                .setIssuedAt(new Date())
+                .claim(SESSION_CLAIM, sessionId) // Sesión a la que pertenece el token (se omite si es null)
+                .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Valida la firma y la expiración del token y devuelve sus claims (subject = email, roles).
+     * Un token ya verificado se responde desde la caché hasta que expira, sin volver a calcular
+     * el HMAC ni a leer el JSON; los tokens inválidos no se guardan y siempre se verifican.
+     */
+    public Claims getClaims(String token) {
+        if (verifiedClaims == null) {
+            return verify(token);
+        }
+        return verifiedClaims.get(digest(token), digest -> verify(token));
+    }
+
     /**
      * Obtiene el email (subject) del token.
      */
     public String getEmailFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getSubject();
+        return getClaims(token).getSubject();
     }
 
     /**
      * Valida el token JWT.
      */
     public void validateToken(String authToken) {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(authToken);
+        getClaims(authToken);
+    }
+
+    /** Aciertos de la caché de tokens y costo de las verificaciones desde que inició el nodo */
+    public TokenCacheStatsResponse stats() {
+        CacheStats cacheStats = verifiedClaims == null ? CacheStats.empty() : verifiedClaims.stats();
+        long count = verifications.sum();
+        return TokenCacheStatsResponse.builder()
+                .hits(cacheStats.hitCount())
+                .misses(cacheStats.missCount())
+                .hitRatio(cacheStats.hitRate())
+                .size(verifiedClaims == null ? 0 : verifiedClaims.estimatedSize())
+                .verifications(count)
+                .averageVerificationMicros(count == 0 ? 0 : verificationNanos.sum() / 1000.0 / count)
+                .maxVerificationMicros(maxVerificationNanos.get() / 1000.0)
+                .build();
+    }
+
+    private Claims verify(String token) {
+        long start = System.nanoTime();
+        try {
+            return parser.parseClaimsJws(token).getBody();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            verifications.increment();
+            verificationNanos.add(elapsed);
+            maxVerificationNanos.accumulate(elapsed);
+        }
+    }
+
+    // SHA-256 del token: la caché no guarda los tokens en claro
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 no disponible", ex);
+        }
+    }
+
+    // Cada token se recuerda solo hasta su fecha de expiración
+    private static final class UntilTokenExpires implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return 0;
+            }
+            long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
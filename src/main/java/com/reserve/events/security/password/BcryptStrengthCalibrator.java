@@ -0,0 +1,61 @@
+package com.reserve.events.security.password;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Arrays;
+
+/**
+ * Sugiere el costo de BCrypt según lo que tarda un hash en este servidor.
+ * Cada punto de costo duplica el tiempo, así que basta medir el costo mínimo y extrapolar.
+ * Se toma la mediana de varias mediciones, así que una pausa del GC o un vecino ruidoso no cambian la sugerencia.
+ */
+public final class BcryptStrengthCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibracion-de-costo-bcrypt";
+
+    private BcryptStrengthCalibrator() {
+    }
+
+    /**
+     * @param targetMillis tiempo objetivo de un hash
+     * @param minStrength costo mínimo aceptable, aunque el servidor sea lento
+     * @param maxStrength costo máximo, aunque el servidor sea rápido
+     * @param runs mediciones de las que se toma la mediana; debe ser mayor que cero
+     * @return el mayor costo cuyo hash no supera el tiempo objetivo (acotado entre mínimo y máximo)
+     */
+    public static int calibrate(long targetMillis, int minStrength, int maxStrength, int runs) {
+        return strengthFor(medianNanos(minStrength, runs), targetMillis * 1_000_000, minStrength, maxStrength);
+    }
+
+    // Sube el costo mientras el tiempo extrapolado (el doble por punto) no pase del objetivo
+    static int strengthFor(long elapsedNanos, long targetNanos, int minStrength, int maxStrength) {
+        int strength = minStrength;
+        while (strength < maxStrength && elapsedNanos * 2 <= targetNanos) {
+            strength++;
+            elapsedNanos *= 2;
+        }
+        return strength;
+    }
+
+    static long median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    // El primer hash calienta el JIT y no se cuenta
+    private static long medianNanos(int strength, int runs) {
+        if (runs <= 0) {
+            throw new IllegalArgumentException("Se necesita al menos una medición para calibrar BCrypt");
+        }
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        encoder.encode(SAMPLE_PASSWORD);
+        long[] samples = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        return median(samples);
+    }
+}
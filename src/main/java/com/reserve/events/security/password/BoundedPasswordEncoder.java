@@ -0,0 +1,82 @@
+package com.reserve.events.security.password;
+
+import com.reserve.events.controllers.exception.PasswordHashingBusyException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ejecuta los hashes de contraseñas (registro y login) en un pool propio de tamaño fijo.
+ * Una ráfaga de logins ocupa como mucho esos hilos de CPU y el resto de peticiones sigue atendiéndose;
+ * si la cola también se llena, la petición se rechaza con PasswordHashingBusyException en vez de esperar.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * @param delegate codificador que hace el hash
+     * @param threads hilos dedicados al hashing
+     * @param queueCapacity hashes que pueden esperar turno antes de rechazar
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity) {
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hash-"));
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // Solo lee el prefijo y el costo del hash: no hace falta pasar por el pool
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /** Hashes en curso o esperando turno */
+    public int pending() {
+        return executor.getActiveCount() + executor.getQueue().size();
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T run(Callable<T> hashing) {
+        Future<T> future;
+        try {
+            future = executor.submit(hashing);
+        } catch (RejectedExecutionException ex) {
+            throw new PasswordHashingBusyException("El servidor está atendiendo demasiados inicios de sesión; intente de nuevo en unos segundos.");
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Se interrumpió la espera del hash de la contraseña", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("No se pudo calcular el hash de la contraseña", ex.getCause());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.reserve.events.application;
+
+import com.reserve.events.controllers.domain.entity.Payment;
+import com.reserve.events.controllers.domain.entity.Reserve;
+import com.reserve.events.controllers.domain.entity.User;
+import com.reserve.events.controllers.domain.model.EstablishmentSummary;
+import com.reserve.events.controllers.domain.model.EventSummary;
+import com.reserve.events.controllers.domain.model.FanOutTask;
+import com.reserve.events.controllers.domain.model.StatusReserve;
+import com.reserve.events.controllers.domain.model.UserSummary;
+import com.reserve.events.controllers.domain.repository.BookingProjectionRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingFanOutServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BookingProjectionRepository bookingProjectionRepository;
+
+    @Mock
+    private CatalogVersionService catalogVersionService;
+
+    private final BulkOperations bulk = mock(BulkOperations.class, RETURNS_SELF);
+
+    private BookingFanOutService fanOut;
+
+    @BeforeEach
+    void setUp() {
+        fanOut = new BookingFanOutService(mongoTemplate, bookingProjectionRepository, catalogVersionService);
+    }
+
+    private Reserve reserve(StatusReserve status) {
+        return Reserve.builder()
+                .id("r1")
+                .status(status)
+                .totalCost(100.0)
+                .client(UserSummary.builder().id("u1").build())
+                .event(EventSummary.builder().id("evt").type("Boda").build())
+                .establishment(EstablishmentSummary.builder().id("est").name("Salón").build())
+                .build();
+    }
+
+    @Test
+    void apply_pushesTheSummaryToTheListOfTheCurrentStatusNotTheClaimedOne() {
+        when(mongoTemplate.find(any(Query.class), eq(Reserve.class)))
+                .thenReturn(List.of(reserve(StatusReserve.CANCELADA)))
+                .thenReturn(List.of(reserve(StatusReserve.CANCELADA)));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class)).thenReturn(bulk);
+
+        fanOut.apply(FanOutTask.USER, List.of(reserve(StatusReserve.PROGRAMADA)));
+
+        ArgumentCaptor<Update> push = ArgumentCaptor.forClass(Update.class);
+        verify(bulk).updateOne(any(Query.class), push.capture());
+        assertTrue(push.getValue().getUpdateObject().get("$push", Document.class).containsKey("cancelledBookings"));
+        verifyNoInteractions(bookingProjectionRepository);
+    }
+
+    @Test
+    void apply_whenCancelledDuringThePush_movesTheSummaryToCancelledBookings() {
+        when(mongoTemplate.find(any(Query.class), eq(Reserve.class)))
+                .thenReturn(List.of(reserve(StatusReserve.PROGRAMADA)))
+                .thenReturn(List.of(reserve(StatusReserve.CANCELADA)));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class)).thenReturn(bulk);
+
+        fanOut.apply(FanOutTask.USER, List.of(reserve(StatusReserve.PROGRAMADA)));
+
+        verify(bookingProjectionRepository).pullBooking(User.class, "u1", "scheduledBookings", "r1");
+        verify(bookingProjectionRepository).pushBooking(eq(User.class), eq("u1"), eq("cancelledBookings"), eq("r1"), any());
+    }
+
+    @Test
+    void apply_doesNotCreateThePaymentOfAReserveCancelledBeforeTheTask() {
+        when(mongoTemplate.find(any(Query.class), eq(Reserve.class))).thenReturn(List.of(reserve(StatusReserve.CANCELADA)));
+        when(mongoTemplate.findDistinct(any(Query.class), eq("reserve.id"), eq(Payment.class), eq(String.class))).thenReturn(List.of());
+
+        fanOut.apply(FanOutTask.PAYMENT, List.of(reserve(StatusReserve.PROGRAMADA)));
+
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(Payment.class));
+    }
+
+    @Test
+    void apply_whenCancelledDuringThePaymentInsert_deletesTheNewPayment() {
+        when(mongoTemplate.find(any(Query.class), eq(Reserve.class)))
+                .thenReturn(List.of(reserve(StatusReserve.PROGRAMADA)))
+                .thenReturn(List.of(reserve(StatusReserve.CANCELADA)));
+        when(mongoTemplate.findDistinct(any(Query.class), eq("reserve.id"), eq(Payment.class), eq(String.class))).thenReturn(List.of());
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Payment.class)).thenReturn(bulk);
+
+        fanOut.apply(FanOutTask.PAYMENT, List.of(reserve(StatusReserve.PROGRAMADA)));
+
+        verify(bulk).insert(anyList());
+        verify(mongoTemplate).remove(any(Query.class), eq(Payment.class));
+    }
+
+    @Test
+    void apply_whenStillScheduledAfterThePaymentInsert_keepsThePayment() {
+        when(mongoTemplate.find(any(Query.class), eq(Reserve.class))).thenReturn(List.of(reserve(StatusReserve.PROGRAMADA)));
+        when(mongoTemplate.findDistinct(any(Query.class), anyString(), eq(Payment.class), eq(String.class))).thenReturn(List.of());
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Payment.class)).thenReturn(bulk);
+
+        fanOut.apply(FanOutTask.PAYMENT, List.of(reserve(StatusReserve.PROGRAMADA)));
+
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(Payment.class));
+    }
+}
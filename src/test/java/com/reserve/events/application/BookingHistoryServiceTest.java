@@ -0,0 +1,94 @@
+package com.reserve.events.application;
+
+import com.reserve.events.controllers.domain.entity.BookingHistoryBucket;
+import com.reserve.events.controllers.domain.entity.Establishment;
+import com.reserve.events.controllers.domain.model.BookingOwnerType;
+import com.reserve.events.controllers.domain.model.CurrentUser;
+import com.reserve.events.controllers.domain.model.StatusReserve;
+import com.reserve.events.controllers.domain.model.UserType;
+import com.reserve.events.controllers.exception.ForbiddenException;
+import com.reserve.events.controllers.response.BookingArchiveResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingHistoryServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private CatalogVersionService catalogVersionService;
+
+    @Mock
+    private JobLockService jobLockService;
+
+    @InjectMocks
+    private BookingHistoryService bookingHistoryService;
+
+    @Test
+    void archiveInactiveBookings_movesOnlyBookingsOutsideTheActiveWindow() {
+        LocalDate today = LocalDate.now();
+        Establishment establishment = Establishment.builder()
+                .id("est")
+                .completedBookings(List.of(
+                        Establishment.ReserveSummary.builder().id("old").status(StatusReserve.COMPLETADA)
+                                .dates(List.of(today.minusYears(1))).build(),
+                        Establishment.ReserveSummary.builder().id("recent").status(StatusReserve.COMPLETADA)
+                                .dates(List.of(today.plusDays(1))).build()))
+                .build();
+        when(jobLockService.tryAcquire(eq("booking-history-archive"), any(Duration.class))).thenReturn("token");
+        when(mongoTemplate.stream(any(Query.class), eq(Establishment.class))).thenReturn(Stream.of(establishment));
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(BookingHistoryBucket.class))).thenReturn(bulkOperations);
+
+        BookingArchiveResponse result = bookingHistoryService.archiveInactiveBookings();
+
+        assertEquals(1, result.getDocumentsUpdated());
+        assertEquals(1, result.getBookingsArchived());
+        verify(bulkOperations, times(1)).upsert(any(Query.class), any(Update.class));
+        verify(bulkOperations).execute();
+        verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(Establishment.class));
+        verify(jobLockService).release("booking-history-archive", "token");
+    }
+
+    @Test
+    void archiveInactiveBookings_whenAnotherNodeHoldsTheLock_archivesNothing() {
+        when(jobLockService.tryAcquire(eq("booking-history-archive"), any(Duration.class))).thenReturn(null);
+
+        BookingArchiveResponse result = bookingHistoryService.archiveInactiveBookings();
+
+        assertEquals(0, result.getDocumentsUpdated());
+        assertEquals(0, result.getBookingsArchived());
+        verifyNoInteractions(mongoTemplate, catalogVersionService);
+        verify(jobLockService, never()).release(any(), any());
+    }
+
+    @Test
+    void getHistory_whenClientAsksForAnotherOwner_throwsForbidden() {
+        CurrentUser client = CurrentUser.builder().id("u1").email("u@u.com").type(UserType.CLIENTE).build();
+
+        assertThrows(ForbiddenException.class, () -> bookingHistoryService.getHistory(
+                client, BookingOwnerType.ESTABLISHMENT, "est", null, 0, 20));
+        verifyNoInteractions(mongoTemplate);
+    }
+}
@@ -0,0 +1,97 @@
+package com.reserve.events.application;
+
+import com.reserve.events.controllers.domain.entity.Reserve;
+import com.reserve.events.controllers.domain.model.FanOutTask;
+import com.reserve.events.controllers.domain.model.ReserveOutbox;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingOutboxDispatcherTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BookingFanOutService bookingFanOutService;
+
+    private BookingOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new BookingOutboxDispatcher(mongoTemplate, bookingFanOutService, 100, 60, 300);
+    }
+
+    private Reserve reserveWith(String id, FanOutTask... tasks) {
+        return Reserve.builder()
+                .id(id)
+                .outbox(ReserveOutbox.builder().tasks(new ArrayList<>(List.of(tasks))).nextAttemptAt(Instant.now()).build())
+                .build();
+    }
+
+    @Test
+    void dispatchPending_appliesEachTaskOnceForTheWholeBatchAndRetriesOnlyTheFailedOne() {
+        Reserve first = reserveWith("r1", FanOutTask.USER, FanOutTask.PAYMENT);
+        Reserve second = reserveWith("r2", FanOutTask.USER, FanOutTask.PAYMENT);
+        when(mongoTemplate.find(any(Query.class), eq(Reserve.class)))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(first, second));
+        doThrow(new RuntimeException("sin conexión"))
+                .when(bookingFanOutService).apply(eq(FanOutTask.PAYMENT), anyList());
+
+        dispatcher.dispatchPending();
+
+        verify(bookingFanOutService, times(1)).apply(FanOutTask.USER, List.of(first, second));
+        verify(bookingFanOutService, times(1)).apply(FanOutTask.PAYMENT, List.of(first, second));
+        verify(bookingFanOutService, never()).apply(eq(FanOutTask.EVENT), anyList());
+        // Un reintento con espera por cada reserva cuyo pago falló
+        verify(mongoTemplate, times(2)).updateFirst(any(Query.class), any(Update.class), eq(Reserve.class));
+    }
+
+    @Test
+    void dispatchPending_whenNothingIsPending_doesNotTouchTheFanOut() {
+        when(mongoTemplate.find(any(Query.class), eq(Reserve.class))).thenReturn(List.of());
+
+        dispatcher.dispatchPending();
+
+        verifyNoInteractions(bookingFanOutService);
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(Reserve.class));
+    }
+
+    @Test
+    void dispatchPending_whenTheBatchIsFull_claimsAgainUntilAShortBatch() {
+        dispatcher = new BookingOutboxDispatcher(mongoTemplate, bookingFanOutService, 1, 60, 300);
+        Reserve first = reserveWith("r1", FanOutTask.USER);
+        when(mongoTemplate.find(any(Query.class), eq(Reserve.class)))
+                .thenReturn(List.of(first))
+                .thenReturn(List.of(first))
+                .thenReturn(List.of());
+
+        dispatcher.dispatchPending();
+
+        verify(bookingFanOutService, times(1)).apply(FanOutTask.USER, List.of(first));
+        verify(mongoTemplate, times(3)).find(any(Query.class), eq(Reserve.class));
+    }
+
+    @Test
+    void constructor_rejectsANonPositiveBatchSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BookingOutboxDispatcher(mongoTemplate, bookingFanOutService, 0, 60, 300));
+    }
+}
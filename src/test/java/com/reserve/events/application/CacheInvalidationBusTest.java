@@ -0,0 +1,84 @@
+package com.reserve.events.application;
+
+import com.reserve.events.controllers.domain.model.CatalogType;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CacheInvalidationBusTest {
+
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> values = mock(ValueOperations.class);
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final ApplicationEventPublisher publisherA = mock(ApplicationEventPublisher.class);
+    private final ApplicationEventPublisher publisherB = mock(ApplicationEventPublisher.class);
+
+    @SuppressWarnings("unchecked")
+    private CacheInvalidationBus node(ApplicationEventPublisher publisher) {
+        ObjectProvider<StringRedisTemplate> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(redisTemplate);
+        return new CacheInvalidationBus(provider, publisher, true, 60);
+    }
+
+    // Publica en el nodo A y devuelve el mensaje que viajaría por el canal
+    private String publish(CacheInvalidationBus bus, CatalogType type, String id, long version) {
+        when(values.increment(anyString())).thenReturn(version);
+        clearInvocations(redisTemplate);
+        bus.publish(type, id);
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CacheInvalidationBus.CHANNEL), payload.capture());
+        return payload.getValue();
+    }
+
+    @Test
+    void publish_reachesTheOtherNodesButNotTheSender() {
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        CacheInvalidationBus nodeA = node(publisherA);
+        CacheInvalidationBus nodeB = node(publisherB);
+
+        String payload = publish(nodeA, CatalogType.CATERING, "cat-1", 1);
+        nodeA.receive(payload);
+        nodeB.receive(payload);
+
+        verify(values).increment("catalog-invalidation:CATERING:cat-1");
+        verifyNoInteractions(publisherA);
+        verify(publisherB).publishEvent(new CatalogInvalidatedEvent(CatalogType.CATERING, "cat-1"));
+    }
+
+    @Test
+    void receive_ignoresMessagesThatArriveLateOrRepeated() {
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        CacheInvalidationBus nodeA = node(publisherA);
+        CacheInvalidationBus nodeB = node(publisherB);
+
+        String first = publish(nodeA, CatalogType.EVENT, "evt-1", 1);
+        String second = publish(nodeA, CatalogType.EVENT, "evt-1", 2);
+        String otherDocument = publish(nodeA, CatalogType.EVENT, null, 1);
+
+        nodeB.receive(second);
+        nodeB.receive(first);
+        nodeB.receive(second);
+        nodeB.receive(otherDocument);
+        nodeB.receive("basura");
+
+        verify(publisherB, times(1)).publishEvent(new CatalogInvalidatedEvent(CatalogType.EVENT, "evt-1"));
+        verify(publisherB, times(1)).publishEvent(new CatalogInvalidatedEvent(CatalogType.EVENT, null));
+    }
+
+    @Test
+    void publish_whenRedisIsDown_doesNotFailTheWrite() {
+        when(redisTemplate.opsForValue()).thenThrow(new RedisConnectionFailureException("Redis caído"));
+        CacheInvalidationBus bus = node(publisherA);
+
+        assertDoesNotThrow(() -> bus.publish(CatalogType.DECORATION, "dec-1"));
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+}
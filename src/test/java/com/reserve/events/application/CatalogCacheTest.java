@@ -0,0 +1,59 @@
+package com.reserve.events.application;
+
+import com.reserve.events.controllers.domain.model.CatalogType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogCacheTest {
+
+    private ConcurrentMapCacheManager cacheManager;
+    private CatalogCache catalogCache;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(CatalogCache.NAMES.toArray(String[]::new));
+        catalogCache = new CatalogCache(cacheManager);
+    }
+
+    @Test
+    void get_storesTheLoadedValueAndAnswersTheNextLookupFromTheCache() {
+        AtomicInteger loads = new AtomicInteger();
+
+        catalogCache.get(CatalogCache.EVENT, "ev-1", String.class, id -> Optional.of("v" + loads.incrementAndGet()));
+        Optional<String> second = catalogCache.get(CatalogCache.EVENT, "ev-1", String.class, id -> Optional.of("v" + loads.incrementAndGet()));
+
+        assertEquals(Optional.of("v1"), second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_whenTheDocumentIsEvictedDuringTheLoad_answersButDoesNotStoreTheStaleValue() {
+        Optional<String> loaded = catalogCache.get(CatalogCache.EVENT, "ev-1", String.class, id -> {
+            // Una edición termina mientras la consulta de este hilo está en curso
+            catalogCache.evict(CatalogCache.EVENT, CatalogCache.EVENT_LIST, "ev-1");
+            return Optional.of("viejo");
+        });
+
+        assertEquals(Optional.of("viejo"), loaded);
+        assertNull(cacheManager.getCache(CatalogCache.EVENT).get("ev-1"));
+    }
+
+    @Test
+    void find_whenAnotherNodeInvalidatesDuringTheLoad_doesNotStoreTheStaleValue() throws InterruptedException {
+        String loaded = catalogCache.find(CatalogCache.EVENT_LIST, CatalogCache.ALL, key -> Mono.fromSupplier(() -> {
+            catalogCache.onCatalogInvalidated(new CatalogInvalidatedEvent(CatalogType.EVENT, null));
+            return "viejo";
+        })).block();
+
+        Thread.sleep(200);
+        assertEquals("viejo", loaded);
+        assertNull(cacheManager.getCache(CatalogCache.EVENT_LIST).get(CatalogCache.ALL));
+    }
+}
@@ -0,0 +1,98 @@
+package com.reserve.events.application;
+
+import com.reserve.events.controllers.domain.entity.CatalogVersion;
+import com.reserve.events.controllers.domain.model.CatalogType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CatalogVersionServiceTest {
+
+    private final CacheInvalidationBus bus = mock(CacheInvalidationBus.class);
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    // Contador compartido por todos los nodos, como la colección VersionesCatalogo
+    private final Map<String, Long> shared = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.findById(anyString(), eq(CatalogVersion.class))).thenAnswer(invocation -> {
+            Long version = shared.get(invocation.<String>getArgument(0));
+            return version == null ? null : new CatalogVersion(invocation.getArgument(0), version);
+        });
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(CatalogVersion.class)))
+                .thenAnswer(invocation -> {
+                    String id = invocation.<Query>getArgument(0).getQueryObject().getString("id");
+                    long version = shared.merge(id, 1L, Long::sum);
+                    return new CatalogVersion(id, version);
+                });
+    }
+
+    @Test
+    void etag_staysTheSameUntilTheCatalogChanges() {
+        CatalogVersionService versions = new CatalogVersionService(mongoTemplate, bus, 0);
+
+        String first = versions.etag(CatalogType.CATERING);
+        String untouched = versions.etag(CatalogType.DECORATION);
+
+        assertEquals("\"catering-0\"", first);
+        assertEquals(first, versions.etag(CatalogType.CATERING));
+
+        versions.bump(CatalogType.CATERING);
+
+        assertEquals("\"catering-1\"", versions.etag(CatalogType.CATERING));
+        assertEquals(untouched, versions.etag(CatalogType.DECORATION));
+    }
+
+    @Test
+    void etag_isTheSameOnEveryNodeAndAChangeOnOneIsSeenByTheOthers() {
+        CatalogVersionService node = new CatalogVersionService(mongoTemplate, bus, 60_000);
+        CatalogVersionService otherNode = new CatalogVersionService(mongoTemplate, bus, 60_000);
+
+        assertEquals(node.etag(CatalogType.EVENT), otherNode.etag(CatalogType.EVENT));
+
+        node.bump(CatalogType.EVENT, "evt-1");
+        otherNode.onCatalogInvalidated(new CatalogInvalidatedEvent(CatalogType.EVENT, "evt-1"));
+
+        assertEquals("\"event-1\"", node.etag(CatalogType.EVENT));
+        assertEquals(node.etag(CatalogType.EVENT), otherNode.etag(CatalogType.EVENT));
+    }
+
+    @Test
+    void etag_keepsTheLocalCopyUntilItIsRefreshedOrInvalidated() {
+        CatalogVersionService versions = new CatalogVersionService(mongoTemplate, bus, 60_000);
+        String first = versions.etag(CatalogType.ENTERTAINMENT);
+
+        // Otro nodo escribió y el aviso todavía no llega: la copia local sigue vigente hasta el refresco
+        shared.put(CatalogType.ENTERTAINMENT.name(), 5L);
+        assertEquals(first, versions.etag(CatalogType.ENTERTAINMENT));
+        verify(mongoTemplate, times(1)).findById(CatalogType.ENTERTAINMENT.name(), CatalogVersion.class);
+
+        CatalogVersionService refreshing = new CatalogVersionService(mongoTemplate, bus, 0);
+        assertEquals("\"entertainment-5\"", refreshing.etag(CatalogType.ENTERTAINMENT));
+    }
+
+    @Test
+    void bump_publishesTheChangeAndARemoteChangeDoesNotIncrementTheCounter() {
+        CatalogVersionService versions = new CatalogVersionService(mongoTemplate, bus, 60_000);
+
+        versions.bump(CatalogType.ESTABLISHMENT, "est-1");
+        verify(bus).publish(CatalogType.ESTABLISHMENT, "est-1");
+        assertEquals("\"establishment-1\"", versions.etag(CatalogType.ESTABLISHMENT));
+
+        versions.onCatalogInvalidated(new CatalogInvalidatedEvent(CatalogType.ESTABLISHMENT, "est-2"));
+
+        assertEquals("\"establishment-1\"", versions.etag(CatalogType.ESTABLISHMENT));
+        verify(mongoTemplate, times(1)).findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(CatalogVersion.class));
+        verifyNoMoreInteractions(bus);
+    }
+}
@@ -0,0 +1,73 @@
+package com.reserve.events.application;
+
+import com.reserve.events.controllers.domain.entity.User;
+import com.reserve.events.controllers.domain.model.CurrentUser;
+import com.reserve.events.controllers.domain.model.UserType;
+import com.reserve.events.controllers.domain.repository.UserRepository;
+import com.reserve.events.controllers.exception.UserNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CurrentUserContextTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private CurrentUserContext currentUserContext;
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void authenticateAs(String email) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                email, null, AuthorityUtils.createAuthorityList("ROLE_CLIENTE")));
+    }
+
+    @Test
+    void get_readsTheProjectionOncePerRequest() {
+        authenticateAs("ana@correo.com");
+        when(userRepository.findPrincipalByEmail("ana@correo.com")).thenReturn(Optional.of(User.builder()
+                .id("u1").email("ana@correo.com").fullName("Ana").phone("300").type(UserType.CLIENTE).build()));
+
+        CurrentUser first = currentUserContext.get();
+        CurrentUser second = currentUserContext.get();
+
+        assertSame(first, second);
+        assertEquals("u1", first.getId());
+        assertEquals("Ana", first.getFullName());
+        assertFalse(first.isAdmin());
+        verify(userRepository, times(1)).findPrincipalByEmail("ana@correo.com");
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void get_whenUserNoLongerExists_throwsUserNotFound() {
+        authenticateAs("no-existe@x.com");
+        when(userRepository.findPrincipalByEmail("no-existe@x.com")).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () -> currentUserContext.get());
+    }
+
+    @Test
+    void get_withoutAuthentication_throwsCredentialsNotFound() {
+        assertThrows(AuthenticationCredentialsNotFoundException.class, () -> currentUserContext.get());
+        verifyNoInteractions(userRepository);
+    }
+}
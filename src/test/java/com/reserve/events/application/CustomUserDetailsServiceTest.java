@@ -0,0 +1,105 @@
+package com.reserve.events.application;
+
+import com.reserve.events.config.PasswordHashingConfig;
+import com.reserve.events.controllers.domain.entity.User;
+import com.reserve.events.controllers.domain.model.UserType;
+import com.reserve.events.controllers.domain.repository.UserRepository;
+import com.reserve.events.security.password.BoundedPasswordEncoder;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomUserDetailsServiceTest {
+
+    private static final String EMAIL = "cliente@correo.com";
+    private static final String PASSWORD = "Secreta1!";
+    // Costo configurado en security.password.strength para la prueba
+    private static final int STRENGTH = 5;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private final BoundedPasswordEncoder passwordEncoder =
+            new BoundedPasswordEncoder(PasswordHashingConfig.delegatingEncoder(STRENGTH), 1, 10);
+
+    private DaoAuthenticationProvider authenticationProvider;
+
+    @BeforeEach
+    void setUp() {
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService(userRepository, mongoTemplate);
+        authenticationProvider = new DaoAuthenticationProvider(userDetailsService);
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
+        authenticationProvider.setUserDetailsPasswordService(userDetailsService);
+    }
+
+    @AfterEach
+    void shutdown() {
+        passwordEncoder.shutdown();
+    }
+
+    private void storedHash(String hash) {
+        when(userRepository.findByEmail(EMAIL))
+                .thenReturn(Optional.of(User.builder().email(EMAIL).Password(hash).type(UserType.CLIENTE).build()));
+    }
+
+    private void login() {
+        authenticationProvider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(EMAIL, PASSWORD));
+    }
+
+    @Test
+    void login_withALowerCostHash_storesANewHashWithTheConfiguredCost() {
+        storedHash("{bcrypt}" + new BCryptPasswordEncoder(4).encode(PASSWORD));
+
+        login();
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(User.class));
+        String rehashed = update.getValue().getUpdateObject().get("$set", Document.class).getString("Password");
+        assertTrue(rehashed.startsWith("{bcrypt}$2a$05$"));
+        assertTrue(passwordEncoder.matches(PASSWORD, rehashed));
+    }
+
+    @Test
+    void login_withAHashWithoutPrefix_storesItWithThePrefix() {
+        storedHash(new BCryptPasswordEncoder(STRENGTH).encode(PASSWORD));
+
+        login();
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(User.class));
+        assertTrue(update.getValue().getUpdateObject().get("$set", Document.class).getString("Password").startsWith("{bcrypt}$2a$05$"));
+    }
+
+    @Test
+    void login_withTheConfiguredOrAHigherCost_doesNotRehash() {
+        storedHash("{bcrypt}" + new BCryptPasswordEncoder(STRENGTH).encode(PASSWORD));
+        login();
+
+        storedHash("{bcrypt}" + new BCryptPasswordEncoder(STRENGTH + 1).encode(PASSWORD));
+        login();
+
+        verifyNoInteractions(mongoTemplate);
+    }
+}
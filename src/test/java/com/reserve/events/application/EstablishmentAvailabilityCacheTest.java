@@ -0,0 +1,152 @@
+package com.reserve.events.application;
+
+import com.reserve.events.controllers.domain.entity.EstablishmentOccupancy;
+import com.reserve.events.controllers.domain.model.CatalogType;
+import com.reserve.events.controllers.domain.repository.EstablishmentOccupancyRepository;
+import com.reserve.events.controllers.domain.repository.EstablishmentRepository;
+import com.reserve.events.controllers.domain.repository.ReactiveEstablishmentOccupancyRepository;
+import com.reserve.events.controllers.domain.repository.ReactiveEstablishmentRepository;
+import com.reserve.events.controllers.exception.EstablishmentNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EstablishmentAvailabilityCacheTest {
+
+    @Mock
+    private EstablishmentRepository establishmentRepository;
+
+    @Mock
+    private EstablishmentOccupancyRepository occupancyRepository;
+
+    @Mock
+    private ReactiveEstablishmentRepository reactiveEstablishmentRepository;
+
+    @Mock
+    private ReactiveEstablishmentOccupancyRepository reactiveOccupancyRepository;
+
+    @Mock
+    private CacheInvalidationBus invalidationBus;
+
+    private EstablishmentAvailabilityCache cache;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        cache = new EstablishmentAvailabilityCache(establishmentRepository, occupancyRepository,
+                reactiveEstablishmentRepository, reactiveOccupancyRepository, invalidationBus, 2, 10);
+        lenient().when(establishmentRepository.existsByIdAndActiveTrue(anyString())).thenReturn(true);
+        lenient().when(occupancyRepository.findOccupiedDatesFrom(anyString(), any(LocalDate.class))).thenReturn(List.of());
+    }
+
+    @Test
+    void areAvailable_answersFromTheCacheAfterTheFirstLoad() {
+        when(occupancyRepository.findOccupiedDatesFrom(eq("est-1"), any(LocalDate.class)))
+                .thenReturn(List.of(EstablishmentOccupancy.builder().date(today.plusDays(5)).build()));
+
+        assertFalse(cache.areAvailable("est-1", List.of(today.plusDays(4), today.plusDays(5))));
+        assertTrue(cache.areAvailable("est-1", List.of(today.plusDays(6))));
+        assertEquals(List.of(today.plusDays(5)), cache.getOccupiedDates("est-1", today));
+
+        verify(occupancyRepository, times(1)).findOccupiedDatesFrom(eq("est-1"), any(LocalDate.class));
+    }
+
+    @Test
+    void markOccupiedAndMarkFree_updateTheBitsetIncrementally() {
+        LocalDate day = today.plusDays(30);
+        cache.getOccupiedDates("est-1", today);
+
+        cache.markOccupied("est-1", List.of(day));
+        assertEquals(List.of(day), cache.getOccupiedDates("est-1", today));
+
+        cache.markFree("est-1", List.of(day));
+        assertTrue(cache.areAvailable("est-1", List.of(day)));
+        assertEquals(List.of(), cache.getOccupiedDates("est-1", today));
+
+        verify(occupancyRepository, times(1)).findOccupiedDatesFrom(eq("est-1"), any(LocalDate.class));
+        verify(invalidationBus, times(2)).publish(CatalogType.AVAILABILITY, "est-1");
+    }
+
+    @Test
+    void areAvailable_whenTheCachedEntrySaysOccupied_confirmsWithMongoBeforeRefusing() {
+        LocalDate day = today.plusDays(8);
+        when(occupancyRepository.findOccupiedDatesFrom(eq("est-1"), any(LocalDate.class)))
+                .thenReturn(List.of(EstablishmentOccupancy.builder().date(day).build()))
+                .thenReturn(List.of());
+
+        cache.getOccupiedDates("est-1", today);
+        // Otro nodo liberó el día: la entrada en caché todavía lo marca como ocupado
+        assertTrue(cache.areAvailable("est-1", List.of(day)));
+        assertTrue(cache.areAvailable("est-1", List.of(day)));
+
+        verify(occupancyRepository, times(2)).findOccupiedDatesFrom(eq("est-1"), any(LocalDate.class));
+    }
+
+    @Test
+    void onCatalogInvalidated_whenAnotherNodeChangedTheAvailability_reloadsTheEstablishment() {
+        cache.getOccupiedDates("est-1", today);
+
+        cache.onCatalogInvalidated(new CatalogInvalidatedEvent(CatalogType.AVAILABILITY, "est-1"));
+        cache.getOccupiedDates("est-1", today);
+
+        verify(occupancyRepository, times(2)).findOccupiedDatesFrom(eq("est-1"), any(LocalDate.class));
+        verifyNoInteractions(invalidationBus);
+    }
+
+    @Test
+    void whenSizeBoundIsExceeded_evictsTheLeastRecentlyUsedEstablishment() {
+        cache.getOccupiedDates("est-1", today);
+        cache.getOccupiedDates("est-2", today);
+        cache.getOccupiedDates("est-1", today);
+        cache.getOccupiedDates("est-3", today);
+
+        cache.getOccupiedDates("est-2", today);
+
+        verify(occupancyRepository, times(1)).findOccupiedDatesFrom(eq("est-1"), any(LocalDate.class));
+        verify(occupancyRepository, times(2)).findOccupiedDatesFrom(eq("est-2"), any(LocalDate.class));
+    }
+
+    @Test
+    void whenEstablishmentIsInactive_throwsEstablishmentNotFound() {
+        when(establishmentRepository.existsByIdAndActiveTrue("est-off")).thenReturn(false);
+
+        assertThrows(EstablishmentNotFoundException.class, () -> cache.getOccupiedDates("est-off", today));
+    }
+
+    @Test
+    void findOccupiedDates_loadsWithTheReactiveDriverAndSharesTheEntryWithTheBlockingPath() {
+        when(reactiveEstablishmentRepository.existsByIdAndActiveTrue("est-1")).thenReturn(Mono.just(true));
+        when(reactiveOccupancyRepository.findOccupiedDatesFrom(eq("est-1"), any(LocalDate.class)))
+                .thenReturn(Flux.just(EstablishmentOccupancy.builder().date(today.plusDays(3)).build()));
+
+        assertEquals(List.of(today.plusDays(3)), cache.findOccupiedDates("est-1", today).block());
+        assertEquals(List.of(today.plusDays(3)), cache.findOccupiedDates("est-1", today).block());
+        assertTrue(cache.areAvailable("est-1", List.of(today.plusDays(4))));
+
+        verify(reactiveOccupancyRepository, times(1)).findOccupiedDatesFrom(eq("est-1"), any(LocalDate.class));
+        verify(occupancyRepository, never()).findOccupiedDatesFrom(anyString(), any(LocalDate.class));
+    }
+
+    @Test
+    void findOccupiedDates_whenEstablishmentIsInactive_emitsEstablishmentNotFound() {
+        when(reactiveEstablishmentRepository.existsByIdAndActiveTrue("est-off")).thenReturn(Mono.just(false));
+
+        assertThrows(EstablishmentNotFoundException.class, () -> cache.findOccupiedDates("est-off", today).block());
+        verify(reactiveOccupancyRepository, never()).findOccupiedDatesFrom(anyString(), any(LocalDate.class));
+    }
+}
@@ -0,0 +1,162 @@
+package com.reserve.events.application;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.reserve.events.config.MongoIndexRegistry;
+import com.reserve.events.controllers.domain.entity.EstablishmentOccupancy;
+import com.reserve.events.controllers.domain.repository.EstablishmentOccupancyRepository;
+import com.reserve.events.controllers.domain.repository.EstablishmentRepository;
+import com.reserve.events.controllers.domain.repository.ReactiveEstablishmentRepository;
+import com.reserve.events.controllers.exception.AvailableEstablishmentNotFoundException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Reclamo concurrente de fechas contra un Mongo real (contenedor): el índice único {establishmentId, date}
+ * que crea {@link MongoIndexRegistry} es lo único que decide qué reserva se queda con cada día.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class EstablishmentOccupancyClaimTest {
+
+    @Container
+    private static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static EstablishmentOccupancyRepository occupancyRepository;
+
+    // Inserciones que Mongo rechazó por el índice único
+    private static final AtomicInteger duplicateKeyRejections = new AtomicInteger();
+
+    private EstablishmentService establishmentService;
+
+    @BeforeAll
+    static void setUp() {
+        client = MongoClients.create(MONGO.getReplicaSetUrl());
+        mongoTemplate = new MongoTemplate(client, "occupancy-claim-test");
+        new MongoIndexRegistry(mongoTemplate).ensureIndexes();
+        occupancyRepository = countingDuplicateKeys(
+                new MongoRepositoryFactory(mongoTemplate).getRepository(EstablishmentOccupancyRepository.class));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        client.close();
+    }
+
+    @BeforeEach
+    void resetOccupancy() {
+        mongoTemplate.remove(new Query(), EstablishmentOccupancy.class);
+        duplicateKeyRejections.set(0);
+        establishmentService = new EstablishmentService(mock(EstablishmentRepository.class),
+                mock(ReactiveEstablishmentRepository.class), occupancyRepository,
+                mock(EstablishmentAvailabilityCache.class), mongoTemplate, mock(ReactiveMongoTemplate.class),
+                mock(CatalogVersionService.class), mock(CatalogCache.class));
+    }
+
+    @Test
+    void claimDates_whenHundredsOfConcurrentBookings_onlyOneWinsAndTheRestHitTheUniqueIndex() throws InterruptedException {
+        int bookings = 300;
+        LocalDate saturday = LocalDate.now().plusDays(30);
+
+        List<String> winners = race(bookings, i -> List.of(saturday));
+
+        assertEquals(1, winners.size());
+        assertEquals(bookings - 1, duplicateKeyRejections.get());
+        List<EstablishmentOccupancy> stored = mongoTemplate.findAll(EstablishmentOccupancy.class);
+        assertEquals(1, stored.size());
+        assertEquals(winners.get(0), stored.get(0).getReserveId());
+    }
+
+    @Test
+    void claimDates_whenOverlappingRangesRace_losersLeaveNoPartialClaims() throws InterruptedException {
+        int bookings = 100;
+        LocalDate friday = LocalDate.now().plusDays(40);
+
+        // Todas piden el sábado; la mitad además el viernes y la otra mitad además el domingo
+        List<String> winners = race(bookings, i -> i % 2 == 0
+                ? List.of(friday, friday.plusDays(1))
+                : List.of(friday.plusDays(1), friday.plusDays(2)));
+
+        assertEquals(1, winners.size());
+        List<EstablishmentOccupancy> stored = mongoTemplate.findAll(EstablishmentOccupancy.class);
+        assertEquals(2, stored.size());
+        assertTrue(stored.stream().allMatch(occupancy -> occupancy.getReserveId().equals(winners.get(0))));
+    }
+
+    // Lanza las reservas a la vez y devuelve los ids de las que reclamaron sus días
+    private List<String> race(int bookings, IntFunction<List<LocalDate>> datesOf) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(bookings);
+        List<String> winners = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger losers = new AtomicInteger();
+
+        for (int i = 0; i < bookings; i++) {
+            String reserveId = "res-" + i;
+            List<LocalDate> dates = datesOf.apply(i);
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    establishmentService.claimDates("est-1", reserveId, dates);
+                    winners.add(reserveId);
+                } catch (AvailableEstablishmentNotFoundException ex) {
+                    losers.incrementAndGet();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        start.countDown();
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        executor.shutdownNow();
+        assertEquals(bookings, winners.size() + losers.get());
+        return winners;
+    }
+
+    // Repositorio real que además cuenta los DuplicateKeyException que lanza el insert
+    private static EstablishmentOccupancyRepository countingDuplicateKeys(EstablishmentOccupancyRepository repository) {
+        return (EstablishmentOccupancyRepository) Proxy.newProxyInstance(
+                EstablishmentOccupancyRepository.class.getClassLoader(),
+                new Class<?>[]{EstablishmentOccupancyRepository.class},
+                (proxy, method, args) -> {
+                    try {
+                        return method.invoke(repository, args);
+                    } catch (InvocationTargetException ex) {
+                        if (ex.getCause() instanceof DuplicateKeyException && method.getName().equals("insert")) {
+                            duplicateKeyRejections.incrementAndGet();
+                        }
+                        throw ex.getCause();
+                    }
+                });
+    }
+}
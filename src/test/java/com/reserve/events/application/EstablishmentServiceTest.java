@@ -0,0 +1,212 @@
+package com.reserve.events.application;
+
+import com.reserve.events.controllers.domain.entity.Establishment;
+import com.reserve.events.controllers.domain.entity.EstablishmentOccupancy;
+import com.reserve.events.controllers.domain.repository.EstablishmentOccupancyRepository;
+import com.reserve.events.controllers.domain.repository.EstablishmentRepository;
+import com.reserve.events.controllers.domain.model.EstablishmentType;
+import com.reserve.events.controllers.domain.model.StatusReserve;
+import com.reserve.events.controllers.dto.EstablishmentListRequest;
+import com.reserve.events.controllers.dto.EstablishmentSearchRequest;
+import com.reserve.events.controllers.exception.AvailableEstablishmentNotFoundException;
+import com.reserve.events.controllers.exception.BadRequestException;
+import com.reserve.events.controllers.response.EstablishmentResponse;
+import com.reserve.events.controllers.response.PageResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EstablishmentServiceTest {
+
+    @Mock
+    private EstablishmentRepository establishmentRepository;
+
+    @Mock
+    private EstablishmentOccupancyRepository occupancyRepository;
+
+    @Mock
+    private EstablishmentAvailabilityCache availabilityCache;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @InjectMocks
+    private EstablishmentService establishmentService;
+
+    // Simula el índice único (establishmentId, date) de la colección de ocupación
+    private final Map<String, String> uniqueIndex = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(occupancyRepository.insert(any(EstablishmentOccupancy.class))).thenAnswer(invocation -> {
+            EstablishmentOccupancy occupancy = invocation.getArgument(0);
+            String key = occupancy.getEstablishmentId() + "|" + occupancy.getDate();
+            if (uniqueIndex.putIfAbsent(key, occupancy.getReserveId()) != null) {
+                throw new DuplicateKeyException("E11000 duplicate key error: " + key);
+            }
+            occupancy.setId(key);
+            return occupancy;
+        });
+        lenient().doAnswer(invocation -> {
+            Iterable<EstablishmentOccupancy> claims = invocation.getArgument(0);
+            claims.forEach(claim -> uniqueIndex.remove(claim.getId(), claim.getReserveId()));
+            return null;
+        }).when(occupancyRepository).deleteAll(anyIterable());
+        lenient().when(occupancyRepository.existsByEstablishmentIdAndDateAndReserveId(anyString(), any(LocalDate.class), anyString()))
+                .thenAnswer(invocation -> invocation.getArgument(2)
+                        .equals(uniqueIndex.get(invocation.getArgument(0) + "|" + invocation.getArgument(1))));
+    }
+
+    @Test
+    void claimDates_whenOneDateIsTaken_releasesTheOtherClaims() {
+        LocalDate first = LocalDate.now().plusDays(10);
+        LocalDate second = first.plusDays(1);
+        uniqueIndex.put("est-1|" + second, "res-other");
+
+        assertThrows(AvailableEstablishmentNotFoundException.class,
+                () -> establishmentService.claimDates("est-1", "res-new", List.of(first, second)));
+
+        assertFalse(uniqueIndex.containsKey("est-1|" + first));
+        assertEquals("res-other", uniqueIndex.get("est-1|" + second));
+    }
+
+    @Test
+    void claimDates_whenDatesAlreadyBelongToTheSameReserve_keepsThem() {
+        LocalDate kept = LocalDate.now().plusDays(10);
+        LocalDate added = kept.plusDays(1);
+        uniqueIndex.put("est-1|" + kept, "res-1");
+
+        List<EstablishmentOccupancy> claims = establishmentService.claimDates("est-1", "res-1", List.of(kept, added));
+
+        assertEquals(1, claims.size());
+        assertEquals(added, claims.get(0).getDate());
+        assertEquals("res-1", uniqueIndex.get("est-1|" + kept));
+        assertEquals("res-1", uniqueIndex.get("est-1|" + added));
+    }
+
+    @Test
+    void rebuildOccupancyIndex_claimsFutureScheduledDaysAndCanBeRepeated() {
+        LocalDate past = LocalDate.now().minusDays(3);
+        LocalDate kept = LocalDate.now().plusDays(5);
+        LocalDate added = kept.plusDays(1);
+        LocalDate taken = kept.plusDays(2);
+        // Un arranque anterior se cortó después de reclamar "kept"; "taken" lo tiene otra reserva
+        uniqueIndex.put("est-1|" + kept, "res-1");
+        uniqueIndex.put("est-1|" + taken, "res-other");
+        Establishment establishment = Establishment.builder().id("est-1").scheduledBookings(List.of(
+                Establishment.ReserveSummary.builder().id("res-1").status(StatusReserve.PROGRAMADA)
+                        .dates(List.of(past, kept, added, taken)).build(),
+                Establishment.ReserveSummary.builder().id("res-2").status(StatusReserve.CANCELADA)
+                        .dates(List.of(kept.plusDays(10))).build())).build();
+        when(establishmentRepository.findByActiveTrue()).thenReturn(List.of(establishment));
+
+        assertEquals(1, establishmentService.rebuildOccupancyIndex());
+
+        assertEquals("res-1", uniqueIndex.get("est-1|" + kept));
+        assertEquals("res-1", uniqueIndex.get("est-1|" + added));
+        assertEquals("res-other", uniqueIndex.get("est-1|" + taken));
+        assertFalse(uniqueIndex.containsKey("est-1|" + past));
+        assertEquals(3, uniqueIndex.size());
+        verify(availabilityCache).invalidateAll();
+    }
+
+    @Test
+    void searchAvailableEstablishments_excludesOccupiedEstablishmentsInOnePagedQuery() {
+        LocalDate date = LocalDate.now().plusDays(20);
+        EstablishmentSearchRequest request = EstablishmentSearchRequest.builder()
+                .dates(List.of(date))
+                .guests(100)
+                .city("Cali")
+                .page(0)
+                .size(10)
+                .build();
+        when(mongoTemplate.findDistinct(any(Query.class), eq("establishmentId"), eq(EstablishmentOccupancy.class), eq(String.class)))
+                .thenReturn(List.of("est-busy"));
+        when(mongoTemplate.count(any(Query.class), eq(Establishment.class))).thenReturn(11L);
+        when(mongoTemplate.find(any(Query.class), eq(Establishment.class)))
+                .thenReturn(List.of(Establishment.builder().id("est-free").city("Cali").capacity(150).build()));
+
+        PageResponse<EstablishmentResponse> page = establishmentService.searchAvailableEstablishments(request);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Establishment.class));
+        String filter = query.getValue().getQueryObject().toJson();
+        assertTrue(filter.contains("est-busy"));
+        assertTrue(filter.contains("\"capacity\": {\"$gte\": 100}"));
+        assertEquals(10, query.getValue().getLimit());
+        assertEquals("est-free", page.getContent().get(0).getId());
+        assertEquals(2, page.getTotalPages());
+    }
+
+    @Test
+    void listActiveEstablishmentsReactive_filtersAndSortsInMongoWithTheActivePredicate() {
+        EstablishmentListRequest request = EstablishmentListRequest.builder()
+                .city("Cali")
+                .type(EstablishmentType.MEDIUM)
+                .minCapacity(50)
+                .maxCost(3000.0)
+                .sort("capacity")
+                .direction("desc")
+                .page(1)
+                .size(20)
+                .build();
+        when(reactiveMongoTemplate.count(any(Query.class), eq(Establishment.class))).thenReturn(Mono.just(25L));
+        when(reactiveMongoTemplate.find(any(Query.class), eq(Establishment.class)))
+                .thenReturn(Flux.just(Establishment.builder().id("est-21").city("Cali").capacity(60).build()));
+
+        PageResponse<EstablishmentResponse> page = establishmentService.listActiveEstablishmentsReactive(request).block();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(reactiveMongoTemplate).find(query.capture(), eq(Establishment.class));
+        Document filter = query.getValue().getQueryObject();
+        // Sin active: true la consulta no podría usar los índices parciales
+        assertEquals(true, filter.get("active"));
+        assertEquals("Cali", filter.get("city"));
+        assertEquals(new Document("$gte", 50), filter.get("capacity"));
+        assertEquals(new Document("$lte", 3000.0), filter.get("cost"));
+        assertEquals(new Document("capacity", -1).append("id", -1), query.getValue().getSortObject());
+        assertEquals(20, query.getValue().getSkip());
+        assertEquals(2, page.getTotalPages());
+        assertEquals("est-21", page.getContent().get(0).getId());
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Establishment.class));
+    }
+
+    @Test
+    void listActiveEstablishmentsReactive_whenCapacityRangeIsInverted_throwsBadRequest() {
+        EstablishmentListRequest request = EstablishmentListRequest.builder().minCapacity(200).maxCapacity(50).build();
+
+        assertThrows(BadRequestException.class, () -> establishmentService.listActiveEstablishmentsReactive(request));
+        verify(reactiveMongoTemplate, never()).find(any(Query.class), eq(Establishment.class));
+    }
+}
@@ -1,21 +1,35 @@
 package com.reserve.events.application;
 
 import com.reserve.events.controllers.domain.entity.Event;
+import com.reserve.events.controllers.domain.model.StatusReserve;
 import com.reserve.events.controllers.domain.repository.EventRepository;
+import com.reserve.events.controllers.domain.repository.ReactiveEventRepository;
 import com.reserve.events.controllers.domain.repository.ReserveRepository;
+import com.reserve.events.controllers.dto.EventQueryRequest;
 import com.reserve.events.controllers.dto.EventRequest;
 import com.reserve.events.controllers.exception.EventAlreadyExistsException;
+import com.reserve.events.controllers.exception.EventNotFoundException;
 import com.reserve.events.controllers.exception.ResourceConflictException;
+import com.reserve.events.controllers.response.EventResponse;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Mono;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -25,9 +39,18 @@ class EventServiceTest {
     @Mock
     private EventRepository eventRepository;
 
+    @Mock
+    private ReactiveEventRepository reactiveEventRepository;
+
     @Mock
     private ReserveRepository reserveRepository;
 
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Spy
+    private CatalogCache catalogCache = new CatalogCache(new ConcurrentMapCacheManager());
+
     @InjectMocks
     private EventService eventService;
 
@@ -63,4 +86,62 @@ class EventServiceTest {
         verify(reserveRepository, times(1)).countByEventIdAndStatus(id, com.reserve.events.controllers.domain.model.StatusReserve.PROGRAMADA);
         verify(eventRepository, never()).deleteById(id);
     }
+
+    @Test
+    void getEventById_withoutInclude_readsOnlyTheSummaryProjection() {
+        Event summary = Event.builder().id("evt-1").type("Bodas").imageUrl("/bodas.jpg").build();
+        when(eventRepository.findSummaryById("evt-1")).thenReturn(Optional.of(summary));
+
+        EventResponse response = eventService.getEventById("evt-1", new EventQueryRequest());
+
+        assertEquals("Bodas", response.getType());
+        assertNull(response.getScheduledBookings());
+        assertNull(response.getCompletedBookings());
+        assertNull(response.getCancelledBookings());
+        verify(eventRepository, never()).findById(any());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void getEventById_withIncludeBookings_slicesOnlyTheRequestedListInMongo() {
+        Event event = Event.builder().id("evt-1").type("Bodas").imageUrl("/bodas.jpg")
+                .cancelledBookings(List.of(Event.ReserveSummary.builder().id("r1").status(StatusReserve.CANCELADA).build()))
+                .build();
+        when(mongoTemplate.findOne(any(Query.class), eq(Event.class))).thenReturn(event);
+        EventQueryRequest request = EventQueryRequest.builder()
+                .include(EventQueryRequest.INCLUDE_BOOKINGS)
+                .bookingsStatus(StatusReserve.CANCELADA)
+                .bookingsPage(2)
+                .bookingsSize(10)
+                .build();
+
+        EventResponse response = eventService.getEventById("evt-1", request);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findOne(query.capture(), eq(Event.class));
+        Document fields = query.getValue().getFieldsObject();
+        assertEquals(new Document("$slice", List.of(20, 10)), fields.get("cancelledBookings"));
+        assertNull(fields.get("scheduledBookings"));
+        assertEquals(1, response.getCancelledBookings().size());
+        assertNull(response.getScheduledBookings());
+    }
+
+    @Test
+    void getEventSummaryReactive_sharesTheCatalogCacheWithTheBlockingPath() {
+        Event summary = Event.builder().id("evt-1").type("Bodas").imageUrl("/bodas.jpg").build();
+        when(eventRepository.findSummaryById("evt-1")).thenReturn(Optional.of(summary));
+        eventService.getEventById("evt-1", new EventQueryRequest());
+
+        EventResponse response = eventService.getEventSummaryReactive("evt-1").block();
+
+        assertEquals("Bodas", response.getType());
+        verifyNoInteractions(reactiveEventRepository);
+    }
+
+    @Test
+    void getEventSummaryReactive_whenMissing_emitsEventNotFound() {
+        when(reactiveEventRepository.findSummaryById("evt-x")).thenReturn(Mono.empty());
+
+        assertThrows(EventNotFoundException.class, () -> eventService.getEventSummaryReactive("evt-x").block());
+    }
 }
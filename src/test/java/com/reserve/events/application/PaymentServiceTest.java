@@ -0,0 +1,70 @@
+package com.reserve.events.application;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reserve.events.controllers.domain.entity.Payment;
+import com.reserve.events.controllers.domain.model.PaymentStatus;
+import com.reserve.events.controllers.dto.PaymentListRequest;
+import com.reserve.events.controllers.response.CursorPageResponse;
+import com.reserve.events.controllers.response.PaymentResponse;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private PaymentService paymentService;
+
+    private Payment payment() {
+        return Payment.builder().id(new ObjectId().toHexString()).status(PaymentStatus.PENDIENTE).totalCost(100.0).build();
+    }
+
+    @Test
+    void listPayments_whenThereAreMoreResults_returnsCursorOfTheLastPayment() {
+        List<Payment> found = IntStream.range(0, 3).mapToObj(i -> payment()).toList();
+        when(mongoTemplate.find(any(Query.class), eq(Payment.class))).thenReturn(found);
+
+        CursorPageResponse<PaymentResponse> page = paymentService.listPayments(PaymentListRequest.builder().size(2).build());
+
+        assertEquals(2, page.getContent().size());
+        assertTrue(page.isHasMore());
+        assertEquals(found.get(1).getId(), KeysetCursor.decode(page.getNextCursor()).toHexString());
+    }
+
+    @Test
+    void streamPayments_writesOneJsonLinePerPaymentFromTheCursor() throws Exception {
+        List<Payment> found = IntStream.range(0, 3).mapToObj(i -> payment()).toList();
+        when(mongoTemplate.stream(any(Query.class), eq(Payment.class))).thenReturn(found.stream());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        paymentService.streamPayments(PaymentListRequest.builder().status(PaymentStatus.PENDIENTE).build(), output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals(found.get(2).getId(), objectMapper.readValue(lines[2], PaymentResponse.class).getId());
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Payment.class));
+    }
+}
@@ -0,0 +1,87 @@
+package com.reserve.events.application;
+
+import com.reserve.events.controllers.domain.entity.RefreshToken;
+import com.reserve.events.controllers.domain.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private RevokedSessions revokedSessions;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(refreshTokenService, "refreshTokenDays", 14L);
+    }
+
+    @Test
+    void startSession_storesOnlyTheHashOfTheRefreshToken() {
+        RefreshTokenService.Session session = refreshTokenService.startSession("ana@correo.com");
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertEquals(session.sessionId(), saved.getValue().getFamilyId());
+        assertEquals("ana@correo.com", saved.getValue().getEmail());
+        assertNotEquals(session.refreshToken(), saved.getValue().getTokenHash());
+        assertTrue(saved.getValue().getExpiresAt().isAfter(Instant.now().plusSeconds(13 * 24 * 3600)));
+    }
+
+    @Test
+    void rotate_issuesTheNextTokenOfTheSameSession() {
+        RefreshToken current = RefreshToken.builder().email("ana@correo.com").familyId("sesion").build();
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(RefreshToken.class)))
+                .thenReturn(current);
+
+        RefreshTokenService.Session rotated = refreshTokenService.rotate("token-vigente");
+
+        assertEquals("sesion", rotated.sessionId());
+        assertEquals("ana@correo.com", rotated.email());
+        assertNotEquals("token-vigente", rotated.refreshToken());
+        verify(refreshTokenRepository).save(any(RefreshToken.class));
+        verifyNoInteractions(revokedSessions);
+    }
+
+    @Test
+    void rotate_whenTheTokenWasAlreadyRotated_revokesTheWholeSession() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(RefreshToken.class)))
+                .thenReturn(null);
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.of(RefreshToken.builder()
+                .email("ana@correo.com").familyId("sesion").rotatedAt(Instant.now()).build()));
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("token-robado"));
+
+        verify(mongoTemplate).updateMulti(any(Query.class), any(Update.class), eq(RefreshToken.class));
+        verify(revokedSessions).revoke("sesion");
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+}
@@ -0,0 +1,116 @@
+package com.reserve.events.application;
+
+import com.reserve.events.controllers.domain.entity.Reserve;
+import com.reserve.events.controllers.domain.model.FanOutTask;
+import com.reserve.events.controllers.domain.model.StatusReserve;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReserveLifecycleServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BookingFanOutService bookingFanOutService;
+
+    @Mock
+    private JobLockService jobLockService;
+
+    @InjectMocks
+    private ReserveLifecycleService reserveLifecycleService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void completeDueReserves_movesOnlyTheReservesThatWereStillScheduled() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        Reserve due = Reserve.builder().id("r1").status(StatusReserve.PROGRAMADA).dates(List.of(yesterday)).endDate(yesterday).build();
+        Reserve cancelledMeanwhile = Reserve.builder().id("r2").status(StatusReserve.PROGRAMADA).dates(List.of(yesterday)).endDate(yesterday).build();
+        when(jobLockService.tryAcquire(anyString(), any(Duration.class))).thenReturn("token");
+        when(mongoTemplate.stream(any(Query.class), eq(Reserve.class)))
+                .thenReturn(Stream.empty())
+                .thenReturn(Stream.of(due, cancelledMeanwhile));
+        when(mongoTemplate.findDistinct(any(Query.class), eq("_id"), eq(Reserve.class), eq(String.class)))
+                .thenReturn(List.of("r1"));
+
+        int completed = reserveLifecycleService.completeDueReserves();
+
+        assertEquals(1, completed);
+        ArgumentCaptor<List<Reserve>> moved = ArgumentCaptor.forClass(List.class);
+        verify(bookingFanOutService).apply(eq(FanOutTask.COMPLETE), moved.capture());
+        assertEquals(List.of(due), moved.getValue());
+        assertEquals(StatusReserve.COMPLETADA, moved.getValue().get(0).getStatus());
+        verify(jobLockService).release(anyString(), eq("token"));
+    }
+
+    @Test
+    void completeDueReserves_writesTheCompleteTaskWithTheStatusChangeAndRemovesItOnceApplied() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        Reserve due = Reserve.builder().id("r1").status(StatusReserve.PROGRAMADA).dates(List.of(yesterday)).endDate(yesterday).build();
+        when(jobLockService.tryAcquire(anyString(), any(Duration.class))).thenReturn("token");
+        when(mongoTemplate.stream(any(Query.class), eq(Reserve.class)))
+                .thenReturn(Stream.empty())
+                .thenReturn(Stream.of(due));
+        when(mongoTemplate.findDistinct(any(Query.class), eq("_id"), eq(Reserve.class), eq(String.class)))
+                .thenReturn(List.of("r1"));
+
+        reserveLifecycleService.completeDueReserves();
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(3)).updateMulti(any(Query.class), updates.capture(), eq(Reserve.class));
+        Document statusChange = updates.getAllValues().get(0).getUpdateObject();
+        assertEquals(StatusReserve.COMPLETADA, ((Document) statusChange.get("$set")).get("status"));
+        assertTrue(statusChange.containsKey("$addToSet"));
+        assertTrue(updates.getAllValues().get(1).getUpdateObject().containsKey("$pull"));
+    }
+
+    @Test
+    void completeDueReserves_whenThePropagationFails_leavesTheTaskForTheOutbox() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        Reserve due = Reserve.builder().id("r1").status(StatusReserve.PROGRAMADA).dates(List.of(yesterday)).endDate(yesterday).build();
+        when(jobLockService.tryAcquire(anyString(), any(Duration.class))).thenReturn("token");
+        when(mongoTemplate.stream(any(Query.class), eq(Reserve.class)))
+                .thenReturn(Stream.empty())
+                .thenReturn(Stream.of(due));
+        when(mongoTemplate.findDistinct(any(Query.class), eq("_id"), eq(Reserve.class), eq(String.class)))
+                .thenReturn(List.of("r1"));
+        doThrow(new RuntimeException("sin conexión"))
+                .when(bookingFanOutService).apply(eq(FanOutTask.COMPLETE), anyList());
+
+        assertEquals(1, reserveLifecycleService.completeDueReserves());
+
+        // Solo el cambio de estado: la tarea COMPLETE no se retira
+        verify(mongoTemplate, times(1)).updateMulti(any(Query.class), any(Update.class), eq(Reserve.class));
+        verify(jobLockService).release(anyString(), eq("token"));
+    }
+
+    @Test
+    void completeDueReserves_whenAnotherNodeHoldsTheLock_doesNothing() {
+        when(jobLockService.tryAcquire(anyString(), any(Duration.class))).thenReturn(null);
+
+        assertEquals(0, reserveLifecycleService.completeDueReserves());
+
+        verifyNoInteractions(mongoTemplate, bookingFanOutService);
+    }
+}
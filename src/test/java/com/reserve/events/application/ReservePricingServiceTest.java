@@ -0,0 +1,154 @@
+package com.reserve.events.application;
+
+import com.reserve.events.controllers.domain.entity.Adittional;
+import com.reserve.events.controllers.domain.entity.Catering;
+import com.reserve.events.controllers.domain.entity.Decoration;
+import com.reserve.events.controllers.domain.entity.Entertainment;
+import com.reserve.events.controllers.domain.repository.AdittionalRepository;
+import com.reserve.events.controllers.domain.repository.CateringRepository;
+import com.reserve.events.controllers.domain.repository.DecorationRepository;
+import com.reserve.events.controllers.domain.repository.EntertainmentRepository;
+import com.reserve.events.controllers.dto.ReserveRequest;
+import com.reserve.events.controllers.exception.ServiceNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservePricingServiceTest {
+
+    @Mock
+    private EntertainmentRepository entertainmentRepository;
+
+    @Mock
+    private DecorationRepository decorationRepository;
+
+    @Mock
+    private CateringRepository cateringRepository;
+
+    @Mock
+    private AdittionalRepository adittionalRepository;
+
+    @Spy
+    private CatalogCache catalogCache = new CatalogCache(new ConcurrentMapCacheManager());
+
+    @InjectMocks
+    private ReservePricingService reservePricingService;
+
+    @Test
+    void priceServices_withManyLineItems_makesOneQueryPerServiceType() {
+        int items = 25;
+        ReserveRequest.CoveredServicesRequest services = ReserveRequest.CoveredServicesRequest.builder()
+                .entertainment(IntStream.range(0, items)
+                        .mapToObj(i -> ReserveRequest.EntertainmentRequest.builder().id("ent-" + i).hours(2).build())
+                        .toList())
+                .catering(IntStream.range(0, items)
+                        .mapToObj(i -> ReserveRequest.CateringRequest.builder().id("cat-" + i).numberDish(10).build())
+                        .toList())
+                .additionalServices(IntStream.range(0, items)
+                        .mapToObj(i -> ReserveRequest.AdditionalRequest.builder().id("add-" + i).quantity(1).build())
+                        .toList())
+                .decoration(ReserveRequest.DecorationRequest.builder().id("dec-1").build())
+                .build();
+
+        when(entertainmentRepository.findAllById(anyIterable())).thenReturn(IntStream.range(0, items)
+                .mapToObj(i -> Entertainment.builder().id("ent-" + i).hourlyRate(100.0).build()).toList());
+        when(cateringRepository.findAllById(anyIterable())).thenReturn(IntStream.range(0, items)
+                .mapToObj(i -> Catering.builder().id("cat-" + i).costDish(10.0).build()).toList());
+        when(adittionalRepository.findAllById(anyIterable())).thenReturn(IntStream.range(0, items)
+                .mapToObj(i -> Adittional.builder().id("add-" + i).cost(50.0).build()).toList());
+        when(decorationRepository.findWithoutBookingsByIdIn(anyCollection())).thenReturn(List.of(Decoration.builder().id("dec-1").cost(300.0).build()));
+
+        ReservePricingService.PricedServices priced = reservePricingService.priceServices(services);
+
+        assertEquals(items, priced.getCovered().getEntertainment().size());
+        assertEquals(items, priced.getCovered().getCatering().size());
+        assertEquals(items, priced.getCovered().getAdditionalServices().size());
+        assertEquals(items * (200.0 + 100.0 + 50.0) + 300.0, priced.getTotalCost());
+
+        verify(entertainmentRepository, times(1)).findAllById(anyIterable());
+        verify(cateringRepository, times(1)).findAllById(anyIterable());
+        verify(adittionalRepository, times(1)).findAllById(anyIterable());
+        verify(decorationRepository, times(1)).findWithoutBookingsByIdIn(anyCollection());
+        verifyNoMoreInteractions(entertainmentRepository, cateringRepository, adittionalRepository, decorationRepository);
+    }
+
+    @Test
+    void priceServices_whenSomeIdsDoNotExist_reportsAllOfThemAtOnce() {
+        ReserveRequest.CoveredServicesRequest services = ReserveRequest.CoveredServicesRequest.builder()
+                .entertainment(List.of(
+                        ReserveRequest.EntertainmentRequest.builder().id("ent-1").hours(1).build(),
+                        ReserveRequest.EntertainmentRequest.builder().id("ent-404").hours(1).build()))
+                .catering(List.of(ReserveRequest.CateringRequest.builder().id("cat-404").numberDish(1).build()))
+                .additionalServices(List.of())
+                .build();
+
+        when(entertainmentRepository.findAllById(anyIterable()))
+                .thenReturn(List.of(Entertainment.builder().id("ent-1").hourlyRate(100.0).build()));
+        when(cateringRepository.findAllById(anyIterable())).thenReturn(List.of());
+
+        ServiceNotFoundException ex = assertThrows(ServiceNotFoundException.class,
+                () -> reservePricingService.priceServices(services));
+
+        assertTrue(ex.getMessage().contains("ent-404"));
+        assertTrue(ex.getMessage().contains("cat-404"));
+    }
+
+    @Test
+    void loadCatalog_forManyReservations_makesOneQueryPerServiceType() {
+        List<ReserveRequest.CoveredServicesRequest> requests = IntStream.range(0, 10)
+                .mapToObj(i -> ReserveRequest.CoveredServicesRequest.builder()
+                        .entertainment(List.of(ReserveRequest.EntertainmentRequest.builder().id("ent-" + i).hours(1).build()))
+                        .decoration(ReserveRequest.DecorationRequest.builder().id("dec-" + i).build())
+                        .build())
+                .toList();
+        when(entertainmentRepository.findAllById(anyIterable())).thenReturn(List.of());
+        when(decorationRepository.findWithoutBookingsByIdIn(anyCollection())).thenReturn(List.of());
+
+        ReservePricingService.Catalog catalog = reservePricingService.loadCatalog(requests);
+
+        assertTrue(catalog.getEntertainment().isEmpty());
+        assertThrows(ServiceNotFoundException.class, () -> reservePricingService.priceServices(requests.get(3), catalog));
+        verify(entertainmentRepository, times(1)).findAllById(anyIterable());
+        verify(decorationRepository, times(1)).findWithoutBookingsByIdIn(anyCollection());
+        verifyNoInteractions(cateringRepository, adittionalRepository);
+    }
+
+    @Test
+    void priceServices_secondReservation_readsTheServicesFromTheCache() {
+        ReserveRequest.CoveredServicesRequest services = ReserveRequest.CoveredServicesRequest.builder()
+                .entertainment(List.of(ReserveRequest.EntertainmentRequest.builder().id("ent-1").hours(2).build()))
+                .catering(List.of(ReserveRequest.CateringRequest.builder().id("cat-1").numberDish(10).build()))
+                .additionalServices(List.of())
+                .decoration(ReserveRequest.DecorationRequest.builder().id("dec-1").build())
+                .build();
+        when(entertainmentRepository.findAllById(anyIterable()))
+                .thenReturn(List.of(Entertainment.builder().id("ent-1").hourlyRate(100.0).build()));
+        when(cateringRepository.findAllById(anyIterable()))
+                .thenReturn(List.of(Catering.builder().id("cat-1").costDish(20.0).build()));
+        when(decorationRepository.findWithoutBookingsByIdIn(anyCollection()))
+                .thenReturn(List.of(Decoration.builder().id("dec-1").cost(300.0).build()));
+
+        double first = reservePricingService.priceServices(services).getTotalCost();
+        double second = reservePricingService.priceServices(services).getTotalCost();
+
+        assertEquals(700.0, first);
+        assertEquals(first, second);
+        verify(entertainmentRepository, times(1)).findAllById(anyIterable());
+        verify(cateringRepository, times(1)).findAllById(anyIterable());
+        verify(decorationRepository, times(1)).findWithoutBookingsByIdIn(anyCollection());
+        verifyNoInteractions(adittionalRepository);
+    }
+}
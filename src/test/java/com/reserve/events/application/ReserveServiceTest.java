@@ -1,26 +1,56 @@
 package com.reserve.events.application;
 
+import com.mongodb.client.result.UpdateResult;
 import com.reserve.events.controllers.domain.entity.Event;
+import com.reserve.events.controllers.domain.entity.EstablishmentOccupancy;
 import com.reserve.events.controllers.domain.entity.Establishment;
-import com.reserve.events.controllers.domain.entity.User;
+import com.reserve.events.controllers.domain.entity.Reserve;
+import com.reserve.events.controllers.domain.model.CoveredServicesReserve;
+import com.reserve.events.controllers.domain.model.CurrentUser;
+import com.reserve.events.controllers.domain.model.EstablishmentSummary;
+import com.reserve.events.controllers.domain.model.EventSummary;
+import com.reserve.events.controllers.domain.model.ReserveOutbox;
+import com.reserve.events.controllers.domain.model.StatusReserve;
+import com.reserve.events.controllers.domain.model.UserSummary;
+import com.reserve.events.controllers.domain.model.UserType;
 import com.reserve.events.controllers.domain.repository.EventRepository;
 import com.reserve.events.controllers.domain.repository.EstablishmentRepository;
-import com.reserve.events.controllers.domain.repository.UserRepository;
 import com.reserve.events.controllers.domain.repository.ReserveRepository;
 import com.reserve.events.controllers.domain.repository.PaymentRepository;
+import com.reserve.events.controllers.dto.ReserveListRequest;
 import com.reserve.events.controllers.dto.ReserveRequest;
 import com.reserve.events.controllers.exception.AvailableEstablishmentNotFoundException;
-import com.reserve.events.controllers.exception.UserNotFoundException;
+import com.reserve.events.controllers.exception.BadRequestException;
+import com.reserve.events.controllers.exception.InvalidReservationDatesException;
+import com.reserve.events.controllers.exception.ReservationCompletedCannotCancelException;
+import com.reserve.events.controllers.response.BulkReserveResponse;
+import com.reserve.events.controllers.response.CursorPageResponse;
+import com.reserve.events.controllers.response.ReserveResponse;
+import jakarta.validation.Validator;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
-import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.Mockito.when;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ReserveServiceTest {
@@ -31,9 +61,6 @@ class ReserveServiceTest {
     @Mock
     private EventRepository eventRepository;
 
-    @Mock
-    private UserRepository userRepository;
-
     @Mock
     private PaymentRepository paymentRepository;
 
@@ -43,36 +70,210 @@ class ReserveServiceTest {
     @Mock
     private EstablishmentService establishmentService;
 
+    @Mock
+    private ReservePricingService reservePricingService;
+
+    @Mock
+    private BookingFanOutService bookingFanOutService;
+
+    @Mock
+    private BookingOutboxDispatcher bookingOutboxDispatcher;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Spy
+    private CatalogCache catalogCache = new CatalogCache(new ConcurrentMapCacheManager());
+
     @InjectMocks
     private ReserveService reserveService;
 
+    private final CurrentUser client = CurrentUser.builder()
+            .id("u1").email("u@u.com").fullName("User").type(UserType.CLIENTE).build();
+
     @Test
-    void createReserve_whenUserNotFound_throwsUserNotFound() {
-        ReserveRequest request = ReserveRequest.builder().eventId("evt").establishmentId("est").build();
+    void createReserve_whenDatesNotAvailable_throwsAvailableEstablishmentNotFound() {
+        ReserveRequest request = ReserveRequest.builder()
+                .eventId("evt")
+                .establishmentId("est")
+                .dates(java.util.List.of(java.time.LocalDate.now().plusDays(1)))
+                .guestNumber(10)
+                .build();
 
-        when(userRepository.findByEmail("no-existe@x.com"))
-                .thenReturn(Optional.empty());
+        when(eventRepository.findSummaryById("evt")).thenReturn(Optional.of(Event.builder().id("evt").type("T").build()));
+        when(establishmentRepository.findWithoutBookingsById("est")).thenReturn(Optional.of(Establishment.builder().id("est").build()));
+
+        when(establishmentService.areDatesAvailableForEstablishment(request.getDates(), "est")).thenReturn(false);
 
-        assertThrows(UserNotFoundException.class, () -> reserveService.createReserve(request, "no-existe@x.com"));
+        assertThrows(AvailableEstablishmentNotFoundException.class, () -> reserveService.createReserve(request, client));
     }
 
     @Test
-    void createReserve_whenDatesNotAvailable_throwsAvailableEstablishmentNotFound() {
+    @SuppressWarnings("unchecked")
+    void createReserves_whenOneItemIsInvalid_createsTheOthersWithSharedLookups() {
+        LocalDate date = LocalDate.now().plusDays(15);
+        ReserveRequest unknownEvent = ReserveRequest.builder()
+                .eventId("evt-404").establishmentId("est").dates(List.of(date)).guestNumber(10).build();
+        ReserveRequest valid = ReserveRequest.builder()
+                .eventId("evt").establishmentId("est").dates(List.of(date.plusDays(1))).guestNumber(10).build();
+
+        when(eventRepository.findWithoutBookingsByIdIn(anyList()))
+                .thenReturn(List.of(Event.builder().id("evt").type("Boda").build()));
+        when(establishmentRepository.findWithoutBookingsByIdIn(anyList()))
+                .thenReturn(List.of(Establishment.builder().id("est").name("Salón").capacity(100).cost(1000.0).active(true).build()));
+        when(reservePricingService.priceServices(any(), any()))
+                .thenReturn(new ReservePricingService.PricedServices(new CoveredServicesReserve(), 0));
+        when(bookingFanOutService.newOutbox(any())).thenReturn(ReserveOutbox.builder().build());
+
+        BulkReserveResponse response = reserveService.createReserves(List.of(unknownEvent, valid), client);
+
+        assertEquals(1, response.getCreated());
+        assertEquals(1, response.getFailed());
+        assertFalse(response.getResults().get(0).isSuccess());
+        assertTrue(response.getResults().get(1).isSuccess());
+
+        ArgumentCaptor<List<Reserve>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(bookingFanOutService).insertReserves(inserted.capture());
+        assertEquals(1, inserted.getValue().size());
+        assertNotNull(inserted.getValue().get(0).getOutbox());
+        assertEquals("u1", inserted.getValue().get(0).getClient().getId());
+        assertEquals("User", inserted.getValue().get(0).getClient().getName());
+        verify(reservePricingService, times(1)).loadCatalog(anyList());
+
+        // La propagación queda en el outbox: la petición solo paga la inserción de las reservas
+        verify(bookingOutboxDispatcher).dispatchAsync();
+        verify(bookingFanOutService, never()).apply(any(), anyList());
+        verifyNoInteractions(paymentRepository);
+    }
+
+    @Test
+    void createReserves_rejectsTodayLikeTheSingleReservation() {
+        ReserveRequest today = ReserveRequest.builder()
+                .eventId("evt").establishmentId("est").dates(List.of(LocalDate.now())).guestNumber(10).build();
+
+        when(eventRepository.findWithoutBookingsByIdIn(anyList()))
+                .thenReturn(List.of(Event.builder().id("evt").type("Boda").build()));
+        when(establishmentRepository.findWithoutBookingsByIdIn(anyList()))
+                .thenReturn(List.of(Establishment.builder().id("est").name("Salón").capacity(100).cost(1000.0).active(true).build()));
+
+        BulkReserveResponse response = reserveService.createReserves(List.of(today), client);
+
+        assertEquals(0, response.getCreated());
+        assertFalse(response.getResults().get(0).isSuccess());
+        verify(establishmentService, never()).claimDates(any(), any(), anyList());
+        assertThrows(InvalidReservationDatesException.class, () -> ReservationDates.requireFuture(List.of(LocalDate.now())));
+    }
+
+    @Test
+    void cancelarReserva_movesEmbeddedBookingsWithoutSavingParentDocuments() {
+        Reserve reserve = Reserve.builder()
+                .id("r1")
+                .status(StatusReserve.PROGRAMADA)
+                .client(UserSummary.builder().id("u1").build())
+                .establishment(EstablishmentSummary.builder().id("est").build())
+                .event(EventSummary.builder().id("evt").build())
+                .build();
+        when(reserveRepository.findById("r1")).thenReturn(Optional.of(reserve));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Reserve.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        Reserve cancelled = reserveService.cancelarReserva(client, "r1");
+
+        assertEquals(StatusReserve.CANCELADA, cancelled.getStatus());
+        verify(bookingFanOutService).moveBookings(reserve, StatusReserve.PROGRAMADA);
+        verify(paymentRepository).deletePaymentByReserve_Id("r1");
+        // Solo cambia el estado y solo si la reserva sigue PROGRAMADA; el outbox no se reescribe
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(Reserve.class));
+        assertEquals(StatusReserve.PROGRAMADA, query.getValue().getQueryObject().get("status"));
+        assertEquals(Set.of("status"), update.getValue().getUpdateObject().get("$set", Document.class).keySet());
+        verify(reserveRepository, never()).save(any());
+        verify(mongoTemplate, never()).save(any());
+        verify(establishmentRepository, never()).save(any());
+        verify(eventRepository, never()).save(any());
+    }
+
+    @Test
+    void cancelarReserva_whenCompletedAfterReadingIt_throwsWithoutTouchingPaymentsOrBookings() {
+        Reserve reserve = Reserve.builder()
+                .id("r1")
+                .status(StatusReserve.PROGRAMADA)
+                .client(UserSummary.builder().id("u1").build())
+                .build();
+        when(reserveRepository.findById("r1"))
+                .thenReturn(Optional.of(reserve))
+                .thenReturn(Optional.of(Reserve.builder().id("r1").status(StatusReserve.COMPLETADA).build()));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Reserve.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        assertThrows(ReservationCompletedCannotCancelException.class, () -> reserveService.cancelarReserva(client, "r1"));
+
+        verifyNoInteractions(paymentRepository, bookingFanOutService);
+        verify(establishmentService, never()).releaseDates(any());
+    }
+
+    @Test
+    void updateReserve_whenCancelledWhileEditing_releasesTheNewDaysAndDoesNotOverwriteTheReserve() {
+        LocalDate day = LocalDate.now().plusDays(3);
+        Reserve reserve = Reserve.builder()
+                .id("r1")
+                .status(StatusReserve.PROGRAMADA)
+                .client(UserSummary.builder().id("u1").build())
+                .establishment(EstablishmentSummary.builder().id("est").build())
+                .event(EventSummary.builder().id("evt").build())
+                .build();
         ReserveRequest request = ReserveRequest.builder()
                 .eventId("evt")
                 .establishmentId("est")
-                .dates(java.util.List.of(java.time.LocalDate.now().plusDays(1)))
+                .dates(List.of(day))
                 .guestNumber(10)
                 .build();
+        List<EstablishmentOccupancy> claims = List.of(EstablishmentOccupancy.builder().establishmentId("est").date(day).reserveId("r1").build());
+        when(reserveRepository.findById("r1")).thenReturn(Optional.of(reserve));
+        when(establishmentRepository.findWithoutBookingsById("est"))
+                .thenReturn(Optional.of(Establishment.builder().id("est").name("Salón").cost(100.0).build()));
+        when(establishmentService.areDatesAvailableForEstablishment(request.getDates(), "est", "r1")).thenReturn(true);
+        when(reservePricingService.priceServices(any()))
+                .thenReturn(new ReservePricingService.PricedServices(CoveredServicesReserve.builder().build(), 0));
+        when(establishmentService.claimDates("est", "r1", request.getDates())).thenReturn(claims);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Reserve.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
 
-        User user = User.builder().id("u1").email("u@u.com").fullName("User").build();
-        when(userRepository.findByEmail("u@u.com")).thenReturn(Optional.of(user));
+        assertThrows(BadRequestException.class, () -> reserveService.updateReserve(client, "r1", request));
 
-        when(eventRepository.findById("evt")).thenReturn(Optional.of(Event.builder().id("evt").type("T").build()));
-        when(establishmentRepository.findById("est")).thenReturn(Optional.of(Establishment.builder().id("est").build()));
+        verify(establishmentService).releaseClaims(claims);
+        verify(establishmentService, never()).releaseDatesExcept(any(), any(), anyList());
+        verify(reserveRepository, never()).save(any());
+        verifyNoInteractions(bookingFanOutService);
+    }
 
-        when(establishmentService.areDatesAvailableForEstablishment(request.getDates(), "est")).thenReturn(false);
+    @Test
+    void listReservesByUser_returnsOnePageAndACursorToTheNext() {
+        List<Reserve> found = java.util.stream.IntStream.range(0, 3)
+                .mapToObj(i -> Reserve.builder().id(new ObjectId().toHexString()).status(StatusReserve.PROGRAMADA).build())
+                .toList();
+        when(mongoTemplate.find(any(Query.class), eq(Reserve.class))).thenReturn(found);
+
+        CursorPageResponse<ReserveResponse> page = reserveService.listReservesByUser(client,
+                ReserveListRequest.builder().size(2).build());
+
+        assertEquals(2, page.getContent().size());
+        assertTrue(page.isHasMore());
+        assertEquals(found.get(1).getId(), KeysetCursor.decode(page.getNextCursor()).toHexString());
 
-        assertThrows(AvailableEstablishmentNotFoundException.class, () -> reserveService.createReserve(request, "u@u.com"));
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Reserve.class));
+        assertEquals(3, query.getValue().getLimit());
+    }
+
+    @Test
+    void listReservesByUser_whenCursorIsTampered_throwsBadRequest() {
+        assertThrows(BadRequestException.class, () -> reserveService.listReservesByUser(client,
+                ReserveListRequest.builder().cursor("no-es-un-cursor").build()));
+        verifyNoInteractions(mongoTemplate);
     }
 }
@@ -0,0 +1,85 @@
+package com.reserve.events.application;
+
+import com.reserve.events.controllers.domain.entity.User;
+import com.reserve.events.controllers.domain.model.ReserveSummary;
+import com.reserve.events.controllers.domain.model.StatusReserve;
+import com.reserve.events.controllers.dto.UserListRequest;
+import com.reserve.events.controllers.exception.BadRequestException;
+import com.reserve.events.controllers.response.CursorPageResponse;
+import com.reserve.events.controllers.response.PageResponse;
+import com.reserve.events.controllers.response.UserResponse;
+import com.reserve.events.controllers.response.UserSummaryResponse;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private UserService userService;
+
+    private void returnSummaries(UserSummaryResponse... summaries) {
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(UserSummaryResponse.class)))
+                .thenReturn(new AggregationResults<>(List.of(summaries), new Document()));
+    }
+
+    @Test
+    void getAllUsers_returnsOnePageAndACursorWhenThereAreMoreUsers() {
+        returnSummaries(
+                UserSummaryResponse.builder().id("673f1c2a9b1e8a3d4c5e6f7c").build(),
+                UserSummaryResponse.builder().id("673f1c2a9b1e8a3d4c5e6f7b").build(),
+                UserSummaryResponse.builder().id("673f1c2a9b1e8a3d4c5e6f7a").build());
+
+        CursorPageResponse<UserSummaryResponse> page = userService.getAllUsers(UserListRequest.builder().size(2).build());
+
+        assertEquals(2, page.getContent().size());
+        assertTrue(page.isHasMore());
+        assertEquals("673f1c2a9b1e8a3d4c5e6f7b", KeysetCursor.decode(page.getNextCursor()).toHexString());
+        // Las listas embebidas nunca se leen completas
+        verify(mongoTemplate, never()).find(any(Query.class), eq(User.class));
+    }
+
+    @Test
+    void getAllUsersByType_whenTypeIsUnknown_throwsBadRequest() {
+        assertThrows(BadRequestException.class,
+                () -> userService.getAllUsersByType("OTRO", new UserListRequest()));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void getUserBookings_slicesOnlyTheRequestedPageOfTheList() {
+        returnSummaries(UserSummaryResponse.builder().id("u1").completedBookingsCount(45).build());
+        User sliced = User.builder().id("u1")
+                .completedBookings(List.of(ReserveSummary.builder().id("r41").status(StatusReserve.COMPLETADA).build()))
+                .build();
+        when(mongoTemplate.findOne(any(Query.class), eq(User.class))).thenReturn(sliced);
+
+        PageResponse<UserResponse.ReserveSummaryResponse> page = userService.getUserBookings("u1", StatusReserve.COMPLETADA, 2, 20);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findOne(query.capture(), eq(User.class));
+        assertEquals(new Document("$slice", List.of(40, 20)), query.getValue().getFieldsObject().get("completedBookings"));
+        assertEquals(45, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+        assertEquals("r41", page.getContent().get(0).getId());
+    }
+}
@@ -0,0 +1,270 @@
+package com.reserve.events.config;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.reserve.events.controllers.domain.entity.Establishment;
+import com.reserve.events.controllers.domain.entity.Event;
+import com.reserve.events.controllers.domain.entity.Payment;
+import com.reserve.events.controllers.domain.entity.Reserve;
+import com.reserve.events.controllers.domain.model.StatusReserve;
+import com.reserve.events.controllers.domain.repository.*;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica contra un Mongo real (contenedor) que {@link MongoIndexRegistry} crea todos los índices y que
+ * ninguna consulta de los repositorios termina en un COLLSCAN: cada comando enviado se vuelve a ejecutar
+ * con explain y se revisan las etapas del plan ganador.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class MongoIndexRegistryTest {
+
+    private static final Set<String> QUERY_COMMANDS = Set.of("find", "count", "aggregate", "distinct", "delete");
+    private static final Set<String> SESSION_FIELDS = Set.of("$db", "lsid", "$clusterTime", "$readPreference", "txnNumber");
+
+    @Container
+    private static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    private static final List<BsonDocument> captured = Collections.synchronizedList(new ArrayList<>());
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static MongoIndexRegistry indexRegistry;
+
+    @BeforeAll
+    static void setUp() {
+        CommandListener listener = new CommandListener() {
+            @Override
+            public void commandStarted(CommandStartedEvent event) {
+                if (QUERY_COMMANDS.contains(event.getCommandName())) {
+                    captured.add(event.getCommand().clone());
+                }
+            }
+        };
+        client = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(MONGO.getReplicaSetUrl()))
+                .addCommandListener(listener)
+                .build());
+        mongoTemplate = new MongoTemplate(client, "explain-test");
+        indexRegistry = new MongoIndexRegistry(mongoTemplate);
+        indexRegistry.ensureIndexes();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        client.close();
+    }
+
+    @BeforeEach
+    void clearCaptured() {
+        captured.clear();
+    }
+
+    @Test
+    void ensureIndexes_createsEveryRequiredIndex() {
+        assertEquals(List.of(), indexRegistry.missingIndexes());
+    }
+
+    @Test
+    void paymentsWithoutAReserve_doNotCollideOnTheUniqueReserveIndex() {
+        mongoTemplate.insert(Payment.builder().description("Abono sin reserva").build());
+        mongoTemplate.insert(Payment.builder().description("Otro abono sin reserva").build());
+        mongoTemplate.insert(Payment.builder().reserve(Payment.ReserveInfo.builder().id("reserve-1").build()).build());
+
+        assertThrows(DuplicateKeyException.class, () -> mongoTemplate.insert(
+                Payment.builder().reserve(Payment.ReserveInfo.builder().id("reserve-1").build()).build()));
+        mongoTemplate.remove(new Query(), Payment.class);
+    }
+
+    @Test
+    void establishmentName_isFreedByTheSoftDeleteAndCanBeReused() {
+        Establishment deleted = mongoTemplate.insert(Establishment.builder().name("Salón Primavera").active(true).build());
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(deleted.getId())),
+                new Update().set("active", false), Establishment.class);
+
+        // Un establecimiento nuevo puede usar el nombre del eliminado, pero no el de otro activo
+        mongoTemplate.insert(Establishment.builder().name("Salón Primavera").active(true).build());
+        assertThrows(DuplicateKeyException.class, () -> mongoTemplate.insert(
+                Establishment.builder().name("Salón Primavera").active(true).build()));
+        mongoTemplate.remove(new Query(), Establishment.class);
+    }
+
+    @Test
+    void ensureIndexes_replacesAnIndexWhoseDefinitionChanged() {
+        IndexOperations payments = mongoTemplate.indexOps(Payment.class);
+        payments.dropIndex("reserve_id_unique");
+        payments.ensureIndex(new Index().on("reserve.id", Sort.Direction.ASC).unique().named("reserve_id_unique"));
+
+        indexRegistry.ensureIndexes();
+
+        IndexInfo reserveIndex = payments.getIndexInfo().stream()
+                .filter(info -> info.getName().equals("reserve_id_unique"))
+                .findFirst()
+                .orElseThrow();
+        assertNotNull(reserveIndex.getPartialFilterExpression());
+    }
+
+    @Test
+    void ensureIndexes_whenAUniqueIndexCannotBeBuilt_failsInsteadOfOnlyLogging() {
+        IndexOperations events = mongoTemplate.indexOps(Event.class);
+        events.dropIndex("type");
+        mongoTemplate.insert(new Document("type", "Boda"), mongoTemplate.getCollectionName(Event.class));
+        mongoTemplate.insert(new Document("type", "Boda"), mongoTemplate.getCollectionName(Event.class));
+        try {
+            IllegalStateException ex = assertThrows(IllegalStateException.class, indexRegistry::ensureIndexes);
+            assertTrue(ex.getMessage().contains("Event.type"));
+        } finally {
+            mongoTemplate.remove(new Query(), Event.class);
+            indexRegistry.ensureIndexes();
+        }
+    }
+
+    @Test
+    void repositoryQueries_useAnIndex() {
+        MongoRepositoryFactory factory = new MongoRepositoryFactory(mongoTemplate);
+        LocalDate today = LocalDate.now();
+        List<LocalDate> dates = List.of(today, today.plusDays(1));
+
+        ReserveRepository reserves = factory.getRepository(ReserveRepository.class);
+        reserves.countByEventIdAndStatus("event", StatusReserve.PROGRAMADA);
+        reserves.findByIdAndClientId("reserve", "client");
+
+        PaymentRepository payments = factory.getRepository(PaymentRepository.class);
+        payments.existsByReserve_Id("reserve");
+        payments.deletePaymentByReserve_Id("reserve");
+
+        UserRepository users = factory.getRepository(UserRepository.class);
+        users.existsByEmail("a@a.com");
+        users.findByEmail("a@a.com");
+        users.findByType("CLIENTE");
+        users.findByFullName("Ana");
+        users.findByFullNameAndType("Ana", "CLIENTE");
+        users.findRoleByEmail("a@a.com");
+        users.findPrincipalByEmail("a@a.com");
+
+        RefreshTokenRepository refreshTokens = factory.getRepository(RefreshTokenRepository.class);
+        refreshTokens.findByTokenHash("hash");
+        refreshTokens.existsByFamilyIdAndRevokedAtIsNotNull("session");
+
+        ReportRepository reports = factory.getRepository(ReportRepository.class);
+        reports.findByType("reservationReport");
+        reports.findByCreatedAtBetween(LocalDateTime.now().minusDays(30), LocalDateTime.now());
+        reports.findReportsByType("incomeReport");
+
+        EstablishmentRepository establishments = factory.getRepository(EstablishmentRepository.class);
+        establishments.existsByNameAndActiveTrue("Salón");
+        establishments.findByActiveTrue();
+        establishments.findByIdAndActiveTrue("est");
+        establishments.existsByIdAndActiveTrue("est");
+        establishments.findWithoutBookingsByIdIn(List.of("est"));
+
+        EventRepository events = factory.getRepository(EventRepository.class);
+        events.existsByType("Boda");
+        events.findWithoutBookingsByIdIn(List.of("event"));
+        events.findSummaryById("event");
+
+        EstablishmentOccupancyRepository occupancy = factory.getRepository(EstablishmentOccupancyRepository.class);
+        occupancy.findOccupiedDatesFrom("est", today);
+        occupancy.countOccupiedByOthers("est", dates, "reserve");
+        occupancy.existsByEstablishmentIdAndDateAndReserveId("est", today, "reserve");
+        occupancy.deleteByReserveIdExcept("reserve", "est", dates);
+        occupancy.deleteByReserveId("reserve");
+
+        AdittionalRepository adittionals = factory.getRepository(AdittionalRepository.class);
+        adittionals.findByName("Fotografía");
+        adittionals.existsByName("Fotografía");
+
+        EntertainmentRepository entertainments = factory.getRepository(EntertainmentRepository.class);
+        entertainments.findByName("DJ");
+        entertainments.existsByName("DJ");
+
+        // Filtro por fechas de los reportes de reservas y de uso de establecimientos
+        mongoTemplate.aggregate(Aggregation.newAggregation(
+                        Aggregation.match(Criteria.where("dates").gte(today).lte(today.plusDays(30)))),
+                Reserve.class, Document.class);
+
+        List<BsonDocument> commands = List.copyOf(captured);
+        assertFalse(commands.isEmpty());
+        List<String> collectionScans = new ArrayList<>();
+        for (BsonDocument command : commands) {
+            if (winningStages(command).contains("COLLSCAN")) {
+                collectionScans.add(command.toJson());
+            }
+        }
+        assertEquals(List.of(), collectionScans, "Consultas que recorren la colección completa");
+    }
+
+    @Test
+    void occupancyQueries_readDocumentsOnlyWhenTheFilterIsNotInTheIndex() {
+        EstablishmentOccupancyRepository occupancy = new MongoRepositoryFactory(mongoTemplate)
+                .getRepository(EstablishmentOccupancyRepository.class);
+        LocalDate today = LocalDate.now();
+        List<LocalDate> dates = List.of(today, today.plusDays(1));
+
+        occupancy.findOccupiedDatesFrom("est", today);
+        occupancy.countOccupiedByOthers("est", dates, "reserve");
+
+        List<BsonDocument> commands = List.copyOf(captured);
+        assertEquals(2, commands.size());
+        // Fechas ocupadas: solo el índice (establishmentId, date)
+        assertFalse(winningStages(commands.get(0)).contains("FETCH"), commands.get(0).toJson());
+        // Conteo sin la propia reserva: reserveId obliga a leer los documentos
+        assertTrue(winningStages(commands.get(1)).contains("FETCH"), commands.get(1).toJson());
+    }
+
+    // Vuelve a ejecutar el comando con explain y devuelve las etapas del plan ganador
+    private static List<String> winningStages(BsonDocument command) {
+        SESSION_FIELDS.forEach(command::remove);
+        Document explain = mongoTemplate.getDb().runCommand(new Document("explain", command)
+                .append("verbosity", "queryPlanner"));
+        List<String> stages = new ArrayList<>();
+        collectStages(explain, false, stages);
+        return stages;
+    }
+
+    // Recorre el resultado de explain y junta las etapas que están bajo algún winningPlan
+    private static void collectStages(Object node, boolean inWinningPlan, List<String> stages) {
+        if (node instanceof Map<?, ?> map) {
+            map.forEach((key, value) -> {
+                if (inWinningPlan && "stage".equals(key)) {
+                    stages.add(String.valueOf(value));
+                }
+                collectStages(value, inWinningPlan || "winningPlan".equals(key), stages);
+            });
+        } else if (node instanceof List<?> list) {
+            list.forEach(item -> collectStages(item, inWinningPlan, stages));
+        }
+    }
+}
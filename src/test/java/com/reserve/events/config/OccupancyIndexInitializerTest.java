@@ -0,0 +1,65 @@
+package com.reserve.events.config;
+
+import com.reserve.events.application.EstablishmentService;
+import com.reserve.events.controllers.domain.entity.DataMigration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OccupancyIndexInitializerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private EstablishmentService establishmentService;
+
+    @InjectMocks
+    private OccupancyIndexInitializer initializer;
+
+    @Test
+    void whenTheMigrationIsPending_rebuildsAndThenWritesTheMarker() {
+        when(mongoTemplate.exists(any(Query.class), eq(DataMigration.class))).thenReturn(false);
+        when(establishmentService.rebuildOccupancyIndex()).thenReturn(3);
+
+        initializer.afterSingletonsInstantiated();
+
+        ArgumentCaptor<DataMigration> marker = ArgumentCaptor.forClass(DataMigration.class);
+        var order = inOrder(establishmentService, mongoTemplate);
+        order.verify(establishmentService).rebuildOccupancyIndex();
+        order.verify(mongoTemplate).save(marker.capture());
+        assertEquals(OccupancyIndexInitializer.MIGRATION, marker.getValue().getId());
+        assertNotNull(marker.getValue().getCompletedAt());
+    }
+
+    @Test
+    void whenTheMarkerExists_doesNotRebuildEvenIfTheCollectionIsEmpty() {
+        when(mongoTemplate.exists(any(Query.class), eq(DataMigration.class))).thenReturn(true);
+
+        initializer.afterSingletonsInstantiated();
+
+        verifyNoInteractions(establishmentService);
+        verify(mongoTemplate, never()).save(any());
+    }
+
+    @Test
+    void whenTheRebuildFails_stopsStartupWithoutWritingTheMarker() {
+        when(mongoTemplate.exists(any(Query.class), eq(DataMigration.class))).thenReturn(false);
+        when(establishmentService.rebuildOccupancyIndex()).thenThrow(new RuntimeException("conexión cerrada"));
+
+        assertThrows(IllegalStateException.class, () -> initializer.afterSingletonsInstantiated());
+
+        verify(mongoTemplate, never()).save(any());
+    }
+}
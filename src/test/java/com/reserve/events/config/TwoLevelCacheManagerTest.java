@@ -0,0 +1,71 @@
+package com.reserve.events.config;
+
+import com.reserve.events.controllers.response.CacheStatsResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TwoLevelCacheManagerTest {
+
+    // Un mapa en memoria hace de Redis: cada manager simula un nodo que comparte el mismo nivel 2
+    private final ConcurrentMapCacheManager redis = new ConcurrentMapCacheManager();
+
+    private TwoLevelCacheManager node(CacheManager remote) {
+        return new TwoLevelCacheManager(List.of("catalog"), remote, 100, Duration.ofMinutes(1), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void get_readsFromMemoryThenFromTheSharedLevel() {
+        TwoLevelCacheManager nodeA = node(redis);
+        TwoLevelCacheManager nodeB = node(redis);
+
+        nodeA.getCache("catalog").put("id-1", "valor");
+
+        assertEquals("valor", nodeA.getCache("catalog").get("id-1", String.class));
+        assertEquals("valor", nodeB.getCache("catalog").get("id-1", String.class));
+        assertEquals("valor", nodeB.getCache("catalog").get("id-1", String.class));
+        assertNull(nodeB.getCache("catalog").get("id-2"));
+
+        CacheStatsResponse statsA = nodeA.stats().get(0);
+        CacheStatsResponse statsB = nodeB.stats().get(0);
+        assertEquals(1, statsA.getLocalHits());
+        assertEquals(1, statsB.getRemoteHits());
+        assertEquals(1, statsB.getLocalHits());
+        assertEquals(1, statsB.getMisses());
+    }
+
+    @Test
+    void evict_removesTheValueFromBothLevels() {
+        TwoLevelCacheManager manager = node(redis);
+        manager.getCache("catalog").put("id-1", "valor");
+
+        manager.getCache("catalog").evict("id-1");
+
+        assertNull(manager.getCache("catalog").get("id-1"));
+        assertNull(redis.getCache("catalog").get("id-1"));
+    }
+
+    @Test
+    void get_whenRedisFails_keepsWorkingFromMemoryAndStopsCallingRedis() {
+        CacheManager failing = mock(CacheManager.class);
+        Cache failingCache = mock(Cache.class);
+        when(failing.getCache("catalog")).thenReturn(failingCache);
+        when(failingCache.get(any())).thenThrow(new IllegalStateException("Redis caído"));
+        TwoLevelCacheManager manager = node(failing);
+
+        assertEquals("cargado", manager.getCache("catalog").get("id-1", () -> "cargado"));
+        assertEquals("cargado", manager.getCache("catalog").get("id-1", String.class));
+        assertNull(manager.getCache("catalog").get("id-2"));
+
+        verify(failingCache, times(1)).get(any());
+        verify(failingCache, never()).put(any(), any());
+    }
+}
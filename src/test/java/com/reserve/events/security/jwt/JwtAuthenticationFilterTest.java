@@ -0,0 +1,129 @@
+package com.reserve.events.security.jwt;
+
+import com.reserve.events.application.RevokedSessions;
+import com.reserve.events.application.UserPrincipalCache;
+import com.reserve.events.controllers.domain.entity.User;
+import com.reserve.events.controllers.domain.model.UserType;
+import com.reserve.events.controllers.domain.repository.RefreshTokenRepository;
+import com.reserve.events.controllers.domain.repository.UserRepository;
+import com.reserve.events.controllers.response.TokenCacheStatsResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+    private final RevokedSessions revokedSessions = new RevokedSessions(refreshTokenRepository, null, 60_000L, 1000, 0.01, 5000);
+    private final JwtTokenProvider tokenProvider =
+            new JwtTokenProvider("clave-de-prueba-de-al-menos-32-caracteres", 60_000L, 100);
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthenticationFilter(tokenProvider, new UserPrincipalCache(userRepository, 100, 60), revokedSessions);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private String tokenFor(String email, String role) {
+        return tokenProvider.generateToken(new UsernamePasswordAuthenticationToken(
+                email, null, AuthorityUtils.createAuthorityList(role)));
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/reserve");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Test
+    void doFilter_buildsThePrincipalFromTheClaimsAndReadsMongoOncePerUser() throws Exception {
+        when(userRepository.findRoleByEmail("ana@correo.com"))
+                .thenReturn(Optional.of(User.builder().email("ana@correo.com").type(UserType.CLIENTE).build()));
+        String token = tokenFor("ana@correo.com", "ROLE_CLIENTE");
+
+        Authentication first = authenticate(token);
+        Authentication second = authenticate(token);
+
+        assertEquals("ana@correo.com", ((UserDetails) first.getPrincipal()).getUsername());
+        assertEquals(AuthorityUtils.createAuthorityList("ROLE_CLIENTE"), first.getAuthorities().stream().toList());
+        assertNotNull(second);
+        verify(userRepository, times(1)).findRoleByEmail("ana@correo.com");
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void doFilter_rejectsTokensOfDeletedUsersOrWithAnOutdatedRole() throws Exception {
+        when(userRepository.findRoleByEmail("borrado@correo.com")).thenReturn(Optional.empty());
+        when(userRepository.findRoleByEmail("degradado@correo.com"))
+                .thenReturn(Optional.of(User.builder().email("degradado@correo.com").type(UserType.CLIENTE).build()));
+
+        assertNull(authenticate(tokenFor("borrado@correo.com", "ROLE_CLIENTE")));
+        assertNull(authenticate(tokenFor("degradado@correo.com", "ROLE_ADMIN")));
+    }
+
+    @Test
+    void doFilter_verifiesTheSignatureOnlyOncePerToken() throws Exception {
+        when(userRepository.findRoleByEmail("ana@correo.com"))
+                .thenReturn(Optional.of(User.builder().email("ana@correo.com").type(UserType.CLIENTE).build()));
+        String token = tokenFor("ana@correo.com", "ROLE_CLIENTE");
+
+        authenticate(token);
+        authenticate(token);
+        authenticate(token);
+
+        TokenCacheStatsResponse stats = tokenProvider.stats();
+        assertEquals(1, stats.getVerifications());
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    void doFilter_neverCachesTokensWithAnInvalidSignature() throws Exception {
+        String forged = new JwtTokenProvider("otra-clave-de-prueba-de-al-menos-32-caracteres", 60_000L, 100)
+                .generateToken(new UsernamePasswordAuthenticationToken(
+                        "ana@correo.com", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+
+        assertNull(authenticate(forged));
+        assertNull(authenticate(forged));
+
+        assertEquals(2, tokenProvider.stats().getVerifications());
+        assertEquals(0, tokenProvider.stats().getSize());
+        verify(userRepository, never()).findRoleByEmail(anyString());
+    }
+
+    @Test
+    void doFilter_rejectsTokensOfRevokedSessionsAndOnlyConfirmsFilterHits() throws Exception {
+        when(userRepository.findRoleByEmail("ana@correo.com"))
+                .thenReturn(Optional.of(User.builder().email("ana@correo.com").type(UserType.CLIENTE).build()));
+        when(refreshTokenRepository.existsByFamilyIdAndRevokedAtIsNotNull("sesion-cerrada")).thenReturn(true);
+        String open = tokenProvider.generateToken("ana@correo.com", "ROLE_CLIENTE", "sesion-abierta");
+        String closed = tokenProvider.generateToken("ana@correo.com", "ROLE_CLIENTE", "sesion-cerrada");
+
+        revokedSessions.revoke("sesion-cerrada");
+
+        assertNotNull(authenticate(open));
+        assertNull(authenticate(closed));
+        verify(refreshTokenRepository, never()).existsByFamilyIdAndRevokedAtIsNotNull("sesion-abierta");
+    }
+}
@@ -0,0 +1,22 @@
+package com.reserve.events.security.password;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BcryptStrengthCalibratorTest {
+
+    @Test
+    void median_ignoresASingleSlowOrFastRun() {
+        assertEquals(60, BcryptStrengthCalibrator.median(new long[]{61, 400, 60, 2, 59}));
+    }
+
+    @Test
+    void strengthFor_doublesTheTimePerPointAndStaysWithinTheBounds() {
+        long ms = 1_000_000;
+        // 60 ms a costo 10: 120 ms a 11 y 240 ms a 12; 480 ms a 13 ya pasa de 250 ms
+        assertEquals(12, BcryptStrengthCalibrator.strengthFor(60 * ms, 250 * ms, 10, 14));
+        assertEquals(14, BcryptStrengthCalibrator.strengthFor(ms, 250 * ms, 10, 14));
+        assertEquals(10, BcryptStrengthCalibrator.strengthFor(500 * ms, 250 * ms, 10, 14));
+    }
+}
@@ -0,0 +1,88 @@
+package com.reserve.events.security.password;
+
+import com.reserve.events.config.PasswordHashingConfig;
+import com.reserve.events.controllers.exception.PasswordHashingBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private static final int STRENGTH = 5;
+
+    private final BoundedPasswordEncoder encoder =
+            new BoundedPasswordEncoder(PasswordHashingConfig.delegatingEncoder(STRENGTH), 1, 1);
+
+    @AfterEach
+    void shutdown() {
+        encoder.shutdown();
+    }
+
+    @Test
+    void encode_prefixesTheAlgorithmAndMatchesTheCurrentHashWithoutUpgrade() {
+        String hash = encoder.encode("Secreta1!");
+
+        assertTrue(hash.startsWith("{bcrypt}$2a$05$"));
+        assertTrue(encoder.matches("Secreta1!", hash));
+        assertFalse(encoder.matches("otra", hash));
+        assertFalse(encoder.upgradeEncoding(hash));
+    }
+
+    @Test
+    void legacyAndWeakerHashesStillMatchButAreMarkedForUpgrade() {
+        String legacy = new BCryptPasswordEncoder(4).encode("Secreta1!");
+        String weaker = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("Secreta1!");
+
+        assertTrue(encoder.matches("Secreta1!", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+        assertTrue(encoder.matches("Secreta1!", weaker));
+        assertTrue(encoder.upgradeEncoding(weaker));
+    }
+
+    @Test
+    void whenThePoolAndQueueAreFull_rejectsInsteadOfWaiting() throws Exception {
+        CountDownLatch hashing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slow = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                hashing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+        BoundedPasswordEncoder bounded = new BoundedPasswordEncoder(slow, 1, 1);
+        ExecutorService requests = Executors.newFixedThreadPool(2);
+        try {
+            requests.submit(() -> bounded.encode("a"));
+            assertTrue(hashing.await(5, TimeUnit.SECONDS));
+            requests.submit(() -> bounded.encode("b"));
+            while (bounded.pending() < 2) {
+                Thread.onSpinWait();
+            }
+
+            assertThrows(PasswordHashingBusyException.class, () -> bounded.encode("c"));
+        } finally {
+            release.countDown();
+            requests.shutdown();
+            bounded.shutdown();
+        }
+    }
+}